@@ -0,0 +1,62 @@
+package com.flightapp.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "gateway.auth-client")
+@Data
+public class AuthClientProperties {
+
+    /**
+     * Base URL of auth-service; a service id is resolved through the load balancer
+     * Default: http://auth-service
+     */
+    private String baseUrl = "http://auth-service";
+
+    /**
+     * Time allowed to open a TCP connection to an auth-service instance
+     * Default: 2 seconds
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Time allowed between sending a request and reading its response
+     * Default: 3 seconds
+     */
+    private Duration responseTimeout = Duration.ofSeconds(3);
+
+    /**
+     * Keep-alive connections pooled across all auth-service instances
+     * Default: 200
+     */
+    private int maxConnections = 200;
+
+    /**
+     * Calls allowed to wait for a free pooled connection; beyond this they fail at once
+     * Default: 1000
+     */
+    private int pendingAcquireMaxCount = 1000;
+
+    /**
+     * How long a call may wait for a free pooled connection
+     * Default: 2 seconds
+     */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Idle connections are closed after this long
+     * Default: 30 seconds
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /**
+     * Connections are closed after this long even when busy, so traffic spreads to
+     * auth-service instances that joined after the pool filled
+     * Default: 5 minutes
+     */
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+}
@@ -0,0 +1,49 @@
+package com.flightapp.gateway.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+public class AuthWebClientConfig {
+
+    /**
+     * Connection pool for auth-service calls. Its active, idle and pending counts are
+     * published as reactor.netty.connection.provider.* metrics tagged name=auth-service.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider authServiceConnectionProvider(AuthClientProperties properties) {
+        return ConnectionProvider.builder("auth-service")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getMaxLifeTime())
+                .evictInBackground(properties.getMaxIdleTime())
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * WebClient for auth-service calls, shared by every request. The builder is the
+     * load-balanced one from {@link WebClientConfig}, so each call goes to an instance from Eureka.
+     */
+    @Bean
+    public WebClient authServiceWebClient(WebClient.Builder webClientBuilder,
+                                          ConnectionProvider authServiceConnectionProvider,
+                                          AuthClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(authServiceConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(properties.getResponseTimeout());
+        return webClientBuilder.clone()
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
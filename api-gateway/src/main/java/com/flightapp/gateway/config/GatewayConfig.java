@@ -1,10 +1,13 @@
 package com.flightapp.gateway.config;
 
+import com.flightapp.gateway.filter.EdgeResponseCache;
 import com.flightapp.gateway.filter.JwtAuthenticationFilter;
+import com.flightapp.gateway.filter.UserRateLimiter;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 
 @Configuration
 public class GatewayConfig {
@@ -15,62 +18,115 @@ public class GatewayConfig {
     private static final String NOTIFICATION_SERVICE_URI = "lb://notification-service";
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final UserRateLimiter userRateLimiter;
+    private final EdgeResponseCache edgeResponseCache;
 
-    public GatewayConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public GatewayConfig(JwtAuthenticationFilter jwtAuthenticationFilter, UserRateLimiter userRateLimiter,
+                         EdgeResponseCache edgeResponseCache) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.userRateLimiter = userRateLimiter;
+        this.edgeResponseCache = edgeResponseCache;
     }
 
     @Bean
     public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
         return builder.routes()
-                // Flight Service Routes - All secured with JWT
+                // Flight Service Routes - All secured with JWT and rate limited per user, reads cached at the edge
                 .route("flight-search", r -> r
                         .path("/api/flights/search")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("flight-search"))
+                                .filter(edgeResponseCache.forRoute("flight-search")))
+                        .uri(FLIGHT_SERVICE_URI))
+                .route("flight-calendar", r -> r
+                        .path("/api/flights/search/calendar")
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("flight-calendar")))
+                        .uri(FLIGHT_SERVICE_URI))
+                .route("flight-itineraries", r -> r
+                        .path("/api/flights/search/itineraries")
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("flight-itineraries")))
                         .uri(FLIGHT_SERVICE_URI))
                 .route("flight-add", r -> r
                         .path("/api/flights/add")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("flight-add")))
+                        .uri(FLIGHT_SERVICE_URI))
+                .route("flight-import", r -> r
+                        .path("/api/flights/import")
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("flight-import")))
+                        .uri(FLIGHT_SERVICE_URI))
+                .route("flight-inventory-by-id", r -> r
+                        .method(HttpMethod.GET).and().path("/api/flights/inventory/{id}")
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("flight-inventory-by-id"))
+                                .filter(edgeResponseCache.forRoute("flight-inventory-by-id")))
                         .uri(FLIGHT_SERVICE_URI))
                 .route("flight-inventory", r -> r
                         .path("/api/flights/inventory/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("flight-inventory")))
+                        .uri(FLIGHT_SERVICE_URI))
+                .route("flight-holds", r -> r
+                        .path("/api/flights/holds/**")
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("flight-holds")))
                         .uri(FLIGHT_SERVICE_URI))
 
-                // Booking Service Routes - All secured with JWT
+                // Booking Service Routes - All secured with JWT and rate limited per user
                 .route("booking-create", r -> r
                         .path("/api/bookings/book")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("booking-create")))
+                        .uri(BOOKING_SERVICE_URI))
+                .route("booking-group", r -> r
+                        .method(HttpMethod.POST).and().path("/api/bookings/group")
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("booking-group")))
                         .uri(BOOKING_SERVICE_URI))
                 .route("booking-cancel", r -> r
                         .path("/api/bookings/cancel/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("booking-cancel")))
                         .uri(BOOKING_SERVICE_URI))
                 .route("booking-get", r -> r
                         .path("/api/bookings/pnr/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("booking-get")))
                         .uri(BOOKING_SERVICE_URI))
                 .route("booking-history", r -> r
                         .path("/api/bookings/history/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("booking-history")))
+                        .uri(BOOKING_SERVICE_URI))
+                .route("booking-admin", r -> r
+                        .path("/api/bookings/admin/**")
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("booking-admin")))
                         .uri(BOOKING_SERVICE_URI))
 
-                // Notification Service Routes - Secured with JWT
+                // Notification Service Routes - Secured with JWT and rate limited per user
                 .route("notification-send", r -> r
                         .path("/api/notifications/send")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("notification-send")))
                         .uri(NOTIFICATION_SERVICE_URI))
                 .route("notification-customer", r -> r
                         .path("/api/notifications/customer/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("notification-customer")))
                         .uri(NOTIFICATION_SERVICE_URI))
                 .route("notification-all", r -> r
                         .path("/api/notifications/all")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("notification-all")))
                         .uri(NOTIFICATION_SERVICE_URI))
                 .route("notification-get", r -> r
                         .path("/api/notifications/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(userRateLimiter.forRoute("notification-get")))
                         .uri(NOTIFICATION_SERVICE_URI))
 
                 // Auth endpoints (for login/register/token generation) - Not secured
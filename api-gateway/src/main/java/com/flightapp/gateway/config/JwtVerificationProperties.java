@@ -0,0 +1,65 @@
+package com.flightapp.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "gateway.jwt")
+@Data
+public class JwtVerificationProperties {
+
+    /**
+     * Verify tokens in the gateway with the keys published by auth-service.
+     * When false, every token is validated by a call to auth-service
+     * Default: true
+     */
+    private boolean localVerification = true;
+
+    /**
+     * How often the signing keys are re-read from auth-service
+     * Default: 10m
+     */
+    private Duration keysRefreshInterval = Duration.ofMinutes(10);
+
+    /**
+     * How long a signing key is kept after auth-service last published it; match it to
+     * the token lifetime so tokens signed with a rotated-out key stay verifiable
+     * Default: 24h
+     */
+    private Duration keyRetention = Duration.ofHours(24);
+
+    /**
+     * Shortest gap between key reloads triggered by a token with an unknown key id
+     * Default: 30s
+     */
+    private Duration unknownKeyRefreshInterval = Duration.ofSeconds(30);
+
+    /**
+     * Oldest revocation set that is still trusted. auth-service re-publishes it every
+     * auth.revocation.publish-interval; past this age tokens are validated remotely
+     * Default: 90s
+     */
+    private Duration revocationMaxAge = Duration.ofSeconds(90);
+
+    /**
+     * Keep validated tokens in memory so repeated requests with the same token skip
+     * validation, and concurrent validations of one token share a single call
+     * Default: true
+     */
+    private boolean cacheEnabled = true;
+
+    /**
+     * Maximum number of tokens held in the validation cache
+     * Default: 10000
+     */
+    private long cacheSize = 10_000;
+
+    /**
+     * How long a validated token is cached, shortened to the token's own expiry
+     * Default: 60s
+     */
+    private Duration cacheTtl = Duration.ofSeconds(60);
+}
@@ -0,0 +1,40 @@
+package com.flightapp.gateway.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    public static final String REVOCATION_EXCHANGE = "auth.revocation.exchange";
+
+    @Bean
+    public FanoutExchange revocationExchange() {
+        return new FanoutExchange(REVOCATION_EXCHANGE);
+    }
+
+    // One auto-deleted queue per gateway instance, so each instance gets every revocation set
+    @Bean
+    public Queue revocationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding revocationBinding() {
+        return BindingBuilder
+                .bind(revocationQueue())
+                .to(revocationExchange());
+    }
+
+    @Bean
+    public MessageConverter jsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+}
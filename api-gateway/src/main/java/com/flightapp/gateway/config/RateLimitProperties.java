@@ -0,0 +1,57 @@
+package com.flightapp.gateway.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+@Data
+public class RateLimitProperties {
+
+    /**
+     * Throttle each user's requests on the secured routes
+     * Default: true
+     */
+    private boolean enabled = true;
+
+    /**
+     * Buckets per route. Users are hashed onto them, so two users share a bucket
+     * only on a collision; more stripes make that rarer at 8 bytes each
+     * Default: 4096
+     */
+    private int stripes = 4096;
+
+    /**
+     * Limit for routes without an entry in routes
+     * Default: 20 requests per second, bursts of 40
+     */
+    private Limit defaultLimit = new Limit(20, 40);
+
+    /**
+     * Limits per route id, replacing the default limit for that route
+     * Default: flight-search=5 requests per second, bursts of 10
+     */
+    private Map<String, Limit> routes = new LinkedHashMap<>(Map.of("flight-search", new Limit(5, 10)));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        /**
+         * Sustained requests per second for one user; 0 turns the limit off
+         */
+        private double requestsPerSecond;
+
+        /**
+         * Requests one user may send at once before being held to the sustained rate
+         */
+        private int burst;
+    }
+}
@@ -0,0 +1,43 @@
+package com.flightapp.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "gateway.response-cache")
+@Data
+public class ResponseCacheProperties {
+
+    /**
+     * Serve responses of the routes listed in routes from the gateway's memory
+     * Default: true
+     */
+    private boolean enabled = true;
+
+    /**
+     * Total size of the cached response bodies; least recently used entries are evicted beyond it
+     * Default: 32MB
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+
+    /**
+     * Larger responses are passed through without being cached
+     * Default: 256KB
+     */
+    private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+
+    /**
+     * How long a response is reused, per route id. Routes not listed here, or
+     * listed with 0s, are never cached
+     * Default: flight-search=10s, flight-inventory-by-id=5s
+     */
+    private Map<String, Duration> routes = new LinkedHashMap<>(Map.of(
+            "flight-search", Duration.ofSeconds(10),
+            "flight-inventory-by-id", Duration.ofSeconds(5)));
+}
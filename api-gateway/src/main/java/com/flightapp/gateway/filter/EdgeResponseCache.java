@@ -0,0 +1,249 @@
+package com.flightapp.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.flightapp.gateway.config.ResponseCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Caches successful responses of read-only routes in the gateway, so repeated flight
+ * searches and inventory reads are answered without a call to flight-service.
+ * {@link #forRoute(String)} gives the filter for one route; it only caches when the
+ * route has a TTL under gateway.response-cache.routes.
+ * <p>
+ * Entries are keyed on method, path, query and, for a POST, a SHA-256 of the JSON
+ * body with its fields sorted, so formatting and field order do not split the cache.
+ * Every cached response carries an ETag, and a request whose If-None-Match names it
+ * gets a 304. The cache is bounded by the total size of the bodies it holds.
+ * <p>
+ * Hit and miss counts are published as the cache.* metrics tagged cache=gatewayResponses,
+ * with gateway.response.cache.bytes and gateway.response.cache.not.modified.
+ */
+@Component
+public class EdgeResponseCache {
+
+    public static final String CACHE_HEADER = "X-Gateway-Cache";
+
+    private static final ObjectMapper CANONICAL_JSON = JsonMapper.builder()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    private final ResponseCacheProperties properties;
+    private final Cache<String, CachedResponse> cache;
+    private final Counter notModified;
+
+    public EdgeResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse response) -> key.length() + response.body().length)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return response.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return response.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayResponses");
+        Gauge.builder("gateway.response.cache.bytes", cache,
+                        c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .description("Size of the response bodies held by the edge cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.notModified = Counter.builder("gateway.response.cache.not.modified")
+                .description("Requests answered with 304 because their If-None-Match named the current ETag")
+                .register(meterRegistry);
+    }
+
+    public GatewayFilter forRoute(String routeId) {
+        return (exchange, chain) -> {
+            Duration ttl = properties.getRoutes().get(routeId);
+            HttpMethod method = exchange.getRequest().getMethod();
+            if (!properties.isEnabled() || ttl == null || ttl.isZero() || ttl.isNegative()) {
+                return chain.filter(exchange);
+            }
+            if (HttpMethod.GET.equals(method)) {
+                return serve(exchange, chain, key(exchange.getRequest(), null), ttl);
+            }
+            if (!HttpMethod.POST.equals(method)) {
+                return chain.filter(exchange);
+            }
+            return ServerWebExchangeUtils.cacheRequestBody(exchange, request -> {
+                DataBuffer body = exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR);
+                return serve(exchange.mutate().request(request).build(), chain, key(request, body), ttl);
+            });
+        };
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, GatewayFilterChain chain, String key, Duration ttl) {
+        ServerHttpRequest request = exchange.getRequest();
+        String cacheControl = request.getHeaders().getCacheControl();
+        if (cacheControl == null || !cacheControl.contains("no-cache")) {
+            CachedResponse cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return writeCached(exchange, cached);
+            }
+        }
+
+        int maxEntryBytes = (int) properties.getMaxEntrySize().toBytes();
+        ServerHttpResponse recording = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpHeaders headers = getHeaders();
+                if (!HttpStatus.OK.equals(getStatusCode()) || !storable(headers, maxEntryBytes)) {
+                    return super.writeWith(body);
+                }
+                return Flux.from(body).collectList().flatMap(buffers -> {
+                    int size = buffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
+                    if (size > maxEntryBytes) {
+                        return super.writeWith(Flux.fromIterable(buffers));
+                    }
+                    byte[] bytes = new byte[size];
+                    int position = 0;
+                    for (DataBuffer buffer : buffers) {
+                        int length = buffer.readableByteCount();
+                        buffer.read(bytes, position, length);
+                        position += length;
+                        DataBufferUtils.release(buffer);
+                    }
+                    CachedResponse response = new CachedResponse(bytes, headers.getContentType(), eTag(bytes), ttl.toNanos());
+                    cache.put(key, response);
+
+                    headers.setETag(response.eTag());
+                    headers.set(CACHE_HEADER, "MISS");
+                    if (matches(request, response.eTag())) {
+                        notModified.increment();
+                        setStatusCode(HttpStatus.NOT_MODIFIED);
+                        headers.remove(HttpHeaders.CONTENT_LENGTH);
+                        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+                        return getDelegate().setComplete();
+                    }
+                    headers.remove(HttpHeaders.TRANSFER_ENCODING);
+                    headers.setContentLength(bytes.length);
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+            }
+        };
+        return chain.filter(exchange.mutate().response(recording).build());
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.eTag());
+        headers.set(CACHE_HEADER, "HIT");
+        if (matches(exchange.getRequest(), cached.eTag())) {
+            notModified.increment();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.contentType() != null) {
+            headers.setContentType(cached.contentType());
+        }
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    // Upstream may opt out, and a declared length lets big responses skip buffering
+    private static boolean storable(HttpHeaders headers, int maxEntryBytes) {
+        List<String> cacheControl = headers.getOrEmpty(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl.stream().anyMatch(value -> value.contains("no-store") || value.contains("private"))) {
+            return false;
+        }
+        return headers.getContentLength() <= maxEntryBytes;
+    }
+
+    private static boolean matches(ServerHttpRequest request, String eTag) {
+        for (String candidate : request.getHeaders().getIfNoneMatch()) {
+            if ("*".equals(candidate) || eTag.equals(candidate) || ("W/" + eTag).equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String key(ServerHttpRequest request, DataBuffer body) {
+        StringBuilder key = new StringBuilder()
+                .append(request.getMethod().name())
+                .append(' ')
+                .append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        if (body != null) {
+            ByteBuffer bytes = ByteBuffer.allocate(body.readableByteCount());
+            body.toByteBuffer(body.readPosition(), bytes, 0, bytes.capacity());
+            key.append(' ').append(Base64.getUrlEncoder().withoutPadding().encodeToString(sha256(canonical(bytes.array()))));
+        }
+        return key.toString();
+    }
+
+    private static byte[] canonical(byte[] body) {
+        try {
+            return CANONICAL_JSON.writeValueAsBytes(CANONICAL_JSON.readValue(body, Object.class));
+        } catch (Exception e) {
+            // Not JSON: only byte-identical bodies share an entry
+            return body;
+        }
+    }
+
+    private static String eTag(byte[] body) {
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(sha256(body), 16)) + "\"";
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record CachedResponse(byte[] body, MediaType contentType, String eTag, long ttlNanos) {
+    }
+}
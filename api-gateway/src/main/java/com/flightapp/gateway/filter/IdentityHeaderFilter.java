@@ -0,0 +1,42 @@
+package com.flightapp.gateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Removes X-User-Name and X-User-Role from every incoming request before any route
+ * filter runs. Downstream services trust these headers for ownership and admin checks,
+ * so only {@link JwtAuthenticationFilter} may set them, from a validated token; a
+ * route without the JWT filter forwards the request with neither.
+ */
+@Component
+public class IdentityHeaderFilter implements GlobalFilter, Ordered {
+
+    public static final String USER_NAME_HEADER = "X-User-Name";
+    public static final String USER_ROLE_HEADER = "X-User-Role";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!request.getHeaders().containsKey(USER_NAME_HEADER) && !request.getHeaders().containsKey(USER_ROLE_HEADER)) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest stripped = request.mutate()
+                .headers(headers -> {
+                    headers.remove(USER_NAME_HEADER);
+                    headers.remove(USER_ROLE_HEADER);
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(stripped).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -2,6 +2,10 @@ package com.flightapp.gateway.filter;
 
 import com.flightapp.gateway.dto.ValidateTokenRequest;
 import com.flightapp.gateway.dto.ValidateTokenResponse;
+import com.flightapp.gateway.security.LocalJwtVerifier;
+import com.flightapp.gateway.security.TokenValidationCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -17,11 +21,25 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class JwtAuthenticationFilter implements GatewayFilter {
 
-    private final WebClient.Builder webClientBuilder;
-    private static final String AUTH_SERVICE_URL = "http://auth-service";
+    private final WebClient authServiceWebClient;
+    private final LocalJwtVerifier localJwtVerifier;
+    private final TokenValidationCache tokenValidationCache;
+    private final Counter localValidations;
+    private final Counter remoteValidations;
 
-    public JwtAuthenticationFilter(WebClient.Builder webClientBuilder) {
-        this.webClientBuilder = webClientBuilder;
+    public JwtAuthenticationFilter(WebClient authServiceWebClient, LocalJwtVerifier localJwtVerifier,
+                                   TokenValidationCache tokenValidationCache, MeterRegistry meterRegistry) {
+        this.authServiceWebClient = authServiceWebClient;
+        this.localJwtVerifier = localJwtVerifier;
+        this.tokenValidationCache = tokenValidationCache;
+        this.localValidations = Counter.builder("gateway.jwt.validations")
+                .tag("mode", "local")
+                .description("Tokens verified in the gateway")
+                .register(meterRegistry);
+        this.remoteValidations = Counter.builder("gateway.jwt.validations")
+                .tag("mode", "remote")
+                .description("Tokens validated by a call to auth-service")
+                .register(meterRegistry);
     }
 
     @Override
@@ -41,8 +59,13 @@ public class JwtAuthenticationFilter implements GatewayFilter {
 
         String token = authHeader.substring(7);
 
-        // Call auth-service to validate token
-        return validateTokenWithAuthService(token)
+        // Verify locally when possible, otherwise call auth-service to validate token
+        return tokenValidationCache.get(token, () -> localJwtVerifier.verify(token)
+                        .doOnNext(response -> localValidations.increment())
+                        .switchIfEmpty(Mono.defer(() -> {
+                            remoteValidations.increment();
+                            return validateTokenWithAuthService(token);
+                        })))
                 .flatMap(response -> {
                     if (Boolean.TRUE.equals(response.getValid())) {
                         log.info("Token validated successfully for user: {} with role: {}",
@@ -70,9 +93,8 @@ public class JwtAuthenticationFilter implements GatewayFilter {
                 .token(token)
                 .build();
 
-        return webClientBuilder.build()
-                .post()
-                .uri(AUTH_SERVICE_URL + "/api/auth/validate")
+        return authServiceWebClient.post()
+                .uri("/api/auth/validate")
                 .bodyValue(request)
                 .retrieve()
                 .bodyToMono(ValidateTokenResponse.class)
@@ -0,0 +1,109 @@
+package com.flightapp.gateway.filter;
+
+import com.flightapp.gateway.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token-bucket limit per user and route, held in the gateway's memory. It needs no
+ * shared store, so each gateway instance enforces the limit on its own share of traffic.
+ * {@link #forRoute(String)} gives the filter for one route; it goes after
+ * {@link JwtAuthenticationFilter}, which sets the X-User-Name it keys on.
+ * <p>
+ * Each route has a fixed array of buckets and users are hashed onto them. A bucket
+ * is a single long, the time at which it will be full again (GCRA), updated with a
+ * compare-and-set, so checking a request takes no lock and allocates nothing.
+ * Rejected requests get a 429 with Retry-After and are counted in
+ * gateway.ratelimit.rejected, tagged by route.
+ */
+@Component
+@Slf4j
+public class UserRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    // Keeps bucket times non-negative however System.nanoTime() is based
+    private final long origin = System.nanoTime();
+
+    public UserRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public GatewayFilter forRoute(String routeId) {
+        RateLimitProperties.Limit limit = properties.getRoutes().getOrDefault(routeId, properties.getDefaultLimit());
+        if (limit == null || limit.getRequestsPerSecond() <= 0) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+        Buckets buckets = new Buckets(properties.getStripes(), limit);
+        Counter rejected = Counter.builder("gateway.ratelimit.rejected")
+                .tag("route", routeId)
+                .description("Requests refused with 429 because the user exceeded the route's rate limit")
+                .register(meterRegistry);
+
+        return (exchange, chain) -> {
+            String username = exchange.getRequest().getHeaders().getFirst("X-User-Name");
+            if (!properties.isEnabled() || username == null) {
+                return chain.filter(exchange);
+            }
+            long waitNanos = buckets.acquire(username.hashCode(), System.nanoTime() - origin);
+            if (waitNanos == 0) {
+                return chain.filter(exchange);
+            }
+
+            rejected.increment();
+            log.debug("Rate limit exceeded for user {} on route {}", username, routeId);
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                    Long.toString(Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+            return response.setComplete();
+        };
+    }
+
+    static final class Buckets {
+
+        private final AtomicLongArray theoreticalArrival;
+        private final int mask;
+        // Nanoseconds between two requests at the sustained rate
+        private final long interval;
+        // How far ahead of now a bucket may run, i.e. the burst beyond the first request
+        private final long tolerance;
+
+        Buckets(int stripes, RateLimitProperties.Limit limit) {
+            int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+            this.theoreticalArrival = new AtomicLongArray(size);
+            this.mask = size - 1;
+            this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / limit.getRequestsPerSecond()));
+            this.tolerance = interval * Math.max(0, limit.getBurst() - 1);
+        }
+
+        /**
+         * Takes a token for the key at time now (nanoseconds). Returns 0 when granted,
+         * otherwise the nanoseconds until a token will be available.
+         */
+        long acquire(int hash, long now) {
+            int stripe = (hash ^ (hash >>> 16)) & mask;
+            while (true) {
+                long arrival = theoreticalArrival.get(stripe);
+                long start = Math.max(arrival, now);
+                long wait = start - now - tolerance;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(stripe, arrival, start + interval)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.flightapp.gateway.security;
+
+import com.flightapp.gateway.config.JwtVerificationProperties;
+import com.flightapp.gateway.dto.ValidateTokenResponse;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.security.Key;
+import java.security.PublicKey;
+
+/**
+ * Checks a token's signature, expiry and revocation in the gateway, without a call
+ * to auth-service. Emits nothing when it cannot decide, and the caller then falls
+ * back to remote validation: local verification is off, the revocation set is
+ * stale, the token's key is unknown, or the token lacks the claims the gateway forwards.
+ */
+@Component
+public class LocalJwtVerifier {
+
+    private final SigningKeyRegistry keys;
+    private final RevocationRegistry revocations;
+    private final JwtVerificationProperties properties;
+    private final JwtParser parser;
+
+    public LocalJwtVerifier(SigningKeyRegistry keys, RevocationRegistry revocations,
+                            JwtVerificationProperties properties) {
+        this.keys = keys;
+        this.revocations = revocations;
+        this.properties = properties;
+        this.parser = Jwts.parser().keyLocator(this::locateKey).build();
+    }
+
+    public Mono<ValidateTokenResponse> verify(String token) {
+        if (!properties.isLocalVerification() || !revocations.isFresh()) {
+            return Mono.empty();
+        }
+        try {
+            return Mono.justOrEmpty(verifyNow(token));
+        } catch (UnknownSigningKeyException e) {
+            if (e.getKeyId() == null) {
+                return Mono.empty();
+            }
+            return keys.refreshForUnknownKey()
+                    .filter(Boolean::booleanValue)
+                    .flatMap(reloaded -> Mono.fromCallable(() -> verifyNow(token)))
+                    .onErrorResume(UnknownSigningKeyException.class, ex -> Mono.empty());
+        }
+    }
+
+    private ValidateTokenResponse verifyNow(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (ExpiredJwtException e) {
+            return invalid("Token has expired");
+        } catch (JwtException | IllegalArgumentException e) {
+            return invalid("Invalid token");
+        }
+
+        String username = claims.getSubject();
+        String role = claims.get("role", String.class);
+        if (username == null || role == null) {
+            return null;
+        }
+        if (revocations.isRevoked(username, claims.getId())) {
+            return invalid("Token has been revoked");
+        }
+        return ValidateTokenResponse.builder()
+                .valid(true)
+                .username(username)
+                .role(role)
+                .message("Token is valid")
+                .build();
+    }
+
+    private Key locateKey(Header header) {
+        String keyId = header instanceof JwsHeader jws ? jws.getKeyId() : null;
+        PublicKey key = keys.find(keyId);
+        if (key == null) {
+            throw new UnknownSigningKeyException(keyId);
+        }
+        return key;
+    }
+
+    private static ValidateTokenResponse invalid(String message) {
+        return ValidateTokenResponse.builder()
+                .valid(false)
+                .message(message)
+                .build();
+    }
+}
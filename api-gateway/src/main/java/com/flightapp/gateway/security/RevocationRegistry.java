@@ -0,0 +1,86 @@
+package com.flightapp.gateway.security;
+
+import com.flightapp.gateway.config.JwtVerificationProperties;
+import com.flightapp.gateway.dto.RevocationSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The latest revocation set pushed by auth-service: disabled users and the ids of
+ * tokens revoked before their expiry. It is only trusted while it is recent; if
+ * the pushes stop (auth-service or RabbitMQ down) the gateway goes back to
+ * validating every token remotely rather than miss a revocation.
+ */
+@Component
+@Slf4j
+public class RevocationRegistry {
+
+    private final JwtVerificationProperties properties;
+
+    private volatile Snapshot current;
+
+    public RevocationRegistry(JwtVerificationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("gateway.jwt.revocations", this, registry -> {
+                    Snapshot snapshot = registry.current;
+                    return snapshot == null ? 0 : snapshot.disabledUsers().size() + snapshot.revokedTokenIds().size();
+                })
+                .description("Entries in the revocation set pushed by auth-service")
+                .register(meterRegistry);
+        Gauge.builder("gateway.jwt.revocations.age", this, RevocationRegistry::ageSeconds)
+                .description("Seconds since the last revocation set was received")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @RabbitListener(queues = "#{revocationQueue.name}")
+    public void onSnapshot(RevocationSnapshot snapshot) {
+        if (snapshot.getGeneratedAt() == null) {
+            return;
+        }
+        Snapshot previous = current;
+        // Several auth-service instances publish; skip one that read the database before the set we hold
+        if (previous != null && isFresh(previous) && snapshot.getGeneratedAt() < previous.generatedAt()) {
+            return;
+        }
+        current = new Snapshot(snapshot.getGeneratedAt(), System.nanoTime(),
+                Set.copyOf(orEmpty(snapshot.getDisabledUsers())),
+                Set.copyOf(orEmpty(snapshot.getRevokedTokenIds())));
+        log.debug("Revocation set received: {} disabled users, {} revoked tokens",
+                current.disabledUsers().size(), current.revokedTokenIds().size());
+    }
+
+    public boolean isFresh() {
+        Snapshot snapshot = current;
+        return snapshot != null && isFresh(snapshot);
+    }
+
+    public boolean isRevoked(String username, String tokenId) {
+        Snapshot snapshot = current;
+        return snapshot != null
+                && (snapshot.disabledUsers().contains(username)
+                || (tokenId != null && snapshot.revokedTokenIds().contains(tokenId)));
+    }
+
+    private boolean isFresh(Snapshot snapshot) {
+        return System.nanoTime() - snapshot.receivedNanos() < properties.getRevocationMaxAge().toNanos();
+    }
+
+    private double ageSeconds() {
+        Snapshot snapshot = current;
+        return snapshot == null ? -1 : (System.nanoTime() - snapshot.receivedNanos()) / 1e9;
+    }
+
+    private static List<String> orEmpty(List<String> values) {
+        return values == null ? List.of() : values;
+    }
+
+    private record Snapshot(long generatedAt, long receivedNanos, Set<String> disabledUsers, Set<String> revokedTokenIds) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.flightapp.gateway.security;
+
+import com.flightapp.gateway.config.JwtVerificationProperties;
+import com.flightapp.gateway.dto.JwtKeySet;
+import com.flightapp.gateway.dto.JwtPublicKey;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Public keys auth-service signs tokens with, by key id. Loaded at startup, re-read
+ * on an interval, and re-read early (rate limited) when a token names a key that is
+ * not here yet, e.g. right after auth-service rotated its key.
+ * <p>
+ * Each read reaches one auth-service instance, and during a rotation instances may
+ * publish different sets, so keys are merged rather than replaced: a key is only
+ * dropped once no read has returned it for gateway.jwt.key-retention.
+ */
+@Component
+@Slf4j
+public class SigningKeyRegistry {
+
+    private static final String SUPPORTED_ALGORITHM = "RS256";
+
+    private final WebClient authServiceWebClient;
+    private final JwtVerificationProperties properties;
+    private final AtomicLong lastUnknownKeyRefresh;
+
+    private final Map<String, KnownKey> keys = new ConcurrentHashMap<>();
+    private Disposable refresher;
+
+    public SigningKeyRegistry(WebClient authServiceWebClient, JwtVerificationProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.authServiceWebClient = authServiceWebClient;
+        this.properties = properties;
+        this.lastUnknownKeyRefresh = new AtomicLong(System.nanoTime() - properties.getUnknownKeyRefreshInterval().toNanos());
+        Gauge.builder("gateway.jwt.keys", this, registry -> registry.keys.size())
+                .description("Token signing keys known to the gateway")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isLocalVerification()) {
+            log.info("Local JWT verification disabled, tokens will be validated by auth-service");
+            return;
+        }
+        Duration interval = properties.getKeysRefreshInterval();
+        refresher = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    public PublicKey find(String keyId) {
+        KnownKey known = keyId == null ? null : keys.get(keyId);
+        return known == null ? null : known.publicKey();
+    }
+
+    public Mono<Void> refresh() {
+        return authServiceWebClient.get()
+                .uri("/api/auth/keys")
+                .retrieve()
+                .bodyToMono(JwtKeySet.class)
+                .doOnNext(this::update)
+                .doOnError(e -> log.warn("Failed to load signing keys from auth-service: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    /**
+     * Reloads the keys because a token named an unknown key id, unless that was
+     * already done within gateway.jwt.unknown-key-refresh-interval. Emits whether a reload ran.
+     */
+    public Mono<Boolean> refreshForUnknownKey() {
+        long now = System.nanoTime();
+        long last = lastUnknownKeyRefresh.get();
+        if (now - last < properties.getUnknownKeyRefreshInterval().toNanos()
+                || !lastUnknownKeyRefresh.compareAndSet(last, now)) {
+            return Mono.just(false);
+        }
+        return refresh().thenReturn(true);
+    }
+
+    public void update(JwtKeySet keySet) {
+        long now = System.nanoTime();
+        Map<String, PublicKey> loaded = new HashMap<>();
+        if (keySet.getKeys() != null) {
+            for (JwtPublicKey key : keySet.getKeys()) {
+                if (!SUPPORTED_ALGORITHM.equals(key.getAlgorithm())) {
+                    log.warn("Ignoring signing key {} with unsupported algorithm {}", key.getKid(), key.getAlgorithm());
+                    continue;
+                }
+                try {
+                    loaded.put(key.getKid(), KeyFactory.getInstance("RSA")
+                            .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(key.getPublicKey()))));
+                } catch (GeneralSecurityException | IllegalArgumentException e) {
+                    log.warn("Ignoring unreadable signing key {}: {}", key.getKid(), e.getMessage());
+                }
+            }
+        }
+        loaded.forEach((kid, publicKey) -> {
+            if (keys.put(kid, new KnownKey(publicKey, now)) == null) {
+                log.info("Signing key {} loaded", kid);
+            }
+        });
+        long retentionNanos = properties.getKeyRetention().toNanos();
+        keys.entrySet().removeIf(entry -> {
+            boolean expired = now - entry.getValue().lastSeenNanos() > retentionNanos;
+            if (expired) {
+                log.info("Signing key {} dropped, not published for {}", entry.getKey(), properties.getKeyRetention());
+            }
+            return expired;
+        });
+    }
+
+    private record KnownKey(PublicKey publicKey, long lastSeenNanos) {
+    }
+}
@@ -0,0 +1,152 @@
+package com.flightapp.gateway.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.gateway.config.JwtVerificationProperties;
+import com.flightapp.gateway.dto.ValidateTokenResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Successful validations keyed by a SHA-256 of the token, so the raw token is never
+ * held. An entry lives for gateway.jwt.cache-ttl or until the token's exp, whichever
+ * comes first, and a hit is dropped once the revocation set lists the token or its
+ * user. Concurrent misses for one token share a single validation.
+ * <p>
+ * Hit and miss counts are published as the cache.* metrics tagged cache=tokenValidation,
+ * with gateway.jwt.cache.hit.ratio, gateway.jwt.cache.coalesced and gateway.jwt.cache.inflight.
+ */
+@Component
+public class TokenValidationCache {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final JwtVerificationProperties properties;
+    private final RevocationRegistry revocations;
+    private final Cache<String, Entry> cache;
+    private final Map<String, Mono<ValidateTokenResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public TokenValidationCache(JwtVerificationProperties properties, RevocationRegistry revocations,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.revocations = revocations;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tokenValidation");
+        Gauge.builder("gateway.jwt.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of token lookups answered from the validation cache")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("gateway.jwt.cache.coalesced")
+                .description("Token validations that joined one already in flight for the same token")
+                .register(meterRegistry);
+        Gauge.builder("gateway.jwt.cache.inflight", inFlight, Map::size)
+                .description("Distinct tokens being validated right now")
+                .register(meterRegistry);
+    }
+
+    public Mono<ValidateTokenResponse> get(String token, Supplier<Mono<ValidateTokenResponse>> validator) {
+        if (!properties.isCacheEnabled()) {
+            return validator.get();
+        }
+        return Mono.defer(() -> {
+            String key = hash(token);
+            Entry cached = cache.getIfPresent(key);
+            if (cached != null) {
+                if (!revocations.isRevoked(cached.response().getUsername(), cached.tokenId())) {
+                    return Mono.just(cached.response());
+                }
+                cache.invalidate(key);
+            }
+
+            boolean[] started = new boolean[1];
+            Mono<ValidateTokenResponse> shared = inFlight.computeIfAbsent(key, k -> {
+                started[0] = true;
+                return validator.get()
+                        .doOnNext(response -> store(k, token, response))
+                        .doFinally(signal -> inFlight.remove(k))
+                        .cache();
+            });
+            if (!started[0]) {
+                coalesced.increment();
+            }
+            return shared;
+        });
+    }
+
+    private void store(String key, String token, ValidateTokenResponse response) {
+        if (!Boolean.TRUE.equals(response.getValid())) {
+            return;
+        }
+        JsonNode claims = claims(token);
+        long ttlMillis = properties.getCacheTtl().toMillis();
+        JsonNode exp = claims == null ? null : claims.get("exp");
+        if (exp != null && exp.canConvertToLong()) {
+            ttlMillis = Math.min(ttlMillis, exp.asLong() * 1000 - System.currentTimeMillis());
+        }
+        if (ttlMillis <= 0) {
+            return;
+        }
+        JsonNode jti = claims == null ? null : claims.get("jti");
+        cache.put(key, new Entry(response, jti == null ? null : jti.asText(), ttlMillis * 1_000_000));
+    }
+
+    // The signature was checked by whoever validated the token; only exp and jti are read here
+    private static JsonNode claims(String token) {
+        int first = token.indexOf('.');
+        int second = token.indexOf('.', first + 1);
+        if (first < 0 || second < 0) {
+            return null;
+        }
+        try {
+            return JSON.readTree(Base64.getUrlDecoder().decode(token.substring(first + 1, second)));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(ValidateTokenResponse response, String tokenId, long ttlNanos) {
+    }
+}
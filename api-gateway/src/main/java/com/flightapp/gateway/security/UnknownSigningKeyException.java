@@ -0,0 +1,19 @@
+package com.flightapp.gateway.security;
+
+/**
+ * The token names a key id the gateway has not loaded (or none at all, for tokens
+ * signed with the old shared secret), so it cannot be verified locally.
+ */
+public class UnknownSigningKeyException extends RuntimeException {
+
+    private final String keyId;
+
+    public UnknownSigningKeyException(String keyId) {
+        super("Unknown signing key: " + keyId);
+        this.keyId = keyId;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+}
@@ -0,0 +1,146 @@
+package com.flightapp.gateway;
+
+import com.flightapp.gateway.config.JwtVerificationProperties;
+import com.flightapp.gateway.dto.ValidateTokenResponse;
+import com.flightapp.gateway.filter.JwtAuthenticationFilter;
+import com.flightapp.gateway.security.LocalJwtVerifier;
+import com.flightapp.gateway.security.RevocationRegistry;
+import com.flightapp.gateway.security.TokenValidationCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private LocalJwtVerifier localJwtVerifier;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger remoteCalls;
+    private AtomicReference<String> remoteResponse;
+    private AtomicReference<ServerWebExchange> forwarded;
+    private GatewayFilterChain chain;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        remoteCalls = new AtomicInteger();
+        remoteResponse = new AtomicReference<>(
+                "{\"valid\":true,\"username\":\"john\",\"role\":\"USER\",\"message\":\"Token is valid\"}");
+        WebClient authServiceWebClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    remoteCalls.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(remoteResponse.get())
+                            .build());
+                })
+                .build();
+        JwtVerificationProperties properties = new JwtVerificationProperties();
+        properties.setCacheEnabled(false);
+        TokenValidationCache cache = new TokenValidationCache(properties,
+                new RevocationRegistry(properties, meterRegistry), meterRegistry);
+        filter = new JwtAuthenticationFilter(authServiceWebClient, localJwtVerifier, cache, meterRegistry);
+
+        forwarded = new AtomicReference<>();
+        chain = exchange -> {
+            forwarded.set(exchange);
+            return Mono.empty();
+        };
+    }
+
+    private static MockServerWebExchange exchange(String authorization) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/bookings/history/john");
+        if (authorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private double validations(String mode) {
+        return meterRegistry.get("gateway.jwt.validations").tag("mode", mode).counter().count();
+    }
+
+    @Test
+    void testFilter_LocallyVerifiedTokenForwardedWithIdentity() {
+        when(localJwtVerifier.verify("token")).thenReturn(Mono.just(ValidateTokenResponse.builder()
+                .valid(true).username("john").role("ADMIN").build()));
+
+        StepVerifier.create(filter.filter(exchange("Bearer token"), chain)).verifyComplete();
+
+        HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+        assertEquals("john", headers.getFirst("X-User-Name"));
+        assertEquals("ADMIN", headers.getFirst("X-User-Role"));
+        assertEquals(0, remoteCalls.get());
+        assertEquals(1.0, validations("local"));
+    }
+
+    @Test
+    void testFilter_FallsBackToAuthServiceWhenLocalCannotDecide() {
+        when(localJwtVerifier.verify(anyString())).thenReturn(Mono.empty());
+
+        StepVerifier.create(filter.filter(exchange("Bearer token"), chain)).verifyComplete();
+
+        assertEquals(1, remoteCalls.get());
+        assertEquals("john", forwarded.get().getRequest().getHeaders().getFirst("X-User-Name"));
+        assertEquals(1.0, validations("remote"));
+    }
+
+    @Test
+    void testFilter_TokenRejectedByAuthServiceGets401() {
+        when(localJwtVerifier.verify(anyString())).thenReturn(Mono.empty());
+        remoteResponse.set("{\"valid\":false,\"message\":\"Token has been revoked\"}");
+        MockServerWebExchange exchange = exchange("Bearer token");
+
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+    }
+
+    @Test
+    void testFilter_TokenRejectedLocallyNeverReachesAuthService() {
+        when(localJwtVerifier.verify(anyString())).thenReturn(Mono.just(ValidateTokenResponse.builder()
+                .valid(false).message("Token has expired").build()));
+        MockServerWebExchange exchange = exchange("Bearer token");
+
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertEquals(0, remoteCalls.get());
+        assertNull(forwarded.get());
+    }
+
+    @Test
+    void testFilter_MissingBearerTokenGets401() {
+        MockServerWebExchange exchange = exchange(null);
+
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        verifyNoInteractions(localJwtVerifier);
+    }
+}
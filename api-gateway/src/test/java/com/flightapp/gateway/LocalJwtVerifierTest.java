@@ -0,0 +1,224 @@
+package com.flightapp.gateway;
+
+import com.flightapp.gateway.config.JwtVerificationProperties;
+import com.flightapp.gateway.dto.RevocationSnapshot;
+import com.flightapp.gateway.security.LocalJwtVerifier;
+import com.flightapp.gateway.security.RevocationRegistry;
+import com.flightapp.gateway.security.SigningKeyRegistry;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocalJwtVerifierTest {
+
+    private static final String KEY_ID = "key-1";
+
+    private static KeyPair signingKey;
+    private static KeyPair otherKey;
+
+    @Mock
+    private SigningKeyRegistry keys;
+
+    private JwtVerificationProperties properties;
+    private RevocationRegistry revocations;
+    private LocalJwtVerifier verifier;
+
+    @BeforeAll
+    static void generateKeys() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        signingKey = generator.generateKeyPair();
+        otherKey = generator.generateKeyPair();
+    }
+
+    @BeforeEach
+    void setUp() {
+        properties = new JwtVerificationProperties();
+        revocations = new RevocationRegistry(properties, new SimpleMeterRegistry());
+        revocations.onSnapshot(snapshot(List.of(), List.of()));
+        verifier = new LocalJwtVerifier(keys, revocations, properties);
+    }
+
+    private static RevocationSnapshot snapshot(List<String> disabledUsers, List<String> revokedTokenIds) {
+        return RevocationSnapshot.builder()
+                .generatedAt(System.currentTimeMillis())
+                .disabledUsers(disabledUsers)
+                .revokedTokenIds(revokedTokenIds)
+                .build();
+    }
+
+    private static String token(String keyId, KeyPair key, Date expiration) {
+        return Jwts.builder()
+                .header().keyId(keyId).and()
+                .claims(Map.of("role", "USER"))
+                .id("token-1")
+                .subject("john")
+                .issuedAt(new Date())
+                .expiration(expiration)
+                .signWith(key.getPrivate(), Jwts.SIG.RS256)
+                .compact();
+    }
+
+    private static String token() {
+        return token(KEY_ID, signingKey, new Date(System.currentTimeMillis() + 60_000));
+    }
+
+    private void rejects(String token, String message) {
+        StepVerifier.create(verifier.verify(token))
+                .assertNext(response -> {
+                    assertFalse(response.getValid());
+                    assertEquals(message, response.getMessage());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testVerify_ValidTokenAcceptedLocally() {
+        when(keys.find(KEY_ID)).thenReturn(signingKey.getPublic());
+
+        StepVerifier.create(verifier.verify(token()))
+                .assertNext(response -> {
+                    assertTrue(response.getValid());
+                    assertEquals("john", response.getUsername());
+                    assertEquals("USER", response.getRole());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testVerify_ForgedSignatureRejected() {
+        when(keys.find(KEY_ID)).thenReturn(signingKey.getPublic());
+
+        rejects(token(KEY_ID, otherKey, new Date(System.currentTimeMillis() + 60_000)), "Invalid token");
+    }
+
+    @Test
+    void testVerify_TamperedPayloadRejected() {
+        when(keys.find(KEY_ID)).thenReturn(signingKey.getPublic());
+        String[] parts = token().split("\\.");
+        String admin = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"john\",\"role\":\"ADMIN\",\"jti\":\"token-1\"}".getBytes(StandardCharsets.UTF_8));
+
+        rejects(parts[0] + "." + admin + "." + parts[2], "Invalid token");
+    }
+
+    @Test
+    void testVerify_HmacSignedWithPublicKeyRejected() {
+        when(keys.find(KEY_ID)).thenReturn(signingKey.getPublic());
+        // Classic algorithm confusion: HS256 keyed with the published RSA public key
+        String swapped = Jwts.builder()
+                .header().keyId(KEY_ID).and()
+                .claims(Map.of("role", "ADMIN"))
+                .subject("john")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(signingKey.getPublic().getEncoded()))
+                .compact();
+
+        rejects(swapped, "Invalid token");
+    }
+
+    @Test
+    void testVerify_UnsignedTokenRejected() {
+        String unsigned = Jwts.builder()
+                .header().keyId(KEY_ID).and()
+                .claims(Map.of("role", "ADMIN"))
+                .subject("john")
+                .compact();
+
+        rejects(unsigned, "Invalid token");
+    }
+
+    @Test
+    void testVerify_ExpiredTokenRejected() {
+        when(keys.find(KEY_ID)).thenReturn(signingKey.getPublic());
+
+        rejects(token(KEY_ID, signingKey, new Date(System.currentTimeMillis() - 60_000)), "Token has expired");
+    }
+
+    @Test
+    void testVerify_RevokedTokenRejected() {
+        when(keys.find(KEY_ID)).thenReturn(signingKey.getPublic());
+        revocations.onSnapshot(snapshot(List.of(), List.of("token-1")));
+
+        rejects(token(), "Token has been revoked");
+    }
+
+    @Test
+    void testVerify_DisabledUserRejected() {
+        when(keys.find(KEY_ID)).thenReturn(signingKey.getPublic());
+        revocations.onSnapshot(snapshot(List.of("john"), List.of()));
+
+        rejects(token(), "Token has been revoked");
+    }
+
+    @Test
+    void testVerify_TokenWithoutKeyIdLeftToAuthService() {
+        String legacy = Jwts.builder()
+                .claims(Map.of("role", "USER"))
+                .subject("john")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("a-shared-secret-that-is-long-enough-for-hs256".getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        StepVerifier.create(verifier.verify(legacy)).verifyComplete();
+        verify(keys, never()).refreshForUnknownKey();
+    }
+
+    @Test
+    void testVerify_UnknownKeyIdLeftToAuthServiceWhenReloadFindsNothing() {
+        when(keys.refreshForUnknownKey()).thenReturn(Mono.just(true));
+
+        StepVerifier.create(verifier.verify(token())).verifyComplete();
+        verify(keys).refreshForUnknownKey();
+    }
+
+    @Test
+    void testVerify_UnknownKeyIdAcceptedAfterReload() {
+        when(keys.find(KEY_ID)).thenReturn(null, signingKey.getPublic());
+        when(keys.refreshForUnknownKey()).thenReturn(Mono.just(true));
+
+        StepVerifier.create(verifier.verify(token()))
+                .assertNext(response -> assertTrue(response.getValid()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testVerify_StaleRevocationSetLeftToAuthService() throws InterruptedException {
+        properties.setRevocationMaxAge(Duration.ofMillis(20));
+        Thread.sleep(50);
+
+        StepVerifier.create(verifier.verify(token())).verifyComplete();
+        verifyNoInteractions(keys);
+    }
+
+    @Test
+    void testVerify_NoRevocationSetYetLeftToAuthService() {
+        LocalJwtVerifier fresh = new LocalJwtVerifier(keys,
+                new RevocationRegistry(properties, new SimpleMeterRegistry()), properties);
+
+        StepVerifier.create(fresh.verify(token())).verifyComplete();
+        verifyNoInteractions(keys);
+    }
+}
@@ -0,0 +1,100 @@
+package com.flightapp.gateway;
+
+import com.flightapp.gateway.config.JwtVerificationProperties;
+import com.flightapp.gateway.dto.JwtKeySet;
+import com.flightapp.gateway.dto.JwtPublicKey;
+import com.flightapp.gateway.security.SigningKeyRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SigningKeyRegistryTest {
+
+    private static PublicKey currentKey;
+    private static PublicKey nextKey;
+
+    private JwtVerificationProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private SigningKeyRegistry registry;
+
+    @BeforeAll
+    static void generateKeys() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        currentKey = generator.generateKeyPair().getPublic();
+        nextKey = generator.generateKeyPair().getPublic();
+    }
+
+    @BeforeEach
+    void setUp() {
+        properties = new JwtVerificationProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new SigningKeyRegistry(WebClient.create(), properties, meterRegistry);
+    }
+
+    private static JwtPublicKey key(String kid, String algorithm, PublicKey publicKey) {
+        return JwtPublicKey.builder()
+                .kid(kid)
+                .algorithm(algorithm)
+                .publicKey(Base64.getEncoder().encodeToString(publicKey.getEncoded()))
+                .build();
+    }
+
+    private static JwtKeySet keySet(JwtPublicKey... keys) {
+        return JwtKeySet.builder().keys(List.of(keys)).build();
+    }
+
+    @Test
+    void testUpdate_LoadsEveryPublishedKey() {
+        registry.update(keySet(key("current", "RS256", currentKey), key("next", "RS256", nextKey)));
+
+        assertEquals(currentKey, registry.find("current"));
+        assertEquals(nextKey, registry.find("next"));
+        assertNull(registry.find("other"));
+        assertNull(registry.find(null));
+        assertEquals(2.0, meterRegistry.get("gateway.jwt.keys").gauge().value());
+    }
+
+    @Test
+    void testUpdate_MergesKeySetsFromDifferentInstances() {
+        // Mid-rotation: one auth-service instance already signs with the next key, the other does not yet
+        registry.update(keySet(key("next", "RS256", nextKey)));
+        registry.update(keySet(key("current", "RS256", currentKey)));
+
+        assertEquals(currentKey, registry.find("current"));
+        assertEquals(nextKey, registry.find("next"));
+    }
+
+    @Test
+    void testUpdate_DropsKeysNotPublishedWithinRetention() throws InterruptedException {
+        properties.setKeyRetention(Duration.ofMillis(20));
+        registry.update(keySet(key("current", "RS256", currentKey)));
+        Thread.sleep(50);
+
+        registry.update(keySet(key("next", "RS256", nextKey)));
+
+        assertNull(registry.find("current"));
+        assertEquals(nextKey, registry.find("next"));
+    }
+
+    @Test
+    void testUpdate_IgnoresUnsupportedAndUnreadableKeys() {
+        registry.update(keySet(
+                key("hmac", "HS256", currentKey),
+                JwtPublicKey.builder().kid("broken").algorithm("RS256").publicKey("not-a-key").build()));
+
+        assertNull(registry.find("hmac"));
+        assertNull(registry.find("broken"));
+    }
+}
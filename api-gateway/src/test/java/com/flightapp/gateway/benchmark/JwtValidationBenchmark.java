@@ -0,0 +1,150 @@
+package com.flightapp.gateway.benchmark;
+
+import com.flightapp.gateway.config.JwtVerificationProperties;
+import com.flightapp.gateway.dto.JwtKeySet;
+import com.flightapp.gateway.dto.JwtPublicKey;
+import com.flightapp.gateway.dto.RevocationSnapshot;
+import com.flightapp.gateway.dto.ValidateTokenRequest;
+import com.flightapp.gateway.dto.ValidateTokenResponse;
+import com.flightapp.gateway.security.LocalJwtVerifier;
+import com.flightapp.gateway.security.RevocationRegistry;
+import com.flightapp.gateway.security.SigningKeyRegistry;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token validation latency as seen by the gateway: {@link LocalJwtVerifier} against
+ * the remote POST /api/auth/validate, served by a stub auth-service that answers
+ * after {@code authLatencyMicros} (standing in for its JWT parse and user lookup).
+ * Sample-time mode, so JMH reports p50/p99/p99.9 per path. Run with:
+ * {@code mvn test-compile exec:java -Dexec.mainClass=com.flightapp.gateway.benchmark.JwtValidationBenchmark -Dexec.classpathScope=test}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class JwtValidationBenchmark {
+
+    private static final String VALID_RESPONSE = "{\"valid\":true,\"username\":\"john\",\"role\":\"USER\",\"message\":\"Token is valid\"}";
+
+    @Param({"0", "2000"})
+    private int authLatencyMicros;
+
+    private DisposableServer server;
+    private WebClient authClient;
+    private LocalJwtVerifier verifier;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchAlgorithmException {
+        Duration latency = Duration.ofNanos(authLatencyMicros * 1000L);
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.post("/api/auth/validate", (request, response) -> response
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .sendString(request.receive().aggregate().then(latency.isZero()
+                                ? Mono.just(VALID_RESPONSE)
+                                : Mono.delay(latency).thenReturn(VALID_RESPONSE)))))
+                .bindNow();
+        authClient = WebClient.create("http://localhost:" + server.port());
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair pair = generator.generateKeyPair();
+        token = Jwts.builder()
+                .header().keyId("bench").and()
+                .claims(Map.of("role", "USER"))
+                .id(UUID.randomUUID().toString())
+                .subject("john")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(pair.getPrivate(), Jwts.SIG.RS256)
+                .compact();
+
+        JwtVerificationProperties properties = new JwtVerificationProperties();
+        properties.setRevocationMaxAge(Duration.ofHours(1));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SigningKeyRegistry keys = new SigningKeyRegistry(WebClient.create(), properties, meterRegistry);
+        keys.update(JwtKeySet.builder()
+                .keys(List.of(JwtPublicKey.builder()
+                        .kid("bench")
+                        .algorithm("RS256")
+                        .publicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()))
+                        .build()))
+                .build());
+        RevocationRegistry revocations = new RevocationRegistry(properties, meterRegistry);
+        revocations.onSnapshot(RevocationSnapshot.builder()
+                .generatedAt(System.currentTimeMillis())
+                .disabledUsers(List.of("disabled-user"))
+                .revokedTokenIds(List.of(UUID.randomUUID().toString()))
+                .build());
+        verifier = new LocalJwtVerifier(keys, revocations, properties);
+
+        if (!Boolean.TRUE.equals(localVerification().getValid()) || !Boolean.TRUE.equals(remoteValidation().getValid())) {
+            throw new IllegalStateException("Benchmark token did not validate");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.disposeNow();
+    }
+
+    @Benchmark
+    public ValidateTokenResponse localVerification() {
+        return verifier.verify(token).block();
+    }
+
+    @Benchmark
+    public ValidateTokenResponse remoteValidation() {
+        return authClient.post()
+                .uri("/api/auth/validate")
+                .bodyValue(ValidateTokenRequest.builder().token(token).build())
+                .retrieve()
+                .bodyToMono(ValidateTokenResponse.class)
+                .block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtValidationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,26 @@
+package com.flightapp.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auth.revocation")
+@Data
+public class TokenRevocationProperties {
+
+    /**
+     * Whether the revocation set is published to the gateway at all
+     * Default: true
+     */
+    private boolean publishEnabled = true;
+
+    /**
+     * How often the full revocation set is re-published, on top of the push after each logout.
+     * The gateway stops trusting its copy after a few missed intervals (gateway.jwt.revocation-max-age)
+     * Default: 30s
+     */
+    private Duration publishInterval = Duration.ofSeconds(30);
+}
@@ -4,6 +4,8 @@ import com.flightapp.auth.dto.AuthRequest;
 import com.flightapp.auth.dto.AuthResponse;
 import com.flightapp.auth.dto.ChangePasswordRequest;
 import com.flightapp.auth.dto.ChangePasswordResponse;
+import com.flightapp.auth.dto.JwtKeySet;
+import com.flightapp.auth.dto.LogoutResponse;
 import com.flightapp.auth.dto.PasswordExpiryStatusResponse;
 import com.flightapp.auth.dto.RegisterRequest;
 import com.flightapp.auth.dto.ValidateTokenRequest;
@@ -79,6 +81,28 @@ public class AuthController {
                 });
     }
 
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<LogoutResponse>> logout(@RequestHeader("Authorization") String authHeader) {
+        log.info("POST /api/auth/logout - Logout request");
+
+        String token = authHeader.startsWith("Bearer ") ? authHeader.substring(7) : authHeader;
+
+        return authService.logout(token)
+                .map(response -> {
+                    if (response.isSuccess()) {
+                        return ResponseEntity.ok(response);
+                    }
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+                });
+    }
+
+    @GetMapping("/keys")
+    public Mono<ResponseEntity<JwtKeySet>> getSigningKeys() {
+        log.debug("GET /api/auth/keys - Signing key request");
+
+        return Mono.just(ResponseEntity.ok(authService.getSigningKeys()));
+    }
+
     @PostMapping("/change-password")
     public Mono<ResponseEntity<ChangePasswordResponse>> changePassword(@Valid @RequestBody ChangePasswordRequest request) {
         log.info("POST /api/auth/change-password - Password change request for username: {}", request.getUsername());
@@ -0,0 +1,17 @@
+package com.flightapp.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JwtKeySet {
+
+    private List<JwtPublicKey> keys;
+}
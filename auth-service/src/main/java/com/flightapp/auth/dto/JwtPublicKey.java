@@ -0,0 +1,20 @@
+package com.flightapp.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JwtPublicKey {
+
+    private String kid;
+
+    private String algorithm;
+
+    // Base64 X.509 (SubjectPublicKeyInfo) encoding
+    private String publicKey;
+}
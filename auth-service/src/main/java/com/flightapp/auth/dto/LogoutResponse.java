@@ -0,0 +1,16 @@
+package com.flightapp.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogoutResponse {
+
+    private boolean success;
+    private String message;
+}
@@ -0,0 +1,23 @@
+package com.flightapp.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationSnapshot {
+
+    // Epoch millis at which the snapshot was read from the database
+    private Long generatedAt;
+
+    private List<String> disabledUsers;
+
+    // jti of tokens revoked before their expiry
+    private List<String> revokedTokenIds;
+}
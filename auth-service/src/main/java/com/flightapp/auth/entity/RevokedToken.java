@@ -0,0 +1,30 @@
+package com.flightapp.auth.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("revoked_tokens")
+public class RevokedToken {
+
+    @Id
+    private Long id;
+
+    private String tokenId;
+
+    private String username;
+
+    // The token's own expiry; the row is dropped once it has passed
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime revokedAt;
+}
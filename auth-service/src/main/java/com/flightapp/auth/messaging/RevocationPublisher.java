@@ -0,0 +1,83 @@
+package com.flightapp.auth.messaging;
+
+import com.flightapp.auth.config.RabbitMQConfig;
+import com.flightapp.auth.config.TokenRevocationProperties;
+import com.flightapp.auth.dto.RevocationSnapshot;
+import com.flightapp.auth.repository.RevokedTokenRepository;
+import com.flightapp.auth.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Pushes the revocation set (disabled users and unexpired revoked tokens) to the
+ * gateway. The whole set is sent each time: it is small, it is read from the
+ * database so every auth-service instance sends the same one, and a gateway that
+ * missed a message is corrected by the next.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RevocationPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final UserRepository userRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenRevocationProperties properties;
+
+    private Disposable scheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isPublishEnabled()) {
+            log.info("Revocation publishing disabled, the gateway will validate every token remotely");
+            return;
+        }
+        scheduler = Flux.interval(Duration.ZERO, properties.getPublishInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> publish())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    public Mono<Void> publish() {
+        if (!properties.isPublishEnabled()) {
+            return Mono.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return revokedTokenRepository.deleteExpired(now)
+                .then(Mono.zip(
+                        userRepository.findDisabledUsernames().collectList(),
+                        revokedTokenRepository.findActiveTokenIds(now).collectList()))
+                .map(sets -> RevocationSnapshot.builder()
+                        .generatedAt(System.currentTimeMillis())
+                        .disabledUsers(sets.getT1())
+                        .revokedTokenIds(sets.getT2())
+                        .build())
+                .flatMap(snapshot -> Mono.fromRunnable(() -> rabbitTemplate.convertAndSend(
+                                RabbitMQConfig.REVOCATION_EXCHANGE, "", snapshot))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .doOnSuccess(sent -> log.debug("Published revocation set: {} disabled users, {} revoked tokens",
+                                snapshot.getDisabledUsers().size(), snapshot.getRevokedTokenIds().size())))
+                .doOnError(e -> log.error("Failed to publish revocation set: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+}
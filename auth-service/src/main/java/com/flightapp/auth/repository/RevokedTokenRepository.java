@@ -0,0 +1,24 @@
+package com.flightapp.auth.repository;
+
+import com.flightapp.auth.entity.RevokedToken;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RevokedTokenRepository extends R2dbcRepository<RevokedToken, Long> {
+
+    Mono<Boolean> existsByTokenId(String tokenId);
+
+    @Query("SELECT token_id FROM revoked_tokens WHERE expires_at > :now")
+    Flux<String> findActiveTokenIds(LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM revoked_tokens WHERE expires_at <= :now")
+    Mono<Integer> deleteExpired(LocalDateTime now);
+}
@@ -1,8 +1,10 @@
 package com.flightapp.auth.repository;
 
 import com.flightapp.auth.entity.User;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
@@ -15,4 +17,7 @@ public interface UserRepository extends R2dbcRepository<User, Long> {
     Mono<Boolean> existsByUsername(String username);
 
     Mono<Boolean> existsByEmail(String email);
+
+    @Query("SELECT username FROM users WHERE enabled = FALSE")
+    Flux<String> findDisabledUsernames();
 }
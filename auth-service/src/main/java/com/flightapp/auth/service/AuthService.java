@@ -4,6 +4,8 @@ import com.flightapp.auth.dto.AuthRequest;
 import com.flightapp.auth.dto.AuthResponse;
 import com.flightapp.auth.dto.ChangePasswordRequest;
 import com.flightapp.auth.dto.ChangePasswordResponse;
+import com.flightapp.auth.dto.JwtKeySet;
+import com.flightapp.auth.dto.LogoutResponse;
 import com.flightapp.auth.dto.PasswordExpiryStatusResponse;
 import com.flightapp.auth.dto.RegisterRequest;
 import com.flightapp.auth.dto.ValidateTokenResponse;
@@ -17,6 +19,10 @@ public interface AuthService {
 
     Mono<ValidateTokenResponse> validateToken(String token);
 
+    Mono<LogoutResponse> logout(String token);
+
+    JwtKeySet getSigningKeys();
+
     Mono<ChangePasswordResponse> changePassword(ChangePasswordRequest request);
 
     Mono<PasswordExpiryStatusResponse> checkPasswordExpiry(String username);
@@ -5,24 +5,33 @@ import com.flightapp.auth.config.PasswordExpiryProperties;
 import com.flightapp.auth.dto.AuthResponse;
 import com.flightapp.auth.dto.ChangePasswordRequest;
 import com.flightapp.auth.dto.ChangePasswordResponse;
+import com.flightapp.auth.dto.JwtKeySet;
+import com.flightapp.auth.dto.JwtPublicKey;
+import com.flightapp.auth.dto.LogoutResponse;
 import com.flightapp.auth.dto.PasswordExpiryStatusResponse;
 import com.flightapp.auth.dto.RegisterRequest;
 import com.flightapp.auth.dto.ValidateTokenResponse;
 import com.flightapp.auth.entity.PasswordHistory;
+import com.flightapp.auth.entity.RevokedToken;
 import com.flightapp.auth.entity.User;
+import com.flightapp.auth.messaging.RevocationPublisher;
 import com.flightapp.auth.repository.PasswordHistoryRepository;
+import com.flightapp.auth.repository.RevokedTokenRepository;
 import com.flightapp.auth.repository.UserRepository;
 import com.flightapp.auth.service.AuthService;
 import com.flightapp.auth.util.JwtUtil;
 import com.flightapp.auth.util.PasswordValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -36,6 +45,8 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final PasswordExpiryProperties passwordExpiryProperties;
     private final JwtUtil jwtUtil;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevocationPublisher revocationPublisher;
 
     // Number of previous passwords to track and prevent reuse
     private static final int PASSWORD_HISTORY_LIMIT = 5;
@@ -186,19 +197,32 @@ public class AuthServiceImpl implements AuthService {
             if (Boolean.TRUE.equals(jwtUtil.validateToken(token))) {
                 String username = jwtUtil.extractUsername(token);
                 String role = jwtUtil.extractRole(token);
+                String tokenId = jwtUtil.extractTokenId(token);
 
-                return userRepository.findByUsername(username)
-                        .filter(User::getEnabled)
-                        .map(user -> ValidateTokenResponse.builder()
-                                .valid(true)
-                                .username(user.getUsername())
-                                .role(role != null ? role : user.getRole())
-                                .message("Token is valid")
-                                .build())
-                        .switchIfEmpty(Mono.just(ValidateTokenResponse.builder()
+                Mono<Boolean> revoked = tokenId == null
+                        ? Mono.just(false)
+                        : revokedTokenRepository.existsByTokenId(tokenId);
+
+                return revoked.flatMap(isRevoked -> {
+                    if (Boolean.TRUE.equals(isRevoked)) {
+                        return Mono.just(ValidateTokenResponse.builder()
                                 .valid(false)
-                                .message("User not found or disabled")
-                                .build()));
+                                .message("Token has been revoked")
+                                .build());
+                    }
+                    return userRepository.findByUsername(username)
+                            .filter(User::getEnabled)
+                            .map(user -> ValidateTokenResponse.builder()
+                                    .valid(true)
+                                    .username(user.getUsername())
+                                    .role(role != null ? role : user.getRole())
+                                    .message("Token is valid")
+                                    .build())
+                            .switchIfEmpty(Mono.just(ValidateTokenResponse.builder()
+                                    .valid(false)
+                                    .message("User not found or disabled")
+                                    .build()));
+                });
             }
 
             return Mono.just(ValidateTokenResponse.builder()
@@ -215,6 +239,57 @@ public class AuthServiceImpl implements AuthService {
         }
     }
 
+    @Override
+    public Mono<LogoutResponse> logout(String token) {
+        if (!Boolean.TRUE.equals(jwtUtil.validateToken(token))) {
+            return Mono.just(LogoutResponse.builder()
+                    .success(false)
+                    .message("Invalid or expired token")
+                    .build());
+        }
+
+        String tokenId = jwtUtil.extractTokenId(token);
+        if (tokenId == null) {
+            // Tokens issued before token ids were added cannot be revoked; they simply expire
+            return Mono.just(LogoutResponse.builder()
+                    .success(false)
+                    .message("Token cannot be revoked, it will expire on its own")
+                    .build());
+        }
+
+        RevokedToken revokedToken = RevokedToken.builder()
+                .tokenId(tokenId)
+                .username(jwtUtil.extractUsername(token))
+                .expiresAt(LocalDateTime.ofInstant(jwtUtil.extractExpiration(token).toInstant(), ZoneId.systemDefault()))
+                .revokedAt(LocalDateTime.now())
+                .build();
+
+        return revokedTokenRepository.save(revokedToken)
+                // Logging out twice with the same token is not an error
+                .onErrorResume(DataIntegrityViolationException.class, e -> Mono.just(revokedToken))
+                .flatMap(saved -> revocationPublisher.publish().thenReturn(saved))
+                .map(saved -> {
+                    log.info("Token revoked for user: {}", saved.getUsername());
+                    return LogoutResponse.builder()
+                            .success(true)
+                            .message("Logged out successfully")
+                            .build();
+                });
+    }
+
+    @Override
+    public JwtKeySet getSigningKeys() {
+        return JwtKeySet.builder()
+                .keys(jwtUtil.getVerificationKeys().entrySet().stream()
+                        .map(key -> JwtPublicKey.builder()
+                                .kid(key.getKey())
+                                .algorithm(JwtUtil.ALGORITHM)
+                                .publicKey(Base64.getEncoder().encodeToString(key.getValue().getEncoded()))
+                                .build())
+                        .toList())
+                .build();
+    }
+
     @Override
     public Mono<ChangePasswordResponse> changePassword(ChangePasswordRequest request) {
         log.info("Password change attempt for username: {}", request.getUsername());
@@ -1,40 +1,152 @@
 package com.flightapp.auth.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
+/**
+ * Issues RS256 tokens carrying a key id and a token id (jti). Every instance signs
+ * with the same configured key pair; its public half, and any previous public keys
+ * still accepted during a rotation, are published on /api/auth/keys so the gateway
+ * can verify tokens without calling this service.
+ * <p>
+ * Without a configured key pair tokens are signed with the shared HMAC secret and
+ * carry no key id, so the gateway validates them through this service. Tokens signed
+ * with that secret are always accepted until they expire.
+ */
 @Component
+@Slf4j
 public class JwtUtil {
 
+    public static final String ALGORITHM = "RS256";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
+    // Base64 PKCS#8 / X.509 DER, with or without PEM armour
+    @Value("${jwt.signing.private-key:}")
+    private String privateKeyValue;
+
+    @Value("${jwt.signing.public-key:}")
+    private String publicKeyValue;
+
+    // Public keys rotated out but still accepted until the tokens they signed expire
+    @Value("${jwt.signing.previous-public-keys:}")
+    private List<String> previousPublicKeyValues = List.of();
+
+    private PrivateKey privateKey;
+    private String keyId;
+    private Map<String, PublicKey> verificationKeys = Map.of();
+
+    @PostConstruct
+    void loadSigningKey() throws GeneralSecurityException {
+        KeyFactory factory = KeyFactory.getInstance("RSA");
+        Map<String, PublicKey> loaded = new LinkedHashMap<>();
+        if (privateKeyValue.isBlank()) {
+            if (!publicKeyValue.isBlank()) {
+                throw new IllegalStateException("jwt.signing.private-key must be set together with jwt.signing.public-key");
+            }
+            log.warn("jwt.signing.private-key is not set, signing tokens with the shared HMAC secret; "
+                    + "the gateway will validate every token through auth-service");
+        } else {
+            if (publicKeyValue.isBlank()) {
+                throw new IllegalStateException("jwt.signing.public-key must be set together with jwt.signing.private-key");
+            }
+            privateKey = factory.generatePrivate(new PKCS8EncodedKeySpec(decodeKey(privateKeyValue)));
+            PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(decodeKey(publicKeyValue)));
+            keyId = keyId(publicKey);
+            loaded.put(keyId, publicKey);
+            log.info("JWT signing key loaded with key id {}", keyId);
+        }
+        for (String value : previousPublicKeyValues) {
+            if (!value.isBlank()) {
+                PublicKey previous = factory.generatePublic(new X509EncodedKeySpec(decodeKey(value)));
+                loaded.putIfAbsent(keyId(previous), previous);
+            }
+        }
+        verificationKeys = Collections.unmodifiableMap(loaded);
+    }
+
+    // Derived from the key itself, so every instance with the same key pair names it the same
+    private static String keyId(PublicKey publicKey) throws GeneralSecurityException {
+        byte[] thumbprint = MessageDigest.getInstance("SHA-256").digest(publicKey.getEncoded());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(thumbprint).substring(0, 16);
+    }
+
+    private static byte[] decodeKey(String value) {
+        return Base64.getMimeDecoder().decode(value.replaceAll("-----[A-Z ]+-----", ""));
+    }
+
+    private SecretKey getLegacySigningKey() {
         byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
+    /**
+     * Id of the key new tokens are signed with, or null when they are signed with the HMAC secret.
+     */
+    public String getKeyId() {
+        return keyId;
+    }
+
+    /**
+     * Public keys tokens are accepted with, by key id: the signing key first, then previous keys.
+     */
+    public Map<String, PublicKey> getVerificationKeys() {
+        return verificationKeys;
+    }
+
     public Claims extractAllClaims(String token) {
         return Jwts.parser()
-                .verifyWith(getSigningKey())
+                .keyLocator(this::verificationKey)
                 .build()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
+    private Key verificationKey(Header header) {
+        String kid = header instanceof JwsHeader jws ? jws.getKeyId() : null;
+        if (kid == null) {
+            return getLegacySigningKey();
+        }
+        PublicKey publicKey = verificationKeys.get(kid);
+        if (publicKey == null) {
+            throw new SignatureException("Token signed with unknown key " + kid);
+        }
+        return publicKey;
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
@@ -48,6 +160,10 @@ public class JwtUtil {
         return extractClaim(token, claims -> claims.get("role", String.class));
     }
 
+    public String extractTokenId(String token) {
+        return extractClaim(token, Claims::getId);
+    }
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
@@ -74,12 +190,17 @@ public class JwtUtil {
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .expiration(new Date(System.currentTimeMillis() + expiration));
+        if (privateKey == null) {
+            return builder.signWith(getLegacySigningKey()).compact();
+        }
+        return builder.header().keyId(keyId).and()
+                .signWith(privateKey, Jwts.SIG.RS256)
                 .compact();
     }
 }
@@ -33,6 +33,16 @@ CREATE TABLE IF NOT EXISTS password_history (
     INDEX idx_changed_at (changed_at)
 );
 
+-- Step 5: Create revoked_tokens table if it doesn't exist
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    token_id VARCHAR(64) NOT NULL UNIQUE,
+    username VARCHAR(50) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_expires_at (expires_at)
+);
+
 -- Verification queries (optional - comment out if not needed)
 -- SELECT COUNT(*) as user_count,
 --        COUNT(last_password_changed) as has_last_changed,
@@ -31,3 +31,13 @@ CREATE TABLE IF NOT EXISTS password_history (
 INSERT INTO users (username, password, email, first_name, last_name, role, enabled)
 VALUES ('admin', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', 'admin@flightapp.com', 'Admin', 'User', 'ADMIN', TRUE)
 ON DUPLICATE KEY UPDATE username=username;
+
+-- Tokens revoked before their expiry (logout); pushed to the gateway as part of the revocation set
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    token_id VARCHAR(64) NOT NULL UNIQUE,
+    username VARCHAR(50) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_expires_at (expires_at)
+);
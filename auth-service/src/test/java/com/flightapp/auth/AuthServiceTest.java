@@ -0,0 +1,136 @@
+package com.flightapp.auth;
+
+import com.flightapp.auth.config.PasswordExpiryProperties;
+import com.flightapp.auth.dto.JwtPublicKey;
+import com.flightapp.auth.entity.RevokedToken;
+import com.flightapp.auth.entity.User;
+import com.flightapp.auth.messaging.RevocationPublisher;
+import com.flightapp.auth.repository.PasswordHistoryRepository;
+import com.flightapp.auth.repository.RevokedTokenRepository;
+import com.flightapp.auth.repository.UserRepository;
+import com.flightapp.auth.service.impl.AuthServiceImpl;
+import com.flightapp.auth.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordHistoryRepository passwordHistoryRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private RevocationPublisher revocationPublisher;
+
+    private JwtUtil jwtUtil;
+    private AuthServiceImpl authService;
+    private String token;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        jwtUtil = JwtUtilTest.jwtUtil(generator.generateKeyPair(), List.of());
+        authService = new AuthServiceImpl(userRepository, passwordHistoryRepository, passwordEncoder,
+                new PasswordExpiryProperties(), jwtUtil, revokedTokenRepository, revocationPublisher);
+        token = jwtUtil.generateToken("john", Map.of("role", "USER"));
+    }
+
+    @Test
+    void testLogout_RevokesTokenAndPublishesRevocations() {
+        when(revokedTokenRepository.save(any(RevokedToken.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(revocationPublisher.publish()).thenReturn(Mono.empty());
+
+        StepVerifier.create(authService.logout(token))
+                .assertNext(response -> assertTrue(response.isSuccess()))
+                .verifyComplete();
+
+        ArgumentCaptor<RevokedToken> revoked = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(revoked.capture());
+        assertEquals(jwtUtil.extractTokenId(token), revoked.getValue().getTokenId());
+        assertEquals("john", revoked.getValue().getUsername());
+        assertTrue(revoked.getValue().getExpiresAt().isAfter(LocalDateTime.now()));
+        verify(revocationPublisher).publish();
+    }
+
+    @Test
+    void testLogout_TwiceWithSameTokenStillSucceeds() {
+        when(revokedTokenRepository.save(any(RevokedToken.class)))
+                .thenReturn(Mono.error(new DataIntegrityViolationException("duplicate token_id")));
+        when(revocationPublisher.publish()).thenReturn(Mono.empty());
+
+        StepVerifier.create(authService.logout(token))
+                .assertNext(response -> assertTrue(response.isSuccess()))
+                .verifyComplete();
+
+        verify(revocationPublisher).publish();
+    }
+
+    @Test
+    void testLogout_InvalidTokenNotRevoked() {
+        StepVerifier.create(authService.logout(token + "x"))
+                .assertNext(response -> assertFalse(response.isSuccess()))
+                .verifyComplete();
+
+        verifyNoInteractions(revokedTokenRepository, revocationPublisher);
+    }
+
+    @Test
+    void testValidateToken_RevokedTokenRejected() {
+        when(revokedTokenRepository.existsByTokenId(jwtUtil.extractTokenId(token))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(authService.validateToken(token))
+                .assertNext(response -> {
+                    assertFalse(response.getValid());
+                    assertEquals("Token has been revoked", response.getMessage());
+                })
+                .verifyComplete();
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testValidateToken_DisabledUserRejected() {
+        when(revokedTokenRepository.existsByTokenId(any())).thenReturn(Mono.just(false));
+        when(userRepository.findByUsername("john")).thenReturn(Mono.just(User.builder()
+                .username("john").role("USER").enabled(false).build()));
+
+        StepVerifier.create(authService.validateToken(token))
+                .assertNext(response -> assertFalse(response.getValid()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetSigningKeys_PublishesEveryAcceptedKey() {
+        assertEquals(List.copyOf(jwtUtil.getVerificationKeys().keySet()),
+                authService.getSigningKeys().getKeys().stream().map(JwtPublicKey::getKid).toList());
+        assertEquals(JwtUtil.ALGORITHM, authService.getSigningKeys().getKeys().get(0).getAlgorithm());
+    }
+}
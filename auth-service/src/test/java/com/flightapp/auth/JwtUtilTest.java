@@ -0,0 +1,125 @@
+package com.flightapp.auth;
+
+import com.flightapp.auth.util.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "mySecretKeyForJWTTokenGenerationAndValidationMustBeLongEnough1234567890";
+
+    private static KeyPair currentKey;
+    private static KeyPair previousKey;
+
+    @BeforeAll
+    static void generateKeys() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        currentKey = generator.generateKeyPair();
+        previousKey = generator.generateKeyPair();
+    }
+
+    private static String encode(Key key) {
+        return Base64.getEncoder().encodeToString(key.getEncoded());
+    }
+
+    static JwtUtil jwtUtil(KeyPair signingKey, List<KeyPair> previousKeys) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+        ReflectionTestUtils.setField(jwtUtil, "privateKeyValue", signingKey == null ? "" : encode(signingKey.getPrivate()));
+        ReflectionTestUtils.setField(jwtUtil, "publicKeyValue", signingKey == null ? "" : encode(signingKey.getPublic()));
+        ReflectionTestUtils.setField(jwtUtil, "previousPublicKeyValues",
+                previousKeys.stream().map(pair -> encode(pair.getPublic())).toList());
+        ReflectionTestUtils.invokeMethod(jwtUtil, "loadSigningKey");
+        return jwtUtil;
+    }
+
+    private static String keyId(String token) {
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        int start = header.indexOf("\"kid\":\"");
+        return start < 0 ? null : header.substring(start + 7, header.indexOf('"', start + 7));
+    }
+
+    @Test
+    void testSharedKeyPair_InstancesAcceptEachOthersTokens() {
+        JwtUtil first = jwtUtil(currentKey, List.of());
+        JwtUtil second = jwtUtil(currentKey, List.of());
+
+        String token = first.generateToken("john", Map.of("role", "USER"));
+
+        assertEquals(first.getKeyId(), second.getKeyId());
+        assertEquals(first.getKeyId(), keyId(token));
+        assertTrue(second.validateToken(token));
+        assertEquals("john", second.extractUsername(token));
+        assertNotNull(second.extractTokenId(token));
+    }
+
+    @Test
+    void testPreviousKeys_AcceptedAndPublished() {
+        JwtUtil before = jwtUtil(previousKey, List.of());
+        String oldToken = before.generateToken("john", Map.of("role", "USER"));
+
+        JwtUtil rotated = jwtUtil(currentKey, List.of(previousKey));
+
+        assertTrue(rotated.validateToken(oldToken));
+        assertEquals(List.of(rotated.getKeyId(), before.getKeyId()), List.copyOf(rotated.getVerificationKeys().keySet()));
+        assertEquals(previousKey.getPublic(), rotated.getVerificationKeys().get(before.getKeyId()));
+    }
+
+    @Test
+    void testUnknownKey_Rejected() {
+        String token = jwtUtil(previousKey, List.of()).generateToken("john", Map.of("role", "USER"));
+
+        assertFalse(jwtUtil(currentKey, List.of()).validateToken(token));
+    }
+
+    @Test
+    void testNoKeyPair_SignsWithSharedSecret() {
+        JwtUtil first = jwtUtil(null, List.of());
+        JwtUtil second = jwtUtil(null, List.of());
+
+        String token = first.generateToken("john", Map.of("role", "USER"));
+
+        assertNull(first.getKeyId());
+        assertNull(keyId(token));
+        assertTrue(first.getVerificationKeys().isEmpty());
+        assertTrue(second.validateToken(token));
+        assertEquals("USER", second.extractRole(token));
+    }
+
+    @Test
+    void testHalfConfiguredKeyPair_FailsAtStartup() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "privateKeyValue", encode(currentKey.getPrivate()));
+        ReflectionTestUtils.setField(jwtUtil, "publicKeyValue", "");
+
+        assertThrows(IllegalStateException.class, () -> ReflectionTestUtils.invokeMethod(jwtUtil, "loadSigningKey"));
+    }
+
+    @Test
+    void testExpiredToken_Rejected() {
+        JwtUtil jwtUtil = jwtUtil(currentKey, List.of());
+        String expired = Jwts.builder()
+                .header().keyId(jwtUtil.getKeyId()).and()
+                .subject("john")
+                .expiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(currentKey.getPrivate(), Jwts.SIG.RS256)
+                .compact();
+
+        assertFalse(jwtUtil.validateToken(expired));
+    }
+}
@@ -0,0 +1,29 @@
+package com.flightapp.booking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "booking.history")
+@Data
+public class BookingHistoryProperties {
+
+    /**
+     * Page size used when the client does not ask for one
+     * Default: 50
+     */
+    private int defaultPageSize = 50;
+
+    /**
+     * Largest page a client may request; bigger sizes are capped to this
+     * Default: 500
+     */
+    private int maxPageSize = 500;
+
+    /**
+     * Bookings fetched per keyset query while streaming a history as NDJSON
+     * Default: 500
+     */
+    private int streamChunkSize = 500;
+}
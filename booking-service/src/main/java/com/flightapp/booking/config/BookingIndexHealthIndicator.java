@@ -0,0 +1,43 @@
+package com.flightapp.booking.config;
+
+import com.flightapp.booking.repository.BookingIndexManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports the plan of each booking query under /actuator/health. A collection scan
+ * is a performance problem rather than an outage, so it is listed but keeps the
+ * status UP; only a failed explain reports DOWN.
+ */
+@Component("bookingIndexes")
+@RequiredArgsConstructor
+public class BookingIndexHealthIndicator implements ReactiveHealthIndicator {
+
+    private final BookingIndexManager indexManager;
+
+    @Override
+    public Mono<Health> health() {
+        return indexManager.explainQueries()
+                .collectList()
+                .map(plans -> {
+                    Map<String, Object> stages = new LinkedHashMap<>();
+                    plans.forEach(plan -> stages.put(plan.query(), plan.stages()));
+                    return Health.up()
+                            .withDetail("plans", stages)
+                            .withDetail("collectionScans", plans.stream()
+                                    .filter(BookingIndexManager.QueryPlan::collectionScan)
+                                    .map(BookingIndexManager.QueryPlan::query)
+                                    .toList())
+                            .build();
+                })
+                .timeout(Duration.ofSeconds(5))
+                .onErrorResume(e -> Mono.just(Health.down().withDetail("error", String.valueOf(e.getMessage())).build()));
+    }
+}
@@ -0,0 +1,23 @@
+package com.flightapp.booking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "booking.disruption")
+@Data
+public class DisruptionProperties {
+
+    /**
+     * Bookings updated per bulkWrite; each chunk also becomes one batched notification
+     * Default: 500
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Chunks written at the same time while handling one flight
+     * Default: 4
+     */
+    private int concurrency = 4;
+}
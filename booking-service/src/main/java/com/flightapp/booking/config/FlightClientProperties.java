@@ -0,0 +1,49 @@
+package com.flightapp.booking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "booking.flight-client")
+@Data
+public class FlightClientProperties {
+
+    /**
+     * Base URL of flight-service; a service id is resolved through the load balancer
+     * Default: http://flight-service
+     */
+    private String baseUrl = "http://flight-service";
+
+    /**
+     * Time allowed to open a TCP connection to a flight-service instance
+     * Default: 2 seconds
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Time allowed for one call, from taking a connection to reading the whole response
+     * Default: 3 seconds
+     */
+    private Duration responseTimeout = Duration.ofSeconds(3);
+
+    /**
+     * Keep-alive connections pooled across all flight-service instances
+     * Default: 200
+     */
+    private int maxConnections = 200;
+
+    /**
+     * How long a call may wait for a free pooled connection
+     * Default: 2 seconds
+     */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Idle connections are closed after this long
+     * Default: 30 seconds
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+}
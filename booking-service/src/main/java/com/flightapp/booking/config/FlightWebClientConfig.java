@@ -0,0 +1,44 @@
+package com.flightapp.booking.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+public class FlightWebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider flightServiceConnectionProvider(FlightClientProperties properties) {
+        return ConnectionProvider.builder("flight-service")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .evictInBackground(properties.getMaxIdleTime())
+                .build();
+    }
+
+    /**
+     * WebClient for flight-service calls; the load-balancer filter picks a healthy
+     * instance from Eureka for every request.
+     */
+    @Bean
+    public WebClient flightServiceWebClient(WebClient.Builder webClientBuilder,
+                                            ConnectionProvider flightServiceConnectionProvider,
+                                            ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                                            FlightClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(flightServiceConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true);
+        return webClientBuilder.clone()
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(loadBalancer)
+                .build();
+    }
+}
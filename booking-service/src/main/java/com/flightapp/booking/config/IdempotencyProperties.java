@@ -0,0 +1,46 @@
+package com.flightapp.booking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "booking.idempotency")
+@Data
+public class IdempotencyProperties {
+
+    /**
+     * How long a key and its stored response are kept (TTL index on createdAt)
+     * Default: 24 hours
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long a duplicate waits for the first request with the same key to finish
+     * before getting 409 Conflict
+     * Default: 10 seconds
+     */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    /**
+     * How long a waiting duplicate must see a claim's lease go unrenewed before it takes
+     * the claim over. Measured on the duplicate's own clock, so clock skew between
+     * instances does not matter; keep it below waitTimeout
+     * Default: 5 seconds
+     */
+    private Duration leaseTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How often a duplicate on another instance re-reads the key while waiting
+     * Default: 100 milliseconds
+     */
+    private Duration pollInterval = Duration.ofMillis(100);
+
+    /**
+     * Longest accepted Idempotency-Key header
+     * Default: 255
+     */
+    private int maxKeyLength = 255;
+}
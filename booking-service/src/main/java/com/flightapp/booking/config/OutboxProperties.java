@@ -0,0 +1,62 @@
+package com.flightapp.booking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "booking.outbox")
+@Data
+public class OutboxProperties {
+
+    /**
+     * Run the outbox relay on this instance
+     * Default: true
+     */
+    private boolean relayEnabled = true;
+
+    /**
+     * How often the relay looks for pending events
+     * Default: 500 milliseconds
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * Most events one relay claims and publishes per poll
+     * Default: 100
+     */
+    private int batchSize = 100;
+
+    /**
+     * How long a claimed batch belongs to one instance; after this another
+     * instance may take over events that were not published
+     * Default: 30 seconds
+     */
+    private Duration leaseDuration = Duration.ofSeconds(30);
+
+    /**
+     * How long to wait for the broker to confirm a published event
+     * Default: 5 seconds
+     */
+    private Duration confirmTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Delay before the first retry of an event the broker did not accept; doubles per attempt
+     * Default: 1 second
+     */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    /**
+     * Longest delay between retries
+     * Default: 5 minutes
+     */
+    private Duration maxRetryBackoff = Duration.ofMinutes(5);
+
+    /**
+     * Published events are removed by a TTL index after this long
+     * Default: 7 days
+     */
+    private Duration retention = Duration.ofDays(7);
+}
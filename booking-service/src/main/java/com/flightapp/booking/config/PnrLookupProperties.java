@@ -0,0 +1,66 @@
+package com.flightapp.booking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "booking.pnr-lookup")
+@Data
+public class PnrLookupProperties {
+
+    /**
+     * Cache bookings read by PNR
+     * Default: true
+     */
+    private boolean cacheEnabled = true;
+
+    /**
+     * Maximum number of bookings kept in the PNR cache
+     * Default: 10000
+     */
+    private long cacheSize = 10_000;
+
+    /**
+     * How long a cached booking is served. A cancel on another instance is only
+     * seen here once the entry expires.
+     * Default: 30 seconds
+     */
+    private Duration cacheTtl = Duration.ofSeconds(30);
+
+    /**
+     * Reject lookups of PNRs missing from the Bloom filter of issued PNRs without
+     * querying the database
+     * Default: true
+     */
+    private boolean bloomEnabled = true;
+
+    /**
+     * PNRs the Bloom filter is sized for; a rebuild sizes it for at least twice the
+     * current number of bookings
+     * Default: 10000000
+     */
+    private long bloomExpectedPnrs = 10_000_000;
+
+    /**
+     * Target false-positive rate of the Bloom filter (a false positive only costs a database read)
+     * Default: 0.01
+     */
+    private double bloomFalsePositiveRate = 0.01;
+
+    /**
+     * How often the Bloom filter is reloaded from the bookings collection
+     * Default: 6 hours
+     */
+    private Duration bloomRebuildInterval = Duration.ofHours(6);
+
+    /**
+     * Allowed clock difference between instances. PNRs whose embedded time is within
+     * this of the last reload (or later) may come from another instance and are
+     * always looked up; PNRs dated further than this in the future are rejected.
+     * Default: 2 minutes
+     */
+    private Duration clockSkew = Duration.ofMinutes(2);
+}
@@ -0,0 +1,18 @@
+package com.flightapp.booking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "booking.pnr")
+@Data
+public class PnrProperties {
+
+    /**
+     * Node id (0-16383) embedded in every PNR. Give every instance a different value;
+     * when unset it is a hash of the Eureka instance id, which two instances can share
+     * Default: derived
+     */
+    private Integer nodeId;
+}
@@ -0,0 +1,27 @@
+package com.flightapp.booking.config;
+
+import com.flightapp.booking.dto.FlightInventory;
+import com.flightapp.booking.dto.SeatReservation;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link FlightServiceClient}.
+ */
+public interface ReactiveFlightServiceClient {
+
+    /**
+     * Empty when flight-service has no flight with this id.
+     */
+    Mono<FlightInventory> getFlightById(Long id);
+
+    Mono<Boolean> reduceSeats(Long id, Integer seats);
+
+    Mono<Boolean> restoreSeats(Long id, Integer seats);
+
+    /**
+     * Takes the seats and returns the flight number, unit price and remaining seats in
+     * one call. {@code reserved} is false when there were not enough seats; empty when
+     * flight-service has no flight with this id.
+     */
+    Mono<SeatReservation> reserveSeats(Long id, Integer seats);
+}
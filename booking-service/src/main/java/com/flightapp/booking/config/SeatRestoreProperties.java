@@ -0,0 +1,26 @@
+package com.flightapp.booking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "booking.seat-restore")
+@Data
+public class SeatRestoreProperties {
+
+    /**
+     * How often seats that could not be given back to flight-service are retried
+     * Default: 30 seconds
+     */
+    private Duration retryInterval = Duration.ofSeconds(30);
+
+    /**
+     * How long one instance may spend restoring a flight's seats before another
+     * instance may try; keep it well above the flight-service response timeout
+     * Default: 1 minute
+     */
+    private Duration leaseDuration = Duration.ofMinutes(1);
+}
@@ -0,0 +1,64 @@
+package com.flightapp.booking.config;
+
+import com.flightapp.booking.dto.FlightInventory;
+import com.flightapp.booking.dto.SeatReservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+public class WebClientFlightServiceClient implements ReactiveFlightServiceClient {
+
+    private final WebClient flightServiceWebClient;
+    private final FlightClientProperties properties;
+
+    @Override
+    public Mono<FlightInventory> getFlightById(Long id) {
+        return flightServiceWebClient.get()
+                .uri("/api/flights/inventory/{id}", id)
+                .retrieve()
+                .bodyToMono(FlightInventory.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                .timeout(properties.getResponseTimeout());
+    }
+
+    @Override
+    public Mono<Boolean> reduceSeats(Long id, Integer seats) {
+        return updateSeats("/api/flights/inventory/{id}/reduce-seats", id, seats);
+    }
+
+    @Override
+    public Mono<Boolean> restoreSeats(Long id, Integer seats) {
+        return updateSeats("/api/flights/inventory/{id}/restore-seats", id, seats);
+    }
+
+    @Override
+    public Mono<SeatReservation> reserveSeats(Long id, Integer seats) {
+        return flightServiceWebClient.put()
+                .uri(uri -> uri.path("/api/flights/inventory/{id}/reserve").queryParam("seats", seats).build(id))
+                .exchangeToMono(response -> {
+                    // 409 carries the quote with reserved=false
+                    if (response.statusCode().is2xxSuccessful() || response.statusCode() == HttpStatus.CONFLICT) {
+                        return response.bodyToMono(SeatReservation.class);
+                    }
+                    if (response.statusCode() == HttpStatus.NOT_FOUND) {
+                        return response.releaseBody().then(Mono.empty());
+                    }
+                    return response.createError();
+                })
+                .timeout(properties.getResponseTimeout());
+    }
+
+    private Mono<Boolean> updateSeats(String path, Long id, Integer seats) {
+        return flightServiceWebClient.put()
+                .uri(uri -> uri.path(path).queryParam("seats", seats).build(id))
+                .retrieve()
+                .bodyToMono(Boolean.class)
+                .defaultIfEmpty(false)
+                .timeout(properties.getResponseTimeout());
+    }
+}
@@ -2,11 +2,19 @@ package com.flightapp.booking.controller;
 
 import com.flightapp.booking.dto.BookingRequest;
 import com.flightapp.booking.dto.BookingResponse;
+import com.flightapp.booking.dto.DisruptionProgress;
+import com.flightapp.booking.dto.GroupBookingRequest;
+import com.flightapp.booking.dto.GroupBookingResponse;
 import com.flightapp.booking.entity.Booking;
+import com.flightapp.booking.service.BookingHistoryCursor;
+import com.flightapp.booking.service.BookingIdempotencyService;
 import com.flightapp.booking.service.BookingService;
+import com.flightapp.booking.service.DisruptionAction;
+import com.flightapp.booking.service.DisruptionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
@@ -19,11 +27,38 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final BookingIdempotencyService idempotencyService;
+    private final DisruptionService disruptionService;
 
     @PostMapping("/book")
-    public Mono<ResponseEntity<BookingResponse>> createBooking(@Valid @RequestBody BookingRequest request) {
-        return bookingService.createBooking(request)
+    public Mono<ResponseEntity<BookingResponse>> createBooking(
+            @Valid @RequestBody BookingRequest request,
+            @RequestHeader(value = BookingIdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = "X-User-Name", required = false) String username) {
+        if (idempotencyKey == null) {
+            return book(request);
+        }
+        if (!idempotencyService.isValidKey(idempotencyKey)) {
+            return Mono.just(ResponseEntity.badRequest().body(
+                    BookingResponse.builder()
+                            .message("Invalid Idempotency-Key")
+                            .status("FAILED")
+                            .build()
+            ));
+        }
+        return idempotencyService.execute(username, idempotencyKey, request,
+                pnr -> created(bookingService.createBooking(request, pnr)));
+    }
+
+    private Mono<ResponseEntity<BookingResponse>> book(BookingRequest request) {
+        return created(bookingService.createBooking(request));
+    }
+
+    private Mono<ResponseEntity<BookingResponse>> created(Mono<BookingResponse> booking) {
+        return booking
                 .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
                 .onErrorResume(e -> Mono.just(
                         ResponseEntity.badRequest().body(
@@ -35,6 +70,20 @@ public class BookingController {
                 ));
     }
 
+    @PostMapping("/group")
+    public Mono<ResponseEntity<GroupBookingResponse>> createGroupBooking(@Valid @RequestBody GroupBookingRequest request) {
+        return bookingService.createGroupBooking(request)
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
+                .onErrorResume(e -> Mono.just(
+                        ResponseEntity.badRequest().body(
+                                GroupBookingResponse.builder()
+                                        .message(e.getMessage())
+                                        .status("FAILED")
+                                        .build()
+                        )
+                ));
+    }
+
     @DeleteMapping("/cancel/{pnr}")
     public Mono<ResponseEntity<BookingResponse>> cancelBooking(@PathVariable String pnr) {
         return bookingService.cancelBooking(pnr)
@@ -58,10 +107,54 @@ public class BookingController {
     }
 
     @GetMapping("/history/{email}")
-    public Mono<ResponseEntity<List<BookingResponse>>> getBookingHistory(@PathVariable String email) {
-        return bookingService.getBookingHistory(email)
-                .collectList()
-                .map(ResponseEntity::ok)
-                .defaultIfEmpty(ResponseEntity.ok(List.of()));
+    public Mono<ResponseEntity<List<BookingResponse>>> getBookingHistory(
+            @PathVariable String email,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size) {
+
+        BookingHistoryCursor cursor;
+        try {
+            cursor = BookingHistoryCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return bookingService.getBookingHistoryPage(email, cursor, size)
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.getNextCursor() != null) {
+                        response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+                    }
+                    return response.body(page.getItems());
+                });
+    }
+
+    @GetMapping(value = "/history/{email}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<BookingResponse>>> streamBookingHistory(
+            @PathVariable String email,
+            @RequestParam(required = false) String after) {
+
+        BookingHistoryCursor cursor;
+        try {
+            cursor = BookingHistoryCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return Mono.just(ResponseEntity.ok(bookingService.streamBookingHistory(email, cursor)));
+    }
+
+    @PostMapping(value = "/admin/flights/{flightId}/disruption", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DisruptionProgress>>> disruptFlight(
+            @PathVariable Long flightId,
+            @RequestParam DisruptionAction action,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+
+        // Check if user has ADMIN role
+        if (userRole == null || !userRole.equals("ADMIN")) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+
+        return Mono.just(ResponseEntity.ok(disruptionService.disruptFlight(flightId, action)));
     }
 }
@@ -0,0 +1,17 @@
+package com.flightapp.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingHistoryPage {
+    private List<BookingResponse> items;
+    private String nextCursor;
+}
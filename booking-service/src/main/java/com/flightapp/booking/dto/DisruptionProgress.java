@@ -0,0 +1,25 @@
+package com.flightapp.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DisruptionProgress {
+    private String status;
+    private Long flightId;
+    private String action;
+    private Integer chunk;
+    private Long processed;
+    private Long updated;
+    private Long skipped;
+    private Long seatsRestored;
+    private Long notificationsQueued;
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.flightapp.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Several notifications published as one message.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailBatch implements Serializable {
+    private String batchId;
+    private List<EmailNotification> notifications;
+}
@@ -0,0 +1,26 @@
+package com.flightapp.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBookingRequest {
+
+    @NotNull(message = "Flight ID is required")
+    private Long flightId;
+
+    // One seat per passenger
+    @NotEmpty(message = "At least 1 passenger is required")
+    @Size(max = 50, message = "A group booking takes at most 50 passengers")
+    private List<@Valid PassengerDetails> passengers;
+}
@@ -0,0 +1,24 @@
+package com.flightapp.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBookingResponse {
+    private String groupId;
+    private String flightNumber;
+    private Integer numberOfSeats;
+    private Double totalAmount;
+    private String status;
+    private LocalDateTime bookingDate;
+    private List<BookingResponse> bookings;
+    private String message;
+}
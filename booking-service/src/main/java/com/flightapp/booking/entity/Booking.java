@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -14,12 +16,18 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "bookings")
+@CompoundIndex(name = "passengerEmail_bookingDate_id", def = "{'passengerEmail': 1, 'bookingDate': -1, '_id': -1}")
 public class Booking {
 
     @Id
     private String id;
 
+    @Indexed(unique = true)
     private String pnr;
+    // Lead PNR of a group booking; null for single bookings
+    private String groupId;
+    // Disruption handling reads every booking of a flight
+    @Indexed
     private Long flightId;
     private String flightNumber;
     private String passengerName;
@@ -0,0 +1,42 @@
+package com.flightapp.booking.entity;
+
+import com.flightapp.booking.dto.BookingResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a POST /book call made with an Idempotency-Key. The id is the
+ * caller-scoped key, so the collection's _id index is what makes a key unique.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "booking_idempotency")
+public class IdempotencyRecord {
+
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    private String id;
+
+    private String requestHash;
+    private String status;
+    private Integer httpStatus;
+    private BookingResponse response;
+    private LocalDateTime createdAt;
+    // PNR the booking is made under, fixed when the key is claimed so a takeover can
+    // tell whether the request it replaces already saved its booking
+    private String pnr;
+    // Renewed while the claiming request is still running; a claim not renewed within
+    // the lease timeout belongs to a request that died and may be taken over
+    private LocalDateTime leasedAt;
+    private LocalDateTime completedAt;
+}
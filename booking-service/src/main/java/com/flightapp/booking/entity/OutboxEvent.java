@@ -0,0 +1,42 @@
+package com.flightapp.booking.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A message waiting to be published to RabbitMQ. It is written in the same
+ * transaction as the booking change it describes and relayed by OutboxRelay.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "booking_outbox")
+public class OutboxEvent {
+
+    public static final String PENDING = "PENDING";
+    public static final String PUBLISHED = "PUBLISHED";
+
+    @Id
+    private String id;
+
+    private String aggregateId;
+    private String type;
+    private String exchange;
+    private String routingKey;
+    private Object payload;
+    private String status;
+    private Integer attempts;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime availableAt;
+    private String leaseOwner;
+    private LocalDateTime leaseExpiresAt;
+    private LocalDateTime publishedAt;
+}
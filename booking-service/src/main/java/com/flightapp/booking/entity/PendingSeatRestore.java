@@ -0,0 +1,31 @@
+package com.flightapp.booking.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Seats of cancelled bookings not yet given back to flight-service, one document
+ * per flight. Seats are added in the same transaction as the cancellation and
+ * taken off once flight-service has them back; see SeatRestoreLedger.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "pending_seat_restores")
+public class PendingSeatRestore {
+
+    @Id
+    private Long flightId;
+
+    private Long seats;
+    private LocalDateTime updatedAt;
+    // Set while one instance is restoring the seats so no other restores them too
+    private LocalDateTime leasedUntil;
+}
@@ -1,5 +1,6 @@
 package com.flightapp.booking.messaging;
 
+import com.flightapp.booking.dto.EmailBatch;
 import com.flightapp.booking.dto.EmailNotification;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -21,6 +22,15 @@ public class EmailConsumer {
         sendActualEmail(notification);
     }
 
+    @RabbitListener(queues = RabbitMQConfig.EMAIL_BATCH_QUEUE)
+    public void consumeEmailBatch(EmailBatch batch) {
+        log.info("Received batch {} with {} email notifications", batch.getBatchId(),
+                batch.getNotifications() == null ? 0 : batch.getNotifications().size());
+        if (batch.getNotifications() != null) {
+            batch.getNotifications().forEach(this::sendActualEmail);
+        }
+    }
+
     private void sendActualEmail(EmailNotification notification) {
         log.info("Sending actual email to: {}", notification.getTo());
         log.info("Email Body:\n{}", notification.getBody());
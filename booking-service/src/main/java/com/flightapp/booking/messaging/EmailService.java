@@ -1,28 +1,62 @@
 package com.flightapp.booking.messaging;
 
+import com.flightapp.booking.dto.EmailBatch;
 import com.flightapp.booking.dto.EmailNotification;
+import com.flightapp.booking.entity.OutboxEvent;
+import com.flightapp.booking.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-    private final RabbitTemplate rabbitTemplate;
-
-    public void sendBookingConfirmation(EmailNotification notification) {
-        try {
-            rabbitTemplate.convertAndSend(
-                    RabbitMQConfig.EMAIL_EXCHANGE,
-                    RabbitMQConfig.EMAIL_ROUTING_KEY,
-                    notification
-            );
-            log.info("Booking confirmation email sent to queue for PNR: {}", notification.getPnr());
-        } catch (Exception e) {
-            log.error("Failed to send email to queue: {}", e.getMessage());
-        }
+    public static final String BOOKING_CONFIRMED = "BOOKING_CONFIRMED";
+    public static final String GROUP_BOOKING_CONFIRMED = "GROUP_BOOKING_CONFIRMED";
+    public static final String FLIGHT_CANCELLED = "FLIGHT_CANCELLED";
+    public static final String FLIGHT_DISRUPTED = "FLIGHT_DISRUPTED";
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    /**
+     * Queues the confirmation in the outbox; {@link OutboxRelay} publishes it to RabbitMQ.
+     * Call it inside the transaction that saves the booking.
+     */
+    public Mono<Void> sendBookingConfirmation(EmailNotification notification) {
+        return enqueue(notification.getPnr(), BOOKING_CONFIRMED, RabbitMQConfig.EMAIL_ROUTING_KEY, notification)
+                .doOnNext(saved -> log.debug("Booking confirmation queued in outbox for PNR: {}", notification.getPnr()))
+                .then();
+    }
+
+    /**
+     * Queues several notifications as one outbox event and one RabbitMQ message.
+     */
+    public Mono<Void> sendBatch(String type, EmailBatch batch) {
+        return enqueue(batch.getBatchId(), type, RabbitMQConfig.EMAIL_BATCH_ROUTING_KEY, batch)
+                .doOnNext(saved -> log.debug("{} notifications for {} queued in outbox", batch.getNotifications().size(),
+                        batch.getBatchId()))
+                .then();
+    }
+
+    private Mono<OutboxEvent> enqueue(String aggregateId, String type, String routingKey, Object payload) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent event = OutboxEvent.builder()
+                .aggregateId(aggregateId)
+                .type(type)
+                .exchange(RabbitMQConfig.EMAIL_EXCHANGE)
+                .routingKey(routingKey)
+                .payload(payload)
+                .status(OutboxEvent.PENDING)
+                .attempts(0)
+                .createdAt(now)
+                .availableAt(now)
+                .build();
+
+        return outboxEventRepository.save(event);
     }
 }
@@ -0,0 +1,260 @@
+package com.flightapp.booking.messaging;
+
+import com.flightapp.booking.config.OutboxProperties;
+import com.flightapp.booking.entity.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Publishes pending outbox events to RabbitMQ. Every instance runs a relay; each
+ * poll leases a batch so no two instances publish the same event at the same time,
+ * and an event is only marked published once the broker has confirmed it. Delivery
+ * is at least once; the event id is sent as the AMQP message id.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final OutboxProperties properties;
+    private final String owner = "booking-service:" + UUID.randomUUID();
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer lagTimer;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestPendingSeconds = new AtomicLong();
+
+    private Disposable poller;
+
+    public OutboxRelay(ReactiveMongoTemplate mongoTemplate,
+                       RabbitTemplate rabbitTemplate,
+                       OutboxProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = properties;
+        this.publishedCounter = Counter.builder("booking.outbox.events")
+                .tag("outcome", "published")
+                .description("Outbox events confirmed by the broker")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("booking.outbox.events")
+                .tag("outcome", "failed")
+                .description("Outbox publish attempts that were rejected or timed out")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("booking.outbox.lag")
+                .description("Time from writing an outbox event to the broker confirming it")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("booking.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Outbox events not yet published")
+                .register(meterRegistry);
+        Gauge.builder("booking.outbox.oldest.age", oldestPendingSeconds, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isRelayEnabled()) {
+            log.info("Outbox relay disabled on this instance");
+            return;
+        }
+        poller = ensureIndexes()
+                .thenMany(Flux.interval(properties.getPollInterval()))
+                .onBackpressureDrop()
+                .concatMap(tick -> relayBatch().then(refreshBacklog()))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (poller != null) {
+            poller.dispose();
+        }
+    }
+
+    /**
+     * Claims one batch of due events, publishes it and records each outcome.
+     * Emits the number of events the broker confirmed.
+     */
+    public Mono<Long> relayBatch() {
+        // Mongo keeps milliseconds; truncate so the lease we wrote can be matched exactly
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        return claim(now)
+                .flatMapMany(this::publish)
+                .filter(Boolean::booleanValue)
+                .count()
+                .doOnError(e -> log.error("Outbox relay failed: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.just(0L));
+    }
+
+    private Mono<List<OutboxEvent>> claim(LocalDateTime now) {
+        LocalDateTime leaseUntil = now.plus(properties.getLeaseDuration());
+        Query due = query(due(now))
+                .with(Sort.by("availableAt"))
+                .limit(properties.getBatchSize());
+        due.fields().include("_id");
+
+        return mongoTemplate.find(due, OutboxEvent.class)
+                .map(OutboxEvent::getId)
+                .collectList()
+                .flatMap(ids -> ids.isEmpty()
+                        ? Mono.just(List.<OutboxEvent>of())
+                        // Only events still unleased are taken, so concurrent relays split the batch
+                        : mongoTemplate.updateMulti(
+                                        query(new Criteria().andOperator(where("_id").in(ids), due(now))),
+                                        new Update().set("leaseOwner", owner).set("leaseExpiresAt", leaseUntil),
+                                        OutboxEvent.class)
+                                .then(mongoTemplate.find(
+                                        query(where("_id").in(ids).and("leaseOwner").is(owner)
+                                                .and("leaseExpiresAt").is(leaseUntil)),
+                                        OutboxEvent.class).collectList()));
+    }
+
+    private static Criteria due(LocalDateTime now) {
+        return where("status").is(OutboxEvent.PENDING)
+                .and("availableAt").lte(now)
+                .orOperator(where("leaseExpiresAt").is(null), where("leaseExpiresAt").lt(now));
+    }
+
+    private Flux<Boolean> publish(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return Flux.empty();
+        }
+        // RabbitTemplate sends block on the channel; confirms arrive asynchronously
+        return Mono.fromCallable(() -> events.stream().map(this::send).toList())
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(sent -> awaitConfirm(sent)
+                        .flatMap(error -> error.isEmpty()
+                                ? markPublished(sent.event())
+                                : markFailed(sent.event(), error)));
+    }
+
+    private Sent send(OutboxEvent event) {
+        CorrelationData correlation = new CorrelationData(event.getId());
+        try {
+            rabbitTemplate.convertAndSend(event.getExchange(), event.getRoutingKey(), event.getPayload(), message -> {
+                message.getMessageProperties().setMessageId(event.getId());
+                return message;
+            }, correlation);
+            return new Sent(event, correlation, null);
+        } catch (Exception e) {
+            return new Sent(event, correlation, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Emits an empty string when the broker confirmed the event, otherwise the reason it failed.
+     */
+    private Mono<String> awaitConfirm(Sent sent) {
+        if (sent.sendError() != null) {
+            return Mono.just(sent.sendError());
+        }
+        return Mono.fromFuture(sent.correlation().getFuture())
+                .timeout(properties.getConfirmTimeout())
+                .map(confirm -> {
+                    if (!confirm.isAck()) {
+                        return "nack: " + confirm.getReason();
+                    }
+                    return sent.correlation().getReturned() != null ? "unroutable" : "";
+                })
+                .onErrorResume(e -> Mono.just("no confirm: " + e.getClass().getSimpleName()));
+    }
+
+    private Mono<Boolean> markPublished(OutboxEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        return mongoTemplate.updateFirst(
+                        query(where("_id").is(event.getId()).and("leaseOwner").is(owner)),
+                        new Update().set("status", OutboxEvent.PUBLISHED)
+                                .set("publishedAt", now)
+                                .unset("leaseOwner")
+                                .unset("leaseExpiresAt"),
+                        OutboxEvent.class)
+                .doOnNext(result -> {
+                    publishedCounter.increment();
+                    lagTimer.record(Duration.between(event.getCreatedAt(), now));
+                })
+                .thenReturn(true);
+    }
+
+    private Mono<Boolean> markFailed(OutboxEvent event, String error) {
+        int attempts = event.getAttempts() == null ? 1 : event.getAttempts() + 1;
+        log.warn("Outbox event {} for {} not published (attempt {}): {}",
+                event.getId(), event.getAggregateId(), attempts, error);
+        return mongoTemplate.updateFirst(
+                        query(where("_id").is(event.getId()).and("leaseOwner").is(owner)),
+                        new Update().set("attempts", attempts)
+                                .set("lastError", error)
+                                .set("availableAt", LocalDateTime.now().plus(retryDelay(attempts)))
+                                .unset("leaseOwner")
+                                .unset("leaseExpiresAt"),
+                        OutboxEvent.class)
+                .doOnNext(result -> failedCounter.increment())
+                .thenReturn(false);
+    }
+
+    private Duration retryDelay(int attempts) {
+        Duration delay = properties.getRetryBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(properties.getMaxRetryBackoff()) > 0 ? properties.getMaxRetryBackoff() : delay;
+    }
+
+    private Mono<Void> refreshBacklog() {
+        Query pending = query(where("status").is(OutboxEvent.PENDING));
+        Query oldest = query(where("status").is(OutboxEvent.PENDING)).with(Sort.by("createdAt")).limit(1);
+        return mongoTemplate.count(pending, OutboxEvent.class)
+                .doOnNext(pendingEvents::set)
+                .then(mongoTemplate.findOne(oldest, OutboxEvent.class)
+                        .map(event -> Duration.between(event.getCreatedAt(), LocalDateTime.now()).toSeconds())
+                        .defaultIfEmpty(0L)
+                        .doOnNext(oldestPendingSeconds::set))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private Mono<Void> ensureIndexes() {
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(OutboxEvent.class);
+        return indexOps.ensureIndex(new Index().on("status", Sort.Direction.ASC).on("availableAt", Sort.Direction.ASC))
+                .then(indexOps.ensureIndex(new Index().on("status", Sort.Direction.ASC).on("createdAt", Sort.Direction.ASC)))
+                .then(indexOps.ensureIndex(new Index().on("publishedAt", Sort.Direction.ASC)
+                        .expire(properties.getRetention())))
+                .doOnError(e -> log.error("Failed to create outbox indexes: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private record Sent(OutboxEvent event, CorrelationData correlation, String sendError) {
+    }
+}
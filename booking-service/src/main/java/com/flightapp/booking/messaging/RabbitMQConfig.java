@@ -14,6 +14,8 @@ public class RabbitMQConfig {
     public static final String EMAIL_QUEUE = "email.queue";
     public static final String EMAIL_EXCHANGE = "email.exchange";
     public static final String EMAIL_ROUTING_KEY = "email.routing.key";
+    public static final String EMAIL_BATCH_QUEUE = "email.batch.queue";
+    public static final String EMAIL_BATCH_ROUTING_KEY = "email.batch.routing.key";
 
     @Bean
     public Queue emailQueue() {
@@ -33,6 +35,19 @@ public class RabbitMQConfig {
                 .with(EMAIL_ROUTING_KEY);
     }
 
+    @Bean
+    public Queue emailBatchQueue() {
+        return new Queue(EMAIL_BATCH_QUEUE, true);
+    }
+
+    @Bean
+    public Binding emailBatchBinding() {
+        return BindingBuilder
+                .bind(emailBatchQueue())
+                .to(emailExchange())
+                .with(EMAIL_BATCH_ROUTING_KEY);
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -42,6 +57,8 @@ public class RabbitMQConfig {
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(jsonMessageConverter());
+        // Unroutable messages come back on the publisher confirm instead of being dropped
+        template.setMandatory(true);
         return template;
     }
 }
@@ -0,0 +1,129 @@
+package com.flightapp.booking.repository;
+
+import com.flightapp.booking.entity.Booking;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the indexes declared on {@link Booking} at startup and checks, with
+ * explain(), that every {@link BookingRepository} query is answered from an index.
+ * A query planned as a COLLSCAN is logged, counted in booking.query.collscans and
+ * listed by the bookingIndexes health indicator.
+ */
+@Component
+@Slf4j
+public class BookingIndexManager {
+
+    public static final String COLLSCAN = "COLLSCAN";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final AtomicInteger collectionScans = new AtomicInteger();
+
+    public BookingIndexManager(ReactiveMongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        Gauge.builder("booking.query.collscans", collectionScans, AtomicInteger::get)
+                .description("Booking repository queries planned as a collection scan at the last check")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ensureIndexes()
+                .thenMany(explainQueries())
+                .collectList()
+                .doOnNext(plans -> plans.stream()
+                        .filter(QueryPlan::collectionScan)
+                        .forEach(plan -> log.warn("Booking query {} runs as a collection scan: {}", plan.query(), plan.stages())))
+                .doOnError(e -> log.error("Failed to verify booking indexes: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .subscribe();
+    }
+
+    public Mono<Void> ensureIndexes() {
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(Booking.class);
+        Iterable<? extends IndexDefinition> declared = IndexResolver
+                .create(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(Booking.class);
+        return Flux.fromIterable(declared)
+                .concatMap(indexOps::ensureIndex)
+                .doOnNext(name -> log.debug("Ensured bookings index {}", name))
+                .then();
+    }
+
+    /**
+     * Runs explain (queryPlanner verbosity, so nothing is executed) for each repository
+     * query and reports the stages of the winning plan.
+     */
+    public Flux<QueryPlan> explainQueries() {
+        String collection = mongoTemplate.getCollectionName(Booking.class);
+        return Flux.fromIterable(probes().entrySet())
+                .concatMap(probe -> {
+                    Document find = new Document("find", collection);
+                    find.putAll(probe.getValue());
+                    return mongoTemplate.executeCommand(new Document("explain", find).append("verbosity", "queryPlanner"))
+                            .map(result -> {
+                                List<String> stages = new ArrayList<>();
+                                Document planner = result.get("queryPlanner", Document.class);
+                                collectStages(planner == null ? null : planner.get("winningPlan"), stages);
+                                return new QueryPlan(probe.getKey(), stages, stages.contains(COLLSCAN));
+                            });
+                })
+                .collectList()
+                .doOnNext(plans -> collectionScans.set((int) plans.stream().filter(QueryPlan::collectionScan).count()))
+                .flatMapIterable(plans -> plans);
+    }
+
+    // Sample filters matching the queries of BookingRepository and of flight disruptions
+    private static Map<String, Document> probes() {
+        Map<String, Document> probes = new LinkedHashMap<>();
+        probes.put("findByPnr", new Document("filter", new Document("pnr", "PNR000000000000")));
+        probes.put("findHistoryPage", new Document("filter",
+                new Document("passengerEmail", "explain@example.com")
+                        .append("bookingDate", new Document("$lt", new Date())))
+                .append("projection", new Document("pnr", 1).append("bookingDate", 1))
+                .append("sort", new Document("bookingDate", -1).append("_id", -1))
+                .append("limit", 51));
+        probes.put("disruptFlight", new Document("filter",
+                new Document("flightId", 0L)
+                        .append("status", new Document("$in", List.of("CONFIRMED", "DISRUPTED")))));
+        return probes;
+    }
+
+    // Winning plans nest their stages under inputStage(s), and under queryPlan on the SBE engine
+    private static void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage instanceof String name) {
+                stages.add(name);
+            }
+            for (Object value : document.values()) {
+                collectStages(value, stages);
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object value : list) {
+                collectStages(value, stages);
+            }
+        }
+    }
+
+    public record QueryPlan(String query, List<String> stages, boolean collectionScan) {
+    }
+}
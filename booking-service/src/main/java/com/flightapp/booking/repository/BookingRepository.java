@@ -1,13 +1,29 @@
 package com.flightapp.booking.repository;
 
 import com.flightapp.booking.entity.Booking;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface BookingRepository extends ReactiveMongoRepository<Booking, String> {
     Mono<Booking> findByPnr(String pnr);
-    Flux<Booking> findByPassengerEmail(String passengerEmail);
+
+    // Only matches a booking not cancelled yet, so of two racing cancellations exactly one counts
+    @Query("{ 'pnr': ?0, 'status': { $ne: 'CANCELLED' } }")
+    @Update("{ $set: { 'status': 'CANCELLED', 'updatedAt': ?1 } }")
+    Mono<Long> cancelByPnr(String pnr, LocalDateTime cancelledAt);
+
+    // Fetches only what a history entry shows, plus the id for the next cursor
+    @Query(value = "{ 'passengerEmail': ?0, $or: [ { 'bookingDate': { $lt: ?1 } }, { 'bookingDate': ?1, '_id': { $lt: ?2 } } ] }",
+            fields = "{ 'pnr': 1, 'flightNumber': 1, 'passengerName': 1, 'numberOfSeats': 1, 'totalAmount': 1, 'status': 1, 'bookingDate': 1 }",
+            sort = "{ 'bookingDate': -1, '_id': -1 }")
+    Flux<Booking> findHistoryPage(String passengerEmail, LocalDateTime beforeBookingDate, ObjectId beforeId, Limit limit);
 }
@@ -0,0 +1,9 @@
+package com.flightapp.booking.repository;
+
+import com.flightapp.booking.entity.OutboxEvent;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxEventRepository extends ReactiveMongoRepository<OutboxEvent, String> {
+}
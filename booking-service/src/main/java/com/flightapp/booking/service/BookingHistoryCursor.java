@@ -0,0 +1,48 @@
+package com.flightapp.booking.service;
+
+import com.flightapp.booking.entity.Booking;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last booking a client has seen in a history, which is ordered
+ * newest first by booking date and then id. Clients only see the opaque encoded form.
+ */
+public record BookingHistoryCursor(LocalDateTime bookingDate, ObjectId id) {
+
+    // Later than any booking, so the first page needs no special query
+    private static final BookingHistoryCursor START = new BookingHistoryCursor(
+            LocalDateTime.of(9999, 12, 31, 23, 59), new ObjectId("ffffffffffffffffffffffff"));
+
+    public static BookingHistoryCursor start() {
+        return START;
+    }
+
+    public static BookingHistoryCursor after(Booking booking) {
+        return new BookingHistoryCursor(booking.getBookingDate(), new ObjectId(booking.getId()));
+    }
+
+    public static BookingHistoryCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return START;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('_');
+            return new BookingHistoryCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    new ObjectId(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((bookingDate + "_" + id.toHexString()).getBytes(StandardCharsets.UTF_8));
+    }
+}
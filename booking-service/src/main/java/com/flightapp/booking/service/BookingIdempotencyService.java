@@ -0,0 +1,346 @@
+package com.flightapp.booking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.booking.config.IdempotencyProperties;
+import com.flightapp.booking.dto.BookingRequest;
+import com.flightapp.booking.dto.BookingResponse;
+import com.flightapp.booking.entity.IdempotencyRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Runs a booking at most once per Idempotency-Key. The first request claims the
+ * key by inserting it; duplicates wait for that request to finish and get the
+ * same response. Duplicates on this instance share the first call directly,
+ * duplicates on other instances poll the stored record. Only successful
+ * bookings are remembered; a failed attempt releases the key so it can be retried.
+ * <p>
+ * A claim is a lease: the request holding it renews leasedAt while the booking runs.
+ * If the instance dies mid-booking the claim stops being renewed, and once a duplicate
+ * has seen the same leasedAt for the lease timeout it takes the claim over instead of
+ * getting 409 until the TTL index removes it. The claim fixes the booking's PNR up
+ * front, so the takeover books under that same PNR: if the dead request had already
+ * saved its booking, that booking is returned rather than made again. Seats it had
+ * reserved but not yet booked are not recovered.
+ */
+@Service
+@Slf4j
+public class BookingIdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final PnrGenerator pnrGenerator;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Counter firstCounter;
+    private final Counter replayedCounter;
+    private final Counter conflictCounter;
+    private final Counter mismatchCounter;
+    private final Counter takeoverCounter;
+    private final Timer waitTimer;
+
+    public BookingIdempotencyService(ReactiveMongoTemplate mongoTemplate,
+                                     ObjectMapper objectMapper,
+                                     IdempotencyProperties properties,
+                                     PnrGenerator pnrGenerator,
+                                     MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.pnrGenerator = pnrGenerator;
+        this.firstCounter = requestCounter(meterRegistry, "first");
+        this.replayedCounter = requestCounter(meterRegistry, "replayed");
+        this.conflictCounter = requestCounter(meterRegistry, "conflict");
+        this.mismatchCounter = requestCounter(meterRegistry, "mismatch");
+        this.takeoverCounter = Counter.builder("booking.idempotency.takeovers")
+                .description("Claims taken over because the request holding them stopped renewing the lease")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("booking.idempotency.wait")
+                .description("Time a duplicate request waited for the first request's outcome")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("booking.idempotency.hit.ratio", this, BookingIdempotencyService::hitRatio)
+                .description("Share of keyed booking requests answered with a stored response")
+                .register(meterRegistry);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("booking.idempotency.requests")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        mongoTemplate.indexOps(IdempotencyRecord.class)
+                .ensureIndex(new Index().on("createdAt", Sort.Direction.ASC).expire(properties.getTtl()))
+                .doOnError(e -> log.error("Failed to create idempotency TTL index: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .subscribe();
+    }
+
+    public boolean isValidKey(String key) {
+        return !key.isBlank() && key.length() <= properties.getMaxKeyLength();
+    }
+
+    /**
+     * @param caller keys are scoped per caller so two users cannot collide on the same key
+     * @param booking makes the booking under the given PNR, or returns the one already made under it
+     */
+    public Mono<ResponseEntity<BookingResponse>> execute(String caller, String key, BookingRequest request,
+                                                         Function<String, Mono<ResponseEntity<BookingResponse>>> booking) {
+        String id = (caller == null ? "" : caller) + ':' + key;
+        String requestHash = hash(request);
+
+        return Mono.defer(() -> {
+            InFlight first = new InFlight(requestHash, Mono.defer(() -> claimOrAwait(id, requestHash, booking))
+                    .doFinally(signal -> inFlight.remove(id))
+                    .cache());
+            InFlight existing = inFlight.putIfAbsent(id, first);
+            if (existing == null) {
+                return first.result();
+            }
+            if (!existing.requestHash().equals(requestHash)) {
+                return Mono.just(mismatch());
+            }
+            long startNanos = System.nanoTime();
+            return existing.result()
+                    .map(response -> replayed(response, startNanos));
+        });
+    }
+
+    private Mono<ResponseEntity<BookingResponse>> claimOrAwait(String id, String requestHash,
+                                                               Function<String, Mono<ResponseEntity<BookingResponse>>> booking) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord claim = IdempotencyRecord.builder()
+                .id(id)
+                .requestHash(requestHash)
+                .status(IdempotencyRecord.IN_PROGRESS)
+                .pnr(pnrGenerator.next())
+                .createdAt(now)
+                .leasedAt(now)
+                .build();
+
+        return mongoTemplate.insert(claim)
+                .map(inserted -> true)
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false))
+                .flatMap(claimed -> claimed
+                        ? runFirst(id, claim.getPnr(), booking)
+                        : awaitOther(id, requestHash, booking));
+    }
+
+    private Mono<ResponseEntity<BookingResponse>> runFirst(String id, String pnr,
+                                                           Function<String, Mono<ResponseEntity<BookingResponse>>> booking) {
+        firstCounter.increment();
+        return Mono.using(() -> renewLease(id),
+                heartbeat -> booking.apply(pnr)
+                        .flatMap(response -> remember(id, response))
+                        .onErrorResume(e -> release(id).then(Mono.error(e))),
+                Disposable::dispose);
+    }
+
+    // Renews often enough that a duplicate never sees a live claim unchanged for the lease timeout
+    private Disposable renewLease(String id) {
+        return Flux.interval(properties.getLeaseTimeout().dividedBy(3))
+                .concatMap(tick -> mongoTemplate.updateFirst(
+                                query(where("_id").is(id).and("status").is(IdempotencyRecord.IN_PROGRESS)),
+                                new Update().set("leasedAt", LocalDateTime.now()),
+                                IdempotencyRecord.class)
+                        .doOnError(e -> log.warn("Failed to renew idempotency claim {}: {}", id, e.getMessage()))
+                        .onErrorResume(e -> Mono.empty()))
+                .subscribe();
+    }
+
+    /**
+     * Takes over a claim whose lease expired. The update only matches while leasedAt is
+     * the one we read (null also matches a claim without it), so of several duplicates
+     * racing for it exactly one wins; the others go back to waiting on the winner.
+     * The winner books under the claim's PNR, so it never books a second time.
+     */
+    private Mono<ResponseEntity<BookingResponse>> takeOver(String id, IdempotencyRecord stale, String requestHash,
+                                                           Function<String, Mono<ResponseEntity<BookingResponse>>> booking) {
+        if (stale.getPnr() == null) {
+            // Claimed before PNRs were fixed up front: no way to tell whether it booked, so never rerun it
+            return Mono.just(conflict());
+        }
+        return mongoTemplate.updateFirst(
+                        query(where("_id").is(id)
+                                .and("status").is(IdempotencyRecord.IN_PROGRESS)
+                                .and("leasedAt").is(stale.getLeasedAt())),
+                        new Update().set("leasedAt", LocalDateTime.now()),
+                        IdempotencyRecord.class)
+                .flatMap(result -> {
+                    if (result.getModifiedCount() == 0) {
+                        return claimOrAwait(id, requestHash, booking);
+                    }
+                    takeoverCounter.increment();
+                    log.warn("Taking over idempotency claim {} last renewed at {}", id, stale.getLeasedAt());
+                    return runFirst(id, stale.getPnr(), booking);
+                });
+    }
+
+    private Mono<ResponseEntity<BookingResponse>> remember(String id, ResponseEntity<BookingResponse> response) {
+        BookingResponse body = response.getBody();
+        boolean booked = response.getStatusCode().is2xxSuccessful() && body != null && !"FAILED".equals(body.getStatus());
+        if (!booked) {
+            return release(id).thenReturn(response);
+        }
+        return mongoTemplate.updateFirst(
+                        query(where("_id").is(id)),
+                        new Update().set("status", IdempotencyRecord.COMPLETED)
+                                .set("httpStatus", response.getStatusCode().value())
+                                .set("response", body)
+                                .set("completedAt", LocalDateTime.now()),
+                        IdempotencyRecord.class)
+                .thenReturn(response);
+    }
+
+    private Mono<Void> release(String id) {
+        return mongoTemplate.remove(query(where("_id").is(id)), IdempotencyRecord.class).then();
+    }
+
+    /**
+     * Another instance holds the key: poll until it completes, releases the key, lets its
+     * lease expire, or the wait times out.
+     */
+    private Mono<ResponseEntity<BookingResponse>> awaitOther(String id, String requestHash,
+                                                             Function<String, Mono<ResponseEntity<BookingResponse>>> booking) {
+        long startNanos = System.nanoTime();
+        Predicate<IdempotencyRecord> leaseExpired = new LeaseWatch(properties.getLeaseTimeout().toNanos());
+        return Mono.defer(() -> mongoTemplate.findById(id, IdempotencyRecord.class)
+                        .map(Lookup::new)
+                        .defaultIfEmpty(Lookup.RELEASED))
+                .filter(lookup -> lookup.record() == null
+                        || !IdempotencyRecord.IN_PROGRESS.equals(lookup.record().getStatus())
+                        || !requestHash.equals(lookup.record().getRequestHash())
+                        || leaseExpired.test(lookup.record()))
+                .repeatWhenEmpty(repeats -> repeats.delayElements(properties.getPollInterval()))
+                .timeout(properties.getWaitTimeout())
+                .flatMap(lookup -> {
+                    IdempotencyRecord record = lookup.record();
+                    if (record == null) {
+                        // The first attempt failed and gave the key back; try to claim it ourselves
+                        return claimOrAwait(id, requestHash, booking);
+                    }
+                    if (!requestHash.equals(record.getRequestHash())) {
+                        return Mono.just(mismatch());
+                    }
+                    if (IdempotencyRecord.IN_PROGRESS.equals(record.getStatus())) {
+                        return takeOver(id, record, requestHash, booking);
+                    }
+                    return Mono.just(replayed(ResponseEntity.status(record.getHttpStatus()).body(record.getResponse()),
+                            startNanos));
+                })
+                .onErrorResume(TimeoutException.class, e -> Mono.just(conflict()));
+    }
+
+    private ResponseEntity<BookingResponse> conflict() {
+        conflictCounter.increment();
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(BookingResponse.builder()
+                .status("FAILED")
+                .message("A request with this Idempotency-Key is still in progress")
+                .build());
+    }
+
+    private ResponseEntity<BookingResponse> replayed(ResponseEntity<BookingResponse> response, long startNanos) {
+        replayedCounter.increment();
+        waitTimer.record(Duration.ofNanos(System.nanoTime() - startNanos));
+        return ResponseEntity.status(response.getStatusCode())
+                .header(REPLAYED_HEADER, "true")
+                .body(response.getBody());
+    }
+
+    private ResponseEntity<BookingResponse> mismatch() {
+        mismatchCounter.increment();
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(BookingResponse.builder()
+                .status("FAILED")
+                .message("Idempotency-Key was already used with a different request")
+                .build());
+    }
+
+    private String hash(BookingRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint booking request", e);
+        }
+    }
+
+    private double hitRatio() {
+        double replayed = replayedCounter.count();
+        double total = replayed + firstCounter.count();
+        return total == 0 ? 0 : replayed / total;
+    }
+
+    private record InFlight(String requestHash, Mono<ResponseEntity<BookingResponse>> result) {
+    }
+
+    private record Lookup(IdempotencyRecord record) {
+        static final Lookup RELEASED = new Lookup(null);
+    }
+
+    /**
+     * Decides that a lease expired from what this instance saw, not from the holder's
+     * timestamps: the lease is expired once the same leasedAt has been read for the
+     * lease timeout, timed with this instance's monotonic clock. Only one waiter uses it.
+     */
+    private static final class LeaseWatch implements Predicate<IdempotencyRecord> {
+
+        private final long leaseTimeoutNanos;
+        private LocalDateTime lastLeasedAt;
+        private long unchangedSinceNanos;
+        private boolean seen;
+
+        LeaseWatch(long leaseTimeoutNanos) {
+            this.leaseTimeoutNanos = leaseTimeoutNanos;
+        }
+
+        @Override
+        public boolean test(IdempotencyRecord record) {
+            long now = System.nanoTime();
+            if (!seen || !Objects.equals(lastLeasedAt, record.getLeasedAt())) {
+                seen = true;
+                lastLeasedAt = record.getLeasedAt();
+                unchangedSinceNanos = now;
+                return false;
+            }
+            return now - unchangedSinceNanos >= leaseTimeoutNanos;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.flightapp.booking.service;
+
+import com.flightapp.booking.config.PnrLookupProperties;
+import com.flightapp.booking.entity.Booking;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Read path for bookings by PNR: a bounded cache of recently read bookings, and a
+ * Bloom filter of every issued PNR so that lookups of PNRs that were never issued
+ * are answered without a database round trip.
+ * <p>
+ * The filter is loaded from the bookings collection at startup and on an interval,
+ * and PNRs created here are added as they are issued. PNRs created by other
+ * instances since the last load are not in it, so a miss is only trusted when the
+ * time embedded in the PNR is older than that load (or impossibly far in the future).
+ */
+@Component
+@Slf4j
+public class BookingLookupCache {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final PnrLookupProperties properties;
+    private final Clock clock;
+    private final Cache<String, Booking> cache;
+    private final Counter bloomRejections;
+    private final Timer rebuildTimer;
+
+    private volatile PnrBloomFilter filter;
+    // Epoch second at which the current filter's load started
+    private volatile long loadedFromEpochSecond;
+    private volatile Set<String> issuedDuringRebuild;
+    private Disposable refresher;
+
+    @Autowired
+    public BookingLookupCache(ReactiveMongoTemplate mongoTemplate, PnrLookupProperties properties,
+                              MeterRegistry meterRegistry) {
+        this(mongoTemplate, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    public BookingLookupCache(ReactiveMongoTemplate mongoTemplate, PnrLookupProperties properties,
+                              MeterRegistry meterRegistry, Clock clock) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "bookingByPnr");
+        this.bloomRejections = Counter.builder("booking.pnr.bloom.rejections")
+                .description("PNR lookups rejected by the Bloom filter without a database read")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("booking.pnr.bloom.rebuild")
+                .description("Time taken to reload the PNR Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("booking.pnr.bloom.size", this, lookup -> lookup.filter == null ? 0 : lookup.filter.approximateCount())
+                .description("PNRs added to the Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("booking.pnr.bloom.memory", this, lookup -> lookup.filter == null ? 0 : lookup.filter.sizeInBytes())
+                .description("Heap used by the Bloom filter bits")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isBloomEnabled()) {
+            return;
+        }
+        refresher = Flux.interval(Duration.ZERO, properties.getBloomRebuildInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> rebuild())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    public Mono<Booking> get(String pnr, Supplier<Mono<Booking>> loader) {
+        return Mono.defer(() -> {
+            if (properties.isCacheEnabled()) {
+                Booking cached = cache.getIfPresent(pnr);
+                if (cached != null) {
+                    return Mono.just(cached);
+                }
+            }
+            if (!mightExist(pnr)) {
+                bloomRejections.increment();
+                return Mono.empty();
+            }
+            return loader.get()
+                    .doOnNext(booking -> {
+                        if (properties.isCacheEnabled()) {
+                            cache.put(pnr, booking);
+                        }
+                    });
+        });
+    }
+
+    public void issued(String pnr) {
+        PnrBloomFilter current = filter;
+        if (current != null) {
+            current.add(pnr);
+        }
+        Set<String> pending = issuedDuringRebuild;
+        if (pending != null) {
+            pending.add(pnr);
+        }
+    }
+
+    public void invalidate(String pnr) {
+        cache.invalidate(pnr);
+    }
+
+    public boolean mightExist(String pnr) {
+        PnrBloomFilter current = filter;
+        if (!properties.isBloomEnabled() || current == null || current.mightContain(pnr)) {
+            return true;
+        }
+        OptionalLong issuedAt = PnrGenerator.issuedAtEpochSecond(pnr);
+        if (issuedAt.isEmpty()) {
+            // Legacy or foreign format: no issue time to prove the load covered it, so ask the database
+            return true;
+        }
+        long skew = properties.getClockSkew().toSeconds();
+        long issued = issuedAt.getAsLong();
+        if (issued > clock.instant().getEpochSecond() + skew) {
+            return false;
+        }
+        return issued >= loadedFromEpochSecond - skew;
+    }
+
+    public Mono<Void> rebuild() {
+        Set<String> pending = ConcurrentHashMap.newKeySet();
+        issuedDuringRebuild = pending;
+        long startedAt = clock.instant().getEpochSecond();
+        long startNanos = System.nanoTime();
+
+        Query pnrsOnly = new Query();
+        pnrsOnly.fields().include("pnr").exclude("_id");
+        return mongoTemplate.estimatedCount(Booking.class)
+                .map(count -> new PnrBloomFilter(Math.max(properties.getBloomExpectedPnrs(), count * 2),
+                        properties.getBloomFalsePositiveRate()))
+                .flatMap(fresh -> mongoTemplate.find(pnrsOnly, Document.class, mongoTemplate.getCollectionName(Booking.class))
+                        .doOnNext(row -> {
+                            String pnr = row.getString("pnr");
+                            if (pnr != null) {
+                                fresh.add(pnr);
+                            }
+                        })
+                        .then(Mono.just(fresh)))
+                .doOnNext(fresh -> {
+                    filter = fresh;
+                    loadedFromEpochSecond = startedAt;
+                    // Bookings saved while the scan ran may have been missed by it
+                    issuedDuringRebuild = null;
+                    pending.forEach(fresh::add);
+                    Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+                    rebuildTimer.record(elapsed);
+                    log.info("PNR Bloom filter loaded: {} PNRs, {} KB in {} ms",
+                            fresh.approximateCount(), fresh.sizeInBytes() / 1024, elapsed.toMillis());
+                })
+                .doOnError(e -> log.error("Failed to load PNR Bloom filter: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    public boolean isLoaded() {
+        return filter != null;
+    }
+}
@@ -1,14 +1,25 @@
 package com.flightapp.booking.service;
 
+import com.flightapp.booking.dto.BookingHistoryPage;
 import com.flightapp.booking.dto.BookingRequest;
 import com.flightapp.booking.dto.BookingResponse;
+import com.flightapp.booking.dto.GroupBookingRequest;
+import com.flightapp.booking.dto.GroupBookingResponse;
 import com.flightapp.booking.entity.Booking;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface BookingService {
     Mono<BookingResponse> createBooking(BookingRequest request);
+
+    /**
+     * Books under a PNR chosen by the caller. If a booking with that PNR already exists
+     * it is returned as is and no seats are reserved.
+     */
+    Mono<BookingResponse> createBooking(BookingRequest request, String pnr);
+    Mono<GroupBookingResponse> createGroupBooking(GroupBookingRequest request);
     Mono<BookingResponse> cancelBooking(String pnr);
     Mono<Booking> getBookingByPnr(String pnr);
-    Flux<BookingResponse> getBookingHistory(String email);
+    Mono<BookingHistoryPage> getBookingHistoryPage(String email, BookingHistoryCursor after, Integer size);
+    Flux<BookingResponse> streamBookingHistory(String email, BookingHistoryCursor after);
 }
@@ -1,10 +1,16 @@
 package com.flightapp.booking.service;
 
-import com.flightapp.booking.config.FlightServiceClient;
+import com.flightapp.booking.config.BookingHistoryProperties;
+import com.flightapp.booking.config.ReactiveFlightServiceClient;
+import com.flightapp.booking.dto.BookingHistoryPage;
 import com.flightapp.booking.dto.BookingRequest;
 import com.flightapp.booking.dto.BookingResponse;
+import com.flightapp.booking.dto.EmailBatch;
 import com.flightapp.booking.dto.EmailNotification;
-import com.flightapp.booking.dto.FlightInventory;
+import com.flightapp.booking.dto.GroupBookingRequest;
+import com.flightapp.booking.dto.GroupBookingResponse;
+import com.flightapp.booking.dto.PassengerDetails;
+import com.flightapp.booking.dto.SeatReservation;
 import com.flightapp.booking.entity.Booking;
 import com.flightapp.booking.exception.*;
 import com.flightapp.booking.messaging.EmailService;
@@ -12,13 +18,17 @@ import com.flightapp.booking.repository.BookingRepository;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -26,59 +36,178 @@ import java.util.UUID;
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
-    private final FlightServiceClient flightServiceClient;
+    private final ReactiveFlightServiceClient flightServiceClient;
     private final EmailService emailService;
+    private final TransactionalOperator transactionalOperator;
+    private final PnrGenerator pnrGenerator;
+    private final BookingHistoryProperties historyProperties;
+    private final BookingLookupCache lookupCache;
+    private final SeatRestoreLedger seatRestoreLedger;
 
+    /**
+     * Reserves the seats, then writes the booking and queues its confirmation in one
+     * transaction. If that transaction fails the seats are given back.
+     */
     @Override
     @CircuitBreaker(name = "bookingService", fallbackMethod = "createBookingFallback")
     public Mono<BookingResponse> createBooking(BookingRequest request) {
-        return Mono.fromCallable(() -> {
-            FlightInventory flight = flightServiceClient.getFlightById(request.getFlightId());
+        return book(request, pnrGenerator.next(), true)
+                .map(this::mapToResponse);
+    }
 
-            if (flight == null) {
-                throw new FlightNotFoundException("Flight not found");
-            }
+    @Override
+    @CircuitBreaker(name = "bookingService", fallbackMethod = "createBookingWithPnrFallback")
+    public Mono<BookingResponse> createBooking(BookingRequest request, String pnr) {
+        return bookingRepository.findByPnr(pnr)
+                .doOnNext(existing -> log.info("Booking {} already exists, returning it", pnr))
+                .switchIfEmpty(Mono.defer(() -> book(request, pnr, false)
+                        // Another request booked under this PNR after we looked; its booking stands
+                        .onErrorResume(DuplicateKeyException.class, e -> bookingRepository.findByPnr(pnr))))
+                .map(this::mapToResponse);
+    }
 
-            if (flight.getAvailableSeats() < request.getNumberOfSeats()) {
-                throw new InsufficientSeatsException("Insufficient seats available");
-            }
+    private Mono<Booking> book(BookingRequest request, String pnr, boolean newPnrOnCollision) {
+        return flightServiceClient.reserveSeats(request.getFlightId(), request.getNumberOfSeats())
+                .switchIfEmpty(Mono.error(new FlightNotFoundException("Flight not found")))
+                .flatMap(reservation -> reservation.isReserved()
+                        ? saveBooking(buildBooking(request, reservation, pnr), newPnrOnCollision)
+                                .onErrorResume(e -> giveBackSeats(request.getFlightId(), request.getNumberOfSeats(), e))
+                        : Mono.error(new InsufficientSeatsException("Insufficient seats available")))
+                .doOnSuccess(booking -> {
+                    lookupCache.issued(booking.getPnr());
+                    log.info("Booking created successfully with PNR: {}", booking.getPnr());
+                });
+    }
 
-            Boolean seatsReduced = flightServiceClient.reduceSeats(
-                    request.getFlightId(),
-                    request.getNumberOfSeats()
-            );
+    private Mono<Booking> saveBooking(Booking booking, boolean newPnrOnCollision) {
+        // The confirmation is queued in the outbox atomically with the booking
+        return transactionalOperator.transactional(Mono.defer(() -> bookingRepository.save(booking)
+                        .flatMap(saved -> sendBookingEmail(saved).thenReturn(saved))))
+                // Only possible if two nodes share a PNR node id
+                .retryWhen(Retry.max(2)
+                        .filter(e -> newPnrOnCollision && e instanceof DuplicateKeyException)
+                        .doBeforeRetry(signal -> {
+                            pnrGenerator.reportCollision(booking.getPnr());
+                            booking.setPnr(pnrGenerator.next());
+                        }));
+    }
 
-            if (Boolean.FALSE.equals(seatsReduced)) {
-                throw new SeatOperationException("Failed to reduce seats");
-            }
+    // Hands reserved seats back after the booking could not be written, then fails with the original error
+    private <T> Mono<T> giveBackSeats(Long flightId, int seats, Throwable error) {
+        return flightServiceClient.restoreSeats(flightId, seats)
+                .doOnError(restoreError -> log.error("Failed to restore {} seats on flight {}: {}",
+                        seats, flightId, restoreError.getMessage()))
+                .onErrorResume(restoreError -> Mono.empty())
+                .then(Mono.error(error));
+    }
 
-            String pnr = generatePnr();
-            Double totalAmount = flight.getPrice() * request.getNumberOfSeats();
+    private Booking buildBooking(BookingRequest request, SeatReservation reservation, String pnr) {
+        return Booking.builder()
+                .pnr(pnr)
+                .flightId(request.getFlightId())
+                .flightNumber(reservation.getFlightNumber())
+                .passengerName(request.getPassengerName())
+                .passengerEmail(request.getPassengerEmail())
+                .passengerPhone(request.getPassengerPhone())
+                .numberOfSeats(request.getNumberOfSeats())
+                .totalAmount(reservation.getUnitPrice() * request.getNumberOfSeats())
+                .status("CONFIRMED")
+                .bookingDate(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
 
-            return Booking.builder()
-                    .pnr(pnr)
+    /**
+     * Reserves one seat per passenger in a single flight-service call, then writes all
+     * bookings with one insert and queues one batched confirmation, in one transaction.
+     * If that transaction fails the seats are given back, so either every passenger is
+     * booked or none is.
+     */
+    @Override
+    @CircuitBreaker(name = "bookingService", fallbackMethod = "createGroupBookingFallback")
+    public Mono<GroupBookingResponse> createGroupBooking(GroupBookingRequest request) {
+        int seats = request.getPassengers().size();
+        return flightServiceClient.reserveSeats(request.getFlightId(), seats)
+                .switchIfEmpty(Mono.error(new FlightNotFoundException("Flight not found")))
+                .flatMap(reservation -> reservation.isReserved()
+                        ? saveGroup(request, reservation)
+                                .onErrorResume(e -> giveBackSeats(request.getFlightId(), seats, e))
+                        : Mono.error(new InsufficientSeatsException("Insufficient seats available")))
+                .doOnSuccess(bookings -> {
+                    bookings.forEach(booking -> lookupCache.issued(booking.getPnr()));
+                    log.info("Group booking {} created for {} passengers", bookings.get(0).getGroupId(), bookings.size());
+                })
+                .map(this::mapToGroupResponse);
+    }
+
+    private Mono<List<Booking>> saveGroup(GroupBookingRequest request, SeatReservation reservation) {
+        List<Booking> bookings = buildGroup(request, reservation);
+        return transactionalOperator.transactional(Mono.defer(() -> bookingRepository.saveAll(bookings)
+                                .collectList()
+                                .flatMap(saved -> emailService.sendBatch(EmailService.GROUP_BOOKING_CONFIRMED,
+                                                EmailBatch.builder()
+                                                        .batchId(saved.get(0).getGroupId())
+                                                        .notifications(saved.stream().map(this::toNotification).toList())
+                                                        .build())
+                                        .thenReturn(saved))))
+                .retryWhen(Retry.max(2)
+                        .filter(DuplicateKeyException.class::isInstance)
+                        .doBeforeRetry(signal -> {
+                            pnrGenerator.reportCollision(bookings.get(0).getGroupId());
+                            assignPnrs(bookings);
+                        }));
+    }
+
+    private List<Booking> buildGroup(GroupBookingRequest request, SeatReservation reservation) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>(request.getPassengers().size());
+        for (PassengerDetails passenger : request.getPassengers()) {
+            bookings.add(Booking.builder()
                     .flightId(request.getFlightId())
-                    .flightNumber(flight.getFlightNumber())
-                    .passengerName(request.getPassengerName())
-                    .passengerEmail(request.getPassengerEmail())
-                    .passengerPhone(request.getPassengerPhone())
-                    .numberOfSeats(request.getNumberOfSeats())
-                    .totalAmount(totalAmount)
+                    .flightNumber(reservation.getFlightNumber())
+                    .passengerName(passenger.getName())
+                    .passengerEmail(passenger.getEmail())
+                    .passengerPhone(passenger.getPhone())
+                    .numberOfSeats(1)
+                    .totalAmount(reservation.getUnitPrice())
                     .status("CONFIRMED")
-                    .bookingDate(LocalDateTime.now())
-                    .createdAt(LocalDateTime.now())
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-        })
-        .subscribeOn(Schedulers.boundedElastic())
-        .flatMap(bookingRepository::save)
-        .doOnSuccess(booking -> {
-            log.info("Booking created successfully with PNR: {}", booking.getPnr());
-            sendBookingEmail(booking);
-        })
-        .map(this::mapToResponse);
+                    .bookingDate(now)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        assignPnrs(bookings);
+        return bookings;
+    }
+
+    private void assignPnrs(List<Booking> bookings) {
+        for (Booking booking : bookings) {
+            booking.setPnr(pnrGenerator.next());
+        }
+        String groupId = bookings.get(0).getPnr();
+        bookings.forEach(booking -> booking.setGroupId(groupId));
+    }
+
+    private GroupBookingResponse mapToGroupResponse(List<Booking> bookings) {
+        Booking lead = bookings.get(0);
+        return GroupBookingResponse.builder()
+                .groupId(lead.getGroupId())
+                .flightNumber(lead.getFlightNumber())
+                .numberOfSeats(bookings.size())
+                .totalAmount(bookings.stream().mapToDouble(Booking::getTotalAmount).sum())
+                .status("CONFIRMED")
+                .bookingDate(lead.getBookingDate())
+                .bookings(bookings.stream().map(this::mapToResponse).toList())
+                .message("Group booking created successfully")
+                .build();
     }
 
+    /**
+     * Marks the booking cancelled only if nothing cancelled it meanwhile, and owes its seats
+     * in the same transaction, then gives them back. Seats flight-service does not take
+     * back stay owed in the {@link SeatRestoreLedger} and are retried.
+     */
     @Override
     @CircuitBreaker(name = "bookingService", fallbackMethod = "cancelBookingFallback")
     public Mono<BookingResponse> cancelBooking(String pnr) {
@@ -89,24 +218,26 @@ public class BookingServiceImpl implements BookingService {
                         return Mono.error(new BookingAlreadyCancelledException("Booking already cancelled"));
                     }
 
-                    return Mono.fromCallable(() -> {
-                        Boolean seatsRestored = flightServiceClient.restoreSeats(
-                                booking.getFlightId(),
-                                booking.getNumberOfSeats()
-                        );
-
-                        if (Boolean.FALSE.equals(seatsRestored)) {
-                            throw new SeatOperationException("Failed to restore seats");
-                        }
-
-                        booking.setStatus("CANCELLED");
-                        booking.setUpdatedAt(LocalDateTime.now());
-                        return booking;
-                    })
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .flatMap(bookingRepository::save);
+                    LocalDateTime cancelledAt = LocalDateTime.now();
+                    return transactionalOperator.transactional(Mono.defer(() -> bookingRepository.cancelByPnr(pnr, cancelledAt)
+                                    .flatMap(cancelled -> cancelled == 0
+                                            // A flight cancellation got there first and owes the seats itself
+                                            ? Mono.<Booking>error(new BookingAlreadyCancelledException("Booking already cancelled"))
+                                            : seatRestoreLedger.owe(booking.getFlightId(), booking.getNumberOfSeats())
+                                                    .thenReturn(booking))))
+                            .flatMap(cancelled -> seatRestoreLedger.restore(booking.getFlightId())
+                                    // The seats stay owed and the ledger retries them; the booking is cancelled either way
+                                    .onErrorResume(e -> Mono.just(0L))
+                                    .thenReturn(cancelled))
+                            .doOnNext(cancelled -> {
+                                cancelled.setStatus("CANCELLED");
+                                cancelled.setUpdatedAt(cancelledAt);
+                            });
+                })
+                .doOnSuccess(booking -> {
+                    lookupCache.invalidate(pnr);
+                    log.info("Booking cancelled successfully: {}", pnr);
                 })
-                .doOnSuccess(booking -> log.info("Booking cancelled successfully: {}", pnr))
                 .map(booking -> BookingResponse.builder()
                         .pnr(booking.getPnr())
                         .flightNumber(booking.getFlightNumber())
@@ -121,16 +252,48 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public Mono<Booking> getBookingByPnr(String pnr) {
-        return bookingRepository.findByPnr(pnr)
+        return lookupCache.get(pnr, () -> bookingRepository.findByPnr(pnr))
                 .switchIfEmpty(Mono.error(new BookingNotFoundException("Booking not found with PNR: " + pnr)));
     }
 
     @Override
-    public Flux<BookingResponse> getBookingHistory(String email) {
-        return bookingRepository.findByPassengerEmail(email)
+    public Mono<BookingHistoryPage> getBookingHistoryPage(String email, BookingHistoryCursor after, Integer size) {
+        int pageSize = size == null
+                ? historyProperties.getDefaultPageSize()
+                : Math.max(1, Math.min(size, historyProperties.getMaxPageSize()));
+
+        // One extra row tells us whether there is a next page without a count query
+        return fetchHistory(email, after, pageSize + 1)
+                .collectList()
+                .map(rows -> {
+                    boolean hasMore = rows.size() > pageSize;
+                    List<Booking> bookings = hasMore ? rows.subList(0, pageSize) : rows;
+                    return BookingHistoryPage.builder()
+                            .items(bookings.stream().map(this::mapToBookingHistoryResponse).toList())
+                            .nextCursor(hasMore
+                                    ? BookingHistoryCursor.after(bookings.get(bookings.size() - 1)).encode()
+                                    : null)
+                            .build();
+                });
+    }
+
+    @Override
+    public Flux<BookingResponse> streamBookingHistory(String email, BookingHistoryCursor after) {
+        int chunkSize = historyProperties.getStreamChunkSize();
+        // Each chunk is its own short keyset query, fetched only once the previous one is drained
+        return fetchHistory(email, after, chunkSize).collectList()
+                .expand(chunk -> chunk.size() < chunkSize
+                        ? Mono.empty()
+                        : fetchHistory(email, BookingHistoryCursor.after(chunk.get(chunk.size() - 1)), chunkSize)
+                                .collectList())
+                .flatMapIterable(chunk -> chunk, 1)
                 .map(this::mapToBookingHistoryResponse);
     }
 
+    private Flux<Booking> fetchHistory(String email, BookingHistoryCursor after, int limit) {
+        return bookingRepository.findHistoryPage(email, after.bookingDate(), after.id(), Limit.of(limit));
+    }
+
     private BookingResponse mapToBookingHistoryResponse(Booking booking) {
         return BookingResponse.builder()
                 .pnr(booking.getPnr())
@@ -144,10 +307,6 @@ public class BookingServiceImpl implements BookingService {
                 .build();
     }
 
-    private String generatePnr() {
-        return "PNR" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-    }
-
     private BookingResponse mapToResponse(Booking booking) {
         return BookingResponse.builder()
                 .pnr(booking.getPnr())
@@ -161,8 +320,12 @@ public class BookingServiceImpl implements BookingService {
                 .build();
     }
 
-    private void sendBookingEmail(Booking booking) {
-        EmailNotification notification = EmailNotification.builder()
+    private Mono<Void> sendBookingEmail(Booking booking) {
+        return emailService.sendBookingConfirmation(toNotification(booking));
+    }
+
+    private EmailNotification toNotification(Booking booking) {
+        return EmailNotification.builder()
                 .to(booking.getPassengerEmail())
                 .subject("Flight Booking Confirmation - " + booking.getPnr())
                 .body(buildEmailBody(booking))
@@ -170,8 +333,6 @@ public class BookingServiceImpl implements BookingService {
                 .flightNumber(booking.getFlightNumber())
                 .passengerName(booking.getPassengerName())
                 .build();
-
-        emailService.sendBookingConfirmation(notification);
     }
 
     private String buildEmailBody(Booking booking) {
@@ -208,6 +369,18 @@ public class BookingServiceImpl implements BookingService {
                 .build());
     }
 
+    private Mono<BookingResponse> createBookingWithPnrFallback(BookingRequest request, String pnr, Exception e) {
+        return createBookingFallback(e);
+    }
+
+    private Mono<GroupBookingResponse> createGroupBookingFallback(GroupBookingRequest request, Exception e) {
+        log.error("Circuit breaker activated for createGroupBooking: {}", e.getMessage());
+        return Mono.just(GroupBookingResponse.builder()
+                .message("Service temporarily unavailable. Please try again later.")
+                .status("FAILED")
+                .build());
+    }
+
     private Mono<BookingResponse> cancelBookingFallback(String pnr, Exception e) {
         log.error("Circuit breaker activated for cancelBooking: {}", e.getMessage());
         return Mono.just(BookingResponse.builder()
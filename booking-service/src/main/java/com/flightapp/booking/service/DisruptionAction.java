@@ -0,0 +1,26 @@
+package com.flightapp.booking.service;
+
+import java.util.List;
+
+public enum DisruptionAction {
+    // The flight will not operate: bookings are cancelled and their seats given back
+    CANCEL("CANCELLED", List.of("CONFIRMED", "DISRUPTED")),
+    // The flight is delayed or changed: bookings stay valid but passengers are told
+    FLAG("DISRUPTED", List.of("CONFIRMED"));
+
+    private final String targetStatus;
+    private final List<String> affectedStatuses;
+
+    DisruptionAction(String targetStatus, List<String> affectedStatuses) {
+        this.targetStatus = targetStatus;
+        this.affectedStatuses = affectedStatuses;
+    }
+
+    public String targetStatus() {
+        return targetStatus;
+    }
+
+    public List<String> affectedStatuses() {
+        return affectedStatuses;
+    }
+}
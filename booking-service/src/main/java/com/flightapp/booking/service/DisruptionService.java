@@ -0,0 +1,8 @@
+package com.flightapp.booking.service;
+
+import com.flightapp.booking.dto.DisruptionProgress;
+import reactor.core.publisher.Flux;
+
+public interface DisruptionService {
+    Flux<DisruptionProgress> disruptFlight(Long flightId, DisruptionAction action);
+}
@@ -0,0 +1,230 @@
+package com.flightapp.booking.service;
+
+import com.flightapp.booking.config.DisruptionProperties;
+import com.flightapp.booking.dto.DisruptionProgress;
+import com.flightapp.booking.dto.EmailBatch;
+import com.flightapp.booking.dto.EmailNotification;
+import com.flightapp.booking.entity.Booking;
+import com.flightapp.booking.messaging.EmailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies a flight disruption to every booking on the flight. Bookings are read
+ * with one streaming query and written in chunks: each chunk is one unordered
+ * bulkWrite plus one batched notification, in one transaction, with a bounded
+ * number of chunks in flight. Each chunk that cancels bookings also owes their
+ * seats in the {@link SeatRestoreLedger}, in the same transaction, and they are
+ * given back to flight-service in a single call once every chunk is written. If
+ * that call fails the seats stay owed and the ledger retries them, since a rerun
+ * skips bookings that are already cancelled.
+ * <p>
+ * Each update only matches bookings still in an affected status, and a passenger's
+ * own cancellation only matches a booking not yet cancelled, so running the same
+ * action again, or racing a passenger's cancellation, never counts a booking or
+ * gives its seats back twice.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DisruptionServiceImpl implements DisruptionService {
+
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String FAILED = "FAILED";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final EmailService emailService;
+    private final SeatRestoreLedger seatRestoreLedger;
+    private final TransactionalOperator transactionalOperator;
+    private final BookingLookupCache lookupCache;
+    private final DisruptionProperties properties;
+
+    @Override
+    public Flux<DisruptionProgress> disruptFlight(Long flightId, DisruptionAction action) {
+        return Flux.defer(() -> {
+            DisruptionState state = new DisruptionState(flightId, action);
+            // Millisecond precision so the value reads back equal from Mongo
+            LocalDateTime disruptedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+            Query affected = new Query(Criteria.where("flightId").is(flightId)
+                    .and("status").in(action.affectedStatuses()))
+                    .cursorBatchSize(properties.getChunkSize());
+            includeNotificationFields(affected);
+
+            // A failed chunk does not stop the others; its bookings keep their status and a rerun picks them up
+            Flux<DisruptionProgress> chunks = mongoTemplate.find(affected, Booking.class)
+                    .buffer(properties.getChunkSize())
+                    .flatMapDelayError(chunk -> writeChunk(chunk, action, disruptedAt)
+                            .map(updated -> state.chunkWritten(chunk.size(), updated)),
+                            Math.max(1, properties.getConcurrency()), 1)
+                    .onErrorResume(e -> {
+                        log.error("Disruption of flight {} failed part way: {}", flightId, e.getMessage());
+                        state.failure = e.getMessage();
+                        return Mono.empty();
+                    });
+
+            return chunks.concatWith(Mono.defer(() -> finish(state)));
+        });
+    }
+
+    private Mono<List<Booking>> writeChunk(List<Booking> chunk, DisruptionAction action, LocalDateTime disruptedAt) {
+        return transactionalOperator.transactional(Mono.defer(() -> {
+                    ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Booking.class);
+                    Update update = new Update().set("status", action.targetStatus()).set("updatedAt", disruptedAt);
+                    for (Booking booking : chunk) {
+                        bulk.updateOne(new Query(Criteria.where("_id").is(booking.getId())
+                                .and("status").in(action.affectedStatuses())), update);
+                    }
+                    return bulk.execute()
+                            .flatMap(result -> result.getModifiedCount() == chunk.size()
+                                    ? Mono.just(chunk)
+                                    : updatedInThisRun(chunk, action, disruptedAt))
+                            .flatMap(updated -> updated.isEmpty()
+                                    ? Mono.just(updated)
+                                    : emailService.sendBatch(notificationType(action), EmailBatch.builder()
+                                                    .batchId(action.name() + "-" + updated.get(0).getFlightId() + "-" + updated.get(0).getPnr())
+                                                    .notifications(updated.stream().map(booking -> toNotification(booking, action)).toList())
+                                                    .build())
+                                            .thenReturn(updated))
+                            .flatMap(updated -> action == DisruptionAction.CANCEL && seats(updated) > 0
+                                    ? seatRestoreLedger.owe(updated.get(0).getFlightId(), seats(updated)).thenReturn(updated)
+                                    : Mono.just(updated));
+                }))
+                .doOnNext(updated -> updated.forEach(booking -> lookupCache.invalidate(booking.getPnr())));
+    }
+
+    // Some bookings changed status between the read and the write; only notify for the ones this run changed
+    private Mono<List<Booking>> updatedInThisRun(List<Booking> chunk, DisruptionAction action, LocalDateTime disruptedAt) {
+        Query query = new Query(Criteria.where("_id").in(chunk.stream().map(Booking::getId).toList())
+                .and("status").is(action.targetStatus())
+                .and("updatedAt").is(disruptedAt));
+        includeNotificationFields(query);
+        return mongoTemplate.find(query, Booking.class).collectList();
+    }
+
+    private static long seats(List<Booking> bookings) {
+        return bookings.stream().mapToLong(booking -> booking.getNumberOfSeats() == null ? 0 : booking.getNumberOfSeats()).sum();
+    }
+
+    private static void includeNotificationFields(Query query) {
+        query.fields().include("pnr", "flightId", "flightNumber", "passengerName", "passengerEmail", "numberOfSeats");
+    }
+
+    private Mono<DisruptionProgress> finish(DisruptionState state) {
+        long seats = state.seats.get();
+        if (state.action != DisruptionAction.CANCEL || seats == 0) {
+            return Mono.just(state.summary());
+        }
+        // Also gives back seats still owed from earlier cancellations on the flight
+        return seatRestoreLedger.restore(state.flightId)
+                .map(restored -> {
+                    state.seatsRestored = restored;
+                    return state.summary();
+                })
+                .onErrorResume(e -> {
+                    state.failure = "Bookings cancelled but restoring " + seats + " seats failed; they will be retried";
+                    return Mono.just(state.summary());
+                });
+    }
+
+    private static String notificationType(DisruptionAction action) {
+        return action == DisruptionAction.CANCEL ? EmailService.FLIGHT_CANCELLED : EmailService.FLIGHT_DISRUPTED;
+    }
+
+    private EmailNotification toNotification(Booking booking, DisruptionAction action) {
+        boolean cancelled = action == DisruptionAction.CANCEL;
+        return EmailNotification.builder()
+                .to(booking.getPassengerEmail())
+                .subject((cancelled ? "Flight Cancelled - " : "Flight Disruption - ") + booking.getPnr())
+                .body(String.format("""
+                        Dear %s,
+
+                        %s
+
+                        Booking Details:
+                        PNR: %s
+                        Flight Number: %s
+                        Number of Seats: %d
+
+                        We apologise for the inconvenience.
+
+                        Best Regards,
+                        Flight Booking Team""",
+                        booking.getPassengerName(),
+                        cancelled
+                                ? "Your flight has been cancelled and your booking has been cancelled with it."
+                                : "Your flight has been disrupted. Please check the latest schedule before travelling.",
+                        booking.getPnr(),
+                        booking.getFlightNumber(),
+                        booking.getNumberOfSeats()))
+                .pnr(booking.getPnr())
+                .flightNumber(booking.getFlightNumber())
+                .passengerName(booking.getPassengerName())
+                .build();
+    }
+
+    private static final class DisruptionState {
+        private final Long flightId;
+        private final DisruptionAction action;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong seats = new AtomicLong();
+        private final AtomicInteger chunks = new AtomicInteger();
+        private volatile long seatsRestored;
+        private volatile String failure;
+
+        DisruptionState(Long flightId, DisruptionAction action) {
+            this.flightId = flightId;
+            this.action = action;
+        }
+
+        DisruptionProgress chunkWritten(int chunkSize, List<Booking> updatedBookings) {
+            processed.addAndGet(chunkSize);
+            updated.addAndGet(updatedBookings.size());
+            seats.addAndGet(seats(updatedBookings));
+            return progress(IN_PROGRESS, chunks.incrementAndGet()).build();
+        }
+
+        DisruptionProgress summary() {
+            DisruptionProgress result = progress(failure == null ? COMPLETED : FAILED, chunks.get())
+                    .seatsRestored(seatsRestored)
+                    .message(failure)
+                    .build();
+            log.info("Disruption {} of flight {} finished: {} bookings read, {} updated, {} seats restored",
+                    action, flightId, result.getProcessed(), result.getUpdated(), seatsRestored);
+            return result;
+        }
+
+        private DisruptionProgress.DisruptionProgressBuilder progress(String status, int chunk) {
+            long processedCount = processed.get();
+            long updatedCount = updated.get();
+            return DisruptionProgress.builder()
+                    .status(status)
+                    .flightId(flightId)
+                    .action(action.name())
+                    .chunk(chunk)
+                    .processed(processedCount)
+                    .updated(updatedCount)
+                    .skipped(processedCount - updatedCount)
+                    // One notification per updated booking, queued with the chunk that updated it
+                    .notificationsQueued(updatedCount);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.flightapp.booking.service;
+
+import com.flightapp.booking.config.PnrProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.netflix.eureka.EurekaInstanceConfigBean;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates PNRs as "PNR" followed by 12 Crockford base32 characters encoding
+ * 60 bits: seconds since 2024-01-01 (32), node id (14) and a per-second counter (14).
+ * Two nodes with different ids can never produce the same PNR, and one node never
+ * repeats itself: the counter is advanced with a CAS on a single long, and when it
+ * runs out within a second (or the clock steps back) the generator moves on to the
+ * next second instead of waiting.
+ * <p>
+ * Ids are only guaranteed distinct when booking.pnr.node-id is set to a different
+ * ordinal on every instance. Without it the id is a 14-bit hash of the Eureka instance
+ * id, and two instances can share it (about 1 in 16,000 for a pair); PNRs are then
+ * unique only because of the unique index on bookings.pnr, and a booking that hits
+ * the index is retried with a new PNR and logged through {@link #reportCollision}.
+ */
+@Component
+@Slf4j
+public class PnrGenerator {
+
+    public static final String PREFIX = "PNR";
+    public static final int LENGTH = PREFIX.length() + 12;
+
+    static final long EPOCH_SECOND = Instant.parse("2024-01-01T00:00:00Z").getEpochSecond();
+    static final int NODE_BITS = 14;
+    static final int COUNTER_BITS = 14;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final String DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final char[] ALPHABET = DIGITS.toCharArray();
+
+    private final int nodeId;
+    private final Clock clock;
+    // seconds since EPOCH_SECOND << COUNTER_BITS | counter, of the last PNR handed out
+    private final AtomicLong last = new AtomicLong();
+
+    @Autowired
+    public PnrGenerator(PnrProperties properties, ObjectProvider<EurekaInstanceConfigBean> eurekaInstance) {
+        this(resolveNodeId(properties, eurekaInstance.getIfAvailable()), Clock.systemUTC());
+    }
+
+    public PnrGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("PNR node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public String next() {
+        long nowSeconds = clock.millis() / 1000 - EPOCH_SECOND;
+        long state;
+        long next;
+        do {
+            state = last.get();
+            long lastSeconds = state >>> COUNTER_BITS;
+            if (nowSeconds > lastSeconds) {
+                next = nowSeconds << COUNTER_BITS;
+            } else {
+                // Same second, or the clock went back: keep counting from where we are
+                next = state + 1;
+            }
+        } while (!last.compareAndSet(state, next));
+
+        long seconds = next >>> COUNTER_BITS;
+        long value = seconds << (NODE_BITS + COUNTER_BITS)
+                | (long) nodeId << COUNTER_BITS
+                | (next & COUNTER_MASK);
+        return encode(value);
+    }
+
+    /**
+     * Creation time encoded in a PNR from this generator, or empty for any other
+     * format (including PNRs issued before it existed).
+     */
+    public static OptionalLong issuedAtEpochSecond(String pnr) {
+        if (pnr == null || pnr.length() != LENGTH || !pnr.startsWith(PREFIX)) {
+            return OptionalLong.empty();
+        }
+        long value = 0;
+        for (int i = PREFIX.length(); i < LENGTH; i++) {
+            int digit = DIGITS.indexOf(pnr.charAt(i));
+            if (digit < 0) {
+                return OptionalLong.empty();
+            }
+            value = value << 5 | digit;
+        }
+        return OptionalLong.of((value >>> (NODE_BITS + COUNTER_BITS)) + EPOCH_SECOND);
+    }
+
+    /**
+     * Called before a booking is retried because its PNR was already taken. That only
+     * happens when another instance shares this node id, so it is logged rather than
+     * retried silently.
+     */
+    public void reportCollision(String taken) {
+        log.warn("PNR {} already exists: node id {} is shared with another instance, "
+                + "set booking.pnr.node-id to a unique value per instance", taken, nodeId);
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    private static String encode(long value) {
+        char[] chars = new char[LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = LENGTH - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private static int resolveNodeId(PnrProperties properties, EurekaInstanceConfigBean eurekaInstance) {
+        if (properties.getNodeId() != null) {
+            return properties.getNodeId();
+        }
+        if (eurekaInstance != null && eurekaInstance.getInstanceId() != null) {
+            int nodeId = Math.floorMod(mix(eurekaInstance.getInstanceId().hashCode()), MAX_NODE_ID + 1);
+            log.warn("PNR node id {} derived from instance {}; derived ids may collide, "
+                    + "set booking.pnr.node-id per instance to rule that out", nodeId, eurekaInstance.getInstanceId());
+            return nodeId;
+        }
+        int nodeId = ThreadLocalRandom.current().nextInt(MAX_NODE_ID + 1);
+        log.warn("No Eureka instance id or booking.pnr.node-id, using random PNR node id {}", nodeId);
+        return nodeId;
+    }
+
+    // Spreads String.hashCode so that ids differing only in their last characters land far apart
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,129 @@
+package com.flightapp.booking.service;
+
+import com.flightapp.booking.config.ReactiveFlightServiceClient;
+import com.flightapp.booking.config.SeatRestoreProperties;
+import com.flightapp.booking.entity.PendingSeatRestore;
+import com.flightapp.booking.exception.SeatOperationException;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Seats owed back to flight-service by cancelled bookings. A cancellation owes its
+ * seats in the same transaction that marks the booking cancelled and then restores
+ * what the flight is owed. Seats flight-service did not take back stay owed and are
+ * retried in the background, so neither a failed call nor a crash in between leaks
+ * them. Restoring leases the flight's balance so two instances never restore the
+ * same seats at once.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatRestoreLedger {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ReactiveFlightServiceClient flightServiceClient;
+    private final SeatRestoreProperties properties;
+
+    private Disposable retrier;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        retrier = Flux.interval(properties.getRetryInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> retryOwed())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (retrier != null) {
+            retrier.dispose();
+        }
+    }
+
+    /**
+     * Adds seats to what the flight is owed. Call it inside the transaction that cancels the bookings.
+     */
+    public Mono<Void> owe(Long flightId, long seats) {
+        return mongoTemplate.upsert(query(where("_id").is(flightId)),
+                        new Update().inc("seats", seats).set("updatedAt", LocalDateTime.now()),
+                        PendingSeatRestore.class)
+                .then();
+    }
+
+    /**
+     * Gives back everything the flight is owed in one flight-service call. Emits the seats
+     * restored: 0 when nothing is owed or another instance is restoring them right now.
+     * Fails if flight-service did not take the seats; they stay owed.
+     */
+    public Mono<Long> restore(Long flightId) {
+        // Mongo keeps milliseconds; truncate so a lease compares the same way it was written
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        return mongoTemplate.findAndModify(
+                        query(where("_id").is(flightId).and("seats").gt(0)
+                                .orOperator(where("leasedUntil").is(null), where("leasedUntil").lt(now))),
+                        new Update().set("leasedUntil", now.plus(properties.getLeaseDuration())),
+                        FindAndModifyOptions.options().returnNew(true),
+                        PendingSeatRestore.class)
+                .flatMap(owed -> flightServiceClient.restoreSeats(flightId, Math.toIntExact(owed.getSeats()))
+                        .defaultIfEmpty(false)
+                        .onErrorResume(e -> {
+                            log.error("Failed to restore {} seats on flight {}: {}", owed.getSeats(), flightId, e.getMessage());
+                            return Mono.just(false);
+                        })
+                        .flatMap(restored -> Boolean.TRUE.equals(restored)
+                                ? settle(flightId, owed.getSeats())
+                                : release(flightId).then(Mono.error(
+                                        new SeatOperationException("Failed to restore " + owed.getSeats() + " seats")))))
+                .defaultIfEmpty(0L);
+    }
+
+    // Takes off only what was restored: seats owed meanwhile by other cancellations stay owed
+    private Mono<Long> settle(Long flightId, long seats) {
+        return mongoTemplate.updateFirst(query(where("_id").is(flightId)),
+                        new Update().inc("seats", -seats).unset("leasedUntil").set("updatedAt", LocalDateTime.now()),
+                        PendingSeatRestore.class)
+                .thenReturn(seats);
+    }
+
+    private Mono<Void> release(Long flightId) {
+        return mongoTemplate.updateFirst(query(where("_id").is(flightId)), new Update().unset("leasedUntil"),
+                        PendingSeatRestore.class)
+                .then();
+    }
+
+    /**
+     * Retries every flight that is still owed seats.
+     */
+    public Mono<Void> retryOwed() {
+        return mongoTemplate.find(query(where("seats").gt(0)), PendingSeatRestore.class)
+                .concatMap(owed -> restore(owed.getFlightId())
+                        .doOnNext(seats -> {
+                            if (seats > 0) {
+                                log.info("Restored {} owed seats on flight {}", seats, owed.getFlightId());
+                            }
+                        })
+                        .onErrorResume(e -> Mono.empty()))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to look up owed seats: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
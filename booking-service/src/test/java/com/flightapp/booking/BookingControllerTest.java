@@ -1,10 +1,19 @@
 package com.flightapp.booking;
 
 import com.flightapp.booking.controller.BookingController;
+import com.flightapp.booking.dto.BookingHistoryPage;
 import com.flightapp.booking.dto.BookingRequest;
 import com.flightapp.booking.dto.BookingResponse;
+import com.flightapp.booking.dto.DisruptionProgress;
+import com.flightapp.booking.dto.GroupBookingRequest;
+import com.flightapp.booking.dto.GroupBookingResponse;
+import com.flightapp.booking.dto.PassengerDetails;
 import com.flightapp.booking.entity.Booking;
+import com.flightapp.booking.service.BookingHistoryCursor;
+import com.flightapp.booking.service.BookingIdempotencyService;
 import com.flightapp.booking.service.BookingService;
+import com.flightapp.booking.service.DisruptionAction;
+import com.flightapp.booking.service.DisruptionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,12 +21,18 @@ import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(BookingController.class)
@@ -29,6 +44,12 @@ class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingIdempotencyService idempotencyService;
+
+    @MockBean
+    private DisruptionService disruptionService;
+
     private BookingRequest bookingRequest;
     private BookingResponse bookingResponse;
     private Booking booking;
@@ -104,6 +125,42 @@ class BookingControllerTest {
                 });
     }
 
+    @Test
+    void testCreateBooking_WithIdempotencyKey() {
+        when(idempotencyService.isValidKey("key-1")).thenReturn(true);
+        when(idempotencyService.execute(eq("john"), eq("key-1"), any(BookingRequest.class), any()))
+                .thenReturn(Mono.just(ResponseEntity.status(201)
+                        .header(BookingIdempotencyService.REPLAYED_HEADER, "true")
+                        .body(bookingResponse)));
+
+        webTestClient.post()
+                .uri("/api/bookings/book")
+                .header(BookingIdempotencyService.IDEMPOTENCY_KEY_HEADER, "key-1")
+                .header("X-User-Name", "john")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(bookingRequest)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(BookingIdempotencyService.REPLAYED_HEADER, "true")
+                .expectBody(BookingResponse.class)
+                .isEqualTo(bookingResponse);
+    }
+
+    @Test
+    void testCreateBooking_InvalidIdempotencyKey() {
+        when(idempotencyService.isValidKey(anyString())).thenReturn(false);
+
+        webTestClient.post()
+                .uri("/api/bookings/book")
+                .header(BookingIdempotencyService.IDEMPOTENCY_KEY_HEADER, "x".repeat(300))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(bookingRequest)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(bookingService, never()).createBooking(any(BookingRequest.class));
+    }
+
     @Test
     void testCreateBooking_InsufficientSeats() {
         when(bookingService.createBooking(any(BookingRequest.class)))
@@ -204,4 +261,119 @@ class BookingControllerTest {
                 .exchange()
                 .expectStatus().isNotFound();
     }
+
+    @Test
+    void testGetBookingHistory_FirstPage() {
+        when(bookingService.getBookingHistoryPage(eq("john.doe@example.com"), eq(BookingHistoryCursor.start()), eq(1)))
+                .thenReturn(Mono.just(BookingHistoryPage.builder()
+                        .items(List.of(bookingResponse))
+                        .nextCursor("next-page")
+                        .build()));
+
+        webTestClient.get()
+                .uri("/api/bookings/history/john.doe@example.com?size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Next-Cursor", "next-page")
+                .expectBodyList(BookingResponse.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void testGetBookingHistory_InvalidCursor() {
+        webTestClient.get()
+                .uri("/api/bookings/history/john.doe@example.com?after=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testStreamBookingHistory_Ndjson() {
+        when(bookingService.streamBookingHistory(eq("john.doe@example.com"), any(BookingHistoryCursor.class)))
+                .thenReturn(Flux.just(bookingResponse, bookingResponse));
+
+        webTestClient.get()
+                .uri("/api/bookings/history/john.doe@example.com")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(BookingResponse.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void testCreateGroupBooking_Success() {
+        GroupBookingRequest request = GroupBookingRequest.builder()
+                .flightId(1L)
+                .passengers(List.of(
+                        PassengerDetails.builder().name("John Doe").email("john.doe@example.com").phone("+919876543210").build(),
+                        PassengerDetails.builder().name("Jane Doe").email("jane.doe@example.com").phone("+919876543211").build()))
+                .build();
+        when(bookingService.createGroupBooking(any(GroupBookingRequest.class)))
+                .thenReturn(Mono.just(GroupBookingResponse.builder()
+                        .groupId("PNR12345678")
+                        .numberOfSeats(2)
+                        .status("CONFIRMED")
+                        .bookings(List.of(bookingResponse, bookingResponse))
+                        .build()));
+
+        webTestClient.post()
+                .uri("/api/bookings/group")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(GroupBookingResponse.class)
+                .value(response -> {
+                    assert response.getGroupId().equals("PNR12345678");
+                    assert response.getBookings().size() == 2;
+                });
+    }
+
+    @Test
+    void testCreateGroupBooking_InvalidPassenger() {
+        GroupBookingRequest request = GroupBookingRequest.builder()
+                .flightId(1L)
+                .passengers(List.of(PassengerDetails.builder().name("John Doe").email("not-an-email").phone("1").build()))
+                .build();
+
+        webTestClient.post()
+                .uri("/api/bookings/group")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(bookingService, never()).createGroupBooking(any(GroupBookingRequest.class));
+    }
+
+    @Test
+    void testDisruptFlight_StreamsProgress() {
+        when(disruptionService.disruptFlight(1L, DisruptionAction.CANCEL)).thenReturn(Flux.just(
+                DisruptionProgress.builder().status("IN_PROGRESS").chunk(1).updated(2L).build(),
+                DisruptionProgress.builder().status("COMPLETED").chunk(1).updated(2L).seatsRestored(4L).build()));
+
+        webTestClient.post()
+                .uri("/api/bookings/admin/flights/1/disruption?action=CANCEL")
+                .header("X-User-Role", "ADMIN")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(DisruptionProgress.class)
+                .hasSize(2)
+                .contains(DisruptionProgress.builder().status("COMPLETED").chunk(1).updated(2L).seatsRestored(4L).build());
+    }
+
+    @Test
+    void testDisruptFlight_RequiresAdmin() {
+        webTestClient.post()
+                .uri("/api/bookings/admin/flights/1/disruption?action=FLAG")
+                .header("X-User-Role", "USER")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isForbidden();
+
+        verify(disruptionService, never()).disruptFlight(any(), any());
+    }
 }
@@ -0,0 +1,334 @@
+package com.flightapp.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.booking.config.IdempotencyProperties;
+import com.flightapp.booking.dto.BookingRequest;
+import com.flightapp.booking.dto.BookingResponse;
+import com.flightapp.booking.entity.IdempotencyRecord;
+import com.flightapp.booking.service.BookingIdempotencyService;
+import com.flightapp.booking.service.PnrGenerator;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIdempotencyServiceTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyProperties properties;
+    private BookingIdempotencyService service;
+    private BookingRequest request;
+    private BookingResponse confirmed;
+    private List<String> bookings;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new IdempotencyProperties();
+        properties.setPollInterval(Duration.ofMillis(10));
+        properties.setWaitTimeout(Duration.ofMillis(200));
+        properties.setLeaseTimeout(Duration.ofMillis(60));
+        service = new BookingIdempotencyService(mongoTemplate, new ObjectMapper(), properties,
+                new PnrGenerator(1, Clock.systemUTC()), meterRegistry);
+        request = BookingRequest.builder()
+                .flightId(1L)
+                .passengerName("John Doe")
+                .passengerEmail("john.doe@example.com")
+                .passengerPhone("+919876543210")
+                .numberOfSeats(2)
+                .build();
+        confirmed = BookingResponse.builder().pnr("PNR12345678").status("CONFIRMED").build();
+        bookings = new CopyOnWriteArrayList<>();
+    }
+
+    private Mono<ResponseEntity<BookingResponse>> book(String pnr, BookingResponse response) {
+        return Mono.fromCallable(() -> {
+            bookings.add(pnr);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
+    }
+
+    private double requests(String outcome) {
+        return meterRegistry.get("booking.idempotency.requests").tag("outcome", outcome).counter().count();
+    }
+
+    private IdempotencyRecord claimedRecord() {
+        ArgumentCaptor<IdempotencyRecord> inserted = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(mongoTemplate, atLeastOnce()).insert(inserted.capture());
+        return inserted.getValue();
+    }
+
+    @Test
+    void testExecute_FirstRequestRunsAndStoresResponse() {
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+        StepVerifier.create(service.execute("john", "key-1", request, pnr -> book(pnr, confirmed)))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.CREATED, response.getStatusCode());
+                    assertNull(response.getHeaders().getFirst(BookingIdempotencyService.REPLAYED_HEADER));
+                })
+                .verifyComplete();
+
+        IdempotencyRecord claim = claimedRecord();
+        assertEquals("john:key-1", claim.getId());
+        assertEquals(IdempotencyRecord.IN_PROGRESS, claim.getStatus());
+        assertEquals(List.of(claim.getPnr()), bookings);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(IdempotencyRecord.class));
+        assertEquals(IdempotencyRecord.COMPLETED, update.getValue().getUpdateObject().get("$set", Document.class).get("status"));
+        assertEquals(1, bookings.size());
+        assertEquals(1.0, requests("first"));
+    }
+
+    @Test
+    void testExecute_FailedBookingReleasesKey() {
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(mongoTemplate.remove(any(Query.class), eq(IdempotencyRecord.class)))
+                .thenReturn(Mono.just(DeleteResult.acknowledged(1)));
+
+        StepVerifier.create(service.execute("john", "key-1", request,
+                        pnr -> Mono.just(ResponseEntity.badRequest().body(BookingResponse.builder().status("FAILED").build()))))
+                .assertNext(response -> assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode()))
+                .verifyComplete();
+
+        verify(mongoTemplate).remove(any(Query.class), eq(IdempotencyRecord.class));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class));
+    }
+
+    @Test
+    void testExecute_CompletedKeyIsReplayedWithoutBooking() {
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        StepVerifier.create(service.execute("john", "key-1", request, pnr -> book(pnr, confirmed)))
+                .expectNextCount(1)
+                .verifyComplete();
+        String requestHash = claimedRecord().getRequestHash();
+
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenReturn(Mono.error(new DuplicateKeyException("dup")));
+        when(mongoTemplate.findById("john:key-1", IdempotencyRecord.class)).thenReturn(Mono.just(IdempotencyRecord.builder()
+                .id("john:key-1")
+                .requestHash(requestHash)
+                .status(IdempotencyRecord.COMPLETED)
+                .httpStatus(201)
+                .response(confirmed)
+                .build()));
+
+        StepVerifier.create(service.execute("john", "key-1", request, pnr -> book(pnr, confirmed)))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.CREATED, response.getStatusCode());
+                    assertEquals("true", response.getHeaders().getFirst(BookingIdempotencyService.REPLAYED_HEADER));
+                    assertEquals(confirmed, response.getBody());
+                })
+                .verifyComplete();
+
+        assertEquals(1, bookings.size());
+        assertEquals(1.0, requests("replayed"));
+        assertEquals(0.5, meterRegistry.get("booking.idempotency.hit.ratio").gauge().value());
+        assertEquals(1, meterRegistry.get("booking.idempotency.wait").timer().count());
+    }
+
+    @Test
+    void testExecute_DifferentRequestForSameKeyIsRejected() {
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenReturn(Mono.error(new DuplicateKeyException("dup")));
+        when(mongoTemplate.findById("john:key-1", IdempotencyRecord.class)).thenReturn(Mono.just(IdempotencyRecord.builder()
+                .id("john:key-1")
+                .requestHash("something-else")
+                .status(IdempotencyRecord.IN_PROGRESS)
+                .build()));
+
+        StepVerifier.create(service.execute("john", "key-1", request, pnr -> book(pnr, confirmed)))
+                .assertNext(response -> assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode()))
+                .verifyComplete();
+
+        assertEquals(0, bookings.size());
+        assertEquals(1.0, requests("mismatch"));
+    }
+
+    @Test
+    void testExecute_ConcurrentDuplicateWaitsForFirstOutcome() {
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        Sinks.One<ResponseEntity<BookingResponse>> flightService = Sinks.one();
+
+        Mono<ResponseEntity<BookingResponse>> first = service.execute("john", "key-1", request, pnr -> {
+            bookings.add(pnr);
+            return flightService.asMono();
+        });
+        Mono<ResponseEntity<BookingResponse>> duplicate = service.execute("john", "key-1", request, pnr -> book(pnr, confirmed));
+
+        StepVerifier.create(Mono.zip(first, duplicate))
+                .then(() -> flightService.tryEmitValue(ResponseEntity.status(HttpStatus.CREATED).body(confirmed)))
+                .assertNext(both -> {
+                    assertEquals(confirmed, both.getT1().getBody());
+                    assertEquals(confirmed, both.getT2().getBody());
+                    assertEquals("true", both.getT2().getHeaders().getFirst(BookingIdempotencyService.REPLAYED_HEADER));
+                })
+                .verifyComplete();
+
+        assertEquals(1, bookings.size());
+        verify(mongoTemplate, times(1)).insert(any(IdempotencyRecord.class));
+        assertEquals(1.0, requests("replayed"));
+    }
+
+    @Test
+    void testExecute_DuplicateOnAnotherInstanceTimesOut() {
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        StepVerifier.create(service.execute("john", "key-1", request, pnr -> book(pnr, confirmed)))
+                .expectNextCount(1)
+                .verifyComplete();
+        String requestHash = claimedRecord().getRequestHash();
+
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenReturn(Mono.error(new DuplicateKeyException("dup")));
+        // The instance holding the claim is alive and keeps renewing it
+        when(mongoTemplate.findById("john:key-1", IdempotencyRecord.class)).thenAnswer(invocation -> Mono.just(IdempotencyRecord.builder()
+                .id("john:key-1")
+                .requestHash(requestHash)
+                .status(IdempotencyRecord.IN_PROGRESS)
+                .pnr("PNR12345678")
+                .leasedAt(LocalDateTime.now())
+                .build()));
+
+        StepVerifier.create(service.execute("john", "key-1", request, pnr -> book(pnr, confirmed)))
+                .assertNext(response -> assertEquals(HttpStatus.CONFLICT, response.getStatusCode()))
+                .verifyComplete();
+
+        assertEquals(1, bookings.size());
+        assertEquals(1.0, requests("conflict"));
+        assertEquals(0.0, meterRegistry.get("booking.idempotency.takeovers").counter().count());
+    }
+
+    @Test
+    void testExecute_ExpiredClaimWithoutPnrIsNotRerun() throws Exception {
+        String requestHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(new ObjectMapper().writeValueAsBytes(request)));
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenReturn(Mono.error(new DuplicateKeyException("dup")));
+        // Claimed before the PNR was stored on the claim, and never renewed since
+        when(mongoTemplate.findById("john:key-1", IdempotencyRecord.class)).thenReturn(Mono.just(IdempotencyRecord.builder()
+                .id("john:key-1")
+                .requestHash(requestHash)
+                .status(IdempotencyRecord.IN_PROGRESS)
+                .createdAt(LocalDateTime.now().minusMinutes(1))
+                .build()));
+
+        StepVerifier.create(service.execute("john", "key-1", request, pnr -> book(pnr, confirmed)))
+                .assertNext(response -> assertEquals(HttpStatus.CONFLICT, response.getStatusCode()))
+                .verifyComplete();
+
+        assertTrue(bookings.isEmpty());
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class));
+        assertEquals(1.0, requests("conflict"));
+    }
+
+    @Test
+    void testExecute_DuplicateTakesOverExpiredClaim() {
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        StepVerifier.create(service.execute("john", "key-1", request, pnr -> book(pnr, confirmed)))
+                .expectNextCount(1)
+                .verifyComplete();
+        String requestHash = claimedRecord().getRequestHash();
+        clearInvocations(mongoTemplate);
+
+        // The instance holding the claim died and stopped renewing it. Its leasedAt is in the
+        // future by this instance's clock: only whether it changes matters, not its value
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenReturn(Mono.error(new DuplicateKeyException("dup")));
+        when(mongoTemplate.findById("john:key-1", IdempotencyRecord.class)).thenReturn(Mono.just(IdempotencyRecord.builder()
+                .id("john:key-1")
+                .requestHash(requestHash)
+                .status(IdempotencyRecord.IN_PROGRESS)
+                .pnr("PNR12345678")
+                .leasedAt(LocalDateTime.now().plusMinutes(1))
+                .build()));
+
+        StepVerifier.create(service.execute("john", "key-1", request, pnr -> book(pnr, confirmed)))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.CREATED, response.getStatusCode());
+                    assertNull(response.getHeaders().getFirst(BookingIdempotencyService.REPLAYED_HEADER));
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<Query> takeover = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).updateFirst(takeover.capture(), any(Update.class), eq(IdempotencyRecord.class));
+        assertTrue(takeover.getAllValues().get(0).getQueryObject().containsKey("leasedAt"));
+        // Booked under the dead request's PNR, so a booking it already saved is returned, not made again
+        assertEquals("PNR12345678", bookings.get(1));
+        assertEquals(1.0, meterRegistry.get("booking.idempotency.takeovers").counter().count());
+        assertEquals(0.0, requests("conflict"));
+    }
+
+    @Test
+    void testExecute_DuplicateWaitsWhenAnotherTookOverFirst() throws Exception {
+        String requestHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(new ObjectMapper().writeValueAsBytes(request)));
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenReturn(Mono.error(new DuplicateKeyException("dup")));
+        LocalDateTime stale = LocalDateTime.now().minusMinutes(1);
+        AtomicBoolean takenOver = new AtomicBoolean();
+        // Unchanged until another duplicate takes the claim over, renewed by the new holder after that
+        when(mongoTemplate.findById("john:key-1", IdempotencyRecord.class)).thenAnswer(invocation -> Mono.just(IdempotencyRecord.builder()
+                .id("john:key-1")
+                .requestHash(requestHash)
+                .status(IdempotencyRecord.IN_PROGRESS)
+                .pnr("PNR12345678")
+                .leasedAt(takenOver.get() ? LocalDateTime.now() : stale)
+                .build()));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> {
+                    takenOver.set(true);
+                    return Mono.just(UpdateResult.acknowledged(0, 0L, null));
+                });
+
+        StepVerifier.create(service.execute("john", "key-1", request, pnr -> book(pnr, confirmed)))
+                .assertNext(response -> assertEquals(HttpStatus.CONFLICT, response.getStatusCode()))
+                .verifyComplete();
+
+        assertEquals(0, bookings.size());
+        assertEquals(0.0, meterRegistry.get("booking.idempotency.takeovers").counter().count());
+    }
+
+    @Test
+    void testIsValidKey() {
+        assertTrue(service.isValidKey("key-1"));
+        assertFalse(service.isValidKey(" "));
+        assertFalse(service.isValidKey("x".repeat(properties.getMaxKeyLength() + 1)));
+    }
+}
@@ -0,0 +1,111 @@
+package com.flightapp.booking;
+
+import com.flightapp.booking.entity.Booking;
+import com.flightapp.booking.repository.BookingIndexManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIndexManagerTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private ReactiveIndexOperations indexOps;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingIndexManager indexManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        indexManager = new BookingIndexManager(mongoTemplate, meterRegistry);
+    }
+
+    private static Document explained(String outerStage, String innerStage) {
+        return new Document("queryPlanner", new Document("winningPlan",
+                new Document("stage", outerStage).append("inputStage", new Document("stage", innerStage))));
+    }
+
+    @Test
+    void testEnsureIndexes_CreatesDeclaredIndexes() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        when(mongoTemplate.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        when(mongoTemplate.indexOps(Booking.class)).thenReturn(indexOps);
+        when(indexOps.ensureIndex(any(IndexDefinition.class))).thenReturn(Mono.just("index"));
+
+        StepVerifier.create(indexManager.ensureIndexes()).verifyComplete();
+
+        ArgumentCaptor<IndexDefinition> indexes = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOps, times(3)).ensureIndex(indexes.capture());
+        List<Document> keys = indexes.getAllValues().stream().map(IndexDefinition::getIndexKeys).toList();
+        assertTrue(keys.contains(new Document("pnr", 1)));
+        assertTrue(keys.contains(new Document("passengerEmail", 1).append("bookingDate", -1).append("_id", -1)));
+        assertTrue(keys.contains(new Document("flightId", 1)));
+        IndexDefinition pnr = indexes.getAllValues().stream()
+                .filter(index -> index.getIndexKeys().containsKey("pnr"))
+                .findFirst().orElseThrow();
+        assertEquals(Boolean.TRUE, pnr.getIndexOptions().get("unique"));
+    }
+
+    @Test
+    void testExplainQueries_IndexedPlans() {
+        when(mongoTemplate.getCollectionName(Booking.class)).thenReturn("bookings");
+        when(mongoTemplate.executeCommand(any(Document.class))).thenReturn(Mono.just(explained("FETCH", "IXSCAN")));
+
+        StepVerifier.create(indexManager.explainQueries().collectList())
+                .assertNext(plans -> {
+                    assertEquals(3, plans.size());
+                    plans.forEach(plan -> {
+                        assertEquals(List.of("FETCH", "IXSCAN"), plan.stages());
+                        assertFalse(plan.collectionScan());
+                    });
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<Document> commands = ArgumentCaptor.forClass(Document.class);
+        verify(mongoTemplate, times(3)).executeCommand(commands.capture());
+        Document history = commands.getAllValues().get(1).get("explain", Document.class);
+        assertEquals("bookings", history.get("find"));
+        assertEquals(new Document("bookingDate", -1).append("_id", -1), history.get("sort"));
+        assertEquals(0.0, meterRegistry.get("booking.query.collscans").gauge().value());
+    }
+
+    @Test
+    void testExplainQueries_FlagsCollectionScan() {
+        when(mongoTemplate.getCollectionName(Booking.class)).thenReturn("bookings");
+        when(mongoTemplate.executeCommand(any(Document.class)))
+                .thenReturn(Mono.just(explained("FETCH", "IXSCAN")))
+                .thenReturn(Mono.just(explained("SORT", BookingIndexManager.COLLSCAN)))
+                .thenReturn(Mono.just(explained("FETCH", "IXSCAN")));
+
+        StepVerifier.create(indexManager.explainQueries().filter(BookingIndexManager.QueryPlan::collectionScan))
+                .assertNext(plan -> assertEquals("findHistoryPage", plan.query()))
+                .verifyComplete();
+
+        assertEquals(1.0, meterRegistry.get("booking.query.collscans").gauge().value());
+    }
+}
@@ -0,0 +1,151 @@
+package com.flightapp.booking;
+
+import com.flightapp.booking.config.PnrLookupProperties;
+import com.flightapp.booking.entity.Booking;
+import com.flightapp.booking.service.BookingLookupCache;
+import com.flightapp.booking.service.PnrBloomFilter;
+import com.flightapp.booking.service.PnrGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingLookupCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-12-15T10:00:00Z");
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PnrLookupProperties properties;
+    private BookingLookupCache lookupCache;
+    private AtomicInteger databaseReads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new PnrLookupProperties();
+        properties.setBloomExpectedPnrs(1_000);
+        lookupCache = new BookingLookupCache(mongoTemplate, properties, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        databaseReads = new AtomicInteger();
+    }
+
+    private Mono<Booking> load(String pnr) {
+        return Mono.fromCallable(() -> {
+            databaseReads.incrementAndGet();
+            return Booking.builder().pnr(pnr).status("CONFIRMED").build();
+        });
+    }
+
+    private static String pnrIssuedAt(Instant instant) {
+        return new PnrGenerator(9, Clock.fixed(instant, ZoneOffset.UTC)).next();
+    }
+
+    private void loadFilter(String... pnrs) {
+        when(mongoTemplate.estimatedCount(Booking.class)).thenReturn(Mono.just((long) pnrs.length));
+        when(mongoTemplate.getCollectionName(Booking.class)).thenReturn("bookings");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("bookings")))
+                .thenReturn(Flux.fromArray(pnrs).map(pnr -> new Document("pnr", pnr)));
+        StepVerifier.create(lookupCache.rebuild()).verifyComplete();
+    }
+
+    @Test
+    void testGet_CachesBookings() {
+        StepVerifier.create(lookupCache.get("PNR1", () -> load("PNR1"))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(lookupCache.get("PNR1", () -> load("PNR1"))).expectNextCount(1).verifyComplete();
+        assertEquals(1, databaseReads.get());
+
+        lookupCache.invalidate("PNR1");
+        StepVerifier.create(lookupCache.get("PNR1", () -> load("PNR1"))).expectNextCount(1).verifyComplete();
+        assertEquals(2, databaseReads.get());
+    }
+
+    @Test
+    void testGet_UnknownPnrRejectedWithoutDatabaseRead() {
+        String issued = pnrIssuedAt(NOW.minusSeconds(86_400));
+        loadFilter(issued, "PNRA1B2C3D4");
+
+        StepVerifier.create(lookupCache.get(pnrIssuedAt(NOW.minusSeconds(3_600)), () -> load("x"))).verifyComplete();
+        StepVerifier.create(lookupCache.get(pnrIssuedAt(NOW.plusSeconds(86_400)), () -> load("x"))).verifyComplete();
+        assertEquals(0, databaseReads.get());
+        assertEquals(2.0, meterRegistry.get("booking.pnr.bloom.rejections").counter().count());
+
+        StepVerifier.create(lookupCache.get(issued, () -> load(issued))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(lookupCache.get("PNRA1B2C3D4", () -> load("PNRA1B2C3D4"))).expectNextCount(1).verifyComplete();
+        assertEquals(2, databaseReads.get());
+    }
+
+    @Test
+    void testMightExist_IssuedLocallyOrByOtherInstancesSinceLoad() {
+        loadFilter();
+        String local = pnrIssuedAt(NOW.minusSeconds(3_600));
+        lookupCache.issued(local);
+
+        assertTrue(lookupCache.mightExist(local));
+        // Another instance may have issued this after our load: it must reach the database
+        assertTrue(lookupCache.mightExist(pnrIssuedAt(NOW.plusSeconds(30))));
+        assertTrue(lookupCache.mightExist(pnrIssuedAt(NOW.minusSeconds(60))));
+    }
+
+    @Test
+    void testMightExist_PnrWithoutIssueTimeReachesDatabase() {
+        loadFilter(pnrIssuedAt(NOW.minusSeconds(86_400)));
+
+        // Legacy format, not in the filter: only the database can say whether it exists
+        assertTrue(lookupCache.mightExist("PNRFFFFFFFF"));
+        StepVerifier.create(lookupCache.get("PNRFFFFFFFF", () -> load("PNRFFFFFFFF"))).expectNextCount(1).verifyComplete();
+        assertEquals(1, databaseReads.get());
+    }
+
+    @Test
+    void testMightExist_NotLoadedOrDisabledAllowsEverything() {
+        assertTrue(lookupCache.mightExist("PNRFFFFFFFF"));
+
+        loadFilter();
+        properties.setBloomEnabled(false);
+        assertTrue(lookupCache.mightExist("PNRFFFFFFFF"));
+    }
+
+    @Test
+    void testBloomFilter_NoFalseNegativesAndLowFalsePositives() {
+        PnrGenerator generator = new PnrGenerator(1, Clock.systemUTC());
+        PnrBloomFilter filter = new PnrBloomFilter(50_000, 0.01);
+        String[] issued = new String[50_000];
+        for (int i = 0; i < issued.length; i++) {
+            issued[i] = generator.next();
+            filter.add(issued[i]);
+        }
+
+        for (String pnr : issued) {
+            assertTrue(filter.mightContain(pnr));
+        }
+        PnrGenerator other = new PnrGenerator(2, Clock.systemUTC());
+        int falsePositives = 0;
+        for (int i = 0; i < 50_000; i++) {
+            if (filter.mightContain(other.next())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1_000, "false positives: " + falsePositives);
+    }
+}
@@ -1,26 +1,53 @@
 package com.flightapp.booking;
 
-import com.flightapp.booking.config.FlightServiceClient;
+import com.flightapp.booking.config.BookingHistoryProperties;
+import com.flightapp.booking.config.PnrLookupProperties;
+import com.flightapp.booking.config.ReactiveFlightServiceClient;
 import com.flightapp.booking.dto.BookingRequest;
 import com.flightapp.booking.dto.BookingResponse;
-import com.flightapp.booking.dto.FlightInventory;
+import com.flightapp.booking.dto.EmailBatch;
+import com.flightapp.booking.dto.GroupBookingRequest;
+import com.flightapp.booking.dto.PassengerDetails;
+import com.flightapp.booking.dto.SeatReservation;
 import com.flightapp.booking.entity.Booking;
+import com.flightapp.booking.exception.BookingAlreadyCancelledException;
+import com.flightapp.booking.exception.SeatOperationException;
 import com.flightapp.booking.messaging.EmailService;
 import com.flightapp.booking.repository.BookingRepository;
+import com.flightapp.booking.service.BookingHistoryCursor;
+import com.flightapp.booking.service.BookingLookupCache;
 import com.flightapp.booking.service.BookingServiceImpl;
+import com.flightapp.booking.service.PnrGenerator;
+import com.flightapp.booking.service.SeatRestoreLedger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,20 +57,38 @@ class BookingServiceTest {
     private BookingRepository bookingRepository;
 
     @Mock
-    private FlightServiceClient flightServiceClient;
+    private ReactiveFlightServiceClient flightServiceClient;
 
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private SeatRestoreLedger seatRestoreLedger;
+
+    @Spy
+    private PnrGenerator pnrGenerator = new PnrGenerator(1, Clock.systemUTC());
+
+    @Spy
+    private BookingHistoryProperties historyProperties = new BookingHistoryProperties();
+
+    @Spy
+    private BookingLookupCache lookupCache = new BookingLookupCache(
+            mock(ReactiveMongoTemplate.class), new PnrLookupProperties(), new SimpleMeterRegistry());
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
     private BookingRequest bookingRequest;
     private Booking booking;
-    private FlightInventory flightInventory;
 
     @BeforeEach
     void setUp() {
+        lenient().when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
         bookingRequest = BookingRequest.builder()
                 .flightId(1L)
                 .passengerName("John Doe")
@@ -52,19 +97,6 @@ class BookingServiceTest {
                 .numberOfSeats(2)
                 .build();
 
-        flightInventory = FlightInventory.builder()
-                .id(1L)
-                .flightNumber("AI101")
-                .airline("Air India")
-                .origin("DEL")
-                .destination("BOM")
-                .departureTime(LocalDateTime.of(2025, 12, 15, 8, 0))
-                .arrivalTime(LocalDateTime.of(2025, 12, 15, 10, 30))
-                .availableSeats(150)
-                .price(5000.0)
-                .status("ACTIVE")
-                .build();
-
         booking = Booking.builder()
                 .id("1")
                 .pnr("PNR12345678")
@@ -80,12 +112,22 @@ class BookingServiceTest {
                 .build();
     }
 
+    private SeatReservation reservation(boolean reserved) {
+        return SeatReservation.builder()
+                .flightId(1L)
+                .flightNumber("AI101")
+                .unitPrice(5000.0)
+                .seats(2)
+                .remainingSeats(reserved ? 148 : 1)
+                .reserved(reserved)
+                .build();
+    }
+
     @Test
     void testCreateBookingSuccess() {
-        when(flightServiceClient.getFlightById(1L)).thenReturn(flightInventory);
-        when(flightServiceClient.reduceSeats(1L, 2)).thenReturn(true);
+        when(flightServiceClient.reserveSeats(1L, 2)).thenReturn(Mono.just(reservation(true)));
         when(bookingRepository.save(any(Booking.class))).thenReturn(Mono.just(booking));
-        doNothing().when(emailService).sendBookingConfirmation(any());
+        when(emailService.sendBookingConfirmation(any())).thenReturn(Mono.empty());
 
         StepVerifier.create(bookingService.createBooking(bookingRequest))
                 .expectNextMatches(response ->
@@ -93,9 +135,256 @@ class BookingServiceTest {
                         response.getPassengerName().equals("John Doe"))
                 .verifyComplete();
 
-        verify(flightServiceClient, times(1)).getFlightById(1L);
-        verify(flightServiceClient, times(1)).reduceSeats(1L, 2);
-        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(flightServiceClient, times(1)).reserveSeats(1L, 2);
+        verify(bookingRepository, times(1)).save(argThat(saved ->
+                saved.getFlightNumber().equals("AI101") && saved.getTotalAmount() == 10000.0));
+        verify(emailService).sendBookingConfirmation(argThat(notification -> notification.getPnr().equals("PNR12345678")));
+        verify(transactionalOperator).transactional(any(Mono.class));
+        verify(lookupCache).issued("PNR12345678");
+    }
+
+    @Test
+    void testCreateBooking_RetriesWithNewPnrOnDuplicateKey() {
+        when(flightServiceClient.reserveSeats(1L, 2)).thenReturn(Mono.just(reservation(true)));
+        when(bookingRepository.save(any(Booking.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key error")))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(emailService.sendBookingConfirmation(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(bookingService.createBooking(bookingRequest))
+                .expectNextMatches(response -> response.getStatus().equals("CONFIRMED")
+                        && response.getPnr().length() == PnrGenerator.LENGTH)
+                .verifyComplete();
+
+        verify(pnrGenerator, times(2)).next();
+        verify(bookingRepository, times(2)).save(any(Booking.class));
+        verify(transactionalOperator, times(1)).transactional(any(Mono.class));
+    }
+
+    private Flux<Booking> history(int from, int count) {
+        LocalDateTime newest = LocalDateTime.of(2025, 12, 15, 10, 0);
+        return Flux.fromStream(IntStream.range(from, from + count).mapToObj(i -> Booking.builder()
+                .id(new ObjectId(String.format("%024x", 1000 - i)).toHexString())
+                .pnr("PNR" + i)
+                .bookingDate(newest.minusHours(i))
+                .status("CONFIRMED")
+                .build()));
+    }
+
+    @Test
+    void testGetBookingHistoryPage_ReturnsCursorWhenMoreRemain() {
+        BookingHistoryCursor start = BookingHistoryCursor.start();
+        when(bookingRepository.findHistoryPage("john@example.com", start.bookingDate(), start.id(), Limit.of(3)))
+                .thenReturn(history(0, 3));
+
+        StepVerifier.create(bookingService.getBookingHistoryPage("john@example.com", start, 2))
+                .assertNext(page -> {
+                    assertEquals(2, page.getItems().size());
+                    assertEquals("PNR1", page.getItems().get(1).getPnr());
+                    BookingHistoryCursor next = BookingHistoryCursor.decode(page.getNextCursor());
+                    assertEquals(LocalDateTime.of(2025, 12, 15, 9, 0), next.bookingDate());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetBookingHistoryPage_LastPageHasNoCursor() {
+        when(bookingRepository.findHistoryPage(anyString(), any(), any(), any())).thenReturn(history(0, 1));
+
+        StepVerifier.create(bookingService.getBookingHistoryPage("john@example.com", BookingHistoryCursor.start(), 5000))
+                .assertNext(page -> {
+                    assertEquals(1, page.getItems().size());
+                    assertNull(page.getNextCursor());
+                })
+                .verifyComplete();
+
+        verify(bookingRepository).findHistoryPage(anyString(), any(), any(), eq(Limit.of(501)));
+    }
+
+    @Test
+    void testStreamBookingHistory_FetchesChunksUntilShortChunk() {
+        historyProperties.setStreamChunkSize(2);
+        when(bookingRepository.findHistoryPage(anyString(), any(), any(), eq(Limit.of(2))))
+                .thenReturn(history(0, 2), history(2, 2), history(4, 1));
+
+        StepVerifier.create(bookingService.streamBookingHistory("john@example.com", BookingHistoryCursor.start()))
+                .expectNextMatches(response -> response.getPnr().equals("PNR0"))
+                .expectNextCount(4)
+                .verifyComplete();
+
+        verify(bookingRepository, times(3)).findHistoryPage(anyString(), any(), any(), eq(Limit.of(2)));
+    }
+
+    @Test
+    void testGetBookingByPnr_ServedFromCacheUntilCancelled() {
+        when(bookingRepository.findByPnr("PNR12345678")).thenReturn(Mono.just(booking));
+        when(bookingRepository.cancelByPnr(eq("PNR12345678"), any(LocalDateTime.class))).thenReturn(Mono.just(1L));
+        when(seatRestoreLedger.owe(1L, 2L)).thenReturn(Mono.empty());
+        when(seatRestoreLedger.restore(1L)).thenReturn(Mono.just(2L));
+
+        StepVerifier.create(bookingService.getBookingByPnr("PNR12345678")).expectNext(booking).verifyComplete();
+        StepVerifier.create(bookingService.getBookingByPnr("PNR12345678")).expectNext(booking).verifyComplete();
+        verify(bookingRepository, times(1)).findByPnr("PNR12345678");
+
+        StepVerifier.create(bookingService.cancelBooking("PNR12345678")).expectNextCount(1).verifyComplete();
+        verify(lookupCache).invalidate("PNR12345678");
+
+        StepVerifier.create(bookingService.getBookingByPnr("PNR12345678"))
+                .expectNextMatches(found -> found.getStatus().equals("CANCELLED"))
+                .verifyComplete();
+        verify(bookingRepository, times(3)).findByPnr("PNR12345678");
+    }
+
+    private GroupBookingRequest groupRequest(int passengers) {
+        return GroupBookingRequest.builder()
+                .flightId(1L)
+                .passengers(IntStream.range(0, passengers)
+                        .mapToObj(i -> PassengerDetails.builder()
+                                .name("Passenger " + i)
+                                .email("passenger" + i + "@example.com")
+                                .phone("12345678" + i)
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private SeatReservation groupReservation(int seats, boolean reserved) {
+        return SeatReservation.builder()
+                .flightId(1L)
+                .flightNumber("AI101")
+                .unitPrice(5000.0)
+                .seats(seats)
+                .remainingSeats(reserved ? 100 : 1)
+                .reserved(reserved)
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateGroupBooking_OneReservationOneInsertOneNotification() {
+        when(flightServiceClient.reserveSeats(1L, 3)).thenReturn(Mono.just(groupReservation(3, true)));
+        when(bookingRepository.saveAll(any(Iterable.class)))
+                .thenAnswer(invocation -> Flux.fromIterable((Iterable<Booking>) invocation.getArgument(0)));
+        when(emailService.sendBatch(eq(EmailService.GROUP_BOOKING_CONFIRMED), any(EmailBatch.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(bookingService.createGroupBooking(groupRequest(3)))
+                .assertNext(response -> {
+                    assertEquals("CONFIRMED", response.getStatus());
+                    assertEquals(3, response.getNumberOfSeats());
+                    assertEquals(15000.0, response.getTotalAmount());
+                    assertEquals(3, new HashSet<>(response.getBookings().stream().map(BookingResponse::getPnr).toList()).size());
+                    assertEquals(response.getBookings().get(0).getPnr(), response.getGroupId());
+                })
+                .verifyComplete();
+
+        verify(flightServiceClient, times(1)).reserveSeats(1L, 3);
+        verify(bookingRepository, times(1)).saveAll(any(Iterable.class));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(emailService).sendBatch(eq(EmailService.GROUP_BOOKING_CONFIRMED),
+                argThat(batch -> batch.getNotifications().size() == 3));
+        verify(emailService, never()).sendBookingConfirmation(any());
+        verify(transactionalOperator, times(1)).transactional(any(Mono.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateGroupBooking_InsufficientSeatsWritesNothing() {
+        when(flightServiceClient.reserveSeats(1L, 4)).thenReturn(Mono.just(groupReservation(4, false)));
+
+        StepVerifier.create(bookingService.createGroupBooking(groupRequest(4)))
+                .expectErrorMessage("Insufficient seats available")
+                .verify();
+
+        verify(bookingRepository, never()).saveAll(any(Iterable.class));
+        verify(flightServiceClient, never()).restoreSeats(anyLong(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateGroupBooking_FailedWriteRestoresSeats() {
+        when(flightServiceClient.reserveSeats(1L, 2)).thenReturn(Mono.just(groupReservation(2, true)));
+        when(bookingRepository.saveAll(any(Iterable.class))).thenReturn(Flux.error(new RuntimeException("Mongo unavailable")));
+        when(flightServiceClient.restoreSeats(1L, 2)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(bookingService.createGroupBooking(groupRequest(2)))
+                .expectErrorMessage("Mongo unavailable")
+                .verify();
+
+        verify(flightServiceClient, times(1)).restoreSeats(1L, 2);
+        verify(emailService, never()).sendBatch(anyString(), any());
+        verify(lookupCache, never()).issued(anyString());
+    }
+
+    @Test
+    void testCreateBooking_OutboxFailureFailsBooking() {
+        when(flightServiceClient.reserveSeats(1L, 2)).thenReturn(Mono.just(reservation(true)));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(Mono.just(booking));
+        when(emailService.sendBookingConfirmation(any())).thenReturn(Mono.error(new RuntimeException("Outbox write failed")));
+        when(flightServiceClient.restoreSeats(1L, 2)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(bookingService.createBooking(bookingRequest))
+                .expectErrorMessage("Outbox write failed")
+                .verify();
+
+        verify(flightServiceClient, times(1)).restoreSeats(1L, 2);
+    }
+
+    @Test
+    void testCreateBooking_FailedWriteRestoresSeats() {
+        when(flightServiceClient.reserveSeats(1L, 2)).thenReturn(Mono.just(reservation(true)));
+        when(bookingRepository.save(any(Booking.class)))
+                .thenReturn(Mono.error(new RuntimeException("Transaction numbers are only allowed on a replica set member")));
+        when(flightServiceClient.restoreSeats(1L, 2)).thenReturn(Mono.error(new RuntimeException("flight-service down")));
+
+        // A failed give-back is logged; the caller still sees why the booking failed
+        StepVerifier.create(bookingService.createBooking(bookingRequest))
+                .expectErrorMessage("Transaction numbers are only allowed on a replica set member")
+                .verify();
+
+        verify(flightServiceClient, times(1)).restoreSeats(1L, 2);
+        verify(lookupCache, never()).issued(anyString());
+    }
+
+    @Test
+    void testCreateBooking_RetriesExhaustedRestoresSeats() {
+        when(flightServiceClient.reserveSeats(1L, 2)).thenReturn(Mono.just(reservation(true)));
+        when(bookingRepository.save(any(Booking.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key error")));
+        when(flightServiceClient.restoreSeats(1L, 2)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(bookingService.createBooking(bookingRequest))
+                .expectError()
+                .verify();
+
+        verify(bookingRepository, times(3)).save(any(Booking.class));
+        verify(flightServiceClient, times(1)).restoreSeats(1L, 2);
+    }
+
+    @Test
+    void testCreateBookingWithPnr_BooksUnderGivenPnr() {
+        when(bookingRepository.findByPnr("PNR12345678")).thenReturn(Mono.empty());
+        when(flightServiceClient.reserveSeats(1L, 2)).thenReturn(Mono.just(reservation(true)));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(emailService.sendBookingConfirmation(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(bookingService.createBooking(bookingRequest, "PNR12345678"))
+                .expectNextMatches(response -> response.getPnr().equals("PNR12345678"))
+                .verifyComplete();
+
+        verify(pnrGenerator, never()).next();
+    }
+
+    @Test
+    void testCreateBookingWithPnr_ExistingBookingReturnedWithoutReserving() {
+        when(bookingRepository.findByPnr("PNR12345678")).thenReturn(Mono.just(booking));
+
+        StepVerifier.create(bookingService.createBooking(bookingRequest, "PNR12345678"))
+                .expectNextMatches(response -> response.getPnr().equals("PNR12345678")
+                        && response.getStatus().equals("CONFIRMED"))
+                .verifyComplete();
+
+        verifyNoInteractions(flightServiceClient);
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
@@ -114,73 +403,61 @@ class BookingServiceTest {
     void testCancelBooking() {
         when(bookingRepository.findByPnr("PNR12345678"))
                 .thenReturn(Mono.just(booking));
-        when(flightServiceClient.restoreSeats(1L, 2)).thenReturn(true);
-        when(bookingRepository.save(any(Booking.class)))
-                .thenReturn(Mono.just(booking));
+        when(bookingRepository.cancelByPnr(eq("PNR12345678"), any(LocalDateTime.class))).thenReturn(Mono.just(1L));
+        when(seatRestoreLedger.owe(1L, 2L)).thenReturn(Mono.empty());
+        when(seatRestoreLedger.restore(1L)).thenReturn(Mono.just(2L));
 
         StepVerifier.create(bookingService.cancelBooking("PNR12345678"))
                 .expectNextMatches(response ->
-                        response.getPnr().equals("PNR12345678"))
+                        response.getPnr().equals("PNR12345678") && response.getStatus().equals("CANCELLED"))
                 .verifyComplete();
 
         verify(bookingRepository, times(1)).findByPnr("PNR12345678");
-        verify(flightServiceClient, times(1)).restoreSeats(1L, 2);
+        verify(seatRestoreLedger, times(1)).owe(1L, 2L);
+        verify(seatRestoreLedger, times(1)).restore(1L);
+        verify(transactionalOperator).transactional(any(Mono.class));
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
-    void testCreateBooking_FlightNotFound() {
-        when(flightServiceClient.getFlightById(1L)).thenReturn(null);
+    void testCancelBooking_LosesRaceWithFlightCancellation() {
+        when(bookingRepository.findByPnr("PNR12345678")).thenReturn(Mono.just(booking));
+        // Cancelled by a flight disruption between the read and the update
+        when(bookingRepository.cancelByPnr(eq("PNR12345678"), any(LocalDateTime.class))).thenReturn(Mono.just(0L));
 
-        StepVerifier.create(bookingService.createBooking(bookingRequest))
-                .expectErrorMatches(throwable ->
-                        throwable instanceof RuntimeException &&
-                        throwable.getMessage().equals("Flight not found"))
+        StepVerifier.create(bookingService.cancelBooking("PNR12345678"))
+                .expectError(BookingAlreadyCancelledException.class)
                 .verify();
 
-        verify(flightServiceClient, times(1)).getFlightById(1L);
-        verify(bookingRepository, never()).save(any());
+        verifyNoInteractions(seatRestoreLedger, flightServiceClient);
     }
 
     @Test
-    void testCreateBooking_InsufficientSeats() {
-        FlightInventory insufficientFlight = FlightInventory.builder()
-                .id(1L)
-                .flightNumber("AI101")
-                .airline("Air India")
-                .origin("DEL")
-                .destination("BOM")
-                .departureTime(LocalDateTime.of(2025, 12, 15, 8, 0))
-                .arrivalTime(LocalDateTime.of(2025, 12, 15, 10, 30))
-                .availableSeats(1)
-                .price(5000.0)
-                .status("ACTIVE")
-                .build();
-
-        when(flightServiceClient.getFlightById(1L)).thenReturn(insufficientFlight);
+    void testCreateBooking_FlightNotFound() {
+        when(flightServiceClient.reserveSeats(1L, 2)).thenReturn(Mono.empty());
 
         StepVerifier.create(bookingService.createBooking(bookingRequest))
                 .expectErrorMatches(throwable ->
                         throwable instanceof RuntimeException &&
-                        throwable.getMessage().equals("Insufficient seats available"))
+                        throwable.getMessage().equals("Flight not found"))
                 .verify();
 
-        verify(flightServiceClient, times(1)).getFlightById(1L);
+        verify(flightServiceClient, times(1)).reserveSeats(1L, 2);
         verify(bookingRepository, never()).save(any());
     }
 
     @Test
-    void testCreateBooking_FailedToReduceSeats() {
-        when(flightServiceClient.getFlightById(1L)).thenReturn(flightInventory);
-        when(flightServiceClient.reduceSeats(1L, 2)).thenReturn(false);
+    void testCreateBooking_InsufficientSeats() {
+        when(flightServiceClient.reserveSeats(1L, 2)).thenReturn(Mono.just(reservation(false)));
 
         StepVerifier.create(bookingService.createBooking(bookingRequest))
                 .expectErrorMatches(throwable ->
                         throwable instanceof RuntimeException &&
-                        throwable.getMessage().equals("Failed to reduce seats"))
+                        throwable.getMessage().equals("Insufficient seats available"))
                 .verify();
 
-        verify(flightServiceClient, times(1)).getFlightById(1L);
-        verify(flightServiceClient, times(1)).reduceSeats(1L, 2);
+        verify(flightServiceClient, times(1)).reserveSeats(1L, 2);
+        verify(flightServiceClient, never()).getFlightById(anyLong());
         verify(bookingRepository, never()).save(any());
     }
 
@@ -238,22 +515,22 @@ class BookingServiceTest {
                 .verify();
 
         verify(bookingRepository, times(1)).findByPnr("PNR12345678");
-        verify(flightServiceClient, never()).restoreSeats(anyLong(), anyInt());
+        verify(bookingRepository, never()).cancelByPnr(any(), any());
+        verifyNoInteractions(seatRestoreLedger);
     }
 
     @Test
-    void testCancelBooking_FailedToRestoreSeats() {
+    void testCancelBooking_FailedToRestoreSeatsLeavesThemOwed() {
         when(bookingRepository.findByPnr("PNR12345678"))
                 .thenReturn(Mono.just(booking));
-        when(flightServiceClient.restoreSeats(1L, 2)).thenReturn(false);
+        when(bookingRepository.cancelByPnr(eq("PNR12345678"), any(LocalDateTime.class))).thenReturn(Mono.just(1L));
+        when(seatRestoreLedger.owe(1L, 2L)).thenReturn(Mono.empty());
+        when(seatRestoreLedger.restore(1L)).thenReturn(Mono.error(new SeatOperationException("Failed to restore 2 seats")));
 
         StepVerifier.create(bookingService.cancelBooking("PNR12345678"))
-                .expectErrorMatches(throwable ->
-                        throwable instanceof RuntimeException &&
-                        throwable.getMessage().equals("Failed to restore seats"))
-                .verify();
+                .expectNextMatches(response -> response.getStatus().equals("CANCELLED"))
+                .verifyComplete();
 
-        verify(bookingRepository, times(1)).findByPnr("PNR12345678");
-        verify(flightServiceClient, times(1)).restoreSeats(1L, 2);
+        verify(seatRestoreLedger, times(1)).owe(1L, 2L);
     }
 }
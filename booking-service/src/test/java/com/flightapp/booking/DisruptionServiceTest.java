@@ -0,0 +1,210 @@
+package com.flightapp.booking;
+
+import com.flightapp.booking.config.DisruptionProperties;
+import com.flightapp.booking.config.PnrLookupProperties;
+import com.flightapp.booking.dto.DisruptionProgress;
+import com.flightapp.booking.dto.EmailBatch;
+import com.flightapp.booking.entity.Booking;
+import com.flightapp.booking.messaging.EmailService;
+import com.flightapp.booking.service.BookingLookupCache;
+import com.flightapp.booking.service.DisruptionAction;
+import com.flightapp.booking.service.DisruptionServiceImpl;
+import com.flightapp.booking.service.SeatRestoreLedger;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DisruptionServiceTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private SeatRestoreLedger seatRestoreLedger;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private ReactiveBulkOperations bulkOperations;
+
+    @Spy
+    private BookingLookupCache lookupCache = new BookingLookupCache(
+            mock(ReactiveMongoTemplate.class), new PnrLookupProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private DisruptionProperties properties = new DisruptionProperties();
+
+    @InjectMocks
+    private DisruptionServiceImpl disruptionService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setChunkSize(2);
+        properties.setConcurrency(1);
+        lenient().when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Booking.class)).thenReturn(bulkOperations);
+        lenient().when(emailService.sendBatch(any(), any(EmailBatch.class))).thenReturn(Mono.empty());
+        lenient().when(seatRestoreLedger.owe(anyLong(), anyLong())).thenReturn(Mono.empty());
+    }
+
+    private static Booking booking(String pnr, int seats) {
+        return Booking.builder()
+                .id("id-" + pnr)
+                .pnr(pnr)
+                .flightId(1L)
+                .flightNumber("AI101")
+                .passengerName("Passenger " + pnr)
+                .passengerEmail(pnr.toLowerCase() + "@example.com")
+                .numberOfSeats(seats)
+                .build();
+    }
+
+    private static BulkWriteResult modified(int count) {
+        return BulkWriteResult.acknowledged(0, count, 0, count, List.of(), List.of());
+    }
+
+    @Test
+    void testCancel_WritesChunksAndRestoresSeatsOnce() {
+        when(mongoTemplate.find(any(Query.class), eq(Booking.class)))
+                .thenReturn(Flux.just(booking("PNRA", 2), booking("PNRB", 1), booking("PNRC", 1)));
+        when(bulkOperations.execute()).thenReturn(Mono.just(modified(2)), Mono.just(modified(1)));
+        when(seatRestoreLedger.restore(1L)).thenReturn(Mono.just(4L));
+
+        StepVerifier.create(disruptionService.disruptFlight(1L, DisruptionAction.CANCEL))
+                .assertNext(progress -> {
+                    assertEquals("IN_PROGRESS", progress.getStatus());
+                    assertEquals(1, progress.getChunk());
+                    assertEquals(2L, progress.getUpdated());
+                })
+                .assertNext(progress -> assertEquals(3L, progress.getUpdated()))
+                .assertNext(progress -> {
+                    assertEquals("COMPLETED", progress.getStatus());
+                    assertEquals(3L, progress.getProcessed());
+                    assertEquals(0L, progress.getSkipped());
+                    assertEquals(4L, progress.getSeatsRestored());
+                    assertEquals(3L, progress.getNotificationsQueued());
+                    assertNull(progress.getMessage());
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(3)).updateOne(any(Query.class), updates.capture());
+        assertEquals("CANCELLED", updates.getValue().getUpdateObject().get("$set", Document.class).get("status"));
+        // Each chunk owes its seats in its own transaction; one call gives them all back
+        verify(seatRestoreLedger).owe(1L, 3L);
+        verify(seatRestoreLedger).owe(1L, 1L);
+        verify(seatRestoreLedger, times(1)).restore(anyLong());
+        verify(emailService, times(2)).sendBatch(eq(EmailService.FLIGHT_CANCELLED), any(EmailBatch.class));
+        verify(lookupCache).invalidate("PNRA");
+        verify(lookupCache).invalidate("PNRC");
+    }
+
+    @Test
+    void testFlag_SkipsBookingsChangedConcurrently() {
+        Booking stillConfirmed = booking("PNRA", 2);
+        when(mongoTemplate.find(any(Query.class), eq(Booking.class)))
+                .thenReturn(Flux.just(stillConfirmed, booking("PNRB", 1)))
+                .thenReturn(Flux.just(stillConfirmed));
+        when(bulkOperations.execute()).thenReturn(Mono.just(modified(1)));
+
+        StepVerifier.create(disruptionService.disruptFlight(1L, DisruptionAction.FLAG).last())
+                .assertNext(progress -> {
+                    assertEquals("COMPLETED", progress.getStatus());
+                    assertEquals(2L, progress.getProcessed());
+                    assertEquals(1L, progress.getUpdated());
+                    assertEquals(1L, progress.getSkipped());
+                    assertEquals(0L, progress.getSeatsRestored());
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<EmailBatch> batch = ArgumentCaptor.forClass(EmailBatch.class);
+        verify(emailService).sendBatch(eq(EmailService.FLIGHT_DISRUPTED), batch.capture());
+        assertEquals(List.of("PNRA"), batch.getValue().getNotifications().stream().map(n -> n.getPnr()).toList());
+        verifyNoInteractions(seatRestoreLedger);
+    }
+
+    @Test
+    void testCancel_FailedChunkStillRestoresSeatsOfWrittenChunks() {
+        when(mongoTemplate.find(any(Query.class), eq(Booking.class)))
+                .thenReturn(Flux.just(booking("PNRA", 2), booking("PNRB", 1), booking("PNRC", 3)));
+        when(bulkOperations.execute())
+                .thenReturn(Mono.just(modified(2)), Mono.error(new IllegalStateException("write failed")));
+        when(seatRestoreLedger.restore(1L)).thenReturn(Mono.just(3L));
+
+        StepVerifier.create(disruptionService.disruptFlight(1L, DisruptionAction.CANCEL).last())
+                .assertNext(progress -> {
+                    assertEquals("FAILED", progress.getStatus());
+                    assertEquals(2L, progress.getUpdated());
+                    assertEquals(3L, progress.getSeatsRestored());
+                    assertEquals("write failed", progress.getMessage());
+                })
+                .verifyComplete();
+
+        verify(lookupCache, never()).invalidate("PNRC");
+        verify(seatRestoreLedger, times(1)).owe(1L, 3L);
+    }
+
+    @Test
+    void testCancel_ReportsFailedSeatRestore() {
+        when(mongoTemplate.find(any(Query.class), eq(Booking.class))).thenReturn(Flux.just(booking("PNRA", 2)));
+        when(bulkOperations.execute()).thenReturn(Mono.just(modified(1)));
+        when(seatRestoreLedger.restore(1L)).thenReturn(Mono.error(new RuntimeException("flight-service down")));
+
+        StepVerifier.create(disruptionService.disruptFlight(1L, DisruptionAction.CANCEL).last())
+                .assertNext(progress -> {
+                    assertEquals("FAILED", progress.getStatus());
+                    assertEquals(1L, progress.getUpdated());
+                    assertEquals(0L, progress.getSeatsRestored());
+                    assertTrue(progress.getMessage().contains("2 seats"));
+                })
+                .verifyComplete();
+
+        // Owed in the chunk's transaction, so the ledger keeps retrying them
+        verify(seatRestoreLedger).owe(1L, 2L);
+    }
+
+    @Test
+    void testDisruptFlight_NoBookings() {
+        when(mongoTemplate.find(any(Query.class), eq(Booking.class))).thenReturn(Flux.empty());
+
+        StepVerifier.create(disruptionService.disruptFlight(1L, DisruptionAction.CANCEL))
+                .assertNext(progress -> {
+                    assertEquals("COMPLETED", progress.getStatus());
+                    assertEquals(0L, progress.getProcessed());
+                })
+                .verifyComplete();
+
+        verifyNoInteractions(seatRestoreLedger, emailService);
+    }
+}
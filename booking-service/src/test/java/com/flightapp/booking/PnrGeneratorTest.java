@@ -0,0 +1,121 @@
+package com.flightapp.booking;
+
+import com.flightapp.booking.service.PnrGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PnrGeneratorTest {
+
+    private static final Clock FIXED = Clock.fixed(Instant.parse("2025-12-15T10:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void testNext_Format() {
+        String pnr = new PnrGenerator(42, Clock.systemUTC()).next();
+
+        assertEquals(PnrGenerator.LENGTH, pnr.length());
+        assertTrue(pnr.matches("PNR[0-9A-HJKMNP-TV-Z]{12}"), pnr);
+    }
+
+    @Test
+    void testNext_UniqueAndOrderedWithinSecond() {
+        PnrGenerator generator = new PnrGenerator(7, FIXED);
+        Set<String> seen = new HashSet<>();
+        String previous = "";
+
+        // Well past the 16384 per-second counter, so this also covers borrowing the next second
+        for (int i = 0; i < 50_000; i++) {
+            String pnr = generator.next();
+            assertTrue(seen.add(pnr), "duplicate " + pnr);
+            assertTrue(pnr.compareTo(previous) > 0, pnr + " not after " + previous);
+            previous = pnr;
+        }
+    }
+
+    @Test
+    void testNext_DifferentNodesNeverCollide() {
+        PnrGenerator first = new PnrGenerator(1, FIXED);
+        PnrGenerator second = new PnrGenerator(2, FIXED);
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(seen.add(first.next()));
+            assertTrue(seen.add(second.next()));
+        }
+    }
+
+    @Test
+    void testNext_ClockGoingBackDoesNotRepeat() {
+        Instant now = Instant.parse("2025-12-15T10:00:00Z");
+        PnrGenerator ahead = new PnrGenerator(3, Clock.fixed(now, ZoneOffset.UTC));
+        String beforeStep = ahead.next();
+
+        MutableClock clock = new MutableClock(now);
+        PnrGenerator generator = new PnrGenerator(3, clock);
+        String first = generator.next();
+        clock.instant = now.minusSeconds(30);
+        String afterStepBack = generator.next();
+
+        assertEquals(beforeStep, first);
+        assertTrue(afterStepBack.compareTo(first) > 0);
+    }
+
+    @Test
+    void testNext_ConcurrentCallersGetDistinctPnrs() throws InterruptedException {
+        PnrGenerator generator = new PnrGenerator(5, Clock.systemUTC());
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    seen.add(generator.next());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(80_000, seen.size());
+    }
+
+    @Test
+    void testConstructor_RejectsOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new PnrGenerator(-1, FIXED));
+        assertThrows(IllegalArgumentException.class, () -> new PnrGenerator(1 << 14, FIXED));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.flightapp.booking;
+
+import com.flightapp.booking.config.ReactiveFlightServiceClient;
+import com.flightapp.booking.config.SeatRestoreProperties;
+import com.flightapp.booking.entity.PendingSeatRestore;
+import com.flightapp.booking.exception.SeatOperationException;
+import com.flightapp.booking.service.SeatRestoreLedger;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatRestoreLedgerTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private ReactiveFlightServiceClient flightServiceClient;
+
+    private SeatRestoreLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new SeatRestoreLedger(mongoTemplate, flightServiceClient, new SeatRestoreProperties());
+        lenient().when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(PendingSeatRestore.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+    }
+
+    private void owed(long seats) {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(PendingSeatRestore.class)))
+                .thenReturn(Mono.just(PendingSeatRestore.builder().flightId(1L).seats(seats).build()));
+    }
+
+    private Document lastUpdate() {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(PendingSeatRestore.class));
+        return update.getValue().getUpdateObject();
+    }
+
+    @Test
+    void testRestore_TakesOffOnlyWhatWasRestored() {
+        owed(5);
+        when(flightServiceClient.restoreSeats(1L, 5)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(ledger.restore(1L))
+                .expectNext(5L)
+                .verifyComplete();
+
+        Document update = lastUpdate();
+        assertEquals(-5L, update.get("$inc", Document.class).get("seats"));
+        assertTrue(update.get("$unset", Document.class).containsKey("leasedUntil"));
+    }
+
+    @Test
+    void testRestore_FailedCallKeepsSeatsOwed() {
+        owed(5);
+        when(flightServiceClient.restoreSeats(1L, 5)).thenReturn(Mono.error(new RuntimeException("flight-service down")));
+
+        StepVerifier.create(ledger.restore(1L))
+                .expectError(SeatOperationException.class)
+                .verify();
+
+        Document update = lastUpdate();
+        assertNull(update.get("$inc"));
+        assertTrue(update.get("$unset", Document.class).containsKey("leasedUntil"));
+    }
+
+    @Test
+    void testRestore_NothingOwedOrLeasedElsewhere() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(PendingSeatRestore.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(ledger.restore(1L))
+                .expectNext(0L)
+                .verifyComplete();
+
+        verifyNoInteractions(flightServiceClient);
+    }
+
+    @Test
+    void testRetryOwed_OneFailingFlightDoesNotStopTheRest() {
+        when(mongoTemplate.find(any(Query.class), eq(PendingSeatRestore.class))).thenReturn(Flux.just(
+                PendingSeatRestore.builder().flightId(1L).seats(2L).build(),
+                PendingSeatRestore.builder().flightId(2L).seats(3L).build()));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(PendingSeatRestore.class)))
+                .thenReturn(Mono.just(PendingSeatRestore.builder().flightId(1L).seats(2L).build()),
+                        Mono.just(PendingSeatRestore.builder().flightId(2L).seats(3L).build()));
+        when(flightServiceClient.restoreSeats(1L, 2)).thenReturn(Mono.just(false));
+        when(flightServiceClient.restoreSeats(2L, 3)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(ledger.retryOwed()).verifyComplete();
+
+        verify(flightServiceClient, times(2)).restoreSeats(anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,116 @@
+package com.flightapp.booking;
+
+import com.flightapp.booking.config.FlightClientProperties;
+import com.flightapp.booking.config.WebClientFlightServiceClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebClientFlightServiceClientTest {
+
+    private final FlightClientProperties properties = new FlightClientProperties();
+    private final AtomicReference<ClientRequest> lastRequest = new AtomicReference<>();
+
+    private WebClientFlightServiceClient client(HttpStatus status, String body) {
+        return client(request -> Mono.just(ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build()));
+    }
+
+    private WebClientFlightServiceClient client(ExchangeFunction exchange) {
+        WebClient webClient = WebClient.builder()
+                .baseUrl(properties.getBaseUrl())
+                .exchangeFunction(request -> {
+                    lastRequest.set(request);
+                    return exchange.exchange(request);
+                })
+                .build();
+        return new WebClientFlightServiceClient(webClient, properties);
+    }
+
+    @Test
+    void testGetFlightById() {
+        WebClientFlightServiceClient client = client(HttpStatus.OK,
+                "{\"id\":1,\"flightNumber\":\"AI101\",\"availableSeats\":150,\"price\":5000.0}");
+
+        StepVerifier.create(client.getFlightById(1L))
+                .expectNextMatches(flight -> flight.getFlightNumber().equals("AI101") && flight.getAvailableSeats() == 150)
+                .verifyComplete();
+
+        assertEquals("http://flight-service/api/flights/inventory/1", lastRequest.get().url().toString());
+    }
+
+    @Test
+    void testGetFlightById_NotFoundIsEmpty() {
+        StepVerifier.create(client(HttpStatus.NOT_FOUND, "").getFlightById(99L))
+                .verifyComplete();
+    }
+
+    @Test
+    void testReduceSeats() {
+        StepVerifier.create(client(HttpStatus.OK, "true").reduceSeats(1L, 2))
+                .expectNext(true)
+                .verifyComplete();
+
+        assertEquals(HttpMethod.PUT, lastRequest.get().method());
+        assertEquals("http://flight-service/api/flights/inventory/1/reduce-seats?seats=2",
+                lastRequest.get().url().toString());
+    }
+
+    @Test
+    void testRestoreSeats_ServerErrorPropagates() {
+        StepVerifier.create(client(HttpStatus.SERVICE_UNAVAILABLE, "").restoreSeats(1L, 2))
+                .expectError(WebClientResponseException.ServiceUnavailable.class)
+                .verify();
+    }
+
+    @Test
+    void testReduceSeats_TimesOut() {
+        properties.setResponseTimeout(Duration.ofMillis(50));
+        WebClientFlightServiceClient client = client(request -> Mono.never());
+
+        StepVerifier.create(client.reduceSeats(1L, 2))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testReserveSeats() {
+        WebClientFlightServiceClient client = client(HttpStatus.OK,
+                "{\"flightId\":1,\"flightNumber\":\"AI101\",\"unitPrice\":5000.0,\"seats\":2,"
+                        + "\"remainingSeats\":148,\"reserved\":true}");
+
+        StepVerifier.create(client.reserveSeats(1L, 2))
+                .expectNextMatches(reservation -> reservation.isReserved() && reservation.getRemainingSeats() == 148)
+                .verifyComplete();
+
+        assertEquals("http://flight-service/api/flights/inventory/1/reserve?seats=2", lastRequest.get().url().toString());
+    }
+
+    @Test
+    void testReserveSeats_ConflictCarriesQuoteAndNotFoundIsEmpty() {
+        StepVerifier.create(client(HttpStatus.CONFLICT, "{\"flightId\":1,\"remainingSeats\":1,\"reserved\":false}")
+                        .reserveSeats(1L, 2))
+                .expectNextMatches(reservation -> !reservation.isReserved())
+                .verifyComplete();
+
+        StepVerifier.create(client(HttpStatus.NOT_FOUND, "").reserveSeats(99L, 2))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,136 @@
+package com.flightapp.booking.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.flightapp.booking.config.FlightClientProperties;
+import com.flightapp.booking.config.FlightServiceClient;
+import com.flightapp.booking.config.FlightWebClientConfig;
+import com.flightapp.booking.config.ReactiveFlightServiceClient;
+import com.flightapp.booking.config.WebClientFlightServiceClient;
+import com.flightapp.booking.dto.FlightInventory;
+import feign.Feign;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent booking throughput against a stub flight-service that answers after a
+ * fixed delay: the old Feign path (blocking calls on boundedElastic) against the
+ * pooled WebClient. One operation is a burst of {@code concurrency} bookings, each a
+ * flight lookup followed by a seat reduction. Run with:
+ * {@code mvn test-compile exec:java -Dexec.mainClass=com.flightapp.booking.benchmark.FlightClientBenchmark -Dexec.classpathScope=test}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightClientBenchmark {
+
+    private static final String FLIGHT_JSON = "{\"id\":1,\"flightNumber\":\"AI101\",\"airline\":\"Air India\","
+            + "\"origin\":\"DEL\",\"destination\":\"BOM\",\"availableSeats\":150,\"price\":5000.0,\"status\":\"ACTIVE\"}";
+
+    @Param({"64", "512"})
+    private int concurrency;
+
+    @Param({"20"})
+    private int serviceLatencyMillis;
+
+    private DisposableServer server;
+    private ConnectionProvider connectionProvider;
+    private FlightServiceClient feignClient;
+    private ReactiveFlightServiceClient webClient;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Duration latency = Duration.ofMillis(serviceLatencyMillis);
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/flights/inventory/{id}", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendString(Mono.delay(latency).thenReturn(FLIGHT_JSON)))
+                        .put("/api/flights/inventory/{id}/reduce-seats", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendString(Mono.delay(latency).thenReturn("true"))))
+                .bindNow();
+        String baseUrl = "http://localhost:" + server.port();
+
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        feignClient = Feign.builder()
+                .contract(new SpringMvcContract())
+                .decoder((response, type) -> objectMapper.readValue(
+                        response.body().asInputStream(), objectMapper.constructType(type)))
+                .target(FlightServiceClient.class, baseUrl);
+
+        FlightClientProperties properties = new FlightClientProperties();
+        properties.setBaseUrl(baseUrl);
+        FlightWebClientConfig config = new FlightWebClientConfig();
+        connectionProvider = config.flightServiceConnectionProvider(properties);
+        webClient = new WebClientFlightServiceClient(WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider).keepAlive(true)))
+                .build(), properties);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionProvider.dispose();
+        server.disposeNow();
+    }
+
+    @Benchmark
+    public Long feignOnBoundedElastic() {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    FlightInventory flight = feignClient.getFlightById(1L);
+                    return feignClient.reduceSeats(flight.getId(), 1);
+                }).subscribeOn(Schedulers.boundedElastic()), concurrency)
+                .count()
+                .block();
+    }
+
+    @Benchmark
+    public Long reactiveWebClient() {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> webClient.getFlightById(1L)
+                        .flatMap(flight -> webClient.reduceSeats(flight.getId(), 1)), concurrency)
+                .count()
+                .block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FlightClientBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
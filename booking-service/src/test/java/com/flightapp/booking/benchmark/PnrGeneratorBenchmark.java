@@ -0,0 +1,65 @@
+package com.flightapp.booking.benchmark;
+
+import com.flightapp.booking.service.PnrGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PNR generation cost: the old random-UUID substring against {@link PnrGenerator},
+ * single-threaded and with 8 threads contending on the generator's counter. Add
+ * {@code -prof gc} to the JMH options to compare bytes allocated per PNR. Run with:
+ * {@code mvn test-compile exec:java -Dexec.mainClass=com.flightapp.booking.benchmark.PnrGeneratorBenchmark -Dexec.classpathScope=test}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PnrGeneratorBenchmark {
+
+    private final PnrGenerator generator = new PnrGenerator(1, Clock.systemUTC());
+
+    @Benchmark
+    public String uuidSubstring() {
+        return "PNR" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    @Benchmark
+    public String pnrGenerator() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String uuidSubstringContended() {
+        return uuidSubstring();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String pnrGeneratorContended() {
+        return generator.next();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PnrGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
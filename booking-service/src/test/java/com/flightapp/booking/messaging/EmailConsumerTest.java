@@ -1,5 +1,6 @@
 package com.flightapp.booking.messaging;
 
+import com.flightapp.booking.dto.EmailBatch;
 import com.flightapp.booking.dto.EmailNotification;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,6 +8,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -90,4 +93,19 @@ class EmailConsumerTest {
 
         assertDoesNotThrow(() -> emailConsumer.consumeEmailNotification(specialCharsNotification));
     }
+
+    @Test
+    void testConsumeEmailBatch_Success() {
+        EmailBatch batch = EmailBatch.builder()
+                .batchId("PNR12345678")
+                .notifications(List.of(testNotification, testNotification))
+                .build();
+
+        assertDoesNotThrow(() -> emailConsumer.consumeEmailBatch(batch));
+    }
+
+    @Test
+    void testConsumeEmailBatch_NoNotifications() {
+        assertDoesNotThrow(() -> emailConsumer.consumeEmailBatch(EmailBatch.builder().batchId("empty").build()));
+    }
 }
@@ -1,13 +1,19 @@
 package com.flightapp.booking.messaging;
 
+import com.flightapp.booking.dto.EmailBatch;
 import com.flightapp.booking.dto.EmailNotification;
+import com.flightapp.booking.entity.OutboxEvent;
+import com.flightapp.booking.repository.OutboxEventRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -16,7 +22,7 @@ import static org.mockito.Mockito.*;
 class EmailServiceTest {
 
     @Mock
-    private RabbitTemplate rabbitTemplate;
+    private OutboxEventRepository outboxEventRepository;
 
     @InjectMocks
     private EmailService emailService;
@@ -36,30 +42,31 @@ class EmailServiceTest {
     }
 
     @Test
-    void testSendBookingConfirmation_Success() {
-        doNothing().when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(EmailNotification.class));
-
-        emailService.sendBookingConfirmation(testNotification);
-
-        verify(rabbitTemplate, times(1)).convertAndSend(
-                RabbitMQConfig.EMAIL_EXCHANGE,
-                RabbitMQConfig.EMAIL_ROUTING_KEY,
-                testNotification
-        );
+    void testSendBookingConfirmation_QueuesOutboxEvent() {
+        when(outboxEventRepository.save(any(OutboxEvent.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(emailService.sendBookingConfirmation(testNotification))
+                .verifyComplete();
+
+        verify(outboxEventRepository, times(1)).save(argThat(event ->
+                event.getPayload() == testNotification
+                        && event.getAggregateId().equals("PNR12345678")
+                        && event.getExchange().equals(RabbitMQConfig.EMAIL_EXCHANGE)
+                        && event.getRoutingKey().equals(RabbitMQConfig.EMAIL_ROUTING_KEY)
+                        && event.getStatus().equals(OutboxEvent.PENDING)
+                        && event.getAttempts() == 0
+                        && !event.getAvailableAt().isAfter(event.getCreatedAt())));
     }
 
     @Test
-    void testSendBookingConfirmation_Exception() {
-        doThrow(new RuntimeException("RabbitMQ connection failed"))
-                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(EmailNotification.class));
-
-        emailService.sendBookingConfirmation(testNotification);
+    void testSendBookingConfirmation_SaveFailurePropagates() {
+        when(outboxEventRepository.save(any(OutboxEvent.class)))
+                .thenReturn(Mono.error(new RuntimeException("Mongo unavailable")));
 
-        verify(rabbitTemplate, times(1)).convertAndSend(
-                RabbitMQConfig.EMAIL_EXCHANGE,
-                RabbitMQConfig.EMAIL_ROUTING_KEY,
-                testNotification
-        );
+        StepVerifier.create(emailService.sendBookingConfirmation(testNotification))
+                .expectErrorMessage("Mongo unavailable")
+                .verify();
     }
 
     @Test
@@ -69,30 +76,31 @@ class EmailServiceTest {
                 .subject("Booking Confirmation")
                 .pnr(null)
                 .build();
+        when(outboxEventRepository.save(any(OutboxEvent.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
 
-        doNothing().when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(EmailNotification.class));
+        StepVerifier.create(emailService.sendBookingConfirmation(notificationWithNullPnr))
+                .verifyComplete();
 
-        emailService.sendBookingConfirmation(notificationWithNullPnr);
-
-        verify(rabbitTemplate, times(1)).convertAndSend(
-                RabbitMQConfig.EMAIL_EXCHANGE,
-                RabbitMQConfig.EMAIL_ROUTING_KEY,
-                notificationWithNullPnr
-        );
+        verify(outboxEventRepository, times(1)).save(argThat(event -> event.getAggregateId() == null));
     }
 
     @Test
-    void testSendBookingConfirmation_MultipleEmails() {
-        doNothing().when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(EmailNotification.class));
-
-        emailService.sendBookingConfirmation(testNotification);
-        emailService.sendBookingConfirmation(testNotification);
-        emailService.sendBookingConfirmation(testNotification);
-
-        verify(rabbitTemplate, times(3)).convertAndSend(
-                RabbitMQConfig.EMAIL_EXCHANGE,
-                RabbitMQConfig.EMAIL_ROUTING_KEY,
-                testNotification
-        );
+    void testSendBatch_QueuesOneOutboxEvent() {
+        EmailBatch batch = EmailBatch.builder()
+                .batchId("PNR12345678")
+                .notifications(List.of(testNotification, testNotification))
+                .build();
+        when(outboxEventRepository.save(any(OutboxEvent.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(emailService.sendBatch(EmailService.GROUP_BOOKING_CONFIRMED, batch))
+                .verifyComplete();
+
+        verify(outboxEventRepository, times(1)).save(argThat(event ->
+                event.getPayload() == batch
+                        && event.getType().equals(EmailService.GROUP_BOOKING_CONFIRMED)
+                        && event.getAggregateId().equals("PNR12345678")
+                        && event.getRoutingKey().equals(RabbitMQConfig.EMAIL_BATCH_ROUTING_KEY)));
     }
 }
@@ -0,0 +1,143 @@
+package com.flightapp.booking.messaging;
+
+import com.flightapp.booking.config.OutboxProperties;
+import com.flightapp.booking.dto.EmailNotification;
+import com.flightapp.booking.entity.OutboxEvent;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+    private OutboxEvent event;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(mongoTemplate, rabbitTemplate, new OutboxProperties(), meterRegistry);
+        event = OutboxEvent.builder()
+                .id("evt-1")
+                .aggregateId("PNR12345678")
+                .type(EmailService.BOOKING_CONFIRMED)
+                .exchange(RabbitMQConfig.EMAIL_EXCHANGE)
+                .routingKey(RabbitMQConfig.EMAIL_ROUTING_KEY)
+                .payload(EmailNotification.builder().pnr("PNR12345678").build())
+                .status(OutboxEvent.PENDING)
+                .attempts(0)
+                .createdAt(LocalDateTime.now().minusSeconds(2))
+                .availableAt(LocalDateTime.now().minusSeconds(2))
+                .build();
+    }
+
+    private void claimable() {
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class)))
+                .thenReturn(Flux.just(OutboxEvent.builder().id("evt-1").build()), Flux.just(event));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(OutboxEvent.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(OutboxEvent.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+    }
+
+    private void brokerConfirms(boolean ack) {
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(4);
+            correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "queue full"));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class),
+                any(MessagePostProcessor.class), any(CorrelationData.class));
+    }
+
+    private Document capturedSet() {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(OutboxEvent.class));
+        return (Document) update.getValue().getUpdateObject().get("$set");
+    }
+
+    @Test
+    void testRelayBatch_MarksConfirmedEventsPublished() {
+        claimable();
+        brokerConfirms(true);
+
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(1L)
+                .verifyComplete();
+
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.EMAIL_EXCHANGE), eq(RabbitMQConfig.EMAIL_ROUTING_KEY),
+                eq(event.getPayload()), any(MessagePostProcessor.class),
+                argThat((CorrelationData correlation) -> correlation.getId().equals("evt-1")));
+        assertEquals(OutboxEvent.PUBLISHED, capturedSet().get("status"));
+        assertEquals(1.0, meterRegistry.get("booking.outbox.events").tag("outcome", "published").counter().count());
+        assertEquals(1, meterRegistry.get("booking.outbox.lag").timer().count());
+    }
+
+    @Test
+    void testRelayBatch_NackSchedulesRetry() {
+        claimable();
+        brokerConfirms(false);
+
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(0L)
+                .verifyComplete();
+
+        Document set = capturedSet();
+        assertEquals(1, set.get("attempts"));
+        assertTrue(((String) set.get("lastError")).contains("queue full"));
+        assertTrue(((LocalDateTime) set.get("availableAt")).isAfter(LocalDateTime.now()));
+        assertEquals(1.0, meterRegistry.get("booking.outbox.events").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void testRelayBatch_SendFailureSchedulesRetry() {
+        claimable();
+        doThrow(new RuntimeException("connection refused")).when(rabbitTemplate).convertAndSend(anyString(), anyString(),
+                any(Object.class), any(MessagePostProcessor.class), any(CorrelationData.class));
+
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(0L)
+                .verifyComplete();
+
+        assertEquals("connection refused", capturedSet().get("lastError"));
+    }
+
+    @Test
+    void testRelayBatch_NothingDue() {
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class))).thenReturn(Flux.empty());
+
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(0L)
+                .verifyComplete();
+
+        verifyNoInteractions(rabbitTemplate);
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(OutboxEvent.class));
+    }
+}
@@ -0,0 +1,45 @@
+-- Benchmark for the flight search query before and after airport-code normalization.
+-- Run against a scratch copy of flight_db (MySQL 8.0.18+ for EXPLAIN ANALYZE).
+
+-- Step 1: Seed ~3 million flights over 40 airports and 365 days
+SET SESSION cte_max_recursion_depth = 4000000;
+
+INSERT INTO flight_inventory (flight_number, airline, origin, destination, departure_time, arrival_time, available_seats, price, status)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < 3000000
+)
+SELECT CONCAT('BM', n),
+       'Benchmark Air',
+       ELT(1 + n % 40, 'DEL','BOM','BLR','MAA','CCU','HYD','AMD','PNQ','GOI','COK',
+                       'JAI','LKO','IXC','SXR','PAT','BBI','GAU','IXB','TRV','VNS',
+                       'IDR','NAG','RPR','BHO','UDR','ATQ','IXR','DED','IXM','CJB',
+                       'VTZ','TRZ','IXE','HBX','IXJ','STV','BDQ','RAJ','JDH','IXZ'),
+       ELT(1 + (n DIV 40) % 40, 'DEL','BOM','BLR','MAA','CCU','HYD','AMD','PNQ','GOI','COK',
+                                'JAI','LKO','IXC','SXR','PAT','BBI','GAU','IXB','TRV','VNS',
+                                'IDR','NAG','RPR','BHO','UDR','ATQ','IXR','DED','IXM','CJB',
+                                'VTZ','TRZ','IXE','HBX','IXJ','STV','BDQ','RAJ','JDH','IXZ'),
+       TIMESTAMP('2026-01-01') + INTERVAL (n % 525600) MINUTE,
+       TIMESTAMP('2026-01-01') + INTERVAL (n % 525600 + 150) MINUTE,
+       n % 200,
+       3000 + n % 5000,
+       'ACTIVE'
+FROM seq;
+
+ANALYZE TABLE flight_inventory;
+
+-- Step 2: Old query - functions on the columns force a full scan
+EXPLAIN ANALYZE
+SELECT * FROM flight_inventory
+WHERE UPPER(origin) = UPPER('del') AND UPPER(destination) = UPPER('bom')
+  AND departure_time BETWEEN '2026-03-15 00:00:00' AND '2026-03-15 23:59:59';
+
+-- Step 3: New query - normalized inputs against normalized columns, range scan on idx_flight_search
+EXPLAIN ANALYZE
+SELECT * FROM flight_inventory
+WHERE origin = 'DEL' AND destination = 'BOM'
+  AND departure_time BETWEEN '2026-03-15 00:00:00' AND '2026-03-15 23:59:59';
+
+-- Step 4: Clean up
+-- DELETE FROM flight_inventory WHERE airline = 'Benchmark Air';
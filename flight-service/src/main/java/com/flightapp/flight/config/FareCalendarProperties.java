@@ -0,0 +1,26 @@
+package com.flightapp.flight.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "flight.search.calendar")
+@Data
+public class FareCalendarProperties {
+
+    /**
+     * Maximum number of route/window entries kept in the fare calendar cache
+     * Default: 10000
+     */
+    private long cacheSize = 10_000;
+
+    /**
+     * How long a cached fare calendar is served before it is recomputed,
+     * even if no inventory change was seen
+     * Default: 5 minutes
+     */
+    private Duration cacheTtl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,24 @@
+package com.flightapp.flight.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "flight.import")
+@Data
+public class FlightImportProperties {
+
+    /**
+     * Number of valid rows written per multi-row INSERT
+     * Default: 500
+     */
+    private int batchSize = 500;
+
+    /**
+     * Maximum number of rejected rows listed in the import summary.
+     * Rejections beyond this are still counted.
+     * Default: 1000
+     */
+    private int maxReportedRejections = 1000;
+}
@@ -0,0 +1,23 @@
+package com.flightapp.flight.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "flight.metrics")
+@Data
+public class FlightMetricsProperties {
+
+    /**
+     * Publish percentile histogram buckets for flight service timers and result sizes
+     * Default: true
+     */
+    private boolean histogramsEnabled = true;
+
+    /**
+     * Only one in this many per-flight DEBUG lines is written on the hot paths
+     * Default: 100
+     */
+    private int debugLogSampleRate = 100;
+}
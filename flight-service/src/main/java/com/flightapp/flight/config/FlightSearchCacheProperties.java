@@ -0,0 +1,50 @@
+package com.flightapp.flight.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "flight.search.cache")
+@Data
+public class FlightSearchCacheProperties {
+
+    /**
+     * Cache flight search results per route and travel date
+     * Default: true
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of route/date entries kept in the search cache
+     * Default: 10000
+     */
+    private long cacheSize = 10_000;
+
+    /**
+     * How long a cached search result is served, even if no inventory change was seen.
+     * Also bounds how stale a node can be if it missed a broadcast invalidation.
+     * Default: 1 minute
+     */
+    private Duration cacheTtl = Duration.ofMinutes(1);
+
+    /**
+     * Send inventory changes to the other flight-service instances registered in Eureka
+     * Default: true
+     */
+    private boolean broadcastEnabled = true;
+
+    /**
+     * Changes are collected for this long and sent to each peer in one request
+     * Default: 100 milliseconds
+     */
+    private Duration broadcastWindow = Duration.ofMillis(100);
+
+    /**
+     * Maximum number of changes sent to a peer in one request
+     * Default: 500
+     */
+    private int broadcastMaxBatch = 500;
+}
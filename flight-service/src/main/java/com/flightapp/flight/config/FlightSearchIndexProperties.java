@@ -0,0 +1,26 @@
+package com.flightapp.flight.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "flight.search.index")
+@Data
+public class FlightSearchIndexProperties {
+
+    /**
+     * Serve flight searches from the in-memory index.
+     * If false, every search goes to the database.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How often the index is rebuilt from the database, so that
+     * writes made by other flight-service instances are picked up.
+     * Default: 5 minutes
+     */
+    private Duration rebuildInterval = Duration.ofMinutes(5);
+}
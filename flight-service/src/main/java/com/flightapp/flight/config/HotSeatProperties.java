@@ -0,0 +1,44 @@
+package com.flightapp.flight.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "flight.seats.hot")
+@Data
+public class HotSeatProperties {
+
+    /**
+     * Serve seat changes for hot flights from in-memory counters
+     * Default: false
+     */
+    private boolean enabled = false;
+
+    /**
+     * Seat reductions for one flight within a flush interval that make it hot
+     * Default: 50
+     */
+    private int promotionThreshold = 50;
+
+    /**
+     * Seats taken from the database in one go to refill a hot flight's counter
+     * Default: 20
+     */
+    private int leaseSize = 20;
+
+    /**
+     * Most seats a counter may hold before changes go straight to the database.
+     * This bounds the seats that stay unavailable if the instance dies.
+     * Default: 40
+     */
+    private int maxPooledSeats = 40;
+
+    /**
+     * How often surplus seats are written back and hot-flight demand is re-measured
+     * Default: 1 second
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+}
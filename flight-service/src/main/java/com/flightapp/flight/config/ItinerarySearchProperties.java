@@ -0,0 +1,31 @@
+package com.flightapp.flight.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "flight.search.itinerary")
+@Data
+public class ItinerarySearchProperties {
+
+    /**
+     * Shortest layover allowed between two legs
+     * Default: 45 minutes
+     */
+    private Duration minConnectionTime = Duration.ofMinutes(45);
+
+    /**
+     * Longest layover allowed between two legs
+     * Default: 12 hours
+     */
+    private Duration maxConnectionTime = Duration.ofHours(12);
+
+    /**
+     * Threads in the pool that explores connecting hubs in parallel
+     * Default: number of available processors
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+}
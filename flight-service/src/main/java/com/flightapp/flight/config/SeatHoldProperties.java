@@ -0,0 +1,44 @@
+package com.flightapp.flight.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "flight.seat-hold")
+@Data
+public class SeatHoldProperties {
+
+    /**
+     * How long seats stay held when the client does not ask for a TTL
+     * Default: 10 minutes
+     */
+    private Duration defaultTtl = Duration.ofMinutes(10);
+
+    /**
+     * Longest TTL a client may ask for; longer requests are capped to this
+     * Default: 30 minutes
+     */
+    private Duration maxTtl = Duration.ofMinutes(30);
+
+    /**
+     * How often due holds are taken off the expiry queue and returned to inventory
+     * Default: 1 second
+     */
+    private Duration sweepInterval = Duration.ofSeconds(1);
+
+    /**
+     * How often the database is scanned for overdue holds this node is not tracking,
+     * e.g. holds created by another instance that has since stopped
+     * Default: 1 minute
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(1);
+
+    /**
+     * Maximum number of holds expired in one transaction
+     * Default: 500
+     */
+    private int expiryBatchSize = 500;
+}
@@ -1,32 +1,100 @@
 package com.flightapp.flight.controller;
 
+import com.flightapp.flight.dto.FareCalendarDay;
+import com.flightapp.flight.dto.FareCalendarRequest;
+import com.flightapp.flight.dto.FlightImportProgress;
 import com.flightapp.flight.dto.FlightInventoryRequest;
 import com.flightapp.flight.dto.FlightSearchRequest;
+import com.flightapp.flight.dto.Itinerary;
+import com.flightapp.flight.dto.ItinerarySearchRequest;
+import com.flightapp.flight.dto.SeatReservation;
 import com.flightapp.flight.entity.FlightInventory;
+import com.flightapp.flight.entity.SeatHold;
+import com.flightapp.flight.service.FlightImportFormat;
+import com.flightapp.flight.service.FlightImportService;
+import com.flightapp.flight.service.FlightInventoryChangedEvent;
 import com.flightapp.flight.service.FlightService;
+import com.flightapp.flight.service.InventoryChangeBroadcaster;
+import com.flightapp.flight.service.InventoryCursor;
+import com.flightapp.flight.service.InventorySortOrder;
+import com.flightapp.flight.service.SeatHoldService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/flights")
 @RequiredArgsConstructor
 public class FlightController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final FlightService flightService;
+    private final FlightImportService flightImportService;
+    private final SeatHoldService seatHoldService;
+    private final InventoryChangeBroadcaster inventoryChangeBroadcaster;
 
     @PostMapping("/search")
     public Flux<FlightInventory> searchFlights(@Valid @RequestBody FlightSearchRequest request) {
         return flightService.searchFlights(request);
     }
 
+    @PostMapping("/search/calendar")
+    public Flux<FareCalendarDay> getFareCalendar(@Valid @RequestBody FareCalendarRequest request) {
+        return flightService.getFareCalendar(request);
+    }
+
+    @PostMapping("/search/itineraries")
+    public Flux<Itinerary> searchItineraries(@Valid @RequestBody ItinerarySearchRequest request) {
+        return flightService.searchItineraries(request);
+    }
+
     @GetMapping("/inventory")
-    public Flux<FlightInventory> getAllFlights() {
-        return flightService.getAllFlights();
+    public Mono<ResponseEntity<List<FlightInventory>>> getInventory(
+            @RequestParam(defaultValue = "ID") InventorySortOrder sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size) {
+
+        InventoryCursor cursor;
+        try {
+            cursor = InventoryCursor.decode(sort, after);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return flightService.getInventoryPage(sort, cursor, size)
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.getNextCursor() != null) {
+                        response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+                    }
+                    return response.body(page.getItems());
+                });
+    }
+
+    @GetMapping(value = "/inventory", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<FlightInventory>>> streamInventory(
+            @RequestParam(defaultValue = "ID") InventorySortOrder sort,
+            @RequestParam(required = false) String after) {
+
+        InventoryCursor cursor;
+        try {
+            cursor = InventoryCursor.decode(sort, after);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return Mono.just(ResponseEntity.ok(flightService.streamInventory(sort, cursor)));
     }
 
     @PostMapping("/add")
@@ -43,6 +111,26 @@ public class FlightController {
                 .map(inventory -> ResponseEntity.status(HttpStatus.CREATED).body(inventory));
     }
 
+    @PostMapping(value = "/import",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<FlightImportProgress>>> importFlights(
+            @RequestBody Flux<String> lines,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+
+        // Check if user has ADMIN role
+        if (userRole == null || !userRole.equals("ADMIN")) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+
+        FlightImportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? FlightImportFormat.NDJSON
+                : FlightImportFormat.CSV;
+
+        return Mono.just(ResponseEntity.ok(flightImportService.importFlights(lines, format)));
+    }
+
     @GetMapping("/inventory/{id}")
     public Mono<ResponseEntity<FlightInventory>> getFlightById(@PathVariable Long id) {
         return flightService.getFlightById(id)
@@ -59,4 +147,58 @@ public class FlightController {
     public Mono<Boolean> restoreSeats(@PathVariable Long id, @RequestParam Integer seats) {
         return flightService.restoreSeats(id, seats);
     }
+
+    @PutMapping("/inventory/{id}/reserve")
+    public Mono<ResponseEntity<SeatReservation>> reserveSeats(@PathVariable Long id, @RequestParam Integer seats) {
+        if (seats <= 0) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return flightService.reserveSeats(id, seats)
+                .map(reservation -> ResponseEntity
+                        .status(reservation.isReserved() ? HttpStatus.OK : HttpStatus.CONFLICT)
+                        .body(reservation))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/inventory/{id}/holds")
+    public Mono<ResponseEntity<SeatHold>> holdSeats(@PathVariable Long id,
+                                                    @RequestParam Integer seats,
+                                                    @RequestParam(required = false) Long ttlSeconds) {
+        if (seats <= 0 || (ttlSeconds != null && ttlSeconds <= 0)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        Duration ttl = ttlSeconds == null ? null : Duration.ofSeconds(ttlSeconds);
+        return seatHoldService.holdSeats(id, seats, ttl)
+                .map(hold -> ResponseEntity.status(HttpStatus.CREATED).body(hold))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @PutMapping("/holds/{holdId}/confirm")
+    public Mono<ResponseEntity<SeatHold>> confirmHold(@PathVariable Long holdId) {
+        return seatHoldService.confirmHold(holdId)
+                .map(hold -> holdResponse(hold, "CONFIRMED"))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/holds/{holdId}/release")
+    public Mono<ResponseEntity<SeatHold>> releaseHold(@PathVariable Long holdId) {
+        return seatHoldService.releaseHold(holdId)
+                .map(hold -> holdResponse(hold, "RELEASED"))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // A hold that already moved to another state (e.g. expired) cannot be confirmed or released
+    private ResponseEntity<SeatHold> holdResponse(SeatHold hold, String expectedStatus) {
+        HttpStatus status = expectedStatus.equals(hold.getStatus()) ? HttpStatus.OK : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(hold);
+    }
+
+    // Called by other flight-service instances; the gateway does not route /internal paths
+    @PostMapping("/internal/inventory-changes")
+    public Mono<ResponseEntity<Void>> receiveInventoryChanges(@RequestBody List<FlightInventoryChangedEvent> events) {
+        return inventoryChangeBroadcaster.receive(events)
+                .thenReturn(ResponseEntity.noContent().<Void>build());
+    }
 }
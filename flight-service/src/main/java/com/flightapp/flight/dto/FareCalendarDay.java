@@ -0,0 +1,18 @@
+package com.flightapp.flight.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FareCalendarDay {
+    private LocalDate travelDate;
+    private Double cheapestPrice;
+    private Long flightCount;
+}
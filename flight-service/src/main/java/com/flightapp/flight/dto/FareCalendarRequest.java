@@ -0,0 +1,33 @@
+package com.flightapp.flight.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FareCalendarRequest {
+
+    @NotBlank(message = "Origin is required")
+    private String origin;
+
+    @NotBlank(message = "Destination is required")
+    private String destination;
+
+    @NotNull(message = "Travel date is required")
+    private LocalDate travelDate;
+
+    @Min(value = 0, message = "Window days must not be negative")
+    @Max(value = 15, message = "Window days must be at most 15")
+    @Builder.Default
+    private Integer windowDays = 3;
+}
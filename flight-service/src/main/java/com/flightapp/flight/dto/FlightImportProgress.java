@@ -0,0 +1,25 @@
+package com.flightapp.flight.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FlightImportProgress {
+    private String status;
+    private Integer batch;
+    private Long rowsRead;
+    private Long inserted;
+    private Long duplicates;
+    private Long rejected;
+    private String message;
+    private List<FlightImportRejection> rejections;
+}
@@ -0,0 +1,15 @@
+package com.flightapp.flight.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightImportRejection {
+    private Long line;
+    private String reason;
+}
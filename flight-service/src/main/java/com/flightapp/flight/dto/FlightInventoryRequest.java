@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Data
@@ -17,15 +18,19 @@ import java.time.LocalDateTime;
 public class FlightInventoryRequest {
 
     @NotBlank(message = "Flight number is required")
+    @Size(max = 20, message = "Flight number must be at most 20 characters")
     private String flightNumber;
 
     @NotBlank(message = "Airline is required")
+    @Size(max = 100, message = "Airline must be at most 100 characters")
     private String airline;
 
     @NotBlank(message = "Origin is required")
+    @Size(max = 100, message = "Origin must be at most 100 characters")
     private String origin;
 
     @NotBlank(message = "Destination is required")
+    @Size(max = 100, message = "Destination must be at most 100 characters")
     private String destination;
 
     @NotNull(message = "Departure time is required")
@@ -0,0 +1,23 @@
+package com.flightapp.flight.dto;
+
+import com.flightapp.flight.entity.FlightInventory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Itinerary {
+    private List<FlightInventory> legs;
+    private Integer stops;
+    private Double totalPrice;
+    private Long totalDurationMinutes;
+    private LocalDateTime departureTime;
+    private LocalDateTime arrivalTime;
+}
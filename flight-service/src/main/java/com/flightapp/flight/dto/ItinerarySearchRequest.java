@@ -0,0 +1,43 @@
+package com.flightapp.flight.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItinerarySearchRequest {
+
+    @NotBlank(message = "Origin is required")
+    private String origin;
+
+    @NotBlank(message = "Destination is required")
+    private String destination;
+
+    @NotNull(message = "Travel date is required")
+    private LocalDate travelDate;
+
+    @Min(value = 0, message = "Max stops must not be negative")
+    @Max(value = 2, message = "Max stops must be at most 2")
+    @Builder.Default
+    private Integer maxStops = 2;
+
+    @Pattern(regexp = "DURATION|PRICE", message = "Sort by must be DURATION or PRICE")
+    @Builder.Default
+    private String sortBy = "DURATION";
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 100, message = "Limit must be at most 100")
+    @Builder.Default
+    private Integer limit = 20;
+}
@@ -0,0 +1,19 @@
+package com.flightapp.flight.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatReservation {
+    private Long flightId;
+    private String flightNumber;
+    private Double unitPrice;
+    private Integer seats;
+    private Integer remainingSeats;
+    private boolean reserved;
+}
@@ -0,0 +1,28 @@
+package com.flightapp.flight.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("seat_hold")
+public class SeatHold {
+
+    @Id
+    private Long id;
+
+    private Long flightId;
+    private Integer seats;
+    private String status; // HELD, CONFIRMED, RELEASED, EXPIRED
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
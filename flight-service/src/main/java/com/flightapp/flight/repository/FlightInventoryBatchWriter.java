@@ -0,0 +1,181 @@
+package com.flightapp.flight.repository;
+
+import com.flightapp.flight.entity.FlightInventory;
+import io.r2dbc.spi.R2dbcException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Multi-row writes to flight_inventory. {@link #insertAll} skips rows whose
+ * flight_number already exists and reports, rather than drops, rows the database refuses.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FlightInventoryBatchWriter {
+
+    private static final String INSERT_PREFIX = "INSERT INTO flight_inventory "
+            + "(flight_number, airline, origin, destination, departure_time, arrival_time, "
+            + "available_seats, price, status, created_at, updated_at) VALUES ";
+    // Only a flight_number inserted concurrently can still collide; leave that row as it is
+    private static final String INSERT_SUFFIX = " ON DUPLICATE KEY UPDATE id = id";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Inserts the flights whose flight_number is new. Duplicates are counted without
+     * an insert attempt. If the database refuses the batch because of a row's values
+     * (SQLSTATE class 22 or 23, e.g. a value too long for its column), the rows are
+     * retried one by one so the others are still written and each refused row is
+     * reported with the database's reason.
+     */
+    public Mono<InsertResult> insertAll(List<FlightInventory> flights) {
+        if (flights.isEmpty()) {
+            return Mono.just(new InsertResult(0, 0, Map.of()));
+        }
+
+        // The driver reports found rather than changed rows, so the upsert count cannot tell duplicates apart
+        return existingFlightNumbers(flights).flatMap(existing -> {
+            Set<String> seen = new HashSet<>(existing);
+            List<Integer> fresh = new ArrayList<>();
+            for (int i = 0; i < flights.size(); i++) {
+                if (seen.add(flights.get(i).getFlightNumber())) {
+                    fresh.add(i);
+                }
+            }
+            int duplicates = flights.size() - fresh.size();
+            if (fresh.isEmpty()) {
+                return Mono.just(new InsertResult(0, duplicates, Map.of()));
+            }
+            List<FlightInventory> rows = fresh.stream().map(flights::get).toList();
+            return insert(rows)
+                    .thenReturn(new InsertResult(rows.size(), duplicates, Map.of()))
+                    .onErrorResume(FlightInventoryBatchWriter::isRowRefused,
+                            e -> insertOneByOne(flights, fresh, duplicates));
+        });
+    }
+
+    private Mono<Set<String>> existingFlightNumbers(List<FlightInventory> flights) {
+        return databaseClient.sql("SELECT flight_number FROM flight_inventory WHERE flight_number IN (:flightNumbers)")
+                .bind("flightNumbers", flights.stream().map(FlightInventory::getFlightNumber).distinct().toList())
+                .map(row -> row.get("flight_number", String.class))
+                .all()
+                .collect(Collectors.toSet());
+    }
+
+    private Mono<InsertResult> insertOneByOne(List<FlightInventory> flights, List<Integer> fresh, int duplicates) {
+        Map<Integer, String> rejected = new LinkedHashMap<>();
+        return Flux.fromIterable(fresh)
+                .concatMap(index -> insert(List.of(flights.get(index)))
+                        .thenReturn(true)
+                        .onErrorResume(FlightInventoryBatchWriter::isRowRefused, e -> {
+                            rejected.put(index, refusal(e).getMessage());
+                            return Mono.just(false);
+                        }))
+                .filter(Boolean::booleanValue)
+                .count()
+                .map(inserted -> new InsertResult(inserted.intValue(), duplicates, rejected));
+    }
+
+    private static boolean isRowRefused(Throwable error) {
+        R2dbcException refusal = refusal(error);
+        String sqlState = refusal == null ? null : refusal.getSqlState();
+        return sqlState != null && (sqlState.startsWith("22") || sqlState.startsWith("23"));
+    }
+
+    private static R2dbcException refusal(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof R2dbcException r2dbc) {
+                return r2dbc;
+            }
+        }
+        return null;
+    }
+
+    private Mono<Long> insert(List<FlightInventory> flights) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < flights.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:fn").append(i)
+                    .append(", :al").append(i)
+                    .append(", :og").append(i)
+                    .append(", :ds").append(i)
+                    .append(", :dt").append(i)
+                    .append(", :at").append(i)
+                    .append(", :se").append(i)
+                    .append(", :pr").append(i)
+                    .append(", :st").append(i)
+                    .append(", :ca").append(i)
+                    .append(", :ua").append(i)
+                    .append(')');
+        }
+        sql.append(INSERT_SUFFIX);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < flights.size(); i++) {
+            FlightInventory flight = flights.get(i);
+            spec = spec.bind("fn" + i, flight.getFlightNumber())
+                    .bind("al" + i, flight.getAirline())
+                    .bind("og" + i, flight.getOrigin())
+                    .bind("ds" + i, flight.getDestination())
+                    .bind("dt" + i, flight.getDepartureTime())
+                    .bind("at" + i, flight.getArrivalTime())
+                    .bind("se" + i, flight.getAvailableSeats())
+                    .bind("pr" + i, flight.getPrice())
+                    .bind("st" + i, flight.getStatus())
+                    .bind("ca" + i, flight.getCreatedAt())
+                    .bind("ua" + i, flight.getUpdatedAt());
+        }
+
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * Adds a per-flight seat delta (negative to take seats) to several flights with one UPDATE.
+     */
+    public Mono<Integer> adjustSeats(Map<Long, Integer> deltaByFlight) {
+        if (deltaByFlight.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "UPDATE flight_inventory SET available_seats = available_seats + CASE id");
+        StringBuilder ids = new StringBuilder();
+        for (int i = 0; i < deltaByFlight.size(); i++) {
+            sql.append(" WHEN :id").append(i).append(" THEN :se").append(i);
+            ids.append(i > 0 ? ", " : "").append(":id").append(i);
+        }
+        sql.append(" ELSE 0 END WHERE id IN (").append(ids).append(')');
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : deltaByFlight.entrySet()) {
+            spec = spec.bind("id" + i, entry.getKey())
+                    .bind("se" + i, entry.getValue());
+            i++;
+        }
+
+        return spec.fetch()
+                .rowsUpdated()
+                .map(Long::intValue);
+    }
+
+    /**
+     * Outcome of {@link #insertAll}: rows written, rows skipped as duplicates, and the
+     * database's reason for each refused row, keyed by its position in the batch.
+     */
+    public record InsertResult(int inserted, int duplicates, Map<Integer, String> rejected) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.flightapp.flight.repository;
 
+import com.flightapp.flight.dto.FareCalendarDay;
 import com.flightapp.flight.entity.FlightInventory;
 import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
@@ -13,10 +14,23 @@ import java.time.LocalDateTime;
 @Repository
 public interface FlightInventoryRepository extends R2dbcRepository<FlightInventory, Long> {
 
-    @Query("SELECT * FROM flight_inventory WHERE UPPER(origin) = UPPER(:origin) AND UPPER(destination) = UPPER(:destination) AND departure_time BETWEEN :start AND :end")
+    @Query("SELECT * FROM flight_inventory WHERE origin = :origin AND destination = :destination AND departure_time BETWEEN :start AND :end")
     Flux<FlightInventory> findByOriginAndDestinationAndDepartureTimeBetween(
             String origin, String destination, LocalDateTime start, LocalDateTime end);
 
+    @Query("SELECT DATE(departure_time) AS travel_date, MIN(price) AS cheapest_price, COUNT(*) AS flight_count FROM flight_inventory WHERE origin = :origin AND destination = :destination AND departure_time BETWEEN :start AND :end AND available_seats > 0 GROUP BY DATE(departure_time) ORDER BY travel_date")
+    Flux<FareCalendarDay> findFareCalendar(
+            String origin, String destination, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT * FROM flight_inventory WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<FlightInventory> findPageOrderById(Long afterId, int limit);
+
+    // MySQL turns the row comparison into one range scan on idx_flight_departure
+    @Query("SELECT * FROM flight_inventory WHERE (departure_time, id) > (:afterDeparture, :afterId) ORDER BY departure_time, id LIMIT :limit")
+    Flux<FlightInventory> findPageOrderByDepartureTime(LocalDateTime afterDeparture, Long afterId, int limit);
+
+    Flux<FlightInventory> findByDepartureTimeBetween(LocalDateTime start, LocalDateTime end);
+
     Mono<FlightInventory> findByFlightNumber(String flightNumber);
 
     @Modifying
@@ -0,0 +1,36 @@
+package com.flightapp.flight.repository;
+
+import com.flightapp.flight.entity.SeatHold;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface SeatHoldRepository extends R2dbcRepository<SeatHold, Long> {
+
+    Flux<SeatHold> findByStatus(String status);
+
+    @Modifying
+    @Query("UPDATE seat_hold SET status = 'CONFIRMED' WHERE id = :id AND status = 'HELD' AND expires_at > :now")
+    Mono<Integer> confirm(Long id, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE seat_hold SET status = 'RELEASED' WHERE id = :id AND status = 'HELD'")
+    Mono<Integer> release(Long id);
+
+    @Query("SELECT * FROM seat_hold WHERE id IN (:ids) AND status = 'HELD' AND expires_at <= :now FOR UPDATE")
+    Flux<SeatHold> lockExpired(Collection<Long> ids, LocalDateTime now);
+
+    @Query("SELECT * FROM seat_hold WHERE status = 'HELD' AND expires_at <= :now ORDER BY expires_at LIMIT :limit FOR UPDATE")
+    Flux<SeatHold> lockOverdue(LocalDateTime now, int limit);
+
+    @Modifying
+    @Query("UPDATE seat_hold SET status = 'EXPIRED' WHERE id IN (:ids)")
+    Mono<Integer> markExpired(Collection<Long> ids);
+}
@@ -0,0 +1,55 @@
+package com.flightapp.flight.service;
+
+import com.flightapp.flight.config.FareCalendarProperties;
+import com.flightapp.flight.dto.FareCalendarDay;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+public class FareCalendarCache {
+
+    private final Cache<CalendarKey, List<FareCalendarDay>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public FareCalendarCache(FareCalendarProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .build();
+    }
+
+    public Mono<List<FareCalendarDay>> get(String origin, String destination, LocalDate from, LocalDate to,
+                                           Supplier<Mono<List<FareCalendarDay>>> loader) {
+        CalendarKey key = new CalendarKey(origin, destination, from, to);
+        return Mono.defer(() -> {
+            List<FareCalendarDay> cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long loadedAt = generation.get();
+            return loader.get().doOnNext(days -> {
+                // Skip the put if inventory changed while loading, or it would cache stale fares
+                if (generation.get() == loadedAt) {
+                    cache.put(key, days);
+                }
+            });
+        });
+    }
+
+    @EventListener
+    public void onInventoryChanged(FlightInventoryChangedEvent event) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> event.affects(key.origin(), key.destination(), key.from(), key.to()));
+    }
+
+    private record CalendarKey(String origin, String destination, LocalDate from, LocalDate to) {
+    }
+}
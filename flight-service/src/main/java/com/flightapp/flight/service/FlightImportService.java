@@ -0,0 +1,8 @@
+package com.flightapp.flight.service;
+
+import com.flightapp.flight.dto.FlightImportProgress;
+import reactor.core.publisher.Flux;
+
+public interface FlightImportService {
+    Flux<FlightImportProgress> importFlights(Flux<String> lines, FlightImportFormat format);
+}
@@ -0,0 +1,277 @@
+package com.flightapp.flight.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.flight.config.FlightImportProperties;
+import com.flightapp.flight.dto.FlightImportProgress;
+import com.flightapp.flight.dto.FlightImportRejection;
+import com.flightapp.flight.dto.FlightInventoryRequest;
+import com.flightapp.flight.entity.FlightInventory;
+import com.flightapp.flight.repository.FlightInventoryBatchWriter;
+import com.flightapp.flight.util.AirportCodes;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlightImportServiceImpl implements FlightImportService {
+
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String FAILED = "FAILED";
+
+    private final FlightInventoryBatchWriter batchWriter;
+    private final FlightSearchIndex flightSearchIndex;
+    private final FlightImportProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public Flux<FlightImportProgress> importFlights(Flux<String> lines, FlightImportFormat format) {
+        return Flux.defer(() -> {
+            ImportState state = new ImportState(properties.getMaxReportedRejections());
+
+            Flux<FlightImportProgress> batches = lines
+                    .index()
+                    .filter(line -> !line.getT2().isBlank())
+                    .<Tuple2<Long, FlightInventory>>handle((line, sink) -> {
+                        long lineNumber = line.getT1() + 1;
+                        if (format == FlightImportFormat.CSV && !state.hasCsvHeader()) {
+                            state.readCsvHeader(line.getT2());
+                            return;
+                        }
+                        state.rowsRead.incrementAndGet();
+                        try {
+                            FlightInventoryRequest request = format == FlightImportFormat.CSV
+                                    ? state.parseCsv(line.getT2())
+                                    : parseJson(line.getT2());
+                            validate(request);
+                            sink.next(Tuples.of(lineNumber, toInventory(request)));
+                        } catch (IllegalArgumentException e) {
+                            state.reject(lineNumber, e.getMessage());
+                        }
+                    })
+                    .buffer(properties.getBatchSize())
+                    .concatMap(batch -> batchWriter.insertAll(batch.stream().map(Tuple2::getT2).toList())
+                            .map(result -> state.batchWritten(batch, result)), 1);
+
+            Mono<FlightImportProgress> summary = Mono.defer(() -> {
+                FlightImportProgress result = state.summary();
+                log.info("Flight import finished: {} rows read, {} inserted, {} duplicates, {} rejected",
+                        result.getRowsRead(), result.getInserted(), result.getDuplicates(), result.getRejected());
+                return announceInserted(state).thenReturn(result);
+            });
+
+            // Batches written before a failure or a client disconnect are committed, so they are announced too
+            return batches.concatWith(summary)
+                    .onErrorResume(e -> announceInserted(state).then(e instanceof IllegalStateException
+                            ? Mono.just(FlightImportProgress.builder()
+                                    .status(FAILED)
+                                    .message(e.getMessage())
+                                    .build())
+                            : Mono.error(e)))
+                    .doOnCancel(() -> announceInserted(state).subscribe());
+        });
+    }
+
+    // Rebuilds the search index and tells other instances, once per import and only if it inserted rows
+    private Mono<Void> announceInserted(ImportState state) {
+        if (state.inserted.get() == 0 || !state.announced.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        return flightSearchIndex.rebuild()
+                .doOnSuccess(rebuilt -> eventPublisher.publishEvent(FlightInventoryChangedEvent.all()));
+    }
+
+    private FlightInventoryRequest parseJson(String line) {
+        try {
+            FlightInventoryRequest request = objectMapper.readValue(line, FlightInventoryRequest.class);
+            if (request == null) {
+                throw new IllegalArgumentException("Row must be a JSON object");
+            }
+            return request;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private void validate(FlightInventoryRequest request) {
+        Set<ConstraintViolation<FlightInventoryRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        if (!request.getArrivalTime().isAfter(request.getDepartureTime())) {
+            throw new IllegalArgumentException("Arrival time must be after departure time");
+        }
+    }
+
+    private FlightInventory toInventory(FlightInventoryRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        return FlightInventory.builder()
+                .flightNumber(request.getFlightNumber())
+                .airline(request.getAirline())
+                .origin(AirportCodes.normalize(request.getOrigin()))
+                .destination(AirportCodes.normalize(request.getDestination()))
+                .departureTime(request.getDepartureTime())
+                .arrivalTime(request.getArrivalTime())
+                .availableSeats(request.getAvailableSeats())
+                .price(request.getPrice())
+                .status("ACTIVE")
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString().trim());
+        return fields;
+    }
+
+    private static final class ImportState {
+        private static final List<String> CSV_COLUMNS = List.of(
+                "flightnumber", "airline", "origin", "destination",
+                "departuretime", "arrivaltime", "availableseats", "price");
+
+        private final int maxReportedRejections;
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong duplicates = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicInteger batches = new AtomicInteger();
+        private final AtomicBoolean announced = new AtomicBoolean();
+        private final List<FlightImportRejection> rejections = new ArrayList<>();
+        private Map<String, Integer> csvHeader;
+
+        ImportState(int maxReportedRejections) {
+            this.maxReportedRejections = maxReportedRejections;
+        }
+
+        boolean hasCsvHeader() {
+            return csvHeader != null;
+        }
+
+        void readCsvHeader(String line) {
+            List<String> fields = splitCsv(line);
+            Map<String, Integer> header = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                header.put(fields.get(i).replace("_", "").toLowerCase(Locale.ROOT), i);
+            }
+            List<String> missing = CSV_COLUMNS.stream().filter(column -> !header.containsKey(column)).toList();
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("CSV header is missing columns: " + missing);
+            }
+            csvHeader = header;
+        }
+
+        FlightInventoryRequest parseCsv(String line) {
+            List<String> fields = splitCsv(line);
+            try {
+                return FlightInventoryRequest.builder()
+                        .flightNumber(field(fields, "flightnumber"))
+                        .airline(field(fields, "airline"))
+                        .origin(field(fields, "origin"))
+                        .destination(field(fields, "destination"))
+                        .departureTime(parseOrNull(field(fields, "departuretime"), LocalDateTime::parse))
+                        .arrivalTime(parseOrNull(field(fields, "arrivaltime"), LocalDateTime::parse))
+                        .availableSeats(parseOrNull(field(fields, "availableseats"), Integer::valueOf))
+                        .price(parseOrNull(field(fields, "price"), Double::valueOf))
+                        .build();
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed CSV value: " + e.getMessage());
+            }
+        }
+
+        private String field(List<String> fields, String column) {
+            int position = csvHeader.get(column);
+            if (position >= fields.size() || fields.get(position).isEmpty()) {
+                return null;
+            }
+            return fields.get(position);
+        }
+
+        private static <T> T parseOrNull(String value, Function<String, T> parser) {
+            return value == null ? null : parser.apply(value);
+        }
+
+        synchronized void reject(long line, String reason) {
+            rejected.incrementAndGet();
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add(FlightImportRejection.builder().line(line).reason(reason).build());
+            }
+        }
+
+        FlightImportProgress batchWritten(List<Tuple2<Long, FlightInventory>> batch,
+                                          FlightInventoryBatchWriter.InsertResult result) {
+            inserted.addAndGet(result.inserted());
+            duplicates.addAndGet(result.duplicates());
+            result.rejected().forEach((index, reason) -> reject(batch.get(index).getT1(), reason));
+            return progress(IN_PROGRESS, batches.incrementAndGet()).build();
+        }
+
+        synchronized FlightImportProgress summary() {
+            return progress(COMPLETED, batches.get())
+                    .rejections(List.copyOf(rejections))
+                    .build();
+        }
+
+        private FlightImportProgress.FlightImportProgressBuilder progress(String status, int batch) {
+            return FlightImportProgress.builder()
+                    .status(status)
+                    .batch(batch)
+                    .rowsRead(rowsRead.get())
+                    .inserted(inserted.get())
+                    .duplicates(duplicates.get())
+                    .rejected(rejected.get());
+        }
+    }
+}
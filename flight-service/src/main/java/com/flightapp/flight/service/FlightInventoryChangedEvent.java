@@ -0,0 +1,42 @@
+package com.flightapp.flight.service;
+
+import com.flightapp.flight.entity.FlightInventory;
+
+import java.time.LocalDate;
+
+/**
+ * Published whenever stored inventory changes. A null route means the change
+ * could not be narrowed down and every cached result should be dropped.
+ * {@code fromPeer} marks events received from another flight-service instance,
+ * which are applied locally but not broadcast again.
+ */
+public record FlightInventoryChangedEvent(Long flightId, String origin, String destination,
+                                          LocalDate departureDate, boolean fromPeer) {
+
+    public static FlightInventoryChangedEvent all() {
+        return new FlightInventoryChangedEvent(null, null, null, null, false);
+    }
+
+    public static FlightInventoryChangedEvent of(FlightInventory flight) {
+        return new FlightInventoryChangedEvent(flight.getId(),
+                flight.getOrigin(), flight.getDestination(), flight.getDepartureTime().toLocalDate(), false);
+    }
+
+    public FlightInventoryChangedEvent asFromPeer() {
+        return new FlightInventoryChangedEvent(flightId, origin, destination, departureDate, true);
+    }
+
+    public boolean isAll() {
+        return origin == null || destination == null;
+    }
+
+    public boolean affects(String origin, String destination, LocalDate from, LocalDate to) {
+        if (isAll()) {
+            return true;
+        }
+        if (!this.origin.equals(origin) || !this.destination.equals(destination)) {
+            return false;
+        }
+        return departureDate == null || (!departureDate.isBefore(from) && !departureDate.isAfter(to));
+    }
+}
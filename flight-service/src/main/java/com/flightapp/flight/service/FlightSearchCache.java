@@ -0,0 +1,79 @@
+package com.flightapp.flight.service;
+
+import com.flightapp.flight.config.FlightSearchCacheProperties;
+import com.flightapp.flight.entity.FlightInventory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Search results per normalized (origin, destination, travel date). Hit, miss and
+ * eviction counts are published as the cache.* metrics tagged cache=flightSearch.
+ */
+@Component
+public class FlightSearchCache {
+
+    private final FlightSearchCacheProperties properties;
+    private final Cache<SearchKey, List<FlightInventory>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public FlightSearchCache(FlightSearchCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "flightSearch");
+    }
+
+    public Flux<FlightInventory> get(String origin, String destination, LocalDate travelDate,
+                                     Supplier<Flux<FlightInventory>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        SearchKey key = new SearchKey(origin, destination, travelDate);
+        return Flux.defer(() -> {
+            List<FlightInventory> cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return Flux.fromIterable(cached);
+            }
+            long loadedAt = generation.get();
+            return loader.get()
+                    .collectList()
+                    .doOnNext(flights -> {
+                        // Skip the put if inventory changed while loading, or it would cache stale seats
+                        if (generation.get() == loadedAt) {
+                            cache.put(key, flights);
+                        }
+                    })
+                    .flatMapIterable(flights -> flights);
+        });
+    }
+
+    @EventListener
+    public void onInventoryChanged(FlightInventoryChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.isAll()) {
+            cache.invalidateAll();
+        } else if (event.departureDate() != null) {
+            // Keys are exact route/date tuples, so the common case is a single removal
+            cache.invalidate(new SearchKey(event.origin(), event.destination(), event.departureDate()));
+        } else {
+            cache.asMap().keySet().removeIf(key ->
+                    event.affects(key.origin(), key.destination(), key.travelDate(), key.travelDate()));
+        }
+    }
+
+    private record SearchKey(String origin, String destination, LocalDate travelDate) {
+    }
+}
@@ -0,0 +1,331 @@
+package com.flightapp.flight.service;
+
+import com.flightapp.flight.config.FlightSearchIndexProperties;
+import com.flightapp.flight.dto.FareCalendarDay;
+import com.flightapp.flight.entity.FlightInventory;
+import com.flightapp.flight.repository.FlightInventoryRepository;
+import com.flightapp.flight.util.AirportCodes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process copy of flight_inventory keyed by (origin, destination), with the
+ * flights of each route sorted by departure time. Searches are answered from
+ * here once the first load has finished; until then callers fall back to the database.
+ * <p>
+ * Seat counts are sellable seats, the same figure a reservation quotes: rows read from
+ * the database get the seats pooled for them by {@link HotSeatCounters} added, and
+ * after that only seats actually sold or given back move the count.
+ */
+@Component
+@Slf4j
+public class FlightSearchIndex {
+
+    // Rough per-flight cost of the entity, its dates, and the map nodes that hold it
+    private static final long FIXED_ENTRY_BYTES = 560;
+
+    private final FlightInventoryRepository flightInventoryRepository;
+    private final HotSeatCounters hotSeatCounters;
+    private final FlightSearchIndexProperties properties;
+    private final Counter hitCounter;
+    private final Counter fallbackCounter;
+    private final Timer rebuildTimer;
+
+    private volatile Snapshot snapshot;
+    private volatile Set<Long> touchedDuringRebuild;
+    private Disposable refresher;
+
+    public FlightSearchIndex(FlightInventoryRepository flightInventoryRepository,
+                             HotSeatCounters hotSeatCounters,
+                             FlightSearchIndexProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.flightInventoryRepository = flightInventoryRepository;
+        this.hotSeatCounters = hotSeatCounters;
+        this.properties = properties;
+        this.hitCounter = Counter.builder("flight.search.index.lookups")
+                .tag("outcome", "hit")
+                .description("Flight searches answered from the in-memory index")
+                .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("flight.search.index.lookups")
+                .tag("outcome", "fallback")
+                .description("Flight searches that fell back to the database")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("flight.search.index.rebuild")
+                .description("Time taken to reload the search index from the database")
+                .register(meterRegistry);
+        Gauge.builder("flight.search.index.hit.ratio", this, FlightSearchIndex::hitRatio)
+                .description("Share of flight searches answered from the index")
+                .register(meterRegistry);
+        Gauge.builder("flight.search.index.size", this, FlightSearchIndex::size)
+                .description("Flights held in the search index")
+                .register(meterRegistry);
+        Gauge.builder("flight.search.index.memory", this, FlightSearchIndex::estimatedBytes)
+                .description("Estimated heap used by the search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("Flight search index disabled, searches will use the database");
+            return;
+        }
+        Duration interval = properties.getRebuildInterval();
+        refresher = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> rebuild())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    public Optional<List<FlightInventory>> search(String origin, String destination,
+                                                  LocalDateTime start, LocalDateTime end) {
+        Snapshot current = snapshot;
+        if (!properties.isEnabled() || current == null) {
+            fallbackCounter.increment();
+            return Optional.empty();
+        }
+        hitCounter.increment();
+
+        List<FlightInventory> result = new ArrayList<>();
+        for (FlightInventory flight : departures(current, origin, destination, start, end)) {
+            if (flight.getAvailableSeats() > 0) {
+                result.add(flight);
+            }
+        }
+        return Optional.of(result);
+    }
+
+    public Optional<List<FareCalendarDay>> fareCalendar(String origin, String destination,
+                                                        LocalDateTime start, LocalDateTime end) {
+        Snapshot current = snapshot;
+        if (!properties.isEnabled() || current == null) {
+            return Optional.empty();
+        }
+
+        Map<LocalDate, FareCalendarDay> days = new TreeMap<>();
+        for (FlightInventory flight : departures(current, origin, destination, start, end)) {
+            if (flight.getAvailableSeats() <= 0) {
+                continue;
+            }
+            FareCalendarDay day = days.computeIfAbsent(flight.getDepartureTime().toLocalDate(),
+                    date -> FareCalendarDay.builder().travelDate(date).flightCount(0L).build());
+            day.setFlightCount(day.getFlightCount() + 1);
+            if (day.getCheapestPrice() == null || flight.getPrice() < day.getCheapestPrice()) {
+                day.setCheapestPrice(flight.getPrice());
+            }
+        }
+        return Optional.of(new ArrayList<>(days.values()));
+    }
+
+    public Optional<List<FlightInventory>> departingBetween(LocalDateTime start, LocalDateTime end) {
+        Snapshot current = snapshot;
+        if (!properties.isEnabled() || current == null) {
+            return Optional.empty();
+        }
+
+        List<FlightInventory> result = new ArrayList<>();
+        for (ConcurrentSkipListMap<DepartureKey, FlightInventory> route : current.routes.values()) {
+            for (FlightInventory flight : route.subMap(
+                    new DepartureKey(start, Long.MIN_VALUE), true,
+                    new DepartureKey(end, Long.MAX_VALUE), true).values()) {
+                if (flight.getAvailableSeats() > 0) {
+                    result.add(flight);
+                }
+            }
+        }
+        return Optional.of(result);
+    }
+
+    private static Iterable<FlightInventory> departures(Snapshot current, String origin, String destination,
+                                                        LocalDateTime start, LocalDateTime end) {
+        ConcurrentSkipListMap<DepartureKey, FlightInventory> route =
+                current.routes.get(new RouteKey(AirportCodes.normalize(origin), AirportCodes.normalize(destination)));
+        if (route == null) {
+            return List.of();
+        }
+        return route.subMap(
+                new DepartureKey(start, Long.MIN_VALUE), true,
+                new DepartureKey(end, Long.MAX_VALUE), true).values();
+    }
+
+    public Optional<FlightInventory> get(Long flightId) {
+        Snapshot current = snapshot;
+        if (!properties.isEnabled() || current == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.byId.get(flightId));
+    }
+
+    public void put(FlightInventory flight) {
+        Snapshot current = snapshot;
+        if (current == null || flight.getId() == null) {
+            return;
+        }
+        markTouched(flight.getId());
+        current.put(hotSeatCounters.withPooledSeats(flight));
+    }
+
+    public FlightInventory adjustSeats(Long flightId, int delta) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        markTouched(flightId);
+        return current.byId.computeIfPresent(flightId, (id, existing) -> {
+            FlightInventory updated = existing.toBuilder()
+                    .availableSeats(existing.getAvailableSeats() + delta)
+                    .build();
+            current.routeOf(updated).put(DepartureKey.of(updated), updated);
+            return updated;
+        });
+    }
+
+    /**
+     * Re-reads one flight, e.g. after another instance changed it.
+     */
+    public Mono<Void> refresh(Long flightId) {
+        if (snapshot == null) {
+            return Mono.empty();
+        }
+        markTouched(flightId);
+        return flightInventoryRepository.findById(flightId)
+                .doOnNext(this::put)
+                .then();
+    }
+
+    public boolean isLoaded() {
+        return properties.isEnabled() && snapshot != null;
+    }
+
+    public Mono<Void> rebuild() {
+        Set<Long> touched = ConcurrentHashMap.newKeySet();
+        touchedDuringRebuild = touched;
+        long startNanos = System.nanoTime();
+
+        return flightInventoryRepository.findAll()
+                .map(hotSeatCounters::withPooledSeats)
+                .collect(Snapshot::new, Snapshot::put)
+                .flatMap(fresh -> {
+                    snapshot = fresh;
+                    touchedDuringRebuild = null;
+                    // Writes that raced with the load may be missing from it; re-read those rows
+                    if (touched.isEmpty()) {
+                        return Mono.just(fresh);
+                    }
+                    return flightInventoryRepository.findAllById(touched)
+                            .map(hotSeatCounters::withPooledSeats)
+                            .doOnNext(fresh::put)
+                            .then(Mono.just(fresh));
+                })
+                .doOnNext(fresh -> {
+                    long elapsed = System.nanoTime() - startNanos;
+                    rebuildTimer.record(Duration.ofNanos(elapsed));
+                    log.info("Flight search index rebuilt: {} flights on {} routes in {} ms",
+                            fresh.byId.size(), fresh.routes.size(), Duration.ofNanos(elapsed).toMillis());
+                })
+                .doOnError(e -> log.error("Failed to rebuild flight search index: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.byId.size();
+    }
+
+    public long estimatedBytes() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.bytes.get();
+    }
+
+    private double hitRatio() {
+        double hits = hitCounter.count();
+        double total = hits + fallbackCounter.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    private void markTouched(Long flightId) {
+        Set<Long> touched = touchedDuringRebuild;
+        if (touched != null) {
+            touched.add(flightId);
+        }
+    }
+
+    private static long estimateBytes(FlightInventory flight) {
+        return FIXED_ENTRY_BYTES + 2L * (length(flight.getFlightNumber()) + length(flight.getAirline())
+                + length(flight.getOrigin()) + length(flight.getDestination()) + length(flight.getStatus()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private record RouteKey(String origin, String destination) {
+    }
+
+    private record DepartureKey(LocalDateTime departureTime, long id) implements Comparable<DepartureKey> {
+
+        static DepartureKey of(FlightInventory flight) {
+            return new DepartureKey(flight.getDepartureTime(), flight.getId());
+        }
+
+        @Override
+        public int compareTo(DepartureKey other) {
+            int byTime = departureTime.compareTo(other.departureTime);
+            return byTime != 0 ? byTime : Long.compare(id, other.id);
+        }
+    }
+
+    private static final class Snapshot {
+        private final Map<RouteKey, ConcurrentSkipListMap<DepartureKey, FlightInventory>> routes = new ConcurrentHashMap<>();
+        private final Map<Long, FlightInventory> byId = new ConcurrentHashMap<>();
+        private final AtomicLong bytes = new AtomicLong();
+
+        void put(FlightInventory flight) {
+            FlightInventory previous = byId.put(flight.getId(), flight);
+            if (previous != null) {
+                routeOf(previous).remove(DepartureKey.of(previous));
+                bytes.addAndGet(-estimateBytes(previous));
+            }
+            routeOf(flight).put(DepartureKey.of(flight), flight);
+            bytes.addAndGet(estimateBytes(flight));
+        }
+
+        ConcurrentSkipListMap<DepartureKey, FlightInventory> routeOf(FlightInventory flight) {
+            return routes.computeIfAbsent(
+                    new RouteKey(AirportCodes.normalize(flight.getOrigin()), AirportCodes.normalize(flight.getDestination())),
+                    key -> new ConcurrentSkipListMap<>());
+        }
+    }
+}
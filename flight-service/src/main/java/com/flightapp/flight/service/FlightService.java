@@ -1,16 +1,31 @@
 package com.flightapp.flight.service;
 
+import com.flightapp.flight.dto.FareCalendarDay;
+import com.flightapp.flight.dto.FareCalendarRequest;
+import com.flightapp.flight.dto.FlightInventoryPage;
 import com.flightapp.flight.dto.FlightInventoryRequest;
 import com.flightapp.flight.dto.FlightSearchRequest;
+import com.flightapp.flight.dto.Itinerary;
+import com.flightapp.flight.dto.ItinerarySearchRequest;
+import com.flightapp.flight.dto.SeatReservation;
 import com.flightapp.flight.entity.FlightInventory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface FlightService {
     Flux<FlightInventory> searchFlights(FlightSearchRequest request);
-    Flux<FlightInventory> getAllFlights();
+    Flux<FareCalendarDay> getFareCalendar(FareCalendarRequest request);
+    Flux<Itinerary> searchItineraries(ItinerarySearchRequest request);
+    Mono<FlightInventoryPage> getInventoryPage(InventorySortOrder sortOrder, InventoryCursor after, Integer size);
+    Flux<FlightInventory> streamInventory(InventorySortOrder sortOrder, InventoryCursor after);
     Mono<FlightInventory> addInventory(FlightInventoryRequest request);
     Mono<FlightInventory> getFlightById(Long id);
     Mono<Boolean> reduceSeats(Long flightId, Integer seats);
     Mono<Boolean> restoreSeats(Long flightId, Integer seats);
+
+    /**
+     * Takes the seats if they are available and quotes the flight in the same call.
+     * Empty when the flight does not exist.
+     */
+    Mono<SeatReservation> reserveSeats(Long flightId, Integer seats);
 }
@@ -1,17 +1,32 @@
 package com.flightapp.flight.service;
 
+import com.flightapp.flight.config.FlightInventoryListProperties;
+import com.flightapp.flight.config.ItinerarySearchProperties;
+import com.flightapp.flight.dto.FareCalendarDay;
+import com.flightapp.flight.dto.FareCalendarRequest;
+import com.flightapp.flight.dto.FlightInventoryPage;
 import com.flightapp.flight.dto.FlightInventoryRequest;
 import com.flightapp.flight.dto.FlightSearchRequest;
+import com.flightapp.flight.dto.Itinerary;
+import com.flightapp.flight.dto.ItinerarySearchRequest;
+import com.flightapp.flight.dto.SeatReservation;
 import com.flightapp.flight.entity.FlightInventory;
 import com.flightapp.flight.repository.FlightInventoryRepository;
+import com.flightapp.flight.util.AirportCodes;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -19,26 +34,158 @@ import java.time.LocalTime;
 public class FlightServiceImpl implements FlightService {
 
     private final FlightInventoryRepository flightInventoryRepository;
+    private final FlightSearchIndex flightSearchIndex;
+    private final FlightSearchCache flightSearchCache;
+    private final FareCalendarCache fareCalendarCache;
+    private final HotSeatCounters hotSeatCounters;
+    private final ItinerarySearchEngine itinerarySearchEngine;
+    private final ItinerarySearchProperties itinerarySearchProperties;
+    private final FlightInventoryListProperties inventoryListProperties;
+    private final MeterRegistry meterRegistry;
+    private final FlightServiceMetrics metrics;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Flux<FlightInventory> searchFlights(FlightSearchRequest request) {
         LocalDateTime startOfDay = request.getTravelDate().atStartOfDay();
         LocalDateTime endOfDay = request.getTravelDate().atTime(LocalTime.MAX);
+        String origin = AirportCodes.normalize(request.getOrigin());
+        String destination = AirportCodes.normalize(request.getDestination());
 
-        return flightInventoryRepository
-                .findByOriginAndDestinationAndDepartureTimeBetween(
-                        request.getOrigin(),
-                        request.getDestination(),
-                        startOfDay,
-                        endOfDay)
-                .filter(flight -> flight.getAvailableSeats() > 0)
-                .doOnNext(flight -> log.info("Found flight: {}", flight.getFlightNumber()));
+        Flux<FlightInventory> flights = flightSearchCache.get(origin, destination, request.getTravelDate(),
+                () -> Flux.defer(() -> flightSearchIndex
+                        .search(origin, destination, startOfDay, endOfDay)
+                        .map(Flux::fromIterable)
+                        .orElseGet(() -> flightInventoryRepository
+                                .findByOriginAndDestinationAndDepartureTimeBetween(
+                                        origin,
+                                        destination,
+                                        startOfDay,
+                                        endOfDay)
+                                .filter(flight -> flight.getAvailableSeats() > 0))));
+
+        return metrics.time("searchFlights", Flux.defer(() -> {
+            long[] found = new long[1];
+            return flights
+                    .doOnNext(flight -> {
+                        found[0]++;
+                        if (log.isDebugEnabled() && metrics.sampleLog()) {
+                            log.debug("Found flight: {}", flight.getFlightNumber());
+                        }
+                    })
+                    .doOnComplete(() -> metrics.recordSearchResults(found[0]));
+        }));
+    }
+
+    @Override
+    public Flux<FareCalendarDay> getFareCalendar(FareCalendarRequest request) {
+        String origin = AirportCodes.normalize(request.getOrigin());
+        String destination = AirportCodes.normalize(request.getDestination());
+        int windowDays = request.getWindowDays() == null ? 3 : request.getWindowDays();
+        LocalDate from = request.getTravelDate().minusDays(windowDays);
+        LocalDate to = request.getTravelDate().plusDays(windowDays);
+
+        return fareCalendarCache
+                .get(origin, destination, from, to, () -> loadFareCalendar(origin, destination, from, to))
+                .flatMapMany(Flux::fromIterable);
+    }
+
+    private Mono<List<FareCalendarDay>> loadFareCalendar(String origin, String destination,
+                                                         LocalDate from, LocalDate to) {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.atTime(LocalTime.MAX);
+
+        return Flux.defer(() -> flightSearchIndex
+                        .fareCalendar(origin, destination, start, end)
+                        .map(Flux::fromIterable)
+                        .orElseGet(() -> flightInventoryRepository.findFareCalendar(origin, destination, start, end)))
+                .collectMap(FareCalendarDay::getTravelDate)
+                .map(byDate -> fillCalendar(byDate, from, to));
+    }
+
+    private List<FareCalendarDay> fillCalendar(Map<LocalDate, FareCalendarDay> byDate, LocalDate from, LocalDate to) {
+        List<FareCalendarDay> calendar = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            FareCalendarDay day = byDate.get(date);
+            calendar.add(day != null ? day : FareCalendarDay.builder().travelDate(date).flightCount(0L).build());
+        }
+        return calendar;
+    }
+
+    @Override
+    public Flux<Itinerary> searchItineraries(ItinerarySearchRequest request) {
+        String origin = AirportCodes.normalize(request.getOrigin());
+        String destination = AirportCodes.normalize(request.getDestination());
+        int maxStops = request.getMaxStops() == null ? 2 : request.getMaxStops();
+        int limit = request.getLimit() == null ? 20 : request.getLimit();
+        ItinerarySortOrder sortOrder = request.getSortBy() == null
+                ? ItinerarySortOrder.DURATION
+                : ItinerarySortOrder.valueOf(request.getSortBy());
+
+        LocalDateTime startOfDay = request.getTravelDate().atStartOfDay();
+        LocalDateTime endOfDay = request.getTravelDate().atTime(LocalTime.MAX);
+        // Later legs may leave after midnight, up to one maximum layover per stop
+        LocalDateTime windowEnd = endOfDay.plus(itinerarySearchProperties.getMaxConnectionTime().multipliedBy(maxStops));
+
+        return Flux.defer(() -> flightSearchIndex
+                        .departingBetween(startOfDay, windowEnd)
+                        .map(Flux::fromIterable)
+                        .orElseGet(() -> flightInventoryRepository.findByDepartureTimeBetween(startOfDay, windowEnd)
+                                .filter(flight -> flight.getAvailableSeats() > 0)))
+                .collectList()
+                .flatMap(flights -> Mono.fromFuture(() -> itinerarySearchEngine.searchAsync(
+                        flights, origin, destination, startOfDay, endOfDay, maxStops, sortOrder, limit)))
+                .flatMapMany(Flux::fromIterable);
+    }
+
+    @Override
+    public Mono<FlightInventoryPage> getInventoryPage(InventorySortOrder sortOrder, InventoryCursor after, Integer size) {
+        int pageSize = size == null
+                ? inventoryListProperties.getDefaultPageSize()
+                : Math.max(1, Math.min(size, inventoryListProperties.getMaxPageSize()));
+
+        // One extra row tells us whether there is a next page without a COUNT query
+        return fetchInventory(sortOrder, after, pageSize + 1)
+                .collectList()
+                .map(rows -> {
+                    boolean hasMore = rows.size() > pageSize;
+                    List<FlightInventory> items = hasMore ? rows.subList(0, pageSize) : rows;
+                    recordInventoryListed("page", sortOrder, items.size());
+                    return FlightInventoryPage.builder()
+                            .items(items)
+                            .nextCursor(hasMore
+                                    ? InventoryCursor.after(items.get(items.size() - 1)).encode(sortOrder)
+                                    : null)
+                            .build();
+                });
     }
 
     @Override
-    public Flux<FlightInventory> getAllFlights() {
-        return flightInventoryRepository.findAll()
-                .doOnNext(flight -> log.info("Retrieved flight: {}", flight.getFlightNumber()));
+    public Flux<FlightInventory> streamInventory(InventorySortOrder sortOrder, InventoryCursor after) {
+        int chunkSize = inventoryListProperties.getStreamChunkSize();
+        return Flux.defer(() -> {
+            long[] streamed = new long[1];
+            // Each chunk is its own short keyset query, fetched only once the previous one is drained
+            return fetchInventory(sortOrder, after, chunkSize).collectList()
+                    .expand(chunk -> chunk.size() < chunkSize
+                            ? Mono.empty()
+                            : fetchInventory(sortOrder, InventoryCursor.after(chunk.get(chunk.size() - 1)), chunkSize)
+                                    .collectList())
+                    .flatMapIterable(chunk -> chunk, 1)
+                    .doOnNext(flight -> streamed[0]++)
+                    .doFinally(signal -> recordInventoryListed("stream", sortOrder, streamed[0]));
+        });
+    }
+
+    private Flux<FlightInventory> fetchInventory(InventorySortOrder sortOrder, InventoryCursor after, int limit) {
+        return sortOrder == InventorySortOrder.DEPARTURE_TIME
+                ? flightInventoryRepository.findPageOrderByDepartureTime(after.departureTime(), after.id(), limit)
+                : flightInventoryRepository.findPageOrderById(after.id(), limit);
+    }
+
+    private void recordInventoryListed(String mode, InventorySortOrder sortOrder, long count) {
+        meterRegistry.counter("flight.inventory.listed", "mode", mode).increment(count);
+        log.info("Listed {} flights ({} by {})", count, mode, sortOrder);
     }
 
     @Override
@@ -46,8 +193,8 @@ public class FlightServiceImpl implements FlightService {
         FlightInventory inventory = FlightInventory.builder()
                 .flightNumber(request.getFlightNumber())
                 .airline(request.getAirline())
-                .origin(request.getOrigin())
-                .destination(request.getDestination())
+                .origin(AirportCodes.normalize(request.getOrigin()))
+                .destination(AirportCodes.normalize(request.getDestination()))
                 .departureTime(request.getDepartureTime())
                 .arrivalTime(request.getArrivalTime())
                 .availableSeats(request.getAvailableSeats())
@@ -58,26 +205,85 @@ public class FlightServiceImpl implements FlightService {
                 .build();
 
         return flightInventoryRepository.save(inventory)
+                .doOnNext(saved -> {
+                    flightSearchIndex.put(saved);
+                    eventPublisher.publishEvent(FlightInventoryChangedEvent.of(saved));
+                })
                 .doOnSuccess(saved -> log.info("Flight inventory added: {}", saved.getFlightNumber()));
     }
 
     @Override
     public Mono<FlightInventory> getFlightById(Long id) {
-        return flightInventoryRepository.findById(id)
-                .doOnSuccess(flight -> log.info("Retrieved flight: {}", flight));
+        return metrics.time("getFlightById", flightInventoryRepository.findById(id)
+                .doOnSuccess(flight -> {
+                    if (log.isDebugEnabled() && metrics.sampleLog()) {
+                        log.debug("Retrieved flight: {}", flight);
+                    }
+                }));
     }
 
     @Override
     public Mono<Boolean> reduceSeats(Long flightId, Integer seats) {
-        return flightInventoryRepository.reduceAvailableSeats(flightId, seats)
-                .map(updated -> updated > 0)
-                .doOnSuccess(success -> log.info("Reduced {} seats for flight {}: {}", seats, flightId, success));
+        Mono<Boolean> reduced = Mono.defer(() -> hotSeatCounters.recordDemand(flightId)
+                ? hotSeatCounters.reduce(flightId, seats)
+                : flightInventoryRepository.reduceAvailableSeats(flightId, seats).map(updated -> updated > 0));
+        return metrics.time("reduceSeats", reduced
+                .doOnNext(success -> {
+                    if (success) {
+                        seatsChanged(flightId, -seats);
+                    } else {
+                        metrics.recordSeatReductionFailure();
+                    }
+                })
+                .doOnSuccess(success -> {
+                    if (log.isDebugEnabled() && metrics.sampleLog()) {
+                        log.debug("Reduced {} seats for flight {}: {}", seats, flightId, success);
+                    }
+                }));
     }
 
     @Override
     public Mono<Boolean> restoreSeats(Long flightId, Integer seats) {
-        return flightInventoryRepository.increaseAvailableSeats(flightId, seats)
-                .map(updated -> updated > 0)
-                .doOnSuccess(success -> log.info("Restored {} seats for flight {}: {}", seats, flightId, success));
+        Mono<Boolean> restored = Mono.defer(() -> hotSeatCounters.restore(flightId, seats)
+                ? Mono.just(true)
+                : flightInventoryRepository.increaseAvailableSeats(flightId, seats).map(updated -> updated > 0));
+        return metrics.time("restoreSeats", restored
+                .doOnNext(success -> {
+                    if (success) {
+                        seatsChanged(flightId, seats);
+                    }
+                })
+                .doOnSuccess(success -> {
+                    if (log.isDebugEnabled() && metrics.sampleLog()) {
+                        log.debug("Restored {} seats for flight {}: {}", seats, flightId, success);
+                    }
+                }));
+    }
+
+    @Override
+    public Mono<SeatReservation> reserveSeats(Long flightId, Integer seats) {
+        // The decrement is the conditional UPDATE (or counter CAS) in reduceSeats, so there is
+        // no window between checking availability and taking the seats
+        return metrics.time("reserveSeats", reduceSeats(flightId, seats)
+                .flatMap(reserved -> currentInventory(flightId)
+                        .map(flight -> SeatReservation.builder()
+                                .flightId(flightId)
+                                .flightNumber(flight.getFlightNumber())
+                                .unitPrice(flight.getPrice())
+                                .seats(seats)
+                                .remainingSeats(flight.getAvailableSeats())
+                                .reserved(reserved)
+                                .build())));
+    }
+
+    private Mono<FlightInventory> currentInventory(Long flightId) {
+        return Mono.justOrEmpty(flightSearchIndex.get(flightId))
+                .switchIfEmpty(Mono.defer(() -> flightInventoryRepository.findById(flightId)
+                        .map(hotSeatCounters::withPooledSeats)));
+    }
+
+    private void seatsChanged(Long flightId, int delta) {
+        FlightInventory updated = flightSearchIndex.adjustSeats(flightId, delta);
+        eventPublisher.publishEvent(updated != null ? FlightInventoryChangedEvent.of(updated) : FlightInventoryChangedEvent.all());
     }
 }
@@ -0,0 +1,95 @@
+package com.flightapp.flight.service;
+
+import com.flightapp.flight.config.FlightMetricsProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency timers, result-size distributions and failure counters for the
+ * {@link FlightService} hot paths, plus the sampler that keeps their per-flight
+ * DEBUG logging affordable.
+ */
+@Component
+public class FlightServiceMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry meterRegistry;
+    private final FlightMetricsProperties properties;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final DistributionSummary searchResults;
+    private final Counter seatReductionFailures;
+    private final AtomicLong logTicks = new AtomicLong();
+
+    public FlightServiceMetrics(MeterRegistry meterRegistry, FlightMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.searchResults = DistributionSummary.builder("flight.search.results")
+                .description("Flights returned by one search")
+                .baseUnit("flights")
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram(properties.isHistogramsEnabled())
+                .register(meterRegistry);
+        this.seatReductionFailures = Counter.builder("flight.seats.reduce.failures")
+                .description("Seat reductions that updated no rows (sold out or unknown flight)")
+                .register(meterRegistry);
+    }
+
+    public <T> Flux<T> time(String operation, Flux<T> source) {
+        return Flux.defer(() -> {
+            long startNanos = System.nanoTime();
+            return source.doFinally(signal -> record(operation, signal, startNanos));
+        });
+    }
+
+    public <T> Mono<T> time(String operation, Mono<T> source) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return source.doFinally(signal -> record(operation, signal, startNanos));
+        });
+    }
+
+    public void recordSearchResults(long count) {
+        searchResults.record(count);
+    }
+
+    public void recordSeatReductionFailure() {
+        seatReductionFailures.increment();
+    }
+
+    /**
+     * True for one call in every {@code debugLogSampleRate}; callers still check
+     * {@code isDebugEnabled()} first so nothing is counted when DEBUG is off.
+     */
+    public boolean sampleLog() {
+        int rate = Math.max(1, properties.getDebugLogSampleRate());
+        return logTicks.getAndIncrement() % rate == 0;
+    }
+
+    private void record(String operation, SignalType signal, long startNanos) {
+        String outcome = switch (signal) {
+            case ON_COMPLETE -> "success";
+            case ON_ERROR -> "error";
+            default -> "cancelled";
+        };
+        timers.computeIfAbsent(operation + ':' + outcome, key -> Timer.builder("flight.service.requests")
+                        .description("Latency of flight service operations")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .publishPercentiles(PERCENTILES)
+                        .publishPercentileHistogram(properties.isHistogramsEnabled())
+                        .register(meterRegistry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
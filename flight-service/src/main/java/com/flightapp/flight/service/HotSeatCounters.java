@@ -0,0 +1,311 @@
+package com.flightapp.flight.service;
+
+import com.flightapp.flight.config.HotSeatProperties;
+import com.flightapp.flight.entity.FlightInventory;
+import com.flightapp.flight.repository.FlightInventoryBatchWriter;
+import com.flightapp.flight.repository.FlightInventoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory seat counters for flights under heavy booking load. A hot flight takes a
+ * lease of seats from MySQL with the usual guarded decrement and hands them out with
+ * lock-free CAS, so most reductions never touch the contended row. A counter only ever
+ * holds seats already taken from the database, which is why it cannot oversell, even
+ * with several instances. Restored seats are kept in the counter up to a bound and the
+ * surplus is written back in one batched UPDATE per flush. A flight with no requests
+ * since the last flush hands back all its seats and loses its counter, so the pools
+ * only hold flights that are hot right now.
+ */
+@Component
+@Slf4j
+public class HotSeatCounters {
+
+    // Marks a pool that was demoted; it no longer takes or accepts seats
+    private static final int RETIRED = -1;
+
+    private final FlightInventoryRepository flightInventoryRepository;
+    private final FlightInventoryBatchWriter batchWriter;
+    private final HotSeatProperties properties;
+    private final Map<Long, LongAdder> demand = new ConcurrentHashMap<>();
+    private final Map<Long, SeatPool> pools = new ConcurrentHashMap<>();
+    private final Counter poolRequests;
+    private final Counter leaseRequests;
+    private final Counter directRequests;
+    private final Counter casRetries;
+    private final Counter leaseBusy;
+    private final Timer flushTimer;
+
+    private Disposable flusher;
+
+    public HotSeatCounters(FlightInventoryRepository flightInventoryRepository,
+                           FlightInventoryBatchWriter batchWriter,
+                           HotSeatProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.flightInventoryRepository = flightInventoryRepository;
+        this.batchWriter = batchWriter;
+        this.properties = properties;
+        this.poolRequests = requestCounter(meterRegistry, "pool");
+        this.leaseRequests = requestCounter(meterRegistry, "lease");
+        this.directRequests = requestCounter(meterRegistry, "direct");
+        this.casRetries = Counter.builder("flight.seats.hot.cas.retries")
+                .description("Compare-and-set retries on hot seat counters")
+                .register(meterRegistry);
+        this.leaseBusy = Counter.builder("flight.seats.hot.lease.busy")
+                .description("Reductions sent to the database because a lease was already in flight")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("flight.seats.hot.flush")
+                .description("Time taken to write surplus seats back to the database")
+                .register(meterRegistry);
+        Gauge.builder("flight.seats.hot.flights", pools, Map::size)
+                .description("Flights served from in-memory seat counters")
+                .register(meterRegistry);
+        Gauge.builder("flight.seats.hot.pooled", this, HotSeatCounters::pooledSeats)
+                .description("Seats held in in-memory counters")
+                .register(meterRegistry);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String path) {
+        return Counter.builder("flight.seats.hot.requests")
+                .tag("path", path)
+                .description("Seat reductions on hot flights by how they were served")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        flusher = Flux.interval(properties.getFlushInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> flush())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.dispose();
+        }
+        // Give every pooled seat back before the instance goes away
+        demand.clear();
+        flush().block(Duration.ofSeconds(5));
+    }
+
+    /**
+     * Counts a reduction request and reports whether the flight is served from a counter.
+     */
+    public boolean recordDemand(Long flightId) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        LongAdder requests = demand.computeIfAbsent(flightId, id -> new LongAdder());
+        requests.increment();
+        if (pools.containsKey(flightId)) {
+            return true;
+        }
+        if (requests.sum() < properties.getPromotionThreshold()) {
+            return false;
+        }
+        pools.computeIfAbsent(flightId, id -> {
+            log.info("Flight {} is hot, serving seat changes from memory", id);
+            return new SeatPool();
+        });
+        return true;
+    }
+
+    public Mono<Boolean> reduce(Long flightId, int seats) {
+        SeatPool pool = pools.get(flightId);
+        if (pool == null) {
+            return direct(flightId, seats);
+        }
+        return Mono.defer(() -> {
+            if (take(pool, seats)) {
+                poolRequests.increment();
+                return Mono.just(true);
+            }
+            if (!pool.leasing.compareAndSet(false, true)) {
+                leaseBusy.increment();
+                return direct(flightId, seats)
+                        .map(reduced -> reduced || take(pool, seats));
+            }
+            return lease(flightId, pool, seats)
+                    .doFinally(signal -> pool.leasing.set(false));
+        });
+    }
+
+    /**
+     * Puts seats back into a hot flight's counter. Returns false when the caller should
+     * write them to the database instead.
+     */
+    public boolean restore(Long flightId, int seats) {
+        SeatPool pool = pools.get(flightId);
+        if (pool == null) {
+            return false;
+        }
+        while (true) {
+            int current = pool.available.get();
+            if (current == RETIRED || current + seats > properties.getMaxPooledSeats()) {
+                return false;
+            }
+            if (pool.available.compareAndSet(current, current + seats)) {
+                return true;
+            }
+            casRetries.increment();
+        }
+    }
+
+    /**
+     * Writes surplus seats back in one batch: everything above one lease for flights still
+     * in demand, and everything for flights that went quiet since the last flush. Quiet
+     * flights are demoted back to plain database updates.
+     */
+    public Mono<Void> flush() {
+        Map<Long, Integer> surplus = new HashMap<>();
+        pools.forEach((flightId, pool) -> {
+            LongAdder requests = demand.get(flightId);
+            boolean quiet = requests == null || requests.sum() == 0;
+            int returned = quiet ? retire(flightId, pool) : drainAbove(pool, properties.getLeaseSize());
+            if (returned > 0) {
+                surplus.put(flightId, returned);
+            }
+        });
+        demand.clear();
+        if (surplus.isEmpty()) {
+            return Mono.empty();
+        }
+
+        long startNanos = System.nanoTime();
+        return batchWriter.adjustSeats(surplus)
+                .doOnSuccess(updated -> flushTimer.record(Duration.ofNanos(System.nanoTime() - startNanos)))
+                .doOnError(e -> {
+                    log.error("Failed to write back pooled seats, keeping them for the next flush: {}", e.getMessage());
+                    surplus.forEach((flightId, seats) -> pools.computeIfAbsent(flightId, id -> new SeatPool()).available.addAndGet(seats));
+                })
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    public int pooledSeats(Long flightId) {
+        SeatPool pool = pools.get(flightId);
+        return pool == null ? 0 : Math.max(0, pool.available.get());
+    }
+
+    /**
+     * The flight's seats as they can be sold: the database row plus the seats pooled for
+     * it here, which were taken from the row but are still for sale. Every seat count
+     * shown to callers, from the search index or the database, uses this.
+     */
+    public FlightInventory withPooledSeats(FlightInventory flight) {
+        int pooled = pooledSeats(flight.getId());
+        return pooled == 0 ? flight : flight.toBuilder()
+                .availableSeats(flight.getAvailableSeats() + pooled)
+                .build();
+    }
+
+    private int pooledSeats() {
+        int total = 0;
+        for (SeatPool pool : pools.values()) {
+            total += Math.max(0, pool.available.get());
+        }
+        return total;
+    }
+
+    private Mono<Boolean> direct(Long flightId, int seats) {
+        directRequests.increment();
+        return flightInventoryRepository.reduceAvailableSeats(flightId, seats)
+                .map(updated -> updated > 0);
+    }
+
+    private Mono<Boolean> lease(Long flightId, SeatPool pool, int seats) {
+        int leaseSize = Math.max(properties.getLeaseSize(), seats);
+        return flightInventoryRepository.reduceAvailableSeats(flightId, leaseSize)
+                .flatMap(updated -> {
+                    if (updated > 0) {
+                        leaseRequests.increment();
+                        pool.available.addAndGet(leaseSize - seats);
+                        return Mono.just(true);
+                    }
+                    // Fewer seats left than a full lease; take exactly what this request needs
+                    return direct(flightId, seats);
+                });
+    }
+
+    private boolean take(SeatPool pool, int seats) {
+        while (true) {
+            int current = pool.available.get();
+            if (current < seats) {
+                return false;
+            }
+            if (pool.available.compareAndSet(current, current - seats)) {
+                return true;
+            }
+            casRetries.increment();
+        }
+    }
+
+    private int drainAbove(SeatPool pool, int keep) {
+        while (true) {
+            int current = pool.available.get();
+            if (current <= keep) {
+                return 0;
+            }
+            if (pool.available.compareAndSet(current, keep)) {
+                return current - keep;
+            }
+            casRetries.increment();
+        }
+    }
+
+    /**
+     * Empties a quiet flight's pool and removes it, returning the seats it held. The
+     * leasing flag is taken and never released, so a request still holding the pool
+     * cannot lease into it and goes to the database instead. A pool with a lease in
+     * flight is only drained; it is demoted on a later flush.
+     */
+    private int retire(Long flightId, SeatPool pool) {
+        if (!pool.leasing.compareAndSet(false, true)) {
+            return drainAbove(pool, 0);
+        }
+        int returned;
+        while (true) {
+            int current = pool.available.get();
+            if (current == RETIRED) {
+                returned = 0;
+                break;
+            }
+            if (pool.available.compareAndSet(current, RETIRED)) {
+                returned = current;
+                break;
+            }
+            casRetries.increment();
+        }
+        pools.remove(flightId, pool);
+        log.info("Flight {} went quiet, serving seat changes from the database", flightId);
+        return returned;
+    }
+
+    private static final class SeatPool {
+        private final AtomicInteger available = new AtomicInteger();
+        private final AtomicBoolean leasing = new AtomicBoolean();
+    }
+}
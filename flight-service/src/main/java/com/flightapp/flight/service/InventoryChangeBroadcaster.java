@@ -0,0 +1,139 @@
+package com.flightapp.flight.service;
+
+import com.flightapp.flight.config.FlightSearchCacheProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the other flight-service instances' caches and search indexes in step with
+ * this one. Local inventory changes are coalesced for a short window and POSTed to
+ * every peer registered in Eureka; changes received from peers refresh the affected
+ * index entries and are then published locally so the caches drop stale results.
+ */
+@Component
+@Slf4j
+public class InventoryChangeBroadcaster {
+
+    public static final String PEER_PATH = "/api/flights/internal/inventory-changes";
+    private static final String SERVICE_ID = "flight-service";
+    private static final Duration PEER_TIMEOUT = Duration.ofSeconds(2);
+
+    private final DiscoveryClient discoveryClient;
+    private final ObjectProvider<Registration> registration;
+    private final FlightSearchIndex flightSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FlightSearchCacheProperties properties;
+    private final WebClient webClient;
+    private final Sinks.Many<FlightInventoryChangedEvent> changes = Sinks.many().unicast().onBackpressureBuffer();
+
+    private Disposable sender;
+
+    public InventoryChangeBroadcaster(DiscoveryClient discoveryClient,
+                                      ObjectProvider<Registration> registration,
+                                      FlightSearchIndex flightSearchIndex,
+                                      ApplicationEventPublisher eventPublisher,
+                                      FlightSearchCacheProperties properties,
+                                      WebClient.Builder webClientBuilder) {
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+        this.flightSearchIndex = flightSearchIndex;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.webClient = webClientBuilder.build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isBroadcastEnabled()) {
+            return;
+        }
+        sender = changes.asFlux()
+                .bufferTimeout(properties.getBroadcastMaxBatch(), properties.getBroadcastWindow())
+                .concatMap(batch -> sendToPeers(coalesce(batch)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sender != null) {
+            sender.dispose();
+        }
+    }
+
+    @EventListener
+    public void onInventoryChanged(FlightInventoryChangedEvent event) {
+        if (sender == null || event.fromPeer()) {
+            return;
+        }
+        changes.emitNext(event, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+    /**
+     * Applies changes made on another instance.
+     */
+    public Mono<Void> receive(List<FlightInventoryChangedEvent> events) {
+        return Flux.fromIterable(events)
+                .concatMap(event -> refreshIndex(event)
+                        .then(Mono.fromRunnable(() -> eventPublisher.publishEvent(event.asFromPeer()))))
+                .then();
+    }
+
+    private Mono<Void> refreshIndex(FlightInventoryChangedEvent event) {
+        if (!flightSearchIndex.isLoaded()) {
+            return Mono.empty();
+        }
+        if (event.flightId() != null) {
+            return flightSearchIndex.refresh(event.flightId());
+        }
+        return event.isAll() ? flightSearchIndex.rebuild() : Mono.empty();
+    }
+
+    private static List<FlightInventoryChangedEvent> coalesce(List<FlightInventoryChangedEvent> batch) {
+        Set<FlightInventoryChangedEvent> unique = new LinkedHashSet<>(batch);
+        // A full invalidation covers everything else in the batch
+        return unique.stream().anyMatch(FlightInventoryChangedEvent::isAll)
+                ? List.of(FlightInventoryChangedEvent.all())
+                : new ArrayList<>(unique);
+    }
+
+    private Mono<Void> sendToPeers(List<FlightInventoryChangedEvent> events) {
+        Registration self = registration.getIfAvailable();
+        String serviceId = self == null ? SERVICE_ID : self.getServiceId();
+        return Flux.fromIterable(discoveryClient.getInstances(serviceId))
+                .filter(peer -> self == null || !self.getInstanceId().equals(peer.getInstanceId()))
+                .flatMap(peer -> send(peer, events))
+                .then();
+    }
+
+    private Mono<Void> send(ServiceInstance peer, List<FlightInventoryChangedEvent> events) {
+        return webClient.post()
+                .uri(peer.getUri().resolve(PEER_PATH))
+                .bodyValue(events)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(PEER_TIMEOUT)
+                .doOnError(e -> log.warn("Failed to send {} inventory changes to {}: {}",
+                        events.size(), peer.getInstanceId(), e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+}
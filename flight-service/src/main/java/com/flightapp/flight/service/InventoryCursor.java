@@ -0,0 +1,53 @@
+package com.flightapp.flight.service;
+
+import com.flightapp.flight.entity.FlightInventory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last flight a client has seen, for keyset pagination. The encoded
+ * form is opaque to clients: the id for {@link InventorySortOrder#ID}, and the
+ * departure time plus id for {@link InventorySortOrder#DEPARTURE_TIME}.
+ */
+public record InventoryCursor(LocalDateTime departureTime, long id) {
+
+    // Earliest DATETIME MySQL stores, so the first page needs no special query
+    private static final InventoryCursor START = new InventoryCursor(LocalDateTime.of(1000, 1, 1, 0, 0), 0L);
+
+    public static InventoryCursor start() {
+        return START;
+    }
+
+    public static InventoryCursor after(FlightInventory flight) {
+        return new InventoryCursor(flight.getDepartureTime(), flight.getId());
+    }
+
+    public static InventoryCursor decode(InventorySortOrder sortOrder, String value) {
+        if (value == null || value.isBlank()) {
+            return START;
+        }
+        try {
+            if (sortOrder == InventorySortOrder.ID) {
+                return new InventoryCursor(START.departureTime(), Long.parseLong(value));
+            }
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('_');
+            return new InventoryCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+
+    public String encode(InventorySortOrder sortOrder) {
+        if (sortOrder == InventorySortOrder.ID) {
+            return String.valueOf(id);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((departureTime + "_" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
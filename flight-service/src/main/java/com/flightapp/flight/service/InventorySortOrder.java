@@ -0,0 +1,6 @@
+package com.flightapp.flight.service;
+
+public enum InventorySortOrder {
+    ID,
+    DEPARTURE_TIME
+}
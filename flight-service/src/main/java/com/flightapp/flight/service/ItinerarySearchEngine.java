@@ -0,0 +1,205 @@
+package com.flightapp.flight.service;
+
+import com.flightapp.flight.config.ItinerarySearchProperties;
+import com.flightapp.flight.dto.Itinerary;
+import com.flightapp.flight.entity.FlightInventory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Finds direct, 1-stop and 2-stop itineraries over a set of flights. Each search
+ * builds a small graph (departures per airport and per route, sorted by time), then
+ * explores the first-leg hubs in parallel and keeps only the best {@code limit} results.
+ */
+@Component
+public class ItinerarySearchEngine {
+
+    private final Duration minConnectionTime;
+    private final Duration maxConnectionTime;
+    private final ForkJoinPool pool;
+
+    public ItinerarySearchEngine(ItinerarySearchProperties properties) {
+        this.minConnectionTime = properties.getMinConnectionTime();
+        this.maxConnectionTime = properties.getMaxConnectionTime();
+        this.pool = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public CompletableFuture<List<Itinerary>> searchAsync(Collection<FlightInventory> flights,
+                                                          String origin, String destination,
+                                                          LocalDateTime earliestDeparture, LocalDateTime latestDeparture,
+                                                          int maxStops, ItinerarySortOrder sortOrder, int limit) {
+        return CompletableFuture.supplyAsync(() -> search(
+                flights, origin, destination, earliestDeparture, latestDeparture, maxStops, sortOrder, limit), pool);
+    }
+
+    public List<Itinerary> search(Collection<FlightInventory> flights,
+                                  String origin, String destination,
+                                  LocalDateTime earliestDeparture, LocalDateTime latestDeparture,
+                                  int maxStops, ItinerarySortOrder sortOrder, int limit) {
+        FlightGraph graph = new FlightGraph(flights);
+        Comparator<Itinerary> ranking = sortOrder.comparator();
+
+        Map<String, List<FlightInventory>> firstLegsByHub = new HashMap<>();
+        for (FlightInventory first : graph.departuresFrom(origin)) {
+            if (first.getDepartureTime().isBefore(earliestDeparture) || first.getDepartureTime().isAfter(latestDeparture)) {
+                continue;
+            }
+            firstLegsByHub.computeIfAbsent(first.getDestination(), hub -> new ArrayList<>()).add(first);
+        }
+
+        // Run from inside the pool (see searchAsync), the parallel stream forks onto the same pool
+        List<Itinerary> candidates = firstLegsByHub.entrySet().parallelStream()
+                .map(hub -> exploreHub(graph, origin, destination, hub.getKey(), hub.getValue(), maxStops, ranking, limit))
+                .flatMap(List::stream)
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        candidates.sort(ranking);
+        return candidates.size() > limit ? new ArrayList<>(candidates.subList(0, limit)) : candidates;
+    }
+
+    private List<Itinerary> exploreHub(FlightGraph graph, String origin, String destination, String hub,
+                                       List<FlightInventory> firstLegs, int maxStops,
+                                       Comparator<Itinerary> ranking, int limit) {
+        TopK best = new TopK(ranking, limit);
+
+        for (FlightInventory first : firstLegs) {
+            if (hub.equals(destination)) {
+                best.offer(List.of(first));
+                continue;
+            }
+            if (maxStops < 1) {
+                continue;
+            }
+            for (FlightInventory second : graph.connections(graph.departuresFrom(hub), first.getArrivalTime())) {
+                String next = second.getDestination();
+                if (next.equals(destination)) {
+                    best.offer(List.of(first, second));
+                } else if (maxStops >= 2 && !next.equals(origin)) {
+                    for (FlightInventory third : graph.connections(graph.route(next, destination), second.getArrivalTime())) {
+                        best.offer(List.of(first, second, third));
+                    }
+                }
+            }
+        }
+        return best.toList();
+    }
+
+    private static Itinerary toItinerary(List<FlightInventory> legs) {
+        FlightInventory first = legs.get(0);
+        FlightInventory last = legs.get(legs.size() - 1);
+        double totalPrice = 0;
+        for (FlightInventory leg : legs) {
+            totalPrice += leg.getPrice();
+        }
+        return Itinerary.builder()
+                .legs(legs)
+                .stops(legs.size() - 1)
+                .totalPrice(totalPrice)
+                .totalDurationMinutes(Duration.between(first.getDepartureTime(), last.getArrivalTime()).toMinutes())
+                .departureTime(first.getDepartureTime())
+                .arrivalTime(last.getArrivalTime())
+                .build();
+    }
+
+    private final class FlightGraph {
+        private static final Comparator<FlightInventory> BY_DEPARTURE =
+                Comparator.comparing(FlightInventory::getDepartureTime);
+
+        private final Map<String, List<FlightInventory>> byOrigin = new HashMap<>();
+        private final Map<String, List<FlightInventory>> byRoute = new HashMap<>();
+
+        FlightGraph(Collection<FlightInventory> flights) {
+            for (FlightInventory flight : flights) {
+                byOrigin.computeIfAbsent(flight.getOrigin(), key -> new ArrayList<>()).add(flight);
+                byRoute.computeIfAbsent(routeKey(flight.getOrigin(), flight.getDestination()), key -> new ArrayList<>())
+                        .add(flight);
+            }
+            byOrigin.values().forEach(list -> list.sort(BY_DEPARTURE));
+            byRoute.values().forEach(list -> list.sort(BY_DEPARTURE));
+        }
+
+        List<FlightInventory> departuresFrom(String airport) {
+            return byOrigin.getOrDefault(airport, List.of());
+        }
+
+        List<FlightInventory> route(String from, String to) {
+            return byRoute.getOrDefault(routeKey(from, to), List.of());
+        }
+
+        /**
+         * Departures from a sorted list that leave within the allowed layover after {@code arrival}.
+         */
+        List<FlightInventory> connections(List<FlightInventory> departures, LocalDateTime arrival) {
+            LocalDateTime earliest = arrival.plus(minConnectionTime);
+            LocalDateTime latest = arrival.plus(maxConnectionTime);
+            int from = firstDepartingAtOrAfter(departures, earliest);
+            int to = from;
+            while (to < departures.size() && !departures.get(to).getDepartureTime().isAfter(latest)) {
+                to++;
+            }
+            return departures.subList(from, to);
+        }
+
+        private int firstDepartingAtOrAfter(List<FlightInventory> departures, LocalDateTime time) {
+            int low = 0;
+            int high = departures.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (departures.get(mid).getDepartureTime().isBefore(time)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private String routeKey(String from, String to) {
+            return from + '-' + to;
+        }
+    }
+
+    private static final class TopK {
+        private final Comparator<Itinerary> ranking;
+        private final int limit;
+        private final PriorityQueue<Itinerary> worstFirst;
+
+        TopK(Comparator<Itinerary> ranking, int limit) {
+            this.ranking = ranking;
+            this.limit = limit;
+            this.worstFirst = new PriorityQueue<>(ranking.reversed());
+        }
+
+        void offer(List<FlightInventory> legs) {
+            Itinerary candidate = toItinerary(legs);
+            if (worstFirst.size() < limit) {
+                worstFirst.add(candidate);
+            } else if (ranking.compare(candidate, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(candidate);
+            }
+        }
+
+        List<Itinerary> toList() {
+            return new ArrayList<>(worstFirst);
+        }
+    }
+}
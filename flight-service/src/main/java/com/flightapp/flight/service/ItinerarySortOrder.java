@@ -0,0 +1,24 @@
+package com.flightapp.flight.service;
+
+import com.flightapp.flight.dto.Itinerary;
+
+import java.util.Comparator;
+
+public enum ItinerarySortOrder {
+    DURATION(Comparator.comparing(Itinerary::getTotalDurationMinutes)
+            .thenComparing(Itinerary::getTotalPrice)
+            .thenComparing(Itinerary::getDepartureTime)),
+    PRICE(Comparator.comparing(Itinerary::getTotalPrice)
+            .thenComparing(Itinerary::getTotalDurationMinutes)
+            .thenComparing(Itinerary::getDepartureTime));
+
+    private final Comparator<Itinerary> comparator;
+
+    ItinerarySortOrder(Comparator<Itinerary> comparator) {
+        this.comparator = comparator;
+    }
+
+    public Comparator<Itinerary> comparator() {
+        return comparator;
+    }
+}
@@ -0,0 +1,12 @@
+package com.flightapp.flight.service;
+
+import com.flightapp.flight.entity.SeatHold;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+public interface SeatHoldService {
+    Mono<SeatHold> holdSeats(Long flightId, Integer seats, Duration ttl);
+    Mono<SeatHold> confirmHold(Long holdId);
+    Mono<SeatHold> releaseHold(Long holdId);
+}
@@ -0,0 +1,265 @@
+package com.flightapp.flight.service;
+
+import com.flightapp.flight.config.SeatHoldProperties;
+import com.flightapp.flight.entity.FlightInventory;
+import com.flightapp.flight.entity.SeatHold;
+import com.flightapp.flight.repository.FlightInventoryBatchWriter;
+import com.flightapp.flight.repository.SeatHoldRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Seats are taken from availableSeats as soon as they are held, so a hold can never
+ * oversell. A confirmed hold keeps them; a released or expired hold gives them back.
+ * Every hold is persisted in seat_hold and also queued in an in-memory {@link DelayQueue}
+ * keyed by expiry time, so expiring holds costs nothing until they are due. Due holds
+ * are drained in batches and returned to inventory in one transaction per batch.
+ */
+@Service
+@Slf4j
+public class SeatHoldServiceImpl implements SeatHoldService {
+
+    private static final String HELD = "HELD";
+    private static final String RELEASED = "RELEASED";
+
+    private final SeatHoldRepository seatHoldRepository;
+    private final FlightService flightService;
+    private final FlightInventoryBatchWriter batchWriter;
+    private final FlightSearchIndex flightSearchIndex;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SeatHoldProperties properties;
+    private final DelayQueue<ExpiringHold> expiryQueue = new DelayQueue<>();
+    private final Counter createdCounter;
+    private final Counter confirmedCounter;
+    private final Counter releasedCounter;
+    private final Counter expiredCounter;
+
+    private Disposable sweeper;
+    private Disposable reconciler;
+
+    public SeatHoldServiceImpl(SeatHoldRepository seatHoldRepository,
+                               FlightService flightService,
+                               FlightInventoryBatchWriter batchWriter,
+                               FlightSearchIndex flightSearchIndex,
+                               TransactionalOperator transactionalOperator,
+                               ApplicationEventPublisher eventPublisher,
+                               SeatHoldProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.seatHoldRepository = seatHoldRepository;
+        this.flightService = flightService;
+        this.batchWriter = batchWriter;
+        this.flightSearchIndex = flightSearchIndex;
+        this.transactionalOperator = transactionalOperator;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.createdCounter = holdCounter(meterRegistry, "created");
+        this.confirmedCounter = holdCounter(meterRegistry, "confirmed");
+        this.releasedCounter = holdCounter(meterRegistry, "released");
+        this.expiredCounter = holdCounter(meterRegistry, "expired");
+        Gauge.builder("flight.seat.holds.pending", expiryQueue, DelayQueue::size)
+                .description("Holds waiting in the expiry queue")
+                .register(meterRegistry);
+    }
+
+    private static Counter holdCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("flight.seat.holds")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Holds outlive restarts in the database; put the open ones back on the queue
+        seatHoldRepository.findByStatus(HELD)
+                .doOnNext(this::track)
+                .count()
+                .doOnNext(count -> log.info("Tracking {} open seat holds", count))
+                .doOnError(e -> log.error("Failed to load open seat holds: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .subscribe();
+
+        sweeper = Flux.interval(properties.getSweepInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> expireDueHolds())
+                .subscribe();
+        reconciler = Flux.interval(properties.getReconcileInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> expireOverdueHolds())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.dispose();
+        }
+        if (reconciler != null) {
+            reconciler.dispose();
+        }
+    }
+
+    @Override
+    public Mono<SeatHold> holdSeats(Long flightId, Integer seats, Duration ttl) {
+        Duration holdFor = holdDuration(ttl);
+
+        return flightService.reduceSeats(flightId, seats)
+                .filter(Boolean::booleanValue)
+                .flatMap(reduced -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    SeatHold hold = SeatHold.builder()
+                            .flightId(flightId)
+                            .seats(seats)
+                            .status(HELD)
+                            .expiresAt(now.plus(holdFor))
+                            .createdAt(now)
+                            .updatedAt(now)
+                            .build();
+                    // The seats are already taken; give them back if the hold cannot be recorded
+                    return seatHoldRepository.save(hold)
+                            .onErrorResume(e -> flightService.restoreSeats(flightId, seats).then(Mono.error(e)));
+                })
+                .doOnNext(saved -> {
+                    track(saved);
+                    createdCounter.increment();
+                    log.info("Held {} seats on flight {} until {} (hold {})",
+                            seats, flightId, saved.getExpiresAt(), saved.getId());
+                });
+    }
+
+    private Duration holdDuration(Duration requested) {
+        if (requested == null) {
+            return properties.getDefaultTtl();
+        }
+        return requested.compareTo(properties.getMaxTtl()) > 0 ? properties.getMaxTtl() : requested;
+    }
+
+    @Override
+    public Mono<SeatHold> confirmHold(Long holdId) {
+        return seatHoldRepository.confirm(holdId, LocalDateTime.now())
+                .doOnNext(updated -> {
+                    if (updated > 0) {
+                        confirmedCounter.increment();
+                    }
+                })
+                .then(seatHoldRepository.findById(holdId));
+    }
+
+    @Override
+    public Mono<SeatHold> releaseHold(Long holdId) {
+        return seatHoldRepository.release(holdId)
+                .flatMap(updated -> updated > 0
+                        ? seatHoldRepository.findById(holdId)
+                                .flatMap(hold -> batchWriter.adjustSeats(Map.of(hold.getFlightId(), hold.getSeats()))
+                                        .thenReturn(hold))
+                        : seatHoldRepository.findById(holdId))
+                .as(transactionalOperator::transactional)
+                .doOnNext(hold -> {
+                    if (RELEASED.equals(hold.getStatus())) {
+                        releasedCounter.increment();
+                        seatsReturned(List.of(hold));
+                    }
+                });
+    }
+
+    /**
+     * Expires the holds whose time has come on this node's queue. Holds already confirmed
+     * or released are skipped by the locking query; if the batch fails, the reconcile
+     * pass picks the holds up from the database.
+     */
+    public Mono<Integer> expireDueHolds() {
+        List<ExpiringHold> due = new ArrayList<>();
+        expiryQueue.drainTo(due, properties.getExpiryBatchSize());
+        if (due.isEmpty()) {
+            return Mono.just(0);
+        }
+        List<Long> ids = due.stream().map(ExpiringHold::holdId).toList();
+        LocalDateTime now = LocalDateTime.now();
+        return expire(seatHoldRepository.lockExpired(ids, now));
+    }
+
+    /**
+     * Expires overdue holds straight from the database, for holds no node is tracking.
+     */
+    public Mono<Integer> expireOverdueHolds() {
+        return expire(seatHoldRepository.lockOverdue(LocalDateTime.now(), properties.getExpiryBatchSize()));
+    }
+
+    private Mono<Integer> expire(Flux<SeatHold> lockedHolds) {
+        return lockedHolds.collectList()
+                .flatMap(holds -> {
+                    if (holds.isEmpty()) {
+                        return Mono.just(holds);
+                    }
+                    List<Long> ids = holds.stream().map(SeatHold::getId).toList();
+                    return seatHoldRepository.markExpired(ids)
+                            .then(batchWriter.adjustSeats(seatsByFlight(holds)))
+                            .thenReturn(holds);
+                })
+                .as(transactionalOperator::transactional)
+                .map(holds -> {
+                    if (!holds.isEmpty()) {
+                        seatsReturned(holds);
+                        expiredCounter.increment(holds.size());
+                        log.info("Expired {} seat holds", holds.size());
+                    }
+                    return holds.size();
+                })
+                .doOnError(e -> log.error("Failed to expire seat holds: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.just(0));
+    }
+
+    private void seatsReturned(Collection<SeatHold> holds) {
+        seatsByFlight(holds).forEach((flightId, seats) -> {
+            FlightInventory updated = flightSearchIndex.adjustSeats(flightId, seats);
+            eventPublisher.publishEvent(updated != null
+                    ? FlightInventoryChangedEvent.of(updated)
+                    : FlightInventoryChangedEvent.all());
+        });
+    }
+
+    private static Map<Long, Integer> seatsByFlight(Collection<SeatHold> holds) {
+        return holds.stream().collect(Collectors.groupingBy(SeatHold::getFlightId, Collectors.summingInt(SeatHold::getSeats)));
+    }
+
+    private void track(SeatHold hold) {
+        expiryQueue.add(new ExpiringHold(hold.getId(),
+                hold.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+    }
+
+    private record ExpiringHold(Long holdId, long expiresAtMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAtMillis, ((ExpiringHold) other).expiresAtMillis);
+        }
+    }
+}
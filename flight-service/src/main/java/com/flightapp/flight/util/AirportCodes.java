@@ -0,0 +1,18 @@
+package com.flightapp.flight.util;
+
+import java.util.Locale;
+
+/**
+ * Canonical form for origin/destination values: trimmed and upper-case.
+ * Stored rows and search inputs both go through here, so the repository can
+ * compare columns directly and MySQL can use idx_flight_search.
+ */
+public final class AirportCodes {
+
+    private AirportCodes() {
+    }
+
+    public static String normalize(String code) {
+        return code == null ? null : code.trim().toUpperCase(Locale.ROOT);
+    }
+}
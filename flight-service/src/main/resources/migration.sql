@@ -0,0 +1,43 @@
+-- Migration script to normalize origin/destination on existing flight_inventory rows
+-- Run this script if you have an existing database
+
+-- Step 1: Store airport codes trimmed and upper-case, matching FlightServiceImpl.addInventory.
+-- BINARY makes the comparison case-sensitive so only rows that actually change are updated.
+UPDATE flight_inventory
+SET origin = UPPER(TRIM(origin)),
+    destination = UPPER(TRIM(destination))
+WHERE BINARY origin <> BINARY UPPER(TRIM(origin))
+   OR BINARY destination <> BINARY UPPER(TRIM(destination));
+
+-- Verification query (optional - comment out if not needed)
+-- SELECT COUNT(*) AS non_canonical_rows
+-- FROM flight_inventory
+-- WHERE BINARY origin <> BINARY UPPER(TRIM(origin))
+--    OR BINARY destination <> BINARY UPPER(TRIM(destination));
+
+-- Step 2: Index used by keyset pagination of /api/flights/inventory ordered by departure time
+-- (InnoDB appends the primary key, so this also covers the (departure_time, id) tie-break).
+-- MySQL has no CREATE INDEX IF NOT EXISTS, so check information_schema to keep the script re-runnable.
+SET @create_idx_flight_departure = IF(
+    (SELECT COUNT(*) FROM information_schema.statistics
+     WHERE table_schema = DATABASE()
+       AND table_name = 'flight_inventory'
+       AND index_name = 'idx_flight_departure') = 0,
+    'CREATE INDEX idx_flight_departure ON flight_inventory (departure_time)',
+    'DO 0');
+PREPARE create_idx_flight_departure FROM @create_idx_flight_departure;
+EXECUTE create_idx_flight_departure;
+DEALLOCATE PREPARE create_idx_flight_departure;
+
+-- Step 3: Seat holds (time-limited reservations returned to inventory when they expire)
+CREATE TABLE IF NOT EXISTS seat_hold (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    flight_id BIGINT NOT NULL,
+    seats INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    expires_at DATETIME NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_seat_hold_expiry (status, expires_at),
+    CONSTRAINT fk_seat_hold_flight FOREIGN KEY (flight_id) REFERENCES flight_inventory (id)
+);
@@ -12,5 +12,18 @@ CREATE TABLE IF NOT EXISTS flight_inventory (
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_flight_search (origin, destination, departure_time),
+    INDEX idx_flight_departure (departure_time),
     INDEX idx_flight_number (flight_number)
 );
+
+CREATE TABLE IF NOT EXISTS seat_hold (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    flight_id BIGINT NOT NULL,
+    seats INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    expires_at DATETIME NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_seat_hold_expiry (status, expires_at),
+    CONSTRAINT fk_seat_hold_flight FOREIGN KEY (flight_id) REFERENCES flight_inventory (id)
+);
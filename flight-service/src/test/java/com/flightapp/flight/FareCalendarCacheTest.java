@@ -0,0 +1,70 @@
+package com.flightapp.flight;
+
+import com.flightapp.flight.config.FareCalendarProperties;
+import com.flightapp.flight.dto.FareCalendarDay;
+import com.flightapp.flight.service.FareCalendarCache;
+import com.flightapp.flight.service.FlightInventoryChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FareCalendarCacheTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 12, 12);
+    private static final LocalDate TO = LocalDate.of(2025, 12, 18);
+
+    private FareCalendarCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new FareCalendarCache(new FareCalendarProperties());
+        loads = new AtomicInteger();
+    }
+
+    private Mono<List<FareCalendarDay>> load() {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return List.of(FareCalendarDay.builder().travelDate(FROM).flightCount(1L).build());
+        });
+    }
+
+    private void getDelBom() {
+        StepVerifier.create(cache.get("DEL", "BOM", FROM, TO, this::load))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void testGet_CachesPerRouteAndWindow() {
+        getDelBom();
+        getDelBom();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testInvalidate_OnlyMatchingRouteAndDate() {
+        getDelBom();
+
+        cache.onInventoryChanged(new FlightInventoryChangedEvent(null, "DEL", "BLR", LocalDate.of(2025, 12, 15), false));
+        cache.onInventoryChanged(new FlightInventoryChangedEvent(null, "DEL", "BOM", LocalDate.of(2025, 12, 25), false));
+        getDelBom();
+        assertEquals(1, loads.get());
+
+        cache.onInventoryChanged(new FlightInventoryChangedEvent(null, "DEL", "BOM", LocalDate.of(2025, 12, 15), false));
+        getDelBom();
+        assertEquals(2, loads.get());
+
+        cache.onInventoryChanged(FlightInventoryChangedEvent.all());
+        getDelBom();
+        assertEquals(3, loads.get());
+    }
+}
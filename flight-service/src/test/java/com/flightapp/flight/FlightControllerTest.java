@@ -1,10 +1,25 @@
 package com.flightapp.flight;
 
 import com.flightapp.flight.controller.FlightController;
+import com.flightapp.flight.dto.FareCalendarDay;
+import com.flightapp.flight.dto.FareCalendarRequest;
+import com.flightapp.flight.dto.FlightImportProgress;
+import com.flightapp.flight.dto.FlightInventoryPage;
 import com.flightapp.flight.dto.FlightInventoryRequest;
 import com.flightapp.flight.dto.FlightSearchRequest;
+import com.flightapp.flight.dto.Itinerary;
+import com.flightapp.flight.dto.ItinerarySearchRequest;
+import com.flightapp.flight.dto.SeatReservation;
 import com.flightapp.flight.entity.FlightInventory;
+import com.flightapp.flight.entity.SeatHold;
+import com.flightapp.flight.service.FlightImportFormat;
+import com.flightapp.flight.service.FlightImportService;
+import com.flightapp.flight.service.FlightInventoryChangedEvent;
 import com.flightapp.flight.service.FlightService;
+import com.flightapp.flight.service.InventoryChangeBroadcaster;
+import com.flightapp.flight.service.InventoryCursor;
+import com.flightapp.flight.service.InventorySortOrder;
+import com.flightapp.flight.service.SeatHoldService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,12 +30,17 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(FlightController.class)
@@ -32,6 +52,15 @@ class FlightControllerTest {
     @MockBean
     private FlightService flightService;
 
+    @MockBean
+    private FlightImportService flightImportService;
+
+    @MockBean
+    private SeatHoldService seatHoldService;
+
+    @MockBean
+    private InventoryChangeBroadcaster inventoryChangeBroadcaster;
+
     private FlightInventory testFlight;
     private FlightInventoryRequest testRequest;
     private FlightSearchRequest searchRequest;
@@ -100,6 +129,123 @@ class FlightControllerTest {
                 .hasSize(0);
     }
 
+    @Test
+    void testGetFareCalendar_Success() {
+        FareCalendarDay day = FareCalendarDay.builder()
+                .travelDate(LocalDate.of(2025, 12, 15))
+                .cheapestPrice(4500.0)
+                .flightCount(2L)
+                .build();
+        when(flightService.getFareCalendar(any(FareCalendarRequest.class)))
+                .thenReturn(Flux.just(day));
+
+        webTestClient.post()
+                .uri("/api/flights/search/calendar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(FareCalendarRequest.builder()
+                        .origin("DEL")
+                        .destination("BOM")
+                        .travelDate(LocalDate.of(2025, 12, 15))
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(FareCalendarDay.class)
+                .contains(day);
+    }
+
+    @Test
+    void testGetFareCalendar_WindowTooLarge() {
+        webTestClient.post()
+                .uri("/api/flights/search/calendar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(FareCalendarRequest.builder()
+                        .origin("DEL")
+                        .destination("BOM")
+                        .travelDate(LocalDate.of(2025, 12, 15))
+                        .windowDays(30)
+                        .build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testSearchItineraries_Success() {
+        Itinerary itinerary = Itinerary.builder()
+                .legs(List.of(testFlight))
+                .stops(0)
+                .totalPrice(5000.0)
+                .totalDurationMinutes(150L)
+                .build();
+        when(flightService.searchItineraries(any(ItinerarySearchRequest.class)))
+                .thenReturn(Flux.just(itinerary));
+
+        webTestClient.post()
+                .uri("/api/flights/search/itineraries")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ItinerarySearchRequest.builder()
+                        .origin("DEL")
+                        .destination("BOM")
+                        .travelDate(LocalDate.of(2025, 12, 15))
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Itinerary.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void testSearchItineraries_InvalidSortOrder() {
+        webTestClient.post()
+                .uri("/api/flights/search/itineraries")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ItinerarySearchRequest.builder()
+                        .origin("DEL")
+                        .destination("BOM")
+                        .travelDate(LocalDate.of(2025, 12, 15))
+                        .sortBy("SEATS")
+                        .build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testGetInventory_ReturnsPageWithNextCursor() {
+        InventoryCursor after = InventoryCursor.decode(InventorySortOrder.ID, "10");
+        when(flightService.getInventoryPage(InventorySortOrder.ID, after, 1))
+                .thenReturn(Mono.just(FlightInventoryPage.builder().items(List.of(testFlight)).nextCursor("11").build()));
+
+        webTestClient.get()
+                .uri("/api/flights/inventory?after=10&size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Next-Cursor", "11")
+                .expectBodyList(FlightInventory.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void testGetInventory_InvalidCursor() {
+        webTestClient.get()
+                .uri("/api/flights/inventory?sort=DEPARTURE_TIME&after=garbage")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testGetInventory_StreamsNdjson() {
+        when(flightService.streamInventory(InventorySortOrder.DEPARTURE_TIME, InventoryCursor.start()))
+                .thenReturn(Flux.just(testFlight));
+
+        webTestClient.get()
+                .uri("/api/flights/inventory?sort=DEPARTURE_TIME")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(FlightInventory.class)
+                .hasSize(1);
+    }
+
     @Test
     void testAddInventory_Success() {
         when(flightService.addInventory(any(FlightInventoryRequest.class)))
@@ -107,6 +253,7 @@ class FlightControllerTest {
 
         webTestClient.post()
                 .uri("/api/flights/add")
+                .header("X-User-Role", "ADMIN")
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(testRequest)
                 .exchange()
@@ -190,4 +337,145 @@ class FlightControllerTest {
                 .expectBody(Boolean.class)
                 .isEqualTo(false);
     }
+
+    @Test
+    void testReserveSeats() {
+        when(flightService.reserveSeats(1L, 2)).thenReturn(Mono.just(SeatReservation.builder()
+                .flightId(1L).flightNumber("AI101").unitPrice(5000.0).seats(2).remainingSeats(148).reserved(true)
+                .build()));
+
+        webTestClient.put()
+                .uri("/api/flights/inventory/1/reserve?seats=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.flightNumber").isEqualTo("AI101")
+                .jsonPath("$.unitPrice").isEqualTo(5000.0)
+                .jsonPath("$.remainingSeats").isEqualTo(148);
+    }
+
+    @Test
+    void testReserveSeats_SoldOutAndUnknownFlight() {
+        when(flightService.reserveSeats(1L, 200)).thenReturn(Mono.just(SeatReservation.builder()
+                .flightId(1L).flightNumber("AI101").unitPrice(5000.0).seats(200).remainingSeats(150).reserved(false)
+                .build()));
+        when(flightService.reserveSeats(99L, 2)).thenReturn(Mono.empty());
+
+        webTestClient.put()
+                .uri("/api/flights/inventory/1/reserve?seats=200")
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.reserved").isEqualTo(false);
+
+        webTestClient.put()
+                .uri("/api/flights/inventory/99/reserve?seats=2")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testImportFlights_StreamsProgress() {
+        when(flightImportService.importFlights(any(), eq(FlightImportFormat.NDJSON)))
+                .thenAnswer(invocation -> {
+                    Flux<String> lines = invocation.getArgument(0);
+                    return lines.count().map(count -> FlightImportProgress.builder()
+                            .status("COMPLETED")
+                            .rowsRead(count)
+                            .build()).flux();
+                });
+
+        webTestClient.post()
+                .uri("/api/flights/import")
+                .header("X-User-Role", "ADMIN")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"flightNumber\":\"AI101\"}\n{\"flightNumber\":\"AI102\"}\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(FlightImportProgress.class)
+                .contains(FlightImportProgress.builder().status("COMPLETED").rowsRead(2L).build());
+    }
+
+    @Test
+    void testImportFlights_Forbidden() {
+        webTestClient.post()
+                .uri("/api/flights/import")
+                .contentType(MediaType.valueOf("text/csv"))
+                .bodyValue("flightNumber,airline\n")
+                .exchange()
+                .expectStatus().isForbidden();
+
+        verify(flightImportService, never()).importFlights(any(), any());
+    }
+
+    @Test
+    void testHoldSeats_Created() {
+        SeatHold hold = SeatHold.builder().id(7L).flightId(1L).seats(2).status("HELD").build();
+        when(seatHoldService.holdSeats(1L, 2, Duration.ofSeconds(300))).thenReturn(Mono.just(hold));
+
+        webTestClient.post()
+                .uri("/api/flights/inventory/1/holds?seats=2&ttlSeconds=300")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(7)
+                .jsonPath("$.status").isEqualTo("HELD");
+    }
+
+    @Test
+    void testHoldSeats_NotEnoughSeats() {
+        when(seatHoldService.holdSeats(1L, 500, null)).thenReturn(Mono.empty());
+
+        webTestClient.post()
+                .uri("/api/flights/inventory/1/holds?seats=500")
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void testConfirmHold_ExpiredIsConflict() {
+        when(seatHoldService.confirmHold(7L))
+                .thenReturn(Mono.just(SeatHold.builder().id(7L).status("EXPIRED").build()));
+
+        webTestClient.put()
+                .uri("/api/flights/holds/7/confirm")
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void testReleaseHold_Success() {
+        when(seatHoldService.releaseHold(7L))
+                .thenReturn(Mono.just(SeatHold.builder().id(7L).status("RELEASED").build()));
+
+        webTestClient.put()
+                .uri("/api/flights/holds/7/release")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void testReleaseHold_NotFound() {
+        when(seatHoldService.releaseHold(8L)).thenReturn(Mono.empty());
+
+        webTestClient.put()
+                .uri("/api/flights/holds/8/release")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testReceiveInventoryChanges() {
+        List<FlightInventoryChangedEvent> events = List.of(FlightInventoryChangedEvent.of(testFlight));
+        when(inventoryChangeBroadcaster.receive(events)).thenReturn(Mono.empty());
+
+        webTestClient.post()
+                .uri("/api/flights/internal/inventory-changes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(events)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        verify(inventoryChangeBroadcaster).receive(events);
+    }
 }
@@ -0,0 +1,176 @@
+package com.flightapp.flight;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.flightapp.flight.config.FlightImportProperties;
+import com.flightapp.flight.dto.FlightImportProgress;
+import com.flightapp.flight.entity.FlightInventory;
+import com.flightapp.flight.repository.FlightInventoryBatchWriter;
+import com.flightapp.flight.service.FlightImportFormat;
+import com.flightapp.flight.service.FlightImportServiceImpl;
+import com.flightapp.flight.service.FlightInventoryChangedEvent;
+import com.flightapp.flight.service.FlightSearchIndex;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlightImportServiceTest {
+
+    private static final String CSV_HEADER =
+            "flightNumber,airline,origin,destination,departureTime,arrivalTime,availableSeats,price";
+
+    @Mock
+    private FlightInventoryBatchWriter batchWriter;
+
+    @Mock
+    private FlightSearchIndex flightSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private FlightImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        FlightImportProperties properties = new FlightImportProperties();
+        properties.setBatchSize(2);
+        importService = new FlightImportServiceImpl(
+                batchWriter,
+                flightSearchIndex,
+                properties,
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                eventPublisher);
+    }
+
+    private static String csvRow(String flightNumber, String origin) {
+        return flightNumber + ",Air India," + origin + ",bom,2025-12-15T08:00:00,2025-12-15T10:30:00,150,5000.0";
+    }
+
+    @Test
+    void testImportCsv_WritesBatchesAndReportsRejections() {
+        when(batchWriter.insertAll(anyList())).thenAnswer(invocation -> {
+            List<FlightInventory> batch = invocation.getArgument(0);
+            return Mono.just(new FlightInventoryBatchWriter.InsertResult(batch.size(), 0, Map.of()));
+        });
+        when(flightSearchIndex.rebuild()).thenReturn(Mono.empty());
+
+        Flux<String> lines = Flux.just(
+                CSV_HEADER,
+                csvRow("AI101", "del"),
+                csvRow("AI102", "DEL"),
+                "AI103,Air India,DEL,BOM,not-a-date,2025-12-15T10:30:00,150,5000.0",
+                csvRow("AI104", "DEL"));
+
+        StepVerifier.create(importService.importFlights(lines, FlightImportFormat.CSV))
+                .expectNextMatches(progress -> progress.getStatus().equals("IN_PROGRESS")
+                        && progress.getBatch() == 1 && progress.getInserted() == 2)
+                .expectNextMatches(progress -> progress.getStatus().equals("IN_PROGRESS")
+                        && progress.getBatch() == 2 && progress.getInserted() == 3)
+                .assertNext(summary -> {
+                    assertEquals("COMPLETED", summary.getStatus());
+                    assertEquals(4L, summary.getRowsRead());
+                    assertEquals(3L, summary.getInserted());
+                    assertEquals(1L, summary.getRejected());
+                    assertEquals(4L, summary.getRejections().get(0).getLine());
+                })
+                .verifyComplete();
+
+        verify(batchWriter).insertAll(argThat(batch -> batch.size() == 2
+                && batch.get(0).getOrigin().equals("DEL")
+                && batch.get(0).getDestination().equals("BOM")));
+        verify(flightSearchIndex, times(1)).rebuild();
+        verify(eventPublisher).publishEvent(FlightInventoryChangedEvent.all());
+    }
+
+    @Test
+    void testImportNdjson_CountsDuplicatesAndValidationFailures() {
+        when(batchWriter.insertAll(anyList())).thenReturn(Mono.just(new FlightInventoryBatchWriter.InsertResult(0, 1, Map.of())));
+
+        Flux<String> lines = Flux.just(
+                "{\"flightNumber\":\"AI101\",\"airline\":\"Air India\",\"origin\":\"DEL\",\"destination\":\"BOM\","
+                        + "\"departureTime\":\"2025-12-15T08:00:00\",\"arrivalTime\":\"2025-12-15T10:30:00\","
+                        + "\"availableSeats\":150,\"price\":5000.0}",
+                "",
+                "{\"flightNumber\":\"AI102\",\"availableSeats\":0}",
+                "{broken");
+
+        StepVerifier.create(importService.importFlights(lines, FlightImportFormat.NDJSON))
+                .expectNextMatches(progress -> progress.getDuplicates() == 1)
+                .assertNext(summary -> {
+                    assertEquals(3L, summary.getRowsRead());
+                    assertEquals(0L, summary.getInserted());
+                    assertEquals(1L, summary.getDuplicates());
+                    assertEquals(2L, summary.getRejected());
+                    assertEquals(3L, summary.getRejections().get(0).getLine());
+                    assertTrue(summary.getRejections().get(1).getReason().startsWith("Malformed JSON"));
+                })
+                .verifyComplete();
+
+        verify(flightSearchIndex, never()).rebuild();
+    }
+
+    @Test
+    void testImportCsv_ReportsRowsRefusedByDatabase() {
+        when(batchWriter.insertAll(anyList())).thenReturn(Mono.just(new FlightInventoryBatchWriter.InsertResult(
+                1, 0, Map.of(1, "Data too long for column 'airline' at row 1"))));
+        when(flightSearchIndex.rebuild()).thenReturn(Mono.empty());
+
+        Flux<String> lines = Flux.just(CSV_HEADER, csvRow("AI101", "DEL"), csvRow("AI102", "DEL"));
+
+        StepVerifier.create(importService.importFlights(lines, FlightImportFormat.CSV))
+                .expectNextMatches(progress -> progress.getInserted() == 1 && progress.getRejected() == 1)
+                .assertNext(summary -> {
+                    assertEquals(1L, summary.getInserted());
+                    assertEquals(0L, summary.getDuplicates());
+                    assertEquals(1L, summary.getRejected());
+                    assertEquals(3L, summary.getRejections().get(0).getLine());
+                    assertTrue(summary.getRejections().get(0).getReason().startsWith("Data too long"));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testImportCsv_FailedBatchStillAnnouncesEarlierInserts() {
+        when(batchWriter.insertAll(anyList()))
+                .thenReturn(Mono.just(new FlightInventoryBatchWriter.InsertResult(2, 0, Map.of())))
+                .thenReturn(Mono.error(new IllegalArgumentException("connection reset")));
+        when(flightSearchIndex.rebuild()).thenReturn(Mono.empty());
+
+        Flux<String> lines = Flux.just(CSV_HEADER,
+                csvRow("AI101", "DEL"), csvRow("AI102", "DEL"), csvRow("AI103", "DEL"));
+
+        StepVerifier.create(importService.importFlights(lines, FlightImportFormat.CSV))
+                .expectNextMatches(progress -> progress.getInserted() == 2)
+                .expectErrorMessage("connection reset")
+                .verify();
+
+        verify(flightSearchIndex, times(1)).rebuild();
+        verify(eventPublisher).publishEvent(FlightInventoryChangedEvent.all());
+    }
+
+    @Test
+    void testImportCsv_MissingHeaderColumnsFails() {
+        StepVerifier.create(importService.importFlights(Flux.just("flightNumber,airline"), FlightImportFormat.CSV))
+                .expectNextMatches((FlightImportProgress progress) -> progress.getStatus().equals("FAILED")
+                        && progress.getMessage().contains("origin"))
+                .verifyComplete();
+
+        verifyNoInteractions(batchWriter);
+    }
+}
@@ -0,0 +1,102 @@
+package com.flightapp.flight;
+
+import com.flightapp.flight.config.FlightSearchCacheProperties;
+import com.flightapp.flight.entity.FlightInventory;
+import com.flightapp.flight.service.FlightInventoryChangedEvent;
+import com.flightapp.flight.service.FlightSearchCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightSearchCacheTest {
+
+    private static final LocalDate TRAVEL_DATE = LocalDate.of(2025, 12, 15);
+
+    private SimpleMeterRegistry meterRegistry;
+    private FlightSearchCacheProperties properties;
+    private FlightSearchCache cache;
+    private AtomicInteger loads;
+    private FlightInventory flight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new FlightSearchCacheProperties();
+        cache = new FlightSearchCache(properties, meterRegistry);
+        loads = new AtomicInteger();
+        flight = FlightInventory.builder().id(1L).flightNumber("AI101").build();
+    }
+
+    private Supplier<Flux<FlightInventory>> loader() {
+        return () -> Flux.defer(() -> {
+            loads.incrementAndGet();
+            return Flux.just(flight);
+        });
+    }
+
+    private void search(String origin, String destination, LocalDate date) {
+        StepVerifier.create(cache.get(origin, destination, date, loader()))
+                .expectNext(flight)
+                .verifyComplete();
+    }
+
+    @Test
+    void testGet_CachesPerRouteAndDate() {
+        search("DEL", "BOM", TRAVEL_DATE);
+        search("DEL", "BOM", TRAVEL_DATE);
+        search("DEL", "BOM", TRAVEL_DATE.plusDays(1));
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "flightSearch").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "flightSearch").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testOnInventoryChanged_DropsOnlyTheChangedRouteAndDate() {
+        search("DEL", "BOM", TRAVEL_DATE);
+        search("DEL", "BOM", TRAVEL_DATE.plusDays(1));
+
+        cache.onInventoryChanged(new FlightInventoryChangedEvent(1L, "DEL", "BOM", TRAVEL_DATE, false));
+        search("DEL", "BOM", TRAVEL_DATE);
+        search("DEL", "BOM", TRAVEL_DATE.plusDays(1));
+        assertEquals(3, loads.get());
+
+        cache.onInventoryChanged(FlightInventoryChangedEvent.all());
+        search("DEL", "BOM", TRAVEL_DATE.plusDays(1));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testGet_DoesNotCacheResultLoadedDuringAChange() {
+        Supplier<Flux<FlightInventory>> racingLoader = () -> Flux.defer(() -> {
+            loads.incrementAndGet();
+            cache.onInventoryChanged(new FlightInventoryChangedEvent(1L, "DEL", "BOM", TRAVEL_DATE, false));
+            return Flux.just(flight);
+        });
+
+        StepVerifier.create(cache.get("DEL", "BOM", TRAVEL_DATE, racingLoader)).expectNext(flight).verifyComplete();
+        search("DEL", "BOM", TRAVEL_DATE);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGet_DisabledAlwaysLoads() {
+        properties.setEnabled(false);
+
+        search("DEL", "BOM", TRAVEL_DATE);
+        search("DEL", "BOM", TRAVEL_DATE);
+
+        assertEquals(2, loads.get());
+    }
+}
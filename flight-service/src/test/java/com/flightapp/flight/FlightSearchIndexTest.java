@@ -0,0 +1,175 @@
+package com.flightapp.flight;
+
+import com.flightapp.flight.config.FlightSearchIndexProperties;
+import com.flightapp.flight.config.HotSeatProperties;
+import com.flightapp.flight.dto.FareCalendarDay;
+import com.flightapp.flight.entity.FlightInventory;
+import com.flightapp.flight.repository.FlightInventoryBatchWriter;
+import com.flightapp.flight.repository.FlightInventoryRepository;
+import com.flightapp.flight.service.FlightSearchIndex;
+import com.flightapp.flight.service.HotSeatCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlightSearchIndexTest {
+
+    private static final LocalDate TRAVEL_DATE = LocalDate.of(2025, 12, 15);
+
+    @Mock
+    private FlightInventoryRepository flightInventoryRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FlightSearchIndexProperties properties;
+    private HotSeatCounters hotSeatCounters;
+    private FlightSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new FlightSearchIndexProperties();
+        hotSeatCounters = spy(new HotSeatCounters(flightInventoryRepository, mock(FlightInventoryBatchWriter.class),
+                new HotSeatProperties(), meterRegistry));
+        index = new FlightSearchIndex(flightInventoryRepository, hotSeatCounters, properties, meterRegistry);
+    }
+
+    private FlightInventory flight(Long id, String origin, String destination, LocalDateTime departure, int seats) {
+        return FlightInventory.builder()
+                .id(id)
+                .flightNumber("FL" + id)
+                .airline("Air India")
+                .origin(origin)
+                .destination(destination)
+                .departureTime(departure)
+                .arrivalTime(departure.plusHours(2))
+                .availableSeats(seats)
+                .price(5000.0)
+                .status("ACTIVE")
+                .build();
+    }
+
+    private Optional<List<FlightInventory>> searchDay(String origin, String destination) {
+        return index.search(origin, destination, TRAVEL_DATE.atStartOfDay(), TRAVEL_DATE.atTime(LocalTime.MAX));
+    }
+
+    @Test
+    void testSearch_FallsBackBeforeFirstLoad() {
+        assertTrue(searchDay("DEL", "BOM").isEmpty());
+        assertEquals(1.0, meterRegistry.get("flight.search.index.lookups").tag("outcome", "fallback").counter().count());
+    }
+
+    @Test
+    void testSearch_ReturnsRouteFlightsInDepartureOrder() {
+        FlightInventory late = flight(1L, "DEL", "BOM", TRAVEL_DATE.atTime(18, 0), 10);
+        FlightInventory early = flight(2L, "DEL", "BOM", TRAVEL_DATE.atTime(6, 0), 10);
+        FlightInventory nextDay = flight(3L, "DEL", "BOM", TRAVEL_DATE.plusDays(1).atTime(6, 0), 10);
+        FlightInventory soldOut = flight(4L, "DEL", "BOM", TRAVEL_DATE.atTime(9, 0), 0);
+        FlightInventory otherRoute = flight(5L, "DEL", "BLR", TRAVEL_DATE.atTime(9, 0), 10);
+        when(flightInventoryRepository.findAll()).thenReturn(Flux.just(late, early, nextDay, soldOut, otherRoute));
+
+        StepVerifier.create(index.rebuild()).verifyComplete();
+
+        assertEquals(List.of(early, late), searchDay("del", "bom").orElseThrow());
+        assertEquals(5, index.size());
+        assertTrue(index.estimatedBytes() > 0);
+        assertEquals(1.0, meterRegistry.get("flight.search.index.lookups").tag("outcome", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("flight.search.index.rebuild").timer().count());
+    }
+
+    @Test
+    void testFareCalendar_AggregatesPerDay() {
+        FlightInventory cheap = flight(1L, "DEL", "BOM", TRAVEL_DATE.atTime(6, 0), 10);
+        cheap.setPrice(3000.0);
+        FlightInventory pricey = flight(2L, "DEL", "BOM", TRAVEL_DATE.atTime(18, 0), 10);
+        FlightInventory soldOutCheaper = flight(3L, "DEL", "BOM", TRAVEL_DATE.atTime(9, 0), 0);
+        soldOutCheaper.setPrice(1000.0);
+        FlightInventory nextDay = flight(4L, "DEL", "BOM", TRAVEL_DATE.plusDays(1).atTime(6, 0), 10);
+        when(flightInventoryRepository.findAll()).thenReturn(Flux.just(cheap, pricey, soldOutCheaper, nextDay));
+        StepVerifier.create(index.rebuild()).verifyComplete();
+
+        List<FareCalendarDay> days = index.fareCalendar("DEL", "BOM",
+                TRAVEL_DATE.minusDays(1).atStartOfDay(), TRAVEL_DATE.plusDays(1).atTime(LocalTime.MAX)).orElseThrow();
+
+        assertEquals(List.of(
+                FareCalendarDay.builder().travelDate(TRAVEL_DATE).cheapestPrice(3000.0).flightCount(2L).build(),
+                FareCalendarDay.builder().travelDate(TRAVEL_DATE.plusDays(1)).cheapestPrice(5000.0).flightCount(1L).build()),
+                days);
+    }
+
+    @Test
+    void testSearch_UnknownRouteIsEmptyHit() {
+        when(flightInventoryRepository.findAll()).thenReturn(Flux.empty());
+
+        StepVerifier.create(index.rebuild()).verifyComplete();
+
+        assertEquals(List.of(), searchDay("DEL", "GOI").orElseThrow());
+    }
+
+    @Test
+    void testAdjustSeats_UpdatesAvailability() {
+        FlightInventory flight = flight(1L, "DEL", "BOM", TRAVEL_DATE.atTime(8, 0), 2);
+        when(flightInventoryRepository.findAll()).thenReturn(Flux.just(flight));
+        StepVerifier.create(index.rebuild()).verifyComplete();
+
+        index.adjustSeats(1L, -2);
+        assertEquals(List.of(), searchDay("DEL", "BOM").orElseThrow());
+
+        index.adjustSeats(1L, 3);
+        assertEquals(3, searchDay("DEL", "BOM").orElseThrow().get(0).getAvailableSeats());
+    }
+
+    @Test
+    void testRebuild_CountsPooledSeatsAsAvailable() {
+        // 4 seats left in the row, 6 more leased to this instance's hot-flight counter
+        FlightInventory flight = flight(1L, "DEL", "BOM", TRAVEL_DATE.atTime(8, 0), 4);
+        when(flightInventoryRepository.findAll()).thenReturn(Flux.just(flight));
+        doReturn(6).when(hotSeatCounters).pooledSeats(1L);
+        StepVerifier.create(index.rebuild()).verifyComplete();
+
+        assertEquals(10, index.get(1L).orElseThrow().getAvailableSeats());
+
+        // Selling from the pool moves the count by the seats sold, not by the lease
+        index.adjustSeats(1L, -2);
+        assertEquals(8, searchDay("DEL", "BOM").orElseThrow().get(0).getAvailableSeats());
+    }
+
+    @Test
+    void testPut_AddsAndMovesFlights() {
+        when(flightInventoryRepository.findAll()).thenReturn(Flux.empty());
+        StepVerifier.create(index.rebuild()).verifyComplete();
+
+        FlightInventory added = flight(1L, "DEL", "BOM", TRAVEL_DATE.atTime(8, 0), 5);
+        index.put(added);
+        assertEquals(List.of(added), searchDay("DEL", "BOM").orElseThrow());
+
+        FlightInventory rescheduled = added.toBuilder().departureTime(TRAVEL_DATE.plusDays(1).atTime(8, 0)).build();
+        index.put(rescheduled);
+        assertEquals(List.of(), searchDay("DEL", "BOM").orElseThrow());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testSearch_DisabledAlwaysFallsBack() {
+        when(flightInventoryRepository.findAll()).thenReturn(Flux.empty());
+        StepVerifier.create(index.rebuild()).verifyComplete();
+
+        properties.setEnabled(false);
+
+        assertTrue(searchDay("DEL", "BOM").isEmpty());
+    }
+}
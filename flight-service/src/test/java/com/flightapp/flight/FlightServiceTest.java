@@ -1,16 +1,37 @@
 package com.flightapp.flight;
 
+import com.flightapp.flight.config.FlightInventoryListProperties;
+import com.flightapp.flight.config.FlightMetricsProperties;
+import com.flightapp.flight.config.FlightSearchCacheProperties;
+import com.flightapp.flight.config.ItinerarySearchProperties;
+import com.flightapp.flight.dto.FareCalendarDay;
+import com.flightapp.flight.dto.FareCalendarRequest;
 import com.flightapp.flight.dto.FlightInventoryRequest;
 import com.flightapp.flight.dto.FlightSearchRequest;
+import com.flightapp.flight.dto.Itinerary;
+import com.flightapp.flight.dto.ItinerarySearchRequest;
 import com.flightapp.flight.entity.FlightInventory;
 import com.flightapp.flight.repository.FlightInventoryRepository;
+import com.flightapp.flight.service.FareCalendarCache;
+import com.flightapp.flight.service.FlightInventoryChangedEvent;
+import com.flightapp.flight.service.FlightSearchCache;
+import com.flightapp.flight.service.FlightSearchIndex;
 import com.flightapp.flight.service.FlightServiceImpl;
+import com.flightapp.flight.service.FlightServiceMetrics;
+import com.flightapp.flight.service.HotSeatCounters;
+import com.flightapp.flight.service.InventoryCursor;
+import com.flightapp.flight.service.InventorySortOrder;
+import com.flightapp.flight.service.ItinerarySearchEngine;
+import com.flightapp.flight.service.ItinerarySortOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -18,8 +39,16 @@ import reactor.test.StepVerifier;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +57,37 @@ class FlightServiceTest {
     @Mock
     private FlightInventoryRepository flightInventoryRepository;
 
+    @Mock
+    private FlightSearchIndex flightSearchIndex;
+
+    @Spy
+    private FlightSearchCache flightSearchCache =
+            new FlightSearchCache(new FlightSearchCacheProperties(), new SimpleMeterRegistry());
+
+    @Mock
+    private FareCalendarCache fareCalendarCache;
+
+    @Mock
+    private HotSeatCounters hotSeatCounters;
+
+    @Mock
+    private ItinerarySearchEngine itinerarySearchEngine;
+
+    @Spy
+    private ItinerarySearchProperties itinerarySearchProperties = new ItinerarySearchProperties();
+
+    @Spy
+    private FlightInventoryListProperties inventoryListProperties = new FlightInventoryListProperties();
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private FlightServiceMetrics metrics = new FlightServiceMetrics(meterRegistry, new FlightMetricsProperties());
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private FlightServiceImpl flightService;
 
@@ -81,6 +141,160 @@ class FlightServiceTest {
         verify(flightInventoryRepository, times(1))
                 .findByOriginAndDestinationAndDepartureTimeBetween(
                         anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class));
+        assertEquals(1, meterRegistry.get("flight.service.requests")
+                .tag("operation", "searchFlights").tag("outcome", "success").timer().count());
+        assertEquals(1.0, meterRegistry.get("flight.search.results").summary().totalAmount());
+    }
+
+    @Test
+    void testSearchFlights_NormalizesAirportCodes() {
+        searchRequest.setOrigin(" del");
+        searchRequest.setDestination("Bom ");
+        when(flightInventoryRepository.findByOriginAndDestinationAndDepartureTimeBetween(
+                eq("DEL"), eq("BOM"), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Flux.just(testFlight));
+
+        StepVerifier.create(flightService.searchFlights(searchRequest))
+                .expectNext(testFlight)
+                .verifyComplete();
+
+        verify(flightSearchIndex, times(1))
+                .search(eq("DEL"), eq("BOM"), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetFareCalendar_FillsDaysWithoutFlights() {
+        FareCalendarRequest calendarRequest = FareCalendarRequest.builder()
+                .origin("del")
+                .destination("bom")
+                .travelDate(LocalDate.of(2025, 12, 15))
+                .windowDays(1)
+                .build();
+        FareCalendarDay cheapest = FareCalendarDay.builder()
+                .travelDate(LocalDate.of(2025, 12, 15))
+                .cheapestPrice(4500.0)
+                .flightCount(2L)
+                .build();
+        when(fareCalendarCache.get(eq("DEL"), eq("BOM"), eq(LocalDate.of(2025, 12, 14)), eq(LocalDate.of(2025, 12, 16)), any()))
+                .thenAnswer(invocation -> ((Supplier<Mono<List<FareCalendarDay>>>) invocation.getArgument(4)).get());
+        when(flightInventoryRepository.findFareCalendar(eq("DEL"), eq("BOM"), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Flux.just(cheapest));
+
+        StepVerifier.create(flightService.getFareCalendar(calendarRequest))
+                .expectNextMatches(day -> day.getTravelDate().equals(LocalDate.of(2025, 12, 14)) && day.getFlightCount() == 0)
+                .expectNext(cheapest)
+                .expectNextMatches(day -> day.getTravelDate().equals(LocalDate.of(2025, 12, 16)) && day.getCheapestPrice() == null)
+                .verifyComplete();
+    }
+
+    @Test
+    void testSearchFlights_ServedFromIndex() {
+        when(flightSearchIndex.search(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(List.of(testFlight)));
+
+        StepVerifier.create(flightService.searchFlights(searchRequest))
+                .expectNext(testFlight)
+                .verifyComplete();
+
+        verify(flightInventoryRepository, never())
+                .findByOriginAndDestinationAndDepartureTimeBetween(
+                        anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testSearchItineraries_LoadsConnectionWindowAndRanks() {
+        LocalDate travelDate = LocalDate.of(2025, 12, 15);
+        Itinerary itinerary = Itinerary.builder().legs(List.of(testFlight)).stops(0).build();
+        when(flightSearchIndex.departingBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(flightInventoryRepository.findByDepartureTimeBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Flux.just(testFlight));
+        when(itinerarySearchEngine.searchAsync(anyCollection(), eq("DEL"), eq("BOM"),
+                any(LocalDateTime.class), any(LocalDateTime.class), eq(1), eq(ItinerarySortOrder.PRICE), eq(5)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(itinerary)));
+
+        ItinerarySearchRequest request = ItinerarySearchRequest.builder()
+                .origin("del")
+                .destination(" bom ")
+                .travelDate(travelDate)
+                .maxStops(1)
+                .sortBy("PRICE")
+                .limit(5)
+                .build();
+
+        StepVerifier.create(flightService.searchItineraries(request))
+                .expectNext(itinerary)
+                .verifyComplete();
+
+        verify(flightInventoryRepository).findByDepartureTimeBetween(
+                travelDate.atStartOfDay(), travelDate.atTime(LocalTime.MAX).plusHours(12));
+    }
+
+    @Test
+    void testGetInventoryPage_ReturnsCursorWhenMoreRowsExist() {
+        FlightInventory second = testFlight.toBuilder().id(2L).flightNumber("AI102").build();
+        FlightInventory third = testFlight.toBuilder().id(3L).flightNumber("AI103").build();
+        when(flightInventoryRepository.findPageOrderById(0L, 3)).thenReturn(Flux.just(testFlight, second, third));
+
+        StepVerifier.create(flightService.getInventoryPage(InventorySortOrder.ID, InventoryCursor.start(), 2))
+                .assertNext(page -> {
+                    assertEquals(List.of(testFlight, second), page.getItems());
+                    assertEquals("2", page.getNextCursor());
+                })
+                .verifyComplete();
+
+        assertEquals(2.0, meterRegistry.get("flight.inventory.listed").tag("mode", "page").counter().count());
+    }
+
+    @Test
+    void testGetInventoryPage_CapsPageSize() {
+        when(flightInventoryRepository.findPageOrderByDepartureTime(any(LocalDateTime.class), eq(0L), eq(501)))
+                .thenReturn(Flux.just(testFlight));
+
+        StepVerifier.create(flightService.getInventoryPage(InventorySortOrder.DEPARTURE_TIME, InventoryCursor.start(), 10_000))
+                .assertNext(page -> assertNull(page.getNextCursor()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testStreamInventory_FetchesKeysetChunks() {
+        inventoryListProperties.setStreamChunkSize(2);
+        FlightInventory second = testFlight.toBuilder().id(2L).flightNumber("AI102").build();
+        FlightInventory third = testFlight.toBuilder().id(3L).flightNumber("AI103").build();
+        when(flightInventoryRepository.findPageOrderById(0L, 2)).thenReturn(Flux.just(testFlight, second));
+        when(flightInventoryRepository.findPageOrderById(2L, 2)).thenReturn(Flux.just(third));
+
+        StepVerifier.create(flightService.streamInventory(InventorySortOrder.ID, InventoryCursor.start()))
+                .expectNext(testFlight, second, third)
+                .verifyComplete();
+
+        assertEquals(3.0, meterRegistry.get("flight.inventory.listed").tag("mode", "stream").counter().count());
+    }
+
+    @Test
+    void testInventoryCursor_RoundTripsDepartureTime() {
+        InventoryCursor cursor = InventoryCursor.after(testFlight);
+
+        assertEquals(cursor, InventoryCursor.decode(InventorySortOrder.DEPARTURE_TIME,
+                cursor.encode(InventorySortOrder.DEPARTURE_TIME)));
+        assertThrows(IllegalArgumentException.class,
+                () -> InventoryCursor.decode(InventorySortOrder.DEPARTURE_TIME, "not-a-cursor"));
+    }
+
+    @Test
+    void testSearchFlights_CachedUntilRouteChanges() {
+        when(flightSearchIndex.search(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(List.of(testFlight)));
+
+        StepVerifier.create(flightService.searchFlights(searchRequest)).expectNext(testFlight).verifyComplete();
+        StepVerifier.create(flightService.searchFlights(searchRequest)).expectNext(testFlight).verifyComplete();
+        verify(flightSearchIndex, times(1)).search(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class));
+
+        flightSearchCache.onInventoryChanged(FlightInventoryChangedEvent.of(testFlight));
+
+        StepVerifier.create(flightService.searchFlights(searchRequest)).expectNext(testFlight).verifyComplete();
+        verify(flightSearchIndex, times(2)).search(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
     @Test
@@ -95,6 +309,23 @@ class FlightServiceTest {
                 .verifyComplete();
 
         verify(flightInventoryRepository, times(1)).save(any(FlightInventory.class));
+        verify(flightSearchIndex, times(1)).put(testFlight);
+        verify(eventPublisher).publishEvent(FlightInventoryChangedEvent.of(testFlight));
+    }
+
+    @Test
+    void testAddInventory_NormalizesAirportCodes() {
+        testRequest.setOrigin(" del ");
+        testRequest.setDestination("bom");
+        when(flightInventoryRepository.save(any(FlightInventory.class)))
+                .thenReturn(Mono.just(testFlight));
+
+        StepVerifier.create(flightService.addInventory(testRequest))
+                .expectNext(testFlight)
+                .verifyComplete();
+
+        verify(flightInventoryRepository).save(argThat(flight ->
+                flight.getOrigin().equals("DEL") && flight.getDestination().equals("BOM")));
     }
 
     @Test
@@ -107,6 +338,8 @@ class FlightServiceTest {
                 .verifyComplete();
 
         verify(flightInventoryRepository, times(1)).findById(1L);
+        assertEquals(1, meterRegistry.get("flight.service.requests")
+                .tag("operation", "getFlightById").tag("outcome", "success").timer().count());
     }
 
     @Test
@@ -119,6 +352,24 @@ class FlightServiceTest {
                 .verifyComplete();
 
         verify(flightInventoryRepository, times(1)).reduceAvailableSeats(1L, 2);
+        verify(flightSearchIndex, times(1)).adjustSeats(1L, -2);
+        verify(eventPublisher).publishEvent(FlightInventoryChangedEvent.all());
+    }
+
+    @Test
+    void testReduceSeats_NotUpdated() {
+        when(flightInventoryRepository.reduceAvailableSeats(1L, 200))
+                .thenReturn(Mono.just(0));
+
+        StepVerifier.create(flightService.reduceSeats(1L, 200))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(flightSearchIndex, never()).adjustSeats(anyLong(), anyInt());
+        verifyNoInteractions(eventPublisher);
+        assertEquals(1.0, meterRegistry.get("flight.seats.reduce.failures").counter().count());
+        assertEquals(1, meterRegistry.get("flight.service.requests")
+                .tag("operation", "reduceSeats").tag("outcome", "success").timer().count());
     }
 
     @Test
@@ -131,5 +382,81 @@ class FlightServiceTest {
                 .verifyComplete();
 
         verify(flightInventoryRepository, times(1)).increaseAvailableSeats(1L, 2);
+        verify(flightSearchIndex, times(1)).adjustSeats(1L, 2);
+    }
+
+    @Test
+    void testReserveSeats_QuotesFromIndex() {
+        FlightInventory afterReduction = testFlight.toBuilder().availableSeats(148).build();
+        when(flightInventoryRepository.reduceAvailableSeats(1L, 2)).thenReturn(Mono.just(1));
+        when(flightSearchIndex.adjustSeats(1L, -2)).thenReturn(afterReduction);
+        when(flightSearchIndex.get(1L)).thenReturn(Optional.of(afterReduction));
+
+        StepVerifier.create(flightService.reserveSeats(1L, 2))
+                .assertNext(reservation -> {
+                    assertTrue(reservation.isReserved());
+                    assertEquals("AI101", reservation.getFlightNumber());
+                    assertEquals(5000.0, reservation.getUnitPrice());
+                    assertEquals(148, reservation.getRemainingSeats());
+                })
+                .verifyComplete();
+
+        verify(flightInventoryRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testReserveSeats_NotEnoughSeatsQuotesFromDatabase() {
+        when(flightInventoryRepository.reduceAvailableSeats(1L, 200)).thenReturn(Mono.just(0));
+        when(flightInventoryRepository.findById(1L)).thenReturn(Mono.just(testFlight));
+        when(hotSeatCounters.withPooledSeats(testFlight))
+                .thenReturn(testFlight.toBuilder().availableSeats(testFlight.getAvailableSeats() + 10).build());
+
+        StepVerifier.create(flightService.reserveSeats(1L, 200))
+                .assertNext(reservation -> {
+                    assertFalse(reservation.isReserved());
+                    assertEquals(testFlight.getAvailableSeats() + 10, reservation.getRemainingSeats());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testReserveSeats_UnknownFlight() {
+        when(flightInventoryRepository.reduceAvailableSeats(99L, 2)).thenReturn(Mono.just(0));
+        when(flightInventoryRepository.findById(99L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(flightService.reserveSeats(99L, 2))
+                .verifyComplete();
+    }
+
+    @Test
+    void testReduceSeats_HotFlightServedFromCounter() {
+        when(hotSeatCounters.recordDemand(1L)).thenReturn(true);
+        when(hotSeatCounters.reduce(1L, 2)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(flightService.reduceSeats(1L, 2))
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(flightInventoryRepository, never()).reduceAvailableSeats(anyLong(), anyInt());
+        verify(flightSearchIndex).adjustSeats(1L, -2);
+    }
+
+    @Test
+    void testReduceSeats_TouchesCountersOnlyOnSubscribe() {
+        flightService.reduceSeats(1L, 2);
+        flightService.restoreSeats(1L, 2);
+
+        verifyNoInteractions(hotSeatCounters);
+    }
+
+    @Test
+    void testRestoreSeats_HotFlightKeptInCounter() {
+        when(hotSeatCounters.restore(1L, 2)).thenReturn(true);
+
+        StepVerifier.create(flightService.restoreSeats(1L, 2))
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(flightInventoryRepository, never()).increaseAvailableSeats(anyLong(), anyInt());
     }
 }
@@ -0,0 +1,254 @@
+package com.flightapp.flight;
+
+import com.flightapp.flight.config.HotSeatProperties;
+import com.flightapp.flight.repository.FlightInventoryBatchWriter;
+import com.flightapp.flight.repository.FlightInventoryRepository;
+import com.flightapp.flight.service.HotSeatCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HotSeatCountersTest {
+
+    private static final Long FLIGHT_ID = 1L;
+
+    @Mock
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Mock
+    private FlightInventoryBatchWriter batchWriter;
+
+    private SimpleMeterRegistry meterRegistry;
+    private HotSeatProperties properties;
+    private HotSeatCounters counters;
+
+    // Stands in for flight_inventory.available_seats, with the same guarded decrement as MySQL
+    private AtomicInteger databaseSeats;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new HotSeatProperties();
+        properties.setEnabled(true);
+        properties.setPromotionThreshold(3);
+        properties.setLeaseSize(10);
+        properties.setMaxPooledSeats(20);
+        counters = new HotSeatCounters(flightInventoryRepository, batchWriter, properties, meterRegistry);
+
+        databaseSeats = new AtomicInteger(100);
+        when(flightInventoryRepository.reduceAvailableSeats(eq(FLIGHT_ID), anyInt())).thenAnswer(invocation -> {
+            int seats = invocation.getArgument(1);
+            while (true) {
+                int current = databaseSeats.get();
+                if (current < seats) {
+                    return Mono.just(0);
+                }
+                if (databaseSeats.compareAndSet(current, current - seats)) {
+                    return Mono.just(1);
+                }
+            }
+        });
+        when(batchWriter.adjustSeats(anyMap())).thenAnswer(invocation -> {
+            Map<Long, Integer> deltas = invocation.getArgument(0);
+            deltas.values().forEach(databaseSeats::addAndGet);
+            return Mono.just(deltas.size());
+        });
+    }
+
+    private void makeHot() {
+        for (int i = 0; i < properties.getPromotionThreshold(); i++) {
+            counters.recordDemand(FLIGHT_ID);
+        }
+    }
+
+    @Test
+    void testRecordDemand_PromotesAfterThreshold() {
+        assertFalse(counters.recordDemand(FLIGHT_ID));
+        assertFalse(counters.recordDemand(FLIGHT_ID));
+        assertTrue(counters.recordDemand(FLIGHT_ID));
+        assertEquals(1.0, meterRegistry.get("flight.seats.hot.flights").gauge().value());
+    }
+
+    @Test
+    void testRecordDemand_DisabledNeverPromotes() {
+        properties.setEnabled(false);
+
+        makeHot();
+
+        assertFalse(counters.recordDemand(FLIGHT_ID));
+    }
+
+    @Test
+    void testReduce_LeasesThenServesFromCounter() {
+        makeHot();
+
+        StepVerifier.create(counters.reduce(FLIGHT_ID, 2)).expectNext(true).verifyComplete();
+        assertEquals(90, databaseSeats.get());
+        assertEquals(8, counters.pooledSeats(FLIGHT_ID));
+
+        StepVerifier.create(counters.reduce(FLIGHT_ID, 3)).expectNext(true).verifyComplete();
+        assertEquals(90, databaseSeats.get());
+        assertEquals(5, counters.pooledSeats(FLIGHT_ID));
+        assertEquals(1.0, meterRegistry.get("flight.seats.hot.requests").tag("path", "pool").counter().count());
+    }
+
+    @Test
+    void testReduce_TakesExactSeatsWhenLessThanALeaseIsLeft() {
+        databaseSeats.set(4);
+        makeHot();
+
+        StepVerifier.create(counters.reduce(FLIGHT_ID, 3)).expectNext(true).verifyComplete();
+        StepVerifier.create(counters.reduce(FLIGHT_ID, 3)).expectNext(false).verifyComplete();
+
+        assertEquals(1, databaseSeats.get());
+    }
+
+    @Test
+    void testRestore_BoundedByMaxPooledSeats() {
+        makeHot();
+
+        assertTrue(counters.restore(FLIGHT_ID, 15));
+        assertFalse(counters.restore(FLIGHT_ID, 10));
+        assertEquals(15, counters.pooledSeats(FLIGHT_ID));
+    }
+
+    @Test
+    void testFlush_ReturnsSurplusAndDrainsQuietFlights() {
+        makeHot();
+        counters.restore(FLIGHT_ID, 18);
+
+        // Still in demand: keep one lease, return the rest
+        StepVerifier.create(counters.flush()).verifyComplete();
+        assertEquals(108, databaseSeats.get());
+        assertEquals(10, counters.pooledSeats(FLIGHT_ID));
+
+        // No requests since the last flush: return everything
+        StepVerifier.create(counters.flush()).verifyComplete();
+        assertEquals(118, databaseSeats.get());
+        assertEquals(0, counters.pooledSeats(FLIGHT_ID));
+    }
+
+    @Test
+    void testFlush_DemotesQuietFlights() {
+        makeHot();
+        StepVerifier.create(counters.reduce(FLIGHT_ID, 2)).expectNext(true).verifyComplete();
+
+        // Busy window ends, then a flush with no requests in between
+        counters.flush().block();
+        counters.flush().block();
+
+        assertEquals(98, databaseSeats.get());
+        assertEquals(0.0, meterRegistry.get("flight.seats.hot.flights").gauge().value());
+        assertFalse(counters.restore(FLIGHT_ID, 2));
+        assertFalse(counters.recordDemand(FLIGHT_ID));
+    }
+
+    @Test
+    void testFlush_RetiredPoolSendsStaleCallersToDatabase() {
+        makeHot();
+        counters.restore(FLIGHT_ID, 4);
+        counters.flush().block();
+        counters.flush().block();
+
+        // A request that saw the flight as hot before it was demoted
+        StepVerifier.create(counters.reduce(FLIGHT_ID, 3)).expectNext(true).verifyComplete();
+
+        assertEquals(101, databaseSeats.get());
+        assertEquals(0, counters.pooledSeats(FLIGHT_ID));
+    }
+
+    @Test
+    void testFlush_KeepsSeatsWhenWriteFails() {
+        makeHot();
+        counters.restore(FLIGHT_ID, 5);
+        when(batchWriter.adjustSeats(anyMap())).thenReturn(Mono.error(new RuntimeException("db down")));
+        // Ends the busy window; 5 seats are below one lease so nothing is written yet
+        counters.flush().block();
+
+        StepVerifier.create(counters.flush()).verifyComplete();
+
+        verify(batchWriter).adjustSeats(Map.of(FLIGHT_ID, 5));
+        assertEquals(5, counters.pooledSeats(FLIGHT_ID));
+    }
+
+    @Test
+    void testStress_NeverOversellsUnderContention() throws Exception {
+        int totalSeats = 1_000;
+        int threads = 32;
+        int requestsPerThread = 500;
+        databaseSeats.set(totalSeats);
+        makeHot();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger restored = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < requestsPerThread; i++) {
+                    int seats = 1 + ThreadLocalRandom.current().nextInt(3);
+                    counters.recordDemand(FLIGHT_ID);
+                    if (Boolean.TRUE.equals(counters.reduce(FLIGHT_ID, seats).block())) {
+                        sold.addAndGet(seats);
+                        // Some bookings fail later and give their seats back
+                        if (ThreadLocalRandom.current().nextInt(10) == 0) {
+                            if (!counters.restore(FLIGHT_ID, seats)) {
+                                databaseSeats.addAndGet(seats);
+                            }
+                            sold.addAndGet(-seats);
+                            restored.incrementAndGet();
+                        }
+                    }
+                    if (i % 100 == 0) {
+                        counters.flush().block();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Two quiet flushes hand every pooled seat back
+        counters.flush().block();
+        counters.flush().block();
+
+        assertTrue(restored.get() > 0);
+        assertEquals(0, counters.pooledSeats(FLIGHT_ID));
+        assertTrue(databaseSeats.get() >= 0);
+        assertTrue(sold.get() <= totalSeats);
+        assertEquals(totalSeats, sold.get() + databaseSeats.get());
+        assertTrue(meterRegistry.get("flight.seats.hot.requests").tag("path", "pool").counter().count() > 0);
+    }
+}
@@ -0,0 +1,139 @@
+package com.flightapp.flight;
+
+import com.flightapp.flight.config.FlightSearchCacheProperties;
+import com.flightapp.flight.service.FlightInventoryChangedEvent;
+import com.flightapp.flight.service.FlightSearchIndex;
+import com.flightapp.flight.service.InventoryChangeBroadcaster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class InventoryChangeBroadcasterTest {
+
+    @Mock
+    private DiscoveryClient discoveryClient;
+
+    @Mock
+    private ObjectProvider<Registration> registrationProvider;
+
+    @Mock
+    private Registration registration;
+
+    @Mock
+    private FlightSearchIndex flightSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final List<ClientRequest> sent = new CopyOnWriteArrayList<>();
+    private FlightSearchCacheProperties properties;
+    private InventoryChangeBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FlightSearchCacheProperties();
+        properties.setBroadcastWindow(Duration.ofMillis(20));
+        when(registrationProvider.getIfAvailable()).thenReturn(registration);
+        when(registration.getServiceId()).thenReturn("flight-service");
+        when(registration.getInstanceId()).thenReturn("flight-service:self");
+        when(discoveryClient.getInstances("flight-service")).thenReturn(List.of(
+                new DefaultServiceInstance("flight-service:self", "flight-service", "10.0.0.1", 8081, false),
+                new DefaultServiceInstance("flight-service:peer", "flight-service", "10.0.0.2", 8081, false)));
+
+        WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> {
+            sent.add(request);
+            return Mono.just(ClientResponse.create(HttpStatus.NO_CONTENT).build());
+        });
+        broadcaster = new InventoryChangeBroadcaster(discoveryClient, registrationProvider, flightSearchIndex,
+                eventPublisher, properties, webClientBuilder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.stop();
+    }
+
+    private FlightInventoryChangedEvent change(Long flightId) {
+        return new FlightInventoryChangedEvent(flightId, "DEL", "BOM", LocalDate.of(2025, 12, 15), false);
+    }
+
+    @Test
+    void testOnInventoryChanged_SendsCoalescedBatchToPeersOnly() throws InterruptedException {
+        broadcaster.start();
+
+        broadcaster.onInventoryChanged(change(1L));
+        broadcaster.onInventoryChanged(change(1L));
+        broadcaster.onInventoryChanged(change(2L));
+        broadcaster.onInventoryChanged(change(3L).asFromPeer());
+
+        for (int i = 0; i < 50 && sent.isEmpty(); i++) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(50);
+
+        assertEquals(1, sent.size());
+        assertEquals("http://10.0.0.2:8081" + InventoryChangeBroadcaster.PEER_PATH, sent.get(0).url().toString());
+    }
+
+    @Test
+    void testOnInventoryChanged_IgnoredWhenBroadcastDisabled() throws InterruptedException {
+        properties.setBroadcastEnabled(false);
+        broadcaster.start();
+
+        broadcaster.onInventoryChanged(change(1L));
+        Thread.sleep(100);
+
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    void testReceive_RefreshesIndexAndPublishesLocally() {
+        when(flightSearchIndex.isLoaded()).thenReturn(true);
+        when(flightSearchIndex.refresh(1L)).thenReturn(Mono.empty());
+        when(flightSearchIndex.rebuild()).thenReturn(Mono.empty());
+
+        StepVerifier.create(broadcaster.receive(List.of(change(1L), FlightInventoryChangedEvent.all())))
+                .verifyComplete();
+
+        verify(flightSearchIndex).refresh(1L);
+        verify(flightSearchIndex).rebuild();
+        verify(eventPublisher).publishEvent(change(1L).asFromPeer());
+        verify(eventPublisher).publishEvent(FlightInventoryChangedEvent.all().asFromPeer());
+    }
+
+    @Test
+    void testReceive_SkipsIndexWhenNotLoaded() {
+        when(flightSearchIndex.isLoaded()).thenReturn(false);
+
+        StepVerifier.create(broadcaster.receive(List.of(change(1L)))).verifyComplete();
+
+        verify(flightSearchIndex, never()).refresh(anyLong());
+        verify(eventPublisher).publishEvent(change(1L).asFromPeer());
+    }
+}
@@ -0,0 +1,119 @@
+package com.flightapp.flight;
+
+import com.flightapp.flight.config.ItinerarySearchProperties;
+import com.flightapp.flight.dto.Itinerary;
+import com.flightapp.flight.entity.FlightInventory;
+import com.flightapp.flight.service.ItinerarySearchEngine;
+import com.flightapp.flight.service.ItinerarySortOrder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItinerarySearchEngineTest {
+
+    private static final LocalDate TRAVEL_DATE = LocalDate.of(2025, 12, 15);
+
+    private ItinerarySearchEngine engine;
+    private long nextId;
+
+    @BeforeEach
+    void setUp() {
+        ItinerarySearchProperties properties = new ItinerarySearchProperties();
+        properties.setParallelism(2);
+        engine = new ItinerarySearchEngine(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    private FlightInventory flight(String origin, String destination, int departHour, int durationHours, double price) {
+        LocalDateTime departure = TRAVEL_DATE.atTime(departHour, 0);
+        nextId++;
+        return FlightInventory.builder()
+                .id(nextId)
+                .flightNumber("FL" + nextId)
+                .airline("Air India")
+                .origin(origin)
+                .destination(destination)
+                .departureTime(departure)
+                .arrivalTime(departure.plusHours(durationHours))
+                .availableSeats(10)
+                .price(price)
+                .status("ACTIVE")
+                .build();
+    }
+
+    private List<Itinerary> search(List<FlightInventory> flights, int maxStops, ItinerarySortOrder sortOrder, int limit) {
+        return engine.searchAsync(flights, "DEL", "BLR",
+                TRAVEL_DATE.atStartOfDay(), TRAVEL_DATE.atTime(LocalTime.MAX), maxStops, sortOrder, limit).join();
+    }
+
+    @Test
+    void testSearch_FindsDirectOneStopAndTwoStopItineraries() {
+        FlightInventory direct = flight("DEL", "BLR", 6, 3, 9000.0);
+        FlightInventory toBom = flight("DEL", "BOM", 7, 2, 3000.0);
+        FlightInventory bomToBlr = flight("BOM", "BLR", 10, 2, 2500.0);
+        FlightInventory bomToGoi = flight("BOM", "GOI", 10, 1, 1500.0);
+        FlightInventory goiToBlr = flight("GOI", "BLR", 12, 1, 1000.0);
+
+        List<Itinerary> itineraries = search(List.of(direct, toBom, bomToBlr, bomToGoi, goiToBlr), 2,
+                ItinerarySortOrder.DURATION, 10);
+
+        assertEquals(3, itineraries.size());
+        assertEquals(List.of(direct), itineraries.get(0).getLegs());
+        assertEquals(180L, itineraries.get(0).getTotalDurationMinutes());
+        assertEquals(List.of(toBom, bomToBlr), itineraries.get(1).getLegs());
+        assertEquals(1, itineraries.get(1).getStops());
+        assertEquals(List.of(toBom, bomToGoi, goiToBlr), itineraries.get(2).getLegs());
+        assertEquals(5500.0, itineraries.get(2).getTotalPrice());
+    }
+
+    @Test
+    void testSearch_SortsByPriceAndHonoursMaxStops() {
+        FlightInventory direct = flight("DEL", "BLR", 6, 3, 9000.0);
+        FlightInventory toBom = flight("DEL", "BOM", 7, 2, 3000.0);
+        FlightInventory bomToBlr = flight("BOM", "BLR", 10, 2, 2500.0);
+
+        List<Itinerary> byPrice = search(List.of(direct, toBom, bomToBlr), 1, ItinerarySortOrder.PRICE, 10);
+        assertEquals(List.of(toBom, bomToBlr), byPrice.get(0).getLegs());
+
+        List<Itinerary> directOnly = search(List.of(direct, toBom, bomToBlr), 0, ItinerarySortOrder.PRICE, 10);
+        assertEquals(1, directOnly.size());
+        assertEquals(List.of(direct), directOnly.get(0).getLegs());
+    }
+
+    @Test
+    void testSearch_RespectsConnectionWindow() {
+        FlightInventory toBom = flight("DEL", "BOM", 7, 2, 3000.0);
+        FlightInventory tooTight = flight("BOM", "BLR", 9, 2, 2500.0);
+        FlightInventory tooLate = flight("BOM", "BLR", 22, 2, 2500.0);
+
+        assertTrue(search(List.of(toBom, tooTight, tooLate), 2, ItinerarySortOrder.DURATION, 10).isEmpty());
+    }
+
+    @Test
+    void testSearch_LimitsResultsAcrossHubs() {
+        List<FlightInventory> flights = List.of(
+                flight("DEL", "BLR", 6, 3, 9000.0),
+                flight("DEL", "BLR", 8, 3, 8000.0),
+                flight("DEL", "BOM", 7, 2, 3000.0),
+                flight("BOM", "BLR", 10, 2, 2500.0),
+                flight("DEL", "HYD", 7, 2, 2000.0),
+                flight("HYD", "BLR", 10, 1, 1000.0));
+
+        List<Itinerary> cheapest = search(flights, 1, ItinerarySortOrder.PRICE, 2);
+
+        assertEquals(2, cheapest.size());
+        assertEquals(3000.0, cheapest.get(0).getTotalPrice());
+        assertEquals(5500.0, cheapest.get(1).getTotalPrice());
+    }
+}
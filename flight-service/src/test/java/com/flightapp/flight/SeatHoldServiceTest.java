@@ -0,0 +1,211 @@
+package com.flightapp.flight;
+
+import com.flightapp.flight.config.SeatHoldProperties;
+import com.flightapp.flight.entity.FlightInventory;
+import com.flightapp.flight.entity.SeatHold;
+import com.flightapp.flight.repository.FlightInventoryBatchWriter;
+import com.flightapp.flight.repository.SeatHoldRepository;
+import com.flightapp.flight.service.FlightInventoryChangedEvent;
+import com.flightapp.flight.service.FlightSearchIndex;
+import com.flightapp.flight.service.FlightService;
+import com.flightapp.flight.service.SeatHoldServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatHoldServiceTest {
+
+    @Mock
+    private SeatHoldRepository seatHoldRepository;
+
+    @Mock
+    private FlightService flightService;
+
+    @Mock
+    private FlightInventoryBatchWriter batchWriter;
+
+    @Mock
+    private FlightSearchIndex flightSearchIndex;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SeatHoldServiceImpl seatHoldService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        seatHoldService = new SeatHoldServiceImpl(seatHoldRepository, flightService, batchWriter, flightSearchIndex,
+                transactionalOperator, eventPublisher, new SeatHoldProperties(), meterRegistry);
+    }
+
+    private void runTransactionsInline() {
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private SeatHold hold(Long id, Long flightId, int seats, String status, LocalDateTime expiresAt) {
+        return SeatHold.builder()
+                .id(id)
+                .flightId(flightId)
+                .seats(seats)
+                .status(status)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    @Test
+    void testHoldSeats_ReducesInventoryAndPersistsHold() {
+        when(flightService.reduceSeats(1L, 2)).thenReturn(Mono.just(true));
+        when(seatHoldRepository.save(any(SeatHold.class)))
+                .thenAnswer(invocation -> Mono.just(((SeatHold) invocation.getArgument(0)).toBuilder().id(7L).build()));
+
+        LocalDateTime before = LocalDateTime.now();
+        StepVerifier.create(seatHoldService.holdSeats(1L, 2, Duration.ofHours(5)))
+                .assertNext(hold -> {
+                    assertEquals(7L, hold.getId());
+                    assertEquals("HELD", hold.getStatus());
+                    // Capped at the 30 minute maximum
+                    assertFalse(hold.getExpiresAt().isAfter(before.plusMinutes(30).plusSeconds(5)));
+                })
+                .verifyComplete();
+
+        assertEquals(1.0, meterRegistry.get("flight.seat.holds").tag("outcome", "created").counter().count());
+        assertEquals(1.0, meterRegistry.get("flight.seat.holds.pending").gauge().value());
+    }
+
+    @Test
+    void testHoldSeats_NotEnoughSeats() {
+        when(flightService.reduceSeats(1L, 200)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(seatHoldService.holdSeats(1L, 200, null))
+                .verifyComplete();
+
+        verify(seatHoldRepository, never()).save(any());
+    }
+
+    @Test
+    void testHoldSeats_RestoresSeatsWhenHoldCannotBeSaved() {
+        when(flightService.reduceSeats(1L, 2)).thenReturn(Mono.just(true));
+        when(flightService.restoreSeats(1L, 2)).thenReturn(Mono.just(true));
+        when(seatHoldRepository.save(any(SeatHold.class))).thenReturn(Mono.error(new RuntimeException("db down")));
+
+        StepVerifier.create(seatHoldService.holdSeats(1L, 2, null))
+                .verifyErrorMessage("db down");
+
+        verify(flightService).restoreSeats(1L, 2);
+    }
+
+    @Test
+    void testConfirmHold() {
+        SeatHold confirmed = hold(7L, 1L, 2, "CONFIRMED", LocalDateTime.now().plusMinutes(5));
+        when(seatHoldRepository.confirm(eq(7L), any(LocalDateTime.class))).thenReturn(Mono.just(1));
+        when(seatHoldRepository.findById(7L)).thenReturn(Mono.just(confirmed));
+
+        StepVerifier.create(seatHoldService.confirmHold(7L))
+                .expectNext(confirmed)
+                .verifyComplete();
+
+        verifyNoInteractions(batchWriter);
+    }
+
+    @Test
+    void testReleaseHold_ReturnsSeats() {
+        runTransactionsInline();
+        SeatHold released = hold(7L, 1L, 2, "RELEASED", LocalDateTime.now().plusMinutes(5));
+        when(seatHoldRepository.release(7L)).thenReturn(Mono.just(1));
+        when(seatHoldRepository.findById(7L)).thenReturn(Mono.just(released));
+        when(batchWriter.adjustSeats(Map.of(1L, 2))).thenReturn(Mono.just(1));
+
+        StepVerifier.create(seatHoldService.releaseHold(7L))
+                .expectNext(released)
+                .verifyComplete();
+
+        verify(flightSearchIndex).adjustSeats(1L, 2);
+        verify(eventPublisher).publishEvent(FlightInventoryChangedEvent.all());
+    }
+
+    @Test
+    void testReleaseHold_AlreadyConfirmedKeepsSeats() {
+        runTransactionsInline();
+        when(seatHoldRepository.release(7L)).thenReturn(Mono.just(0));
+        when(seatHoldRepository.findById(7L))
+                .thenReturn(Mono.just(hold(7L, 1L, 2, "CONFIRMED", LocalDateTime.now())));
+
+        StepVerifier.create(seatHoldService.releaseHold(7L))
+                .expectNextMatches(hold -> hold.getStatus().equals("CONFIRMED"))
+                .verifyComplete();
+
+        verifyNoInteractions(batchWriter);
+    }
+
+    @Test
+    void testExpireDueHolds_ReturnsSeatsInOneBatchPerFlight() {
+        runTransactionsInline();
+        LocalDateTime past = LocalDateTime.now().minusSeconds(1);
+        SeatHold first = hold(7L, 1L, 2, "HELD", past);
+        SeatHold second = hold(8L, 1L, 3, "HELD", past);
+        SeatHold third = hold(9L, 2L, 1, "HELD", past);
+
+        // Track the holds on the expiry queue by creating them through the service
+        when(flightService.reduceSeats(anyLong(), anyInt())).thenReturn(Mono.just(true));
+        when(seatHoldRepository.save(any(SeatHold.class))).thenReturn(Mono.just(first), Mono.just(second), Mono.just(third));
+        seatHoldService.holdSeats(1L, 2, null).block();
+        seatHoldService.holdSeats(1L, 3, null).block();
+        seatHoldService.holdSeats(2L, 1, null).block();
+
+        when(seatHoldRepository.lockExpired(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(Flux.just(first, second, third));
+        when(seatHoldRepository.markExpired(anyCollection())).thenReturn(Mono.just(3));
+        when(batchWriter.adjustSeats(anyMap())).thenReturn(Mono.just(2));
+        FlightInventory flight = FlightInventory.builder().id(1L).origin("DEL").destination("BOM")
+                .departureTime(LocalDateTime.of(2025, 12, 15, 8, 0)).build();
+        when(flightSearchIndex.adjustSeats(1L, 5)).thenReturn(flight);
+
+        StepVerifier.create(seatHoldService.expireDueHolds())
+                .expectNext(3)
+                .verifyComplete();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, Integer>> restored = ArgumentCaptor.forClass(Map.class);
+        verify(batchWriter).adjustSeats(restored.capture());
+        assertEquals(Map.of(1L, 5, 2L, 1), restored.getValue());
+        verify(seatHoldRepository).markExpired(List.of(7L, 8L, 9L));
+        verify(eventPublisher).publishEvent(FlightInventoryChangedEvent.of(flight));
+        assertEquals(3.0, meterRegistry.get("flight.seat.holds").tag("outcome", "expired").counter().count());
+        assertEquals(0.0, meterRegistry.get("flight.seat.holds.pending").gauge().value());
+    }
+
+    @Test
+    void testExpireDueHolds_NothingDue() {
+        StepVerifier.create(seatHoldService.expireDueHolds())
+                .expectNext(0)
+                .verifyComplete();
+
+        verifyNoInteractions(seatHoldRepository);
+    }
+}
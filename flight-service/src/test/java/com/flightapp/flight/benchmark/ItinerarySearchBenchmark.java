@@ -0,0 +1,108 @@
+package com.flightapp.flight.benchmark;
+
+import com.flightapp.flight.config.ItinerarySearchProperties;
+import com.flightapp.flight.dto.Itinerary;
+import com.flightapp.flight.entity.FlightInventory;
+import com.flightapp.flight.service.ItinerarySearchEngine;
+import com.flightapp.flight.service.ItinerarySortOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Itinerary search latency over a synthetic network (about 5,000 flights a day
+ * between 60 airports). Run with:
+ * {@code mvn test-compile exec:java -Dexec.mainClass=com.flightapp.flight.benchmark.ItinerarySearchBenchmark -Dexec.classpathScope=test}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItinerarySearchBenchmark {
+
+    private static final LocalDate TRAVEL_DATE = LocalDate.of(2025, 12, 15);
+    private static final int AIRPORTS = 60;
+
+    @Param({"5000"})
+    private int flightsPerDay;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private List<FlightInventory> flights;
+    private ItinerarySearchEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        flights = new ArrayList<>();
+        for (int day = 0; day < 2; day++) {
+            for (int i = 0; i < flightsPerDay; i++) {
+                int origin = random.nextInt(AIRPORTS);
+                int destination = (origin + 1 + random.nextInt(AIRPORTS - 1)) % AIRPORTS;
+                LocalDateTime departure = TRAVEL_DATE.plusDays(day).atStartOfDay().plusMinutes(random.nextInt(24 * 60));
+                flights.add(FlightInventory.builder()
+                        .id((long) flights.size() + 1)
+                        .flightNumber("FL" + (flights.size() + 1))
+                        .airline("Air India")
+                        .origin(airport(origin))
+                        .destination(airport(destination))
+                        .departureTime(departure)
+                        .arrivalTime(departure.plusMinutes(60 + random.nextInt(240)))
+                        .availableSeats(1 + random.nextInt(180))
+                        .price(2000.0 + random.nextInt(8000))
+                        .status("ACTIVE")
+                        .build());
+            }
+        }
+
+        ItinerarySearchProperties properties = new ItinerarySearchProperties();
+        properties.setParallelism(parallelism);
+        engine = new ItinerarySearchEngine(properties);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    private static String airport(int index) {
+        return "A" + (char) ('A' + index / 26) + (char) ('A' + index % 26);
+    }
+
+    @Benchmark
+    public List<Itinerary> twoStopSearch() {
+        return engine.searchAsync(flights, airport(0), airport(AIRPORTS - 1),
+                TRAVEL_DATE.atStartOfDay(), TRAVEL_DATE.atTime(LocalTime.MAX),
+                2, ItinerarySortOrder.DURATION, 20).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItinerarySearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}